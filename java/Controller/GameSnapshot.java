@@ -0,0 +1,73 @@
+package Controller;
+
+import Model.Game;
+import Model.PackedGame;
+
+import java.io.*;
+
+/**
+ * <strong>Immutable, packed copy of a {@link Game}</strong>, as carried by {@link MessageForClient#gameStarted}.<br>
+ * The game is packed once, when the snapshot is taken, in the fixed layout of {@link PackedGame}, so that the very same bytes can be sent to any number of
+ * connections, whichever {@link MessageCodec} they use, without touching the {@link Game} again.<br>
+ * Every receiver rebuilds its own independent instance via {@link GameSnapshot#toGame}.
+ * <br><br>
+ * Snapshots are taken and shared server side by {@link Controller.ServerSide.SnapshotCache SnapshotCache}.
+ */
+public class GameSnapshot implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int version;
+    private final byte[] packed;
+
+    /**
+     * Wraps an already packed game, mainly used when decoding a {@link Message}.
+     *
+     * @param version {@link Game#getVersion version} of the game when the snapshot was taken
+     * @param packed  bytes of the {@link PackedGame} of the game
+     */
+    public GameSnapshot(int version, byte[] packed) {
+        this.version = version;
+        this.packed = packed;
+    }
+
+    /**
+     * Packs the given game.
+     *
+     * @param game {@link Game} to copy
+     * @return the snapshot of the game in its current state
+     */
+    public static GameSnapshot of(Game game) {
+        return new GameSnapshot(game.getVersion(), PackedGame.of(game).getBytes());
+    }
+
+    /**
+     * Rebuilds a new, independent instance of the game this snapshot was taken from.
+     *
+     * @return the unpacked {@link Game}
+     * @throws StreamCorruptedException if the snapshot is corrupted
+     */
+    public Game toGame() throws StreamCorruptedException {
+        try {
+            return new PackedGame(packed).toGame();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new StreamCorruptedException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@link Game#getVersion version} of the game when the snapshot was taken
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Provides the packed bytes of this snapshot, which must not be modified.
+     *
+     * @return bytes of the {@link PackedGame} of the game
+     */
+    public byte[] getPacked() {
+        return packed;
+    }
+}
@@ -2,10 +2,13 @@ package Controller;
 
 import Controller.ClientSide.Client;
 import Controller.ServerSide.LobbyData;
+import Controller.ServerSide.LobbySummary;
 import Model.Colors;
 import Model.EffectParameters;
 import Model.Game;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +19,49 @@ import java.util.List;
  * The {@link Message Messages} constructed via this class are intended to be received by a {@link Client}.
  */
 public abstract class MessageForClient extends Message implements Serializable {
+    //sequence number of the lobby event this message carries, 0 for messages outside the lobby's event stream
+    private int sequence;
+
+    /**
+     * Provides the sequence number given by the {@link Controller.ServerSide.ServerLobby ServerLobby} to the event carried by this message.<br>
+     * Sequence numbers of a lobby grow by one with every event, hence a client can spot any event it missed.
+     *
+     * @return the sequence number of this message, 0 if it carries no lobby event
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Whether this message carries a whole copy of the game, which the client applies regardless of the events it has received so far.
+     *
+     * @return true if this message replaces the game of the client
+     */
+    public boolean isSnapshot() {
+        return false;
+    }
+
+    /**
+     * Whether this message completes the event carried by the sequenced message sent right before it, without being sequenced itself.<br>
+     * Such messages are meaningless when the event they complete has been dropped.
+     *
+     * @return true if this message is part of the previous event
+     */
+    public boolean isEventDetail() {
+        return false;
+    }
+
+    /**
+     * Stamps the given message with the sequence number of the lobby event it carries.
+     *
+     * @param message {@link Message} to stamp, constructed by this class
+     * @param sequence sequence number of the event
+     * @return the same message, stamped
+     */
+    public static Message sequenced(Message message, int sequence) {
+        ((MessageForClient) message).sequence = sequence;
+        return message;
+    }
 
     /**
      * Acknowledges the client’s connection and gives to it its ID.
@@ -47,6 +93,59 @@ public abstract class MessageForClient extends Message implements Serializable {
         return new MessageLobbiesList(lobbies);
     }
 
+    /**
+     * Contains a page of the server's lobbies matching the filter requested by the client.
+     *
+     * @param lobbies list of {@link LobbySummary}, the lobbies in the page
+     * @param cursor cursor of the page, as requested
+     * @param next_cursor cursor of the following page, 0 if this is the last one
+     * @return the constructed {@link Message}
+     */
+    public static Message lobbiesPage(List<LobbySummary> lobbies, int cursor, int next_cursor) {
+        return new MessageLobbiesPage(lobbies, cursor, next_cursor);
+    }
+
+    /**
+     * Notifies a client subscribed to a page of lobbies that a lobby of the page has changed, or has just entered it.
+     *
+     * @param lobby {@link LobbySummary} of the lobby
+     * @return the constructed {@link Message}
+     */
+    public static Message lobbyUpdated(LobbySummary lobby) {
+        return new MessageLobbyUpdated(lobby);
+    }
+
+    /**
+     * Notifies a client subscribed to a page of lobbies that a lobby has left the page, being deleted or no longer matching the filter.
+     *
+     * @param lobbyID id of the lobby
+     * @return the constructed {@link Message}
+     */
+    public static Message lobbyRemoved(int lobbyID) {
+        return new MessageLobbyRemoved(lobbyID);
+    }
+
+    /**
+     * Confirms to the client that it's waiting in the matchmaking queue for the given kind of game, or that it's no longer waiting in any.
+     *
+     * @param size number of players of the game, 0 if the client is no longer waiting
+     * @param expert_mode expert mode of the game
+     * @return the constructed {@link Message}
+     */
+    public static Message queued(int size, boolean expert_mode) {
+        return new MessageQueued(size, expert_mode);
+    }
+
+    /**
+     * Sent by the server to a client whose connection has been silent for a while, to be answered right away with {@link MessageForServer#heartbeatAck}.
+     *
+     * @param timestamp {@link System#nanoTime()} of the server when the heartbeat is sent, to be echoed by the answer
+     * @return the constructed {@link Message}
+     */
+    public static Message heartbeat(long timestamp) {
+        return new MessageHeartbeat(timestamp);
+    }
+
     /**
      * Returns to every client a list of flags, each one indicating if a member of the lobby is currently ready or not.
      *
@@ -84,7 +183,7 @@ public abstract class MessageForClient extends Message implements Serializable {
      *
      * @param clientID if of the playing player (message creator)
      * @param student_index index of the moved student
-     * @param island index of the target island
+     * @param island id of the target island, which stays the same as islands merge
      * @return the constructed {@link Message}
      */
     public static Message studentSetToIsland(int clientID, int student_index, int island) {
@@ -118,20 +217,44 @@ public abstract class MessageForClient extends Message implements Serializable {
      *
      * @param clientID if of the playing player (message creator)
      * @param npc_index index of the activated Npc
-     * @param effect_parameters parameters for the Npc's activation
+     * @param effect_parameters parameters for the Npc's activation, with the targeted island as its id
      * @return the constructed {@link Message}
      */
     public static Message npcActivated(int clientID, int npc_index, EffectParameters effect_parameters) {
         return new MessageNpcActivated(clientID, npc_index, effect_parameters);
     }
 
+    /**
+     * Allows the client to apply the student moves of another player performed all at once, optionally followed by the mother nature move and the cloud choice.
+     *
+     * @param clientID if of the playing player (message creator)
+     * @param student_indexes indexes of the moved students, each one relative to the entrance right before being moved
+     * @param destinations for each student the id of the target island, or null for the hall
+     * @param mother_nature_moves steps mother nature is moved by afterwards, null if it wasn't moved
+     * @param cloud_index index of the cloud chosen afterwards, null if none was chosen
+     * @return the constructed {@link Message}
+     */
+    public static Message turnPlayed(int clientID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        return new MessageTurnPlayed(clientID, student_indexes, destinations, mother_nature_moves, cloud_index);
+    }
+
     /**
      * Used by the server to notify the successfulness of the move to the client.
      *
      * @return the constructed {@link Message}
      */
     public static Message moveSuccessful() {
-        return new MessageMoveSuccessful();
+        return new MessageMoveSuccessful(0);
+    }
+
+    /**
+     * Used by the server to notify the successfulness of the move to the client.
+     *
+     * @param requestID id of the request carrying the move, see {@link MessageForServerLobby#getRequestID}
+     * @return the constructed {@link Message}
+     */
+    public static Message moveSuccessful(int requestID) {
+        return new MessageMoveSuccessful(requestID);
     }
 
     /**
@@ -180,7 +303,18 @@ public abstract class MessageForClient extends Message implements Serializable {
      * @return the constructed {@link Message}
      */
     public static Message gameStarted(Game game) {
-        return new MessageGameStarted(game);
+        return new MessageGameStarted(GameSnapshot.of(game));
+    }
+
+    /**
+     * Indicates to the clients in a lobby the beginning of a match, or provides them a fresh copy of it, carrying an already taken snapshot
+     * which can be shared by any number of messages.
+     *
+     * @param snapshot {@link GameSnapshot} of the game of the lobby
+     * @return the constructed {@link Message}
+     */
+    public static Message gameStarted(GameSnapshot snapshot) {
+        return new MessageGameStarted(snapshot);
     }
 
     /**
@@ -200,7 +334,7 @@ public abstract class MessageForClient extends Message implements Serializable {
      * @return the constructed {@link Message}
      */
     public static Message error(String msg) {
-        return new MessageError(msg, 0);
+        return new MessageError(msg, 0, 0);
     }
 
     /**
@@ -216,6 +350,7 @@ public abstract class MessageForClient extends Message implements Serializable {
      *     <li> Action not permitted.
      *     <li> Server error, request not fulfilled, nothing has changed.
      *     <li> Invalid move.
+     *     <li> Messages were dropped because the connection fell behind, the state has to be fetched again.
      * </ol>
      *
      * @param msg error message
@@ -223,7 +358,20 @@ public abstract class MessageForClient extends Message implements Serializable {
      * @return the constructed {@link Message}
      */
     public static Message error(String msg, int errorCode) {
-        return new MessageError(msg, errorCode);
+        return new MessageError(msg, errorCode, 0);
+    }
+
+    /**
+     * Sent whenever the server can’t satisfy a client’s request, carrying the id of that request.
+     * @see MessageForClient#error(String, int)
+     *
+     * @param msg error message
+     * @param errorCode error code of the message
+     * @param requestID id of the request which failed, see {@link MessageForServerLobby#getRequestID}
+     * @return the constructed {@link Message}
+     */
+    public static Message error(String msg, int errorCode, int requestID) {
+        return new MessageError(msg, errorCode, requestID);
     }
 }
 
@@ -250,6 +398,14 @@ class MessageAck extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.ack(socket_handler, clientID);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.ACK);
+        BinaryCodec.writeInt(out, clientID);
+    }
 }
 
 /**
@@ -278,6 +434,14 @@ class MessageSetLobby extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.setLobby(socket_handler, lobby);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.SET_LOBBY);
+        BinaryCodec.writeLobbyData(out, lobby);
+    }
 }
 
 /**
@@ -303,6 +467,197 @@ class MessageLobbiesList extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.lobbiesList(socket_handler, lobbies);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LOBBIES_LIST);
+        BinaryCodec.writeSize(out, lobbies == null ? -1 : lobbies.size());
+        if (lobbies != null)
+            for (LobbyData lobby : lobbies)
+                BinaryCodec.writeLobbyData(out, lobby);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Contains a page of the server's lobbies matching the filter requested by the client.
+ */
+class MessageLobbiesPage extends MessageForClient implements Serializable {
+    public final List<LobbySummary> lobbies;
+    public final int cursor;
+    public final int next_cursor;
+
+    /**
+     * Contains a page of the server's lobbies matching the filter requested by the client.
+     *
+     * @param lobbies list of {@link LobbySummary}, the lobbies in the page
+     * @param cursor cursor of the page, as requested
+     * @param next_cursor cursor of the following page, 0 if this is the last one
+     * @return the constructed {@link Message}
+     */
+    public MessageLobbiesPage(List<LobbySummary> lobbies, int cursor, int next_cursor) {
+        this.lobbies = new ArrayList<LobbySummary>(lobbies);
+        this.cursor = cursor;
+        this.next_cursor = next_cursor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.lobbiesPage(socket_handler, lobbies, cursor, next_cursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LOBBIES_PAGE);
+        BinaryCodec.writeSize(out, lobbies == null ? -1 : lobbies.size());
+        if (lobbies != null)
+            for (LobbySummary lobby : lobbies)
+                BinaryCodec.writeLobbySummary(out, lobby);
+        BinaryCodec.writeInt(out, cursor);
+        BinaryCodec.writeInt(out, next_cursor);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Notifies a client subscribed to a page of lobbies that a lobby of the page has changed, or has just entered it.
+ */
+class MessageLobbyUpdated extends MessageForClient implements Serializable {
+    public final LobbySummary lobby;
+
+    /**
+     * Notifies a client subscribed to a page of lobbies that a lobby of the page has changed, or has just entered it.
+     *
+     * @param lobby {@link LobbySummary} of the lobby
+     * @return the constructed {@link Message}
+     */
+    public MessageLobbyUpdated(LobbySummary lobby) {
+        this.lobby = lobby;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.lobbyUpdated(socket_handler, lobby);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LOBBY_UPDATED);
+        BinaryCodec.writeLobbySummary(out, lobby);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Notifies a client subscribed to a page of lobbies that a lobby has left the page, being deleted or no longer matching the filter.
+ */
+class MessageLobbyRemoved extends MessageForClient implements Serializable {
+    public final int lobbyID;
+
+    /**
+     * Notifies a client subscribed to a page of lobbies that a lobby has left the page, being deleted or no longer matching the filter.
+     *
+     * @param lobbyID id of the lobby
+     * @return the constructed {@link Message}
+     */
+    public MessageLobbyRemoved(int lobbyID) {
+        this.lobbyID = lobbyID;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.lobbyRemoved(socket_handler, lobbyID);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LOBBY_REMOVED);
+        BinaryCodec.writeInt(out, lobbyID);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Confirms to the client that it's waiting in the matchmaking queue for the given kind of game, or that it's no longer waiting in any.
+ */
+class MessageQueued extends MessageForClient implements Serializable {
+    public final int size;
+    public final boolean expert_mode;
+
+    /**
+     * Confirms to the client that it's waiting in the matchmaking queue for the given kind of game, or that it's no longer waiting in any.
+     *
+     * @param size number of players of the game, 0 if the client is no longer waiting
+     * @param expert_mode expert mode of the game
+     * @return the constructed {@link Message}
+     */
+    public MessageQueued(int size, boolean expert_mode) {
+        this.size = size;
+        this.expert_mode = expert_mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.queued(socket_handler, size, expert_mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.QUEUED);
+        BinaryCodec.writeInt(out, size);
+        out.writeBoolean(expert_mode);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Sent by the server to a client whose connection has been silent for a while, to be answered right away with {@link MessageForServer#heartbeatAck}.
+ */
+class MessageHeartbeat extends MessageForClient implements Serializable {
+    public final long timestamp;
+
+    /**
+     * Sent by the server to a client whose connection has been silent for a while, to be answered right away with {@link MessageForServer#heartbeatAck}.
+     *
+     * @param timestamp {@link System#nanoTime()} of the server when the heartbeat is sent, to be echoed by the answer
+     * @return the constructed {@link Message}
+     */
+    public MessageHeartbeat(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.heartbeat(socket_handler, timestamp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.HEARTBEAT);
+        out.writeLong(timestamp);
+    }
 }
 
 /**
@@ -328,6 +683,17 @@ class MessageReadiness extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.readiness(socket_handler, ready_array);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.READINESS);
+        BinaryCodec.writeSize(out, ready_array == null ? -1 : ready_array.length);
+        if (ready_array != null)
+            for (boolean ready : ready_array)
+                out.writeBoolean(ready);
+    }
 }
 
 /**
@@ -355,6 +721,15 @@ class MessageCardPlayed extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.cardPlayed(socket_handler, clientID, card_index);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CARD_PLAYED);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, card_index);
+    }
 }
 
 /**
@@ -382,6 +757,15 @@ class MessageStudentSetToHall extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.studentSetToHall(socket_handler, clientID, student_index);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.STUDENT_SET_TO_HALL);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, student_index);
+    }
 }
 
 /**
@@ -397,7 +781,7 @@ class MessageStudentSetToIsland extends MessageForClient implements Serializable
      *
      * @param clientID if of the playing player (message creator)
      * @param student_index index of the moved student
-     * @param island index of the target island
+     * @param island id of the target island, which stays the same as islands merge
      * @return the constructed {@link Message}
      */
     public MessageStudentSetToIsland(int clientID, int student_index, int island) {
@@ -412,6 +796,16 @@ class MessageStudentSetToIsland extends MessageForClient implements Serializable
     public void execute(Client client, SocketHandler socket_handler) {
         client.studentSetToIsland(socket_handler, clientID, student_index, island);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.STUDENT_SET_TO_ISLAND);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, student_index);
+        BinaryCodec.writeInt(out, island);
+    }
 }
 
 /**
@@ -439,6 +833,15 @@ class MessageMotherNatureMoved extends MessageForClient implements Serializable
     public void execute(Client client, SocketHandler socket_handler) {
         client.motherNatureMoved(socket_handler, clientID, moved);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.MOTHER_NATURE_MOVED);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, moved);
+    }
 }
 
 /**
@@ -466,6 +869,15 @@ class MessageCloudChosen extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.cloudChosen(socket_handler, clientID, cloud_index);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CLOUD_CHOSEN);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, cloud_index);
+    }
 }
 
 /**
@@ -481,7 +893,7 @@ class MessageNpcActivated extends MessageForClient implements Serializable {
      *
      * @param clientID if of the playing player (message creator)
      * @param npc_index index of the activated Npc
-     * @param effect_parameters parameters for the Npc's activation
+     * @param effect_parameters parameters for the Npc's activation, with the targeted island as its id
      * @return the constructed {@link Message}
      */
     public MessageNpcActivated(int clientID, int npc_index, EffectParameters effect_parameters) {
@@ -496,6 +908,63 @@ class MessageNpcActivated extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.npcActivated(socket_handler, clientID, npc_index, effect_parameters);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.NPC_ACTIVATED);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeInt(out, npc_index);
+        BinaryCodec.writeEffectParameters(out, effect_parameters);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Used by the server to send the update to the other clients.
+ */
+class MessageTurnPlayed extends MessageForClient implements Serializable {
+    public final int clientID;
+    public final List<Integer> student_indexes, destinations;
+    public final Integer mother_nature_moves, cloud_index;
+
+    /**
+     * Used by the server to send the update to the other clients.
+     *
+     * @param clientID if of the playing player (message creator)
+     * @param student_indexes indexes of the moved students, each one relative to the entrance right before being moved
+     * @param destinations for each student the id of the target island, or null for the hall
+     * @param mother_nature_moves steps mother nature is moved by afterwards, null if it wasn't moved
+     * @param cloud_index index of the cloud chosen afterwards, null if none was chosen
+     * @return the constructed {@link Message}
+     */
+    public MessageTurnPlayed(int clientID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        this.clientID = clientID;
+        this.student_indexes = student_indexes == null ? null : new ArrayList<Integer>(student_indexes);
+        this.destinations = destinations == null ? null : new ArrayList<Integer>(destinations);
+        this.mother_nature_moves = mother_nature_moves;
+        this.cloud_index = cloud_index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Client client, SocketHandler socket_handler) {
+        client.turnPlayed(socket_handler, clientID, student_indexes, destinations, mother_nature_moves, cloud_index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.TURN_PLAYED);
+        BinaryCodec.writeInt(out, clientID);
+        BinaryCodec.writeIntegers(out, student_indexes);
+        BinaryCodec.writeIntegers(out, destinations);
+        BinaryCodec.writeNullableInt(out, mother_nature_moves);
+        BinaryCodec.writeNullableInt(out, cloud_index);
+    }
 }
 
 /**
@@ -517,6 +986,13 @@ class MessageSkipTurn extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.skipTurn(socket_handler);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.SKIP_TURN);
+    }
 }
 
 /**
@@ -524,19 +1000,31 @@ class MessageSkipTurn extends MessageForClient implements Serializable {
  * Used by the server to notify the successfulness of the move to the client.
  */
 class MessageMoveSuccessful extends MessageForClient implements Serializable {
+    public final int requestID;
 
     /**
      * Used by the server to notify the successfulness of the move to the client.
      *
+     * @param requestID id of the request carrying the move
      * @return the constructed {@link Message}
      */
-    public MessageMoveSuccessful() {}
+    public MessageMoveSuccessful(int requestID) {
+        this.requestID = requestID;
+    }
 
     /**
      * {@inheritDoc}
      */
     public void execute(Client client, SocketHandler socket_handler) {
-        client.moveSuccessful(socket_handler);
+        client.moveSuccessful(socket_handler, requestID);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.MOVE_SUCCESSFUL);
+        BinaryCodec.writeInt(out, requestID);
     }
 }
 
@@ -557,12 +1045,31 @@ class MessageCloudsUpdated extends MessageForClient implements Serializable {
         this.clouds = clouds.clone();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEventDetail() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
     public void execute(Client client, SocketHandler socket_handler) {
         client.cloudsUpdated(socket_handler, clouds);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CLOUDS_UPDATED);
+        BinaryCodec.writeSize(out, clouds == null ? -1 : clouds.length);
+        if (clouds != null)
+            for (List<Colors> cloud : clouds)
+                BinaryCodec.writeColors(out, cloud);
+    }
 }
 
 /**
@@ -585,12 +1092,29 @@ class MessageNpcUpdated extends MessageForClient implements Serializable {
         this.students = new ArrayList<Colors>(students);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEventDetail() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
     public void execute(Client client, SocketHandler socket_handler) {
         client.npcUpdated(socket_handler, npc_index, students);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.NPC_UPDATED);
+        BinaryCodec.writeInt(out, npc_index);
+        BinaryCodec.writeColors(out, students);
+    }
 }
 
 /**
@@ -612,6 +1136,13 @@ class MessageRevert extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.revert(socket_handler);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.REVERT);
+    }
 }
 
 /**
@@ -619,23 +1150,43 @@ class MessageRevert extends MessageForClient implements Serializable {
  * Indicates to the clients in a lobby the beginning of a match.
  */
 class MessageGameStarted extends MessageForClient implements Serializable {
-    public final Game game;
+    public final GameSnapshot snapshot;
 
     /**
      * Indicates to the clients in a lobby the beginning of a match.
      *
-     * @param game instance of game of the lobby
+     * @param snapshot packed copy of the game of the lobby
      * @return the constructed {@link Message}
      */
-    public MessageGameStarted(Game game) {
-        this.game = game.copy();
+    public MessageGameStarted(GameSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSnapshot() {
+        return true;
     }
 
     /**
      * {@inheritDoc}
      */
     public void execute(Client client, SocketHandler socket_handler) {
-        client.gameStart(socket_handler, game);
+        try {
+            client.gameStart(socket_handler, snapshot.toGame());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.GAME_STARTED);
+        BinaryCodec.writeSnapshot(out, snapshot);
     }
 }
 
@@ -662,6 +1213,14 @@ class MessageGameEnded extends MessageForClient implements Serializable {
     public void execute(Client client, SocketHandler socket_handler) {
         client.gameEnd(socket_handler, winnerId);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.GAME_ENDED);
+        BinaryCodec.writeInt(out, winnerId);
+    }
 }
 
 /**
@@ -671,6 +1230,7 @@ class MessageGameEnded extends MessageForClient implements Serializable {
 class MessageError extends MessageForClient implements Serializable {
     public final String msg;
     public final int errorCode;
+    public final int requestID;
 
     /**
      * Sent whenever the server can’t satisfy a client’s request.
@@ -685,21 +1245,34 @@ class MessageError extends MessageForClient implements Serializable {
      *     <li> Action not permitted.
      *     <li> Server error, request not fulfilled, nothing has changed.
      *     <li> Invalid move.
+     *     <li> Messages were dropped because the connection fell behind, the state has to be fetched again.
      * </ol>
      *
      * @param msg error message
      * @param errorCode error code of the message
+     * @param requestID id of the request which failed, 0 if the error doesn't answer a specific request
      * @return the constructed {@link Message}
      */
-    public MessageError(String msg, int errorCode) {
+    public MessageError(String msg, int errorCode, int requestID) {
         this.msg = msg;
         this.errorCode = errorCode;
+        this.requestID = requestID;
     }
 
     /**
      * {@inheritDoc}
      */
     public void execute(Client client, SocketHandler socket_handler) {
-        client.error(socket_handler, msg, errorCode);
+        client.error(socket_handler, msg, errorCode, requestID);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.ERROR);
+        BinaryCodec.writeString(out, msg);
+        BinaryCodec.writeInt(out, errorCode);
+        BinaryCodec.writeInt(out, requestID);
     }
 }
\ No newline at end of file
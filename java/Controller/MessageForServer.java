@@ -1,8 +1,11 @@
 package Controller;
 
+import Controller.ServerSide.LobbyFilter;
 import Controller.ServerSide.Server;
 import Controller.ServerSide.ServerLobby;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -13,7 +16,8 @@ import java.io.Serializable;
 public abstract class MessageForServer extends Message implements Serializable {
 
     /**
-     * Sent by the client to confirm that the connection is still up.
+     * Sent by the client to confirm that the connection is still up.<br>
+     * Any other message does as well, and the server asks for one with a {@link MessageForClient#heartbeat} once the connection has been silent for a while.
      */
     public static Message ping() {
         return new MessagePing();
@@ -27,7 +31,20 @@ public abstract class MessageForServer extends Message implements Serializable {
      * @return the constructed {@link Message}
      */
     public static Message hello(int old_clientID, String nickname) {
-        return new MessageHello(old_clientID, nickname);
+        return new MessageHello(old_clientID, nickname, 0);
+    }
+
+    /**
+     * Sent by the client upon reconnection to recover its previous state, along with the last lobby event it received,
+     * so that only the events it missed are sent back to it.
+     *
+     * @param old_clientID previous clientId of the {@link Client}, 0 if none
+     * @param nickname nickname for the client
+     * @param last_sequence sequence number of the last lobby event received, 0 to get a whole copy of the game
+     * @return the constructed {@link Message}
+     */
+    public static Message hello(int old_clientID, String nickname, int last_sequence) {
+        return new MessageHello(old_clientID, nickname, last_sequence);
     }
 
     /**
@@ -59,6 +76,49 @@ public abstract class MessageForServer extends Message implements Serializable {
     public static Message getLobbies() {
         return new MessageGetLobbies();
     }
+
+    /**
+     * Requests a page of the server's lobbies matching a filter, optionally subscribing to the changes of the lobbies in that page.
+     *
+     * @param filter {@link LobbyFilter} the lobbies have to match
+     * @param cursor cursor of the page, as provided by the previous one, 0 for the first page
+     * @param page_size maximum number of lobbies in the page
+     * @param subscribe true to be notified of the changes of the lobbies in the page, false to stop being notified of any
+     * @return the constructed {@link Message}
+     */
+    public static Message browseLobbies(LobbyFilter filter, int cursor, int page_size, boolean subscribe) {
+        return new MessageBrowseLobbies(filter, cursor, page_size, subscribe);
+    }
+
+    /**
+     * Asks the server to find a game of the given kind for the sender, putting it in the matchmaking queue.
+     *
+     * @param size number of players of the game
+     * @param expert_mode expert mode of the game
+     * @return the constructed {@link Message}
+     */
+    public static Message enqueue(int size, boolean expert_mode) {
+        return new MessageEnqueue(size, expert_mode);
+    }
+
+    /**
+     * Takes the sender out of the matchmaking queue.
+     *
+     * @return the constructed {@link Message}
+     */
+    public static Message leaveQueue() {
+        return new MessageLeaveQueue();
+    }
+
+    /**
+     * Answers a {@link MessageForClient#heartbeat}, letting the server measure the round trip time of the connection.
+     *
+     * @param timestamp timestamp carried by the heartbeat
+     * @return the constructed {@link Message}
+     */
+    public static Message heartbeatAck(long timestamp) {
+        return new MessageHeartbeatAck(timestamp);
+    }
 }
 
 /**
@@ -83,6 +143,13 @@ class MessagePing extends MessageForServer implements Serializable {
      * {@inheritDoc}
      */
     public void execute(ServerLobby serverLobby, SocketHandler socket_handler) {}
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.PING);
+    }
 }
 
 /**
@@ -92,24 +159,37 @@ class MessagePing extends MessageForServer implements Serializable {
 class MessageHello extends MessageForServer implements Serializable {
     public final int old_clientID;
     public final String nickname;
+    public final int last_sequence;
 
     /**
      * Sent by the client upon connection to request an ID or to reconnect to its previous state.
      *
      * @param old_clientID previous clientId of the {@link Client}, 0 if none
      * @param nickname nickname for the client
+     * @param last_sequence sequence number of the last lobby event received, 0 if none
      * @return the constructed {@link Message}
      */
-    public MessageHello(int old_clientID, String nickname) {
+    public MessageHello(int old_clientID, String nickname, int last_sequence) {
         this.old_clientID = old_clientID;
         this.nickname = nickname;
+        this.last_sequence = last_sequence;
     }
 
     /**
      * {@inheritDoc}
      */
     public void execute(Server server, SocketHandler socket_handler) {
-        server.hello(socket_handler, old_clientID, nickname);
+        server.hello(socket_handler, old_clientID, nickname, last_sequence);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.HELLO);
+        BinaryCodec.writeInt(out, old_clientID);
+        BinaryCodec.writeString(out, nickname);
+        BinaryCodec.writeInt(out, last_sequence);
     }
 }
 
@@ -139,6 +219,15 @@ class MessageCreateLobby extends MessageForServer implements Serializable {
     public void execute(Server server, SocketHandler socket_handler) {
         server.createLobby(socket_handler, size, expert_mode);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CREATE_LOBBY);
+        BinaryCodec.writeInt(out, size);
+        out.writeBoolean(expert_mode);
+    }
 }
 
 /**
@@ -164,6 +253,14 @@ class MessageJoinLobby extends MessageForServer implements Serializable {
     public void execute(Server server, SocketHandler socket_handler) {
         server.joinLobby(socket_handler, lobbyID);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.JOIN_LOBBY);
+        BinaryCodec.writeInt(out, lobbyID);
+    }
 }
 
 /**
@@ -185,4 +282,160 @@ class MessageGetLobbies extends MessageForServer implements Serializable {
     public void execute(Server server, SocketHandler socket_handler) {
         server.getLobbies(socket_handler);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.GET_LOBBIES);
+    }
+}
+/**
+ * See: {@link Message}
+ * Requests a page of the server's lobbies matching a filter, optionally subscribing to the changes of the lobbies in that page.
+ */
+class MessageBrowseLobbies extends MessageForServer implements Serializable {
+    public final LobbyFilter filter;
+    public final int cursor;
+    public final int page_size;
+    public final boolean subscribe;
+
+    /**
+     * Requests a page of the server's lobbies matching a filter, optionally subscribing to the changes of the lobbies in that page.
+     *
+     * @param filter {@link LobbyFilter} the lobbies have to match
+     * @param cursor cursor of the page, as provided by the previous one, 0 for the first page
+     * @param page_size maximum number of lobbies in the page
+     * @param subscribe true to be notified of the changes of the lobbies in the page, false to stop being notified of any
+     * @return the constructed {@link Message}
+     */
+    public MessageBrowseLobbies(LobbyFilter filter, int cursor, int page_size, boolean subscribe) {
+        this.filter = filter;
+        this.cursor = cursor;
+        this.page_size = page_size;
+        this.subscribe = subscribe;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Server server, SocketHandler socket_handler) {
+        server.browseLobbies(socket_handler, filter, cursor, page_size, subscribe);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.BROWSE_LOBBIES);
+        BinaryCodec.writeLobbyFilter(out, filter);
+        BinaryCodec.writeInt(out, cursor);
+        BinaryCodec.writeInt(out, page_size);
+        out.writeBoolean(subscribe);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Asks the server to find a game of the given kind for the sender, putting it in the matchmaking queue.
+ */
+class MessageEnqueue extends MessageForServer implements Serializable {
+    public final int size;
+    public final boolean expert_mode;
+
+    /**
+     * Asks the server to find a game of the given kind for the sender, putting it in the matchmaking queue.
+     *
+     * @param size number of players of the game
+     * @param expert_mode expert mode of the game
+     * @return the constructed {@link Message}
+     */
+    public MessageEnqueue(int size, boolean expert_mode) {
+        this.size = size;
+        this.expert_mode = expert_mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Server server, SocketHandler socket_handler) {
+        server.enqueue(socket_handler, size, expert_mode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.ENQUEUE);
+        BinaryCodec.writeInt(out, size);
+        out.writeBoolean(expert_mode);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Takes the sender out of the matchmaking queue.
+ */
+class MessageLeaveQueue extends MessageForServer implements Serializable {
+
+    /**
+     * Takes the sender out of the matchmaking queue.
+     *
+     * @return the constructed {@link Message}
+     */
+    public MessageLeaveQueue() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Server server, SocketHandler socket_handler) {
+        server.leaveQueue(socket_handler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LEAVE_QUEUE);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Answers a {@link MessageForClient#heartbeat}, letting the server measure the round trip time of the connection.
+ */
+class MessageHeartbeatAck extends MessageForServer implements Serializable {
+    public final long timestamp;
+
+    /**
+     * Answers a {@link MessageForClient#heartbeat}, letting the server measure the round trip time of the connection.
+     *
+     * @param timestamp timestamp carried by the heartbeat
+     * @return the constructed {@link Message}
+     */
+    public MessageHeartbeatAck(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(Server server, SocketHandler socket_handler) {
+        server.heartbeatAck(socket_handler, timestamp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(ServerLobby serverLobby, SocketHandler socket_handler) {
+        serverLobby.heartbeatAck(socket_handler, timestamp);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.HEARTBEAT_ACK);
+        out.writeLong(timestamp);
+    }
+}
@@ -0,0 +1,344 @@
+package Controller;
+
+import Controller.ServerSide.Timeout;
+import Controller.ServerSide.TimerWheel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <strong>{@link SocketHandler} driven by a {@link NioTransport}</strong>.<br>
+ * This class exposes the very same interface of a {@link SocketHandler}, but owns no thread: reading and writing are performed
+ * by the selector thread of the {@link NioTransport} it has been registered to, which keeps calling {@link Controller#update}
+ * on the OBSERVER for every complete frame received, and {@link Controller#handleDisconnect} once the connection drops.
+ * <br><br>
+ * Every {@link Message} travels in a frame made of a 4 bytes length followed by the message encoded by the transport's {@link MessageCodec}.<br>
+ * Since no thread has to be run, both {@link NioSocketHandler#getReceiver} and {@link NioSocketHandler#getSender} return
+ * a {@link Runnable} that returns immediately, so that callers written for {@link SocketHandler} keep working unchanged.
+ */
+public class NioSocketHandler extends SocketHandler {
+    private final static int READ_BUFFER_SIZE = 8192;
+    //upper bound of frames handed to a single gathering write
+    private final static int MAX_BATCH = 64;
+    private final static Runnable NO_OP = () -> {};
+
+    private final SocketChannel channel;
+    private final SelectorLoop loop;
+    private final int read_timeout;
+    private final Queue<QueuedFrame> outgoing_frames;
+    private final ByteBuffer[] write_batch;
+    private final SenderStatistics statistics;
+    private final AtomicBoolean closed;
+    private final ByteBuffer read_buffer;
+    //frame currently being received, null while waiting for the next length prefix
+    private ByteBuffer incoming_frame;
+    private SelectionKey key;
+    //timer watching the read timeout, null when it's checked by the selector's sweep
+    private volatile Timeout idle_timeout;
+
+    /**
+     * Constructor that produces a new {@link NioSocketHandler} wrapped around the provided channel, meant to be called by {@link NioTransport#register}.
+     *
+     * @param channel      non-blocking {@link SocketChannel} to wrap
+     * @param loop         selector loop which will serve this connection
+     * @param controller   {@link Controller} acting as an OBSERVER, target of any upcoming update
+     * @param codec        {@link MessageCodec} used for every frame
+     * @param read_timeout milliseconds without any incoming frame after which the connection is closed, 0 to never expire
+     */
+    NioSocketHandler(SocketChannel channel, SelectorLoop loop, Controller controller, MessageCodec codec, int read_timeout) {
+        super(channel.socket(), controller, codec);
+        this.channel = channel;
+        this.loop = loop;
+        this.read_timeout = read_timeout;
+        this.outgoing_frames = new ConcurrentLinkedQueue<QueuedFrame>();
+        this.write_batch = new ByteBuffer[MAX_BATCH];
+        this.statistics = new SenderStatistics();
+        this.closed = new AtomicBoolean(false);
+        this.read_buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.incoming_frame = null;
+        this.key = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void closeSocket() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            outgoing_frames.clear();
+            if (idle_timeout != null)
+                idle_timeout.cancel();
+            controller.handleDisconnect(clientID);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isClosed() {
+        return closed.get() || !channel.isOpen();
+    }
+
+    /**
+     * Since the connection is served by a {@link NioTransport} there is no receiving thread to run.
+     *
+     * @return a {@link Runnable} that returns immediately
+     */
+    @Override
+    public Runnable getReceiver() {
+        return NO_OP;
+    }
+
+    /**
+     * Since the connection is served by a {@link NioTransport} there is no sending thread to run.
+     *
+     * @return a {@link Runnable} that returns immediately
+     */
+    @Override
+    public Runnable getSender() {
+        return NO_OP;
+    }
+
+    /**
+     * Encodes the message in a frame and queues it, the selector thread will write it as soon as the connection allows it.
+     *
+     * @param message {@link Message} to queue
+     */
+    @Override
+    protected void enqueue(Message message) {
+        try {
+            QueuedFrame queued = new QueuedFrame(encodeFrame(message), System.nanoTime());
+            synchronized (outgoing_frames) {
+                outgoing_frames.add(queued);
+            }
+            statistics.recordEnqueue();
+            loop.requestWrite(this);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes every frame waiting to be written, except for one already partially written, which has to be completed to keep the stream readable.
+     *
+     * @return the number of frames removed
+     */
+    @Override
+    protected int dropPending() {
+        int dropped = 0;
+        synchronized (outgoing_frames) {
+            QueuedFrame head = outgoing_frames.peek();
+            if (head != null && head.frame.position() > 0)
+                outgoing_frames.poll();
+            else
+                head = null;
+            while (outgoing_frames.poll() != null)
+                dropped++;
+            if (head != null)
+                outgoing_frames.add(head);
+        }
+        statistics.recordDequeue(dropped);
+        return dropped;
+    }
+
+    /**
+     * Shuts the input of the channel down, so that the selector thread reads an end of stream and closes the connection.
+     */
+    @Override
+    protected void abortConnection() {
+        try {
+            channel.shutdownInput();
+        } catch (IOException e) {
+            closeSocket();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SenderStatistics getSenderStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Registers the wrapped channel to the given selector, called by the selector thread.
+     *
+     * @param selector the selector of the loop serving this connection
+     */
+    void attach(Selector selector) {
+        try {
+            key = channel.register(selector, outgoing_frames.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE, this);
+        } catch (ClosedChannelException e) {
+            closeSocket();
+        }
+    }
+
+    /**
+     * Starts listening for the writability of the channel, called by the selector thread after a {@link NioSocketHandler#send}.
+     */
+    void enableWrites() {
+        if (key != null && key.isValid())
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Reads whatever is available on the channel, dispatching every completed frame to the OBSERVER, called by the selector thread.
+     */
+    void onReadable() {
+        try {
+            if (channel.read(read_buffer) == -1) {
+                closeSocket();
+                return;
+            }
+        } catch (IOException e) {
+            closeSocket();
+            return;
+        }
+        last_read_time = System.currentTimeMillis();
+
+        read_buffer.flip();
+        while (!isClosed()) {
+            if (incoming_frame == null) {
+                if (read_buffer.remaining() < Integer.BYTES)
+                    break;
+                int length = read_buffer.getInt();
+                if (length < 0 || length > MessageCodec.MAX_FRAME_SIZE) {
+                    closeSocket();
+                    return;
+                }
+                incoming_frame = ByteBuffer.allocate(length);
+            }
+
+            int chunk = Math.min(incoming_frame.remaining(), read_buffer.remaining());
+            incoming_frame.put(incoming_frame.position(), read_buffer, read_buffer.position(), chunk);
+            incoming_frame.position(incoming_frame.position() + chunk);
+            read_buffer.position(read_buffer.position() + chunk);
+            if (incoming_frame.hasRemaining())
+                break;
+
+            byte[] frame = incoming_frame.array();
+            incoming_frame = null;
+            try {
+                controller.update(this, codec.decode(frame));
+            } catch (ClassNotFoundException | IOException e) {
+                e.printStackTrace();
+            }
+        }
+        read_buffer.compact();
+    }
+
+    /**
+     * Writes as many queued frames as the channel accepts, called by the selector thread.<br>
+     * Pending frames are handed to the channel up to {@link NioSocketHandler#MAX_BATCH} at a time with a single gathering write,
+     * every write is recorded in this connection's {@link SenderStatistics} as a flush.
+     */
+    void onWritable() {
+        try {
+            while (true) {
+                int count = 0, written = 0;
+                long total_wait = 0, max_wait = 0;
+                //an overflow can't drop frames while they are being written
+                synchronized (outgoing_frames) {
+                    for (QueuedFrame queued : outgoing_frames) {
+                        if (count == MAX_BATCH)
+                            break;
+                        write_batch[count++] = queued.frame;
+                    }
+                    if (count == 0)
+                        break;
+
+                    channel.write(write_batch, 0, count);
+
+                    long now = System.nanoTime();
+                    while (written < count && !write_batch[written].hasRemaining()) {
+                        long wait = now - outgoing_frames.poll().enqueue_time;
+                        total_wait += wait;
+                        max_wait = Math.max(max_wait, wait);
+                        written++;
+                    }
+                }
+                Arrays.fill(write_batch, 0, count, null);
+                if (written > 0) {
+                    statistics.recordDequeue(written);
+                    statistics.recordFlush(written, total_wait, max_wait);
+                }
+                //the socket buffer is full, the rest will be written once the channel is writable again
+                if (written < count)
+                    return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            //a frame queued right before the interest change is picked up by the following requestWrite
+        } catch (IOException e) {
+            closeSocket();
+        }
+    }
+
+    /**
+     * Closes the connection if nothing has been received for longer than its read timeout, the same way a {@link java.net.Socket#setSoTimeout socket timeout}
+     * severs a connection handled by a {@link SocketReceiver}.
+     *
+     * @param now current time in milliseconds
+     */
+    void checkReadTimeout(long now) {
+        if (idle_timeout == null && read_timeout > 0 && now - last_read_time > read_timeout)
+            closeSocket();
+    }
+
+    /**
+     * Has a timer of the given {@link TimerWheel} close the connection once nothing has been received for longer than its read timeout, in place of the
+     * selector's sweep.<br>
+     * The timer is set for when the read timeout would expire, and when it fires it is set again from the last frame received, if any arrived in the meantime,
+     * hence receiving a frame costs no more than with the sweep, and each connection takes a single timer every read timeout.
+     *
+     * @param timer {@link TimerWheel} running the timer
+     */
+    void watchReadTimeout(TimerWheel timer) {
+        long delay = last_read_time + read_timeout - System.currentTimeMillis();
+        if (delay < 0)
+            closeSocket();
+        else if (!closed.get())
+            idle_timeout = timer.schedule(() -> watchReadTimeout(timer), delay);
+    }
+
+    /**
+     * Produces the frame of a {@link Message}: its length as a 4 bytes integer followed by its encoding.
+     *
+     * @param message {@link Message} to encode
+     * @return a {@link ByteBuffer} ready to be written
+     * @throws IOException if the message could not be encoded
+     */
+    private ByteBuffer encodeFrame(Message message) throws IOException {
+        byte[] encoded = codec.encode(message);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + encoded.length);
+        frame.putInt(encoded.length).put(encoded).flip();
+        return frame;
+    }
+}
+
+/**
+ * An encoded frame waiting in the queue of a {@link NioSocketHandler}, along with the time it was queued at.
+ */
+class QueuedFrame {
+    public final ByteBuffer frame;
+    public final long enqueue_time;
+
+    public QueuedFrame(ByteBuffer frame, long enqueue_time) {
+        this.frame = frame;
+        this.enqueue_time = enqueue_time;
+    }
+}
@@ -0,0 +1,133 @@
+package Controller;
+
+import Controller.ServerSide.Server;
+import Controller.ServerSide.TimerWheel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/*
+Non-blocking alternative to running a SocketReceiver and a SocketSender thread for every connection: a small fixed
+set of selector threads multiplexes every registered channel, reading and writing length-prefixed frames.
+ */
+
+/**
+ * <strong>Non-blocking transport for {@link SocketHandler} connections</strong>.<br>
+ * Instead of dedicating a receiving and a sending thread to every connection, this class runs a small fixed set of
+ * selector threads, each one multiplexing a share of the registered connections.<br>
+ * Connections handled by this transport are represented by {@link NioSocketHandler}, a {@link SocketHandler} that
+ * exchanges length-prefixed frames, so that any {@link Controller} keeps being notified through the usual
+ * {@link Controller#update} and {@link Controller#handleDisconnect} calls.
+ * <br><br>
+ * <strong>Note:</strong> both ends of a connection must agree on the transport, since frames produced by this class
+ * are not readable by a {@link SocketReceiver} and vice versa.
+ */
+public class NioTransport {
+    //maximum time a selector waits before checking its connections for expired read timeouts
+    public final static int SWEEP_INTERVAL = 1000;
+
+    private final SelectorLoop[] loops;
+    private final MessageCodec codec;
+    //timing wheel watching the read timeouts, null to let the selectors sweep their connections instead
+    private final TimerWheel timer;
+    private int next_loop;
+
+    /**
+     * Opens the selectors of a new transport, framing messages with a {@link SerializationCodec}, and starts their threads.
+     *
+     * @param selector_threads number of selector threads to run, each one with its own {@link Selector}
+     * @throws IOException if a selector could not be opened
+     */
+    public NioTransport(int selector_threads) throws IOException {
+        this(selector_threads, new SerializationCodec());
+    }
+
+    /**
+     * Opens the selectors of a new transport and starts their threads.
+     *
+     * @param selector_threads number of selector threads to run, each one with its own {@link Selector}
+     * @param codec            {@link MessageCodec} used for the frames of every connection
+     * @throws IOException if a selector could not be opened
+     */
+    public NioTransport(int selector_threads, MessageCodec codec) throws IOException {
+        this(selector_threads, codec, null);
+    }
+
+    /**
+     * Opens the selectors of a new transport and starts their threads, the read timeouts of its connections being watched by timers of the given
+     * {@link TimerWheel} rather than by sweeping every connection of a selector every {@link NioTransport#SWEEP_INTERVAL}.
+     *
+     * @param selector_threads number of selector threads to run, each one with its own {@link Selector}
+     * @param codec            {@link MessageCodec} used for the frames of every connection
+     * @param timer            {@link TimerWheel} watching the read timeouts, null to sweep the connections instead
+     * @throws IOException if a selector could not be opened
+     */
+    public NioTransport(int selector_threads, MessageCodec codec, TimerWheel timer) throws IOException {
+        if (selector_threads < 1)
+            throw new IllegalArgumentException("At least one selector thread is needed.");
+
+        this.loops = new SelectorLoop[selector_threads];
+        this.codec = codec;
+        this.timer = timer;
+        this.next_loop = 0;
+
+        for (int i = 0; i < selector_threads; i++) {
+            loops[i] = new SelectorLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "nio-selector-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Wraps an already connected channel, typically an accepted one, in a {@link NioSocketHandler} handled by one of this
+     * transport's selectors, chosen in a round-robin fashion.
+     *
+     * @param channel      connected {@link SocketChannel} to wrap
+     * @param controller   {@link Controller} acting as an OBSERVER of the new connection
+     * @param read_timeout milliseconds without any incoming frame after which the connection is closed, 0 to never expire
+     * @return the {@link SocketHandler} representing the connection
+     * @throws IOException if the channel could not be switched to non-blocking mode
+     */
+    public SocketHandler register(SocketChannel channel, Controller controller, int read_timeout) throws IOException {
+        SelectorLoop loop;
+        synchronized (this) {
+            loop = loops[next_loop];
+            next_loop = (next_loop + 1) % loops.length;
+        }
+
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        NioSocketHandler socket_handler = new NioSocketHandler(channel, loop, controller, codec, read_timeout);
+        loop.register(socket_handler);
+        if (timer != null && read_timeout > 0)
+            socket_handler.watchReadTimeout(timer);
+
+        return socket_handler;
+    }
+
+    /**
+     * Opens a connection towards the given address and registers it to this transport, mainly used on the {@link Controller.ClientSide.Client Client} side.
+     *
+     * @param ip         address of the {@link Server}
+     * @param port       port of the {@link Server}
+     * @param controller {@link Controller} acting as an OBSERVER of the new connection
+     * @return the {@link SocketHandler} representing the connection
+     * @throws IOException if the connection could not be established
+     */
+    public SocketHandler connect(String ip, int port, Controller controller) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(ip, port));
+        return register(channel, controller, 0);
+    }
+
+    /**
+     * Stops every selector thread and closes all the connections still registered to them,
+     * notifying their observers as if the connections dropped.
+     */
+    public void shutdown() {
+        for (SelectorLoop loop : loops)
+            loop.shutdown();
+    }
+}
@@ -0,0 +1,167 @@
+package Controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how the outgoing {@link Message Messages} of a {@link SocketHandler} are being written.<br>
+ * Every time the sender writes a batch of queued messages and flushes the connection a flush is recorded, together with how many
+ * messages it contained and how long each of them waited in the queue since its {@link SocketHandler#send}.<br>
+ * The number of messages waiting in the queue is tracked as well, along with every overflow of a bounded queue
+ * (see {@link SocketHandler#setSendQueueLimit}) and the messages it dropped.
+ * <br><br>
+ * All the counters can be updated and read concurrently.
+ */
+public class SenderStatistics {
+    private final LongAdder flushes;
+    private final LongAdder messages;
+    private final LongAdder queue_wait_nanos;
+    private final LongAccumulator max_queue_wait_nanos;
+    private final LongAccumulator max_messages_per_flush;
+    private final AtomicLong queue_depth;
+    private final LongAccumulator max_queue_depth;
+    private final LongAdder overflows;
+    private final LongAdder dropped_messages;
+
+    /**
+     * Creates a new instance of this class with every counter set to zero.
+     */
+    public SenderStatistics() {
+        this.flushes = new LongAdder();
+        this.messages = new LongAdder();
+        this.queue_wait_nanos = new LongAdder();
+        this.max_queue_wait_nanos = new LongAccumulator(Math::max, 0);
+        this.max_messages_per_flush = new LongAccumulator(Math::max, 0);
+        this.queue_depth = new AtomicLong(0);
+        this.max_queue_depth = new LongAccumulator(Math::max, 0);
+        this.overflows = new LongAdder();
+        this.dropped_messages = new LongAdder();
+    }
+
+    /**
+     * Records a message entering the queue.
+     */
+    void recordEnqueue() {
+        max_queue_depth.accumulate(queue_depth.incrementAndGet());
+    }
+
+    /**
+     * Records messages leaving the queue, either to be written or because they were dropped.
+     *
+     * @param num_of_messages number of messages removed from the queue
+     */
+    void recordDequeue(int num_of_messages) {
+        queue_depth.addAndGet(-num_of_messages);
+    }
+
+    /**
+     * Records an overflow of the queue.
+     */
+    void recordOverflow() {
+        overflows.increment();
+    }
+
+    /**
+     * Records messages dropped instead of being written.
+     *
+     * @param num_of_messages number of messages dropped
+     */
+    void recordDropped(int num_of_messages) {
+        dropped_messages.add(num_of_messages);
+    }
+
+    /**
+     * Records a flush of the connection.
+     *
+     * @param num_of_messages number of messages written before the flush
+     * @param total_wait      sum of the time, in nanoseconds, each of those messages waited in the queue
+     * @param max_wait        longest time, in nanoseconds, one of those messages waited in the queue
+     */
+    void recordFlush(int num_of_messages, long total_wait, long max_wait) {
+        flushes.increment();
+        messages.add(num_of_messages);
+        queue_wait_nanos.add(total_wait);
+        max_queue_wait_nanos.accumulate(max_wait);
+        max_messages_per_flush.accumulate(num_of_messages);
+    }
+
+    /**
+     * @return number of flushes performed
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * @return number of messages written
+     */
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    /**
+     * @return average number of messages written by a single flush, 0 if nothing has been flushed yet
+     */
+    public double getAverageMessagesPerFlush() {
+        long flushes = getFlushes();
+        return flushes == 0 ? 0 : (double) getMessages() / flushes;
+    }
+
+    /**
+     * @return largest number of messages written by a single flush
+     */
+    public long getMaxMessagesPerFlush() {
+        return max_messages_per_flush.get();
+    }
+
+    /**
+     * @return average time, in nanoseconds, a message waited in the queue before being written, 0 if nothing has been written yet
+     */
+    public double getAverageQueueWaitNanos() {
+        long messages = getMessages();
+        return messages == 0 ? 0 : (double) queue_wait_nanos.sum() / messages;
+    }
+
+    /**
+     * @return longest time, in nanoseconds, a message waited in the queue before being written
+     */
+    public long getMaxQueueWaitNanos() {
+        return max_queue_wait_nanos.get();
+    }
+
+    /**
+     * @return number of messages currently waiting in the queue
+     */
+    public long getQueueDepth() {
+        return queue_depth.get();
+    }
+
+    /**
+     * @return largest number of messages that waited in the queue at the same time
+     */
+    public long getMaxQueueDepth() {
+        return max_queue_depth.get();
+    }
+
+    /**
+     * @return number of times the queue reached its limit
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * @return number of messages dropped because of an overflow, instead of being written
+     */
+    public long getDroppedMessages() {
+        return dropped_messages.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("flushes=%d messages=%d messages/flush=%.2f (max %d) queue_wait_us=%.1f (max %.1f) queue_depth=%d (max %d) overflows=%d dropped=%d",
+                getFlushes(), getMessages(), getAverageMessagesPerFlush(), getMaxMessagesPerFlush(), getAverageQueueWaitNanos() / 1000,
+                getMaxQueueWaitNanos() / 1000.0, getQueueDepth(), getMaxQueueDepth(), getOverflows(), getDroppedMessages());
+    }
+}
@@ -0,0 +1,31 @@
+package Controller;
+
+import java.io.*;
+
+/**
+ * {@link MessageCodec} based on the standard Java serialization, every frame contains a complete object stream,
+ * class descriptors included.
+ */
+public class SerializationCodec implements MessageCodec {
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] encode(Message message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(message);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Message decode(byte[] frame) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(frame));
+        Object object = in.readObject();
+        if (!(object instanceof Message message))
+            throw new StreamCorruptedException("Not a message: " + (object == null ? null : object.getClass().getName()));
+        return message;
+    }
+}
@@ -13,7 +13,8 @@ public class ClientData implements Serializable {
     public final int clientID;
     public final String nickname;
     public transient SocketHandler socket_handler;
-    private int lobbyID;
+    //set on the thread of the lobby the client joins or leaves, read on the server threads
+    private volatile int lobbyID;
 
     /**
      * Constructs an instance of this class for a client not inside a lobby, hence with an uninitialized lobbyId.
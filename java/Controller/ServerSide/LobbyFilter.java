@@ -0,0 +1,61 @@
+package Controller.ServerSide;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Immutable filter applied by the {@link LobbyDirectory} to the lobbies a client browses.<br>
+ * Every criterion can be left out: a size of 0 matches any size, a null expert mode matches both modes and a null nickname matches any player.
+ */
+public class LobbyFilter implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    //matches every lobby
+    public final static LobbyFilter ANY = new LobbyFilter(0, null, false, null);
+
+    public final int size;
+    public final Boolean expert_mode;
+    //true to match only the lobbies which can be joined, see LobbySummary.isOpen
+    public final boolean open_only;
+    //part of the nickname of a player in the lobby, case insensitive
+    public final String nickname;
+
+    /**
+     * Constructs a new immutable instance of this class.
+     *
+     * @param size size of the matching lobbies, 0 for any
+     * @param expert_mode expert mode of the matching lobbies, null for any
+     * @param open_only true to match only lobbies with a free slot and no game going on
+     * @param nickname string contained in the nickname of a player of the matching lobbies, null for any
+     */
+    public LobbyFilter(int size, Boolean expert_mode, boolean open_only, String nickname) {
+        this.size = size;
+        this.expert_mode = expert_mode;
+        this.open_only = open_only;
+        this.nickname = nickname == null || nickname.isEmpty() ? null : nickname.toLowerCase();
+    }
+
+    /**
+     * Checks the lobby's settings and state against this filter, leaving out the nickname.<br>
+     * Lobbies with the same settings and state are either all matched or all not matched.
+     *
+     * @param lobby the {@link LobbySummary} of the lobby
+     * @return true if the lobby's settings match
+     */
+    public boolean matchesSettings(LobbySummary lobby) {
+        return (size == 0 || lobby.size == size)
+                && (expert_mode == null || lobby.expert_mode == expert_mode)
+                && (!open_only || lobby.isOpen());
+    }
+
+    /**
+     * Checks a lobby against this filter.
+     *
+     * @param lobby the {@link LobbySummary} of the lobby
+     * @return true if the lobby matches every criterion
+     */
+    public boolean matches(LobbySummary lobby) {
+        return matchesSettings(lobby) && (nickname == null || lobby.nicknames.stream().anyMatch(n -> n.toLowerCase().contains(nickname)));
+    }
+}
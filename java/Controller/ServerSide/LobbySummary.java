@@ -0,0 +1,82 @@
+package Controller.ServerSide;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable entry of the {@link LobbyDirectory}, describing a lobby to the clients browsing the available ones.<br>
+ * Unlike {@link LobbyData} it carries only the nicknames of the players, never their ids, along with the lobby's settings,
+ * whether its game has started and its position in the directory, which orders the lobbies by creation.
+ */
+public class LobbySummary implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public final int lobbyID;
+    public final int size;
+    public final boolean expert_mode;
+    public final List<String> nicknames;
+    public final boolean started;
+    //creation order of the lobby in the directory, used as the cursor of the pages
+    public final int position;
+
+    /**
+     * Constructs a new immutable instance of this class.
+     *
+     * @param lobbyID id of the represented lobby
+     * @param size size of the represented lobby
+     * @param expert_mode expert mode in the represented lobby
+     * @param nicknames nicknames of the players in the represented lobby
+     * @param started whether a game is going on in the represented lobby
+     * @param position position of the represented lobby in the {@link LobbyDirectory}
+     */
+    public LobbySummary(int lobbyID, int size, boolean expert_mode, List<String> nicknames, boolean started, int position) {
+        this.lobbyID = lobbyID;
+        this.size = size;
+        this.expert_mode = expert_mode;
+        this.nicknames = List.copyOf(nicknames);
+        this.started = started;
+        this.position = position;
+    }
+
+    /**
+     * @return number of players in the lobby
+     */
+    public int getPlayers() {
+        return nicknames.size();
+    }
+
+    /**
+     * Whether a client can join the lobby, that is its game has not started and it has a free slot.
+     *
+     * @return true if the lobby can be joined
+     */
+    public boolean isOpen() {
+        return !started && nicknames.size() < size;
+    }
+
+    /**
+     * Converts this summary to the {@link LobbyData} of the plain lobbies list, whose clients have only their nickname set.
+     *
+     * @return the corresponding {@link LobbyData}
+     */
+    public LobbyData toLobbyData() {
+        List<ClientData> clients = new ArrayList<ClientData>(nicknames.size());
+        for (String nickname : nicknames)
+            clients.add(new ClientData(0, nickname, null, lobbyID));
+        return new LobbyData(lobbyID, size, expert_mode, clients);
+    }
+
+    /**
+     * Whether the given summary describes the lobby as this one does, regardless of its position.
+     *
+     * @param summary the other summary, possibly null
+     * @return true if nothing a client would see has changed
+     */
+    boolean sameAs(LobbySummary summary) {
+        return summary != null && summary.lobbyID == lobbyID && summary.size == size && summary.expert_mode == expert_mode
+                && summary.started == started && summary.nicknames.equals(nicknames);
+    }
+}
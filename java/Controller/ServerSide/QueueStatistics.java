@@ -0,0 +1,122 @@
+package Controller.ServerSide;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing a queue of the {@link Matchmaker}, that is the players waiting for a game of a given size and expert mode.<br>
+ * Every player leaving the queue is recorded either as matched, together with how long it waited since joining the queue, or as left,
+ * when it gave up, disconnected or entered a lobby on its own before a match was found.
+ * <br><br>
+ * All the counters can be updated and read concurrently.
+ */
+public class QueueStatistics {
+    private final AtomicLong waiting;
+    private final LongAccumulator max_waiting;
+    private final LongAdder matches;
+    private final LongAdder matched_players;
+    private final LongAdder wait_nanos;
+    private final LongAccumulator max_wait_nanos;
+    private final LongAdder left_players;
+
+    /**
+     * Creates a new instance of this class with every counter set to zero.
+     */
+    public QueueStatistics() {
+        this.waiting = new AtomicLong(0);
+        this.max_waiting = new LongAccumulator(Math::max, 0);
+        this.matches = new LongAdder();
+        this.matched_players = new LongAdder();
+        this.wait_nanos = new LongAdder();
+        this.max_wait_nanos = new LongAccumulator(Math::max, 0);
+        this.left_players = new LongAdder();
+    }
+
+    /**
+     * Records a player joining the queue.
+     */
+    void recordJoin() {
+        max_waiting.accumulate(waiting.incrementAndGet());
+    }
+
+    /**
+     * Records a player leaving the queue without being matched.
+     */
+    void recordLeave() {
+        waiting.decrementAndGet();
+        left_players.increment();
+    }
+
+    /**
+     * Records a match, whose players leave the queue.
+     *
+     * @param num_of_players number of players of the match
+     * @param total_wait     sum of the time, in nanoseconds, each of those players waited in the queue
+     * @param max_wait       longest time, in nanoseconds, one of those players waited in the queue
+     */
+    void recordMatch(int num_of_players, long total_wait, long max_wait) {
+        waiting.addAndGet(-num_of_players);
+        matches.increment();
+        matched_players.add(num_of_players);
+        wait_nanos.add(total_wait);
+        max_wait_nanos.accumulate(max_wait);
+    }
+
+    /**
+     * @return number of players currently waiting in the queue
+     */
+    public long getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return largest number of players that waited in the queue at the same time
+     */
+    public long getMaxWaiting() {
+        return max_waiting.get();
+    }
+
+    /**
+     * @return number of matches formed
+     */
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    /**
+     * @return number of players that left the queue in a match
+     */
+    public long getMatchedPlayers() {
+        return matched_players.sum();
+    }
+
+    /**
+     * @return average time, in nanoseconds, a player waited in the queue before being matched, 0 if nobody has been matched yet
+     */
+    public double getAverageWaitNanos() {
+        long players = getMatchedPlayers();
+        return players == 0 ? 0 : (double) wait_nanos.sum() / players;
+    }
+
+    /**
+     * @return longest time, in nanoseconds, a player waited in the queue before being matched
+     */
+    public long getMaxWaitNanos() {
+        return max_wait_nanos.get();
+    }
+
+    /**
+     * @return number of players that left the queue without being matched
+     */
+    public long getLeftPlayers() {
+        return left_players.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("waiting=%d (max %d) matches=%d matched=%d wait_ms=%.1f (max %.1f) left=%d",
+                getWaiting(), getMaxWaiting(), getMatches(), getMatchedPlayers(), getAverageWaitNanos() / 1000000,
+                getMaxWaitNanos() / 1000000.0, getLeftPlayers());
+    }
+}
@@ -6,6 +6,7 @@ import Exceptions.LobbyException;
 import Model.Colors;
 import Model.EffectParameters;
 import Model.Game;
+import Model.MoveResult;
 import org.jetbrains.annotations.TestOnly;
 
 import java.util.*;
@@ -18,7 +19,7 @@ here is where the Game instance will reside for the lobby and where a match will
 
 //the game starts only when every player is ready and there is a number of players equal to size
 
-/*at each turn change, check if the player is connected (socket.isClosed()), if it is not, start a thread that sleeps for a given
+/*at each turn change, check if the player is connected (socket.isClosed()), if it is not, start a timer that waits for a given
    amount of time and then auto-plays for him. If a player is instead flagged as not ready DURING a game, its turn is skipped entirely
 */
 
@@ -39,6 +40,8 @@ here is where the Game instance will reside for the lobby and where a match will
  */
 public class ServerLobby extends Controller {
     private static final int AUTOPLAY_TIMER = 32000;
+    //number of recent events kept for the clients which missed some of them
+    public static final int EVENT_RING_CAPACITY = 128;
 
     private final Server server;
     public final int lobbyID;
@@ -59,9 +62,13 @@ public class ServerLobby extends Controller {
     }
 
     private boolean[] ready;
-    private Map<Integer, Thread> autoplay_threads;
+    //clientID -> timer skipping the turn of the disconnected client
+    private Map<Integer, Timeout> autoplay_timeouts;
 
     private Game game;
+    private final EventRing events;
+    //messages received from the players, handled one at a time on the server's Dispatcher
+    private final Mailbox mailbox;
 
     /**
      * @return a copy of this lobby's {@link Game} using {@link Game#copy()}
@@ -86,8 +93,10 @@ public class ServerLobby extends Controller {
         this.expert_mode = expert_mode;
         this.clients = new ArrayList<ClientData>();
         this.ready = new boolean[size];
-        this.autoplay_threads = new HashMap<Integer, Thread>();
+        this.autoplay_timeouts = new HashMap<Integer, Timeout>();
         this.game = null;
+        this.events = new EventRing(EVENT_RING_CAPACITY);
+        this.mailbox = server.getDispatcher().newMailbox();
     }
 
     //Properly adds the given player to the lobby
@@ -107,6 +116,8 @@ public class ServerLobby extends Controller {
         client.socket_handler.changeUpdatesTarget(this);
         clients.add(client);
         client.setLobbyID(lobbyID);
+        //a player in a lobby is no longer browsing the others
+        server.getLobbyDirectory().unsubscribe(client.socket_handler);
 
         for(ClientData clientData : clients) {
             if(client.socket_handler != null) {
@@ -114,6 +125,7 @@ public class ServerLobby extends Controller {
                 clientData.socket_handler.send(MessageForClient.readiness(this.ready));
             }
         }
+        publish();
     }
 
     //Enables a player to join back the lobby after a reconnect
@@ -126,6 +138,18 @@ public class ServerLobby extends Controller {
      * @throws LobbyException thrown if the player was not in this lobby before disconnecting
      */
     public synchronized void reconnectPlayer(ClientData client) throws LobbyException {
+        reconnectPlayer(client, 0);
+    }
+
+    /**
+     * Allows a player to join back the lobby after it got disconnected and reconnected back with the server with the same
+     * credentials as before, sending it only the events it missed while away, or a whole copy of the game if they are no longer available.
+     *
+     * @param client client being reconnected
+     * @param last_sequence sequence number of the last lobby event received by the client, 0 to get a whole copy of the game
+     * @throws LobbyException thrown if the player was not in this lobby before disconnecting
+     */
+    public synchronized void reconnectPlayer(ClientData client, int last_sequence) throws LobbyException {
         if(clients.stream().noneMatch(c -> c.clientID == client.clientID))
             throw new LobbyException("the player was not in this lobby");
 
@@ -147,12 +171,12 @@ public class ServerLobby extends Controller {
         }
 
         if(game != null) {
-            if(autoplay_threads.get(client.clientID) != null) {
-                autoplay_threads.get(client.clientID).stop();
-                autoplay_threads.remove(client.clientID);
-            }
-            client.socket_handler.send(MessageForClient.gameStarted(game));
+            cancelAutoPlay(client.clientID);
+            missedEvents(client.socket_handler, last_sequence);
             System.out.println("Reconnected " + client.clientID + " to the game");
+        } else if(last_sequence != 0) {
+            //the game ended while the player was away
+            missedEvents(client.socket_handler, last_sequence);
         }
     }
 
@@ -179,6 +203,7 @@ public class ServerLobby extends Controller {
                     clientData.socket_handler.send(MessageForClient.readiness(this.ready));
                 }
             }
+            publish();
 
             //if there are no players left, delete the lobby
             if(clients.size() == 0) {
@@ -206,18 +231,15 @@ public class ServerLobby extends Controller {
 
             //if there is only a ready player, he wins and the lobby gets reset for a new game
             if(ready_count == 1) {
+                Message game_ended = events.record(MessageForClient.gameEnded(clients.get(ready_index).clientID));
                 for(ClientData client : clients)
                     if(client.socket_handler != null) {
-                        client.socket_handler.send(MessageForClient.gameEnded(clients.get(ready_index).clientID));
+                        client.socket_handler.send(game_ended);
                     }
                 resetLobby();
             } else if(game.currentlyPlayingPlayer() == clientID) {
                 //if the player who disconnected was the one who had to play, skip his turn
-
-                if(autoplay_threads.get(clientID) != null) {
-                    autoplay_threads.get(clientID).stop();
-                    autoplay_threads.remove(clientID);
-                }
+                cancelAutoPlay(clientID);
 
                 //do not revert to previous state if not needed
                 boolean revert_needed = game.getPhase() == 1 && (game.getStep() != 0 || game.getMovedStudents() != 0 || game.getNpcEffect() != 0);
@@ -227,11 +249,13 @@ public class ServerLobby extends Controller {
                 try {
                     game.skipTurn();
 
+                    Message reverted = revert_needed ? events.record(MessageForClient.revert()) : null;
+                    Message skipped = events.record(MessageForClient.skipTurn());
                     for (ClientData client : clients) {
                         if(client.socket_handler != null) {
                             if(revert_needed)
-                                client.socket_handler.send(MessageForClient.revert());
-                            client.socket_handler.send(MessageForClient.skipTurn());
+                                client.socket_handler.send(reverted);
+                            client.socket_handler.send(skipped);
                         }
                     }
 
@@ -246,19 +270,29 @@ public class ServerLobby extends Controller {
     }
 
     /**
-     * {@inheritDoc}
+     * {@inheritDoc}<br>
+     * The message is queued in this lobby's {@link Mailbox} and handled on a thread of the server's {@link Dispatcher}, after every message
+     * received before it by this lobby, while the messages of other lobbies are handled in parallel.
      *
      * @param client_handler the {@link SocketHandler} which received the {@link Message} and is dispatching the update
      * @param message the {@link Message} received
      */
-    public synchronized void update(SocketHandler client_handler, Message message) {
-        try {
-            //System.out.println("Update handled.");
+    public void update(SocketHandler client_handler, Message message) {
+        post(() -> message.execute(this, client_handler));
+    }
 
-            message.execute(this, client_handler);
-        } catch(Exception e) {
-            e.printStackTrace();
-        }
+    /**
+     * Queues a task in this lobby's {@link Mailbox}, to be run holding the lock of this lobby after every message received before it,
+     * the same way the messages are, used by the timers which must not wait for the lock themselves.
+     *
+     * @param task the task to run
+     */
+    void post(Runnable task) {
+        mailbox.post(() -> {
+            synchronized (this) {
+                task.run();
+            }
+        });
     }
 
     //Redirects the disconnect to the server
@@ -266,66 +300,84 @@ public class ServerLobby extends Controller {
      * {@inheritDoc}<br>
      * Before a client is completely forgotten tho, there is a window of {@link Server#PERMANENT_DISCONNECTION_TIME} seconds in which a new connection which registers itself with
      * the same id and nickname is recognized a the same client getting reconnected, and that prevents the deletion of that client.<br>
-     * While the client is disconnected every {@link ServerLobby#AUTOPLAY_TIMER} seconds the lobby skips it turn to keep the other players not waiting for too long.
+     * While the client is disconnected every {@link ServerLobby#AUTOPLAY_TIMER} seconds the lobby skips it turn to keep the other players not waiting for too long.<br>
+     * This is called by the thread noticing the disconnection, such as a selector thread or a timer of the {@link TimerWheel}, which must not wait
+     * for the move being played in the lobby, so the lobby's part of the disconnection is run on the lobby's {@link Mailbox}, in order with the other messages.
      *
      * @param clientID the Id of the client, remembered by {@link SocketHandler}, losing the connection
      */
-    public synchronized void handleDisconnect(int clientID) {
+    public void handleDisconnect(int clientID) {
         server.handleDisconnect(clientID);
 
-        System.out.println("Disconnected player: " + clientID + ", from lobby: " + lobbyID);
-        if(game != null && game.currentlyPlayingPlayer() == clientID) {
-            Thread thread = new Thread(() -> autoPlay(clientID));
-            thread.start();
-            autoplay_threads.put(clientID, thread);
-        }
+        post(() -> {
+            System.out.println("Disconnected player: " + clientID + ", from lobby: " + lobbyID);
+            if(game != null && game.currentlyPlayingPlayer() == clientID) {
+                scheduleAutoPlay(clientID);
+            }
+        });
+    }
+
+    //Skips the turn of the given player after AUTOPLAY_TIMER, unless they reconnect in the meantime
+    /**
+     * Sets a timer on the server's {@link TimerWheel} that, after {@link ServerLobby#AUTOPLAY_TIMER}, plays instead of the given player with {@link ServerLobby#autoPlay},
+     * replacing the timer previously set for the same player, if any.
+     *
+     * @param clientID id of the disconnected player
+     */
+    private void scheduleAutoPlay(int clientID) {
+        cancelAutoPlay(clientID);
+        autoplay_timeouts.put(clientID, server.getTimer().schedule(() -> post(() -> autoPlay(clientID)), AUTOPLAY_TIMER));
+    }
+
+    private void cancelAutoPlay(int clientID) {
+        Timeout autoplay = autoplay_timeouts.remove(clientID);
+        if(autoplay != null)
+            autoplay.cancel();
     }
 
     //Plays instead of the given player, skipping their turn if they do not reconnect in time
     /**
      * Plays instead of the given player, skipping their turn.<br>
-     * This method gets executed in a separate thread after {@link ServerLobby#AUTOPLAY_TIMER} that the player lost its connection,
-     * its execution is however canceled if the player reconnects in time.
+     * This method gets executed in this lobby's {@link Mailbox} after {@link ServerLobby#AUTOPLAY_TIMER} that the player lost its connection,
+     * its execution is however canceled, by cancelling its timer or replacing it in {@link ServerLobby#autoplay_timeouts}, if the player reconnects in time.
      * @see Game#skipTurn()
      * @see Game#revertToPreviousState(Game)
      *
      * @param clientID
      */
     private void autoPlay(int clientID) {
-        try {
-            Thread.sleep(AUTOPLAY_TIMER);
-        } catch(InterruptedException e) {
-            e.printStackTrace();
-        }
+        Timeout autoplay = autoplay_timeouts.get(clientID);
+        if(autoplay == null || !autoplay.isExpired())
+            return;
 
         System.out.println("Skipping turn for: " + clientID);
-        synchronized (this) {
-            if(game != null) {
-                if (game.currentlyPlayingPlayer() == clientID) {
-                    //do not revert to previous state if not needed
-                    boolean revert_needed = game.getPhase() == 1 && (game.getStep() != 0 || game.getMovedStudents() != 0 || game.getNpcEffect() != 0);
-                    if(revert_needed)
-                        game = Game.revertToPreviousState(game);
-
-                    try {
-                        game.skipTurn();
-
-                        for (ClientData client : clients) {
-                            if(client.socket_handler != null) {
-                                if(revert_needed)
-                                    client.socket_handler.send(MessageForClient.revert());
-                                client.socket_handler.send(MessageForClient.skipTurn());
-                            }
-                        }
+        if(game != null) {
+            if (game.currentlyPlayingPlayer() == clientID) {
+                //do not revert to previous state if not needed
+                boolean revert_needed = game.getPhase() == 1 && (game.getStep() != 0 || game.getMovedStudents() != 0 || game.getNpcEffect() != 0);
+                if(revert_needed)
+                    game = Game.revertToPreviousState(game);
 
-                        checkWinner();
-                    } catch (InvalidMoveException e) {
-                        e.printStackTrace();
+                try {
+                    game.skipTurn();
+
+                    Message reverted = revert_needed ? events.record(MessageForClient.revert()) : null;
+                    Message skipped = events.record(MessageForClient.skipTurn());
+                    for (ClientData client : clients) {
+                        if(client.socket_handler != null) {
+                            if(revert_needed)
+                                client.socket_handler.send(reverted);
+                            client.socket_handler.send(skipped);
+                        }
                     }
+
+                    checkWinner();
+                } catch (InvalidMoveException e) {
+                    e.printStackTrace();
                 }
             }
-            autoplay_threads.remove(clientID);
         }
+        autoplay_timeouts.remove(clientID, autoplay);
     }
 
     //Allows players to go back to lobby selection, if the last player leaves, the lobby is dismantled and any eventual game is ended forcefully
@@ -357,6 +409,7 @@ public class ServerLobby extends Controller {
                     clientData.socket_handler.send(MessageForClient.readiness(this.ready));
                 }
             }
+            publish();
 
             //if there are no players left, delete the lobby
             if(clients.size() == 0 || clients.stream().allMatch(client -> client.socket_handler == null)) {
@@ -394,15 +447,14 @@ public class ServerLobby extends Controller {
 
             //if there is only a ready player, he wins and the lobby gets reset for a new game
             if(ready_count == 1) {
+                Message game_ended = events.record(MessageForClient.gameEnded(clients.get(ready_index).clientID));
                 for(ClientData client : clients)
                     if(client.socket_handler != null)
-                        client.socket_handler.send(MessageForClient.gameEnded(clients.get(ready_index).clientID));
+                        client.socket_handler.send(game_ended);
                 resetLobby();
             } else if(game.currentlyPlayingPlayer() == client_handler.getClientID()) {
                 //if the player who disconnected was the one who had to play, skip his turn
-                Thread thread = new Thread(() -> autoPlay(client_handler.getClientID()));
-                thread.start();
-                autoplay_threads.put(client_handler.getClientID(), thread);
+                scheduleAutoPlay(client_handler.getClientID());
             }
         }
 
@@ -437,21 +489,45 @@ public class ServerLobby extends Controller {
         for(int i = 0; i < ready.length; i++)
             if(!ready[i]) return;
 
+        startGame();
+    }
+
+    /**
+     * Marks every player of the full lobby as ready, starting the game right away, as done for the lobbies formed by the {@link Matchmaker}.
+     */
+    public synchronized void readyAll() {
+        if(game != null || clients.size() != size)
+            return;
+
+        Arrays.fill(ready, true);
+        for(ClientData client_data : clients)
+            if(client_data.socket_handler != null)
+                client_data.socket_handler.send(MessageForClient.readiness(ready));
+
+        startGame();
+    }
+
+    //starts a new game with the players of the lobby, once every one of them is ready
+    private void startGame() {
         this.game = buildGame(expert_mode, clients.stream().map(client -> client.clientID).collect(Collectors.toList()));
+        //events of a previous game are of no use to anyone
+        events.clear();
+        Message game_started = events.record(MessageForClient.gameStarted(server.getSnapshotCache().get(lobbyID, game)));
         for(ClientData client_data : clients)
             if(client_data.socket_handler != null)
-                client_data.socket_handler.send(MessageForClient.gameStarted(this.game));
+                client_data.socket_handler.send(game_started);
+        publish();
     }
 
     /**
-     * Auxiliary method that constructs the copy of game for this lobby.
+     * Auxiliary method that constructs the copy of game for this lobby, dealt from a seed picked by the server, see {@link Server#nextGameSeed}.
      *
      * @param expert_mode flag for expert mode in the new game
      * @param clientIDs participants of this lobby and the new game
      * @return the newly constructed copy of game for this lobby
      */
     public synchronized Game buildGame(boolean expert_mode, List<Integer> clientIDs) {
-        return new Game(expert_mode, clientIDs);
+        return new Game(expert_mode, clientIDs, server.nextGameSeed());
     }
 
     /**
@@ -461,54 +537,31 @@ public class ServerLobby extends Controller {
      * @see Game#playCard(int, int)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param card_index index of the played card
      */
-    public synchronized void cardPlayed(SocketHandler client_handler, int card_index) {
+    public synchronized void cardPlayed(SocketHandler client_handler, int requestID, int card_index) {
         if(game != null) {
+            if(rejected(client_handler, requestID, game.validatePlayCard(client_handler.getClientID(), card_index)))
+                return;
             try {
                 game.playCard(client_handler.getClientID(), card_index);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            Message move = events.record(MessageForClient.cardPlayed(client_handler.getClientID(), card_index));
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.cardPlayed(client_handler.getClientID(), card_index));
+                    client.socket_handler.send(move);
 
-            client_handler.send(MessageForClient.moveSuccessful());
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
             checkWinner();
 
-            int index;
-            for(index = 0; index < clients.size(); index++)
-                if(clients.get(index).clientID == game.currentlyPlayingPlayer())
-                    break;
-
-            //handles the case of the next player being temporarily disconnected
-            if(clients.get(index).socket_handler != null && clients.get(index).socket_handler.isClosed()) {
-                int finalIndex = index;
-                Thread thread = new Thread(() -> autoPlay(clients.get(finalIndex).clientID));
-                thread.start();
-                autoplay_threads.put(clients.get(index).clientID, thread);
-            }
-
-            //handles the case of the next player being completely disconnected
-            if(!ready[index]) {
-                try {
-                    game.skipTurn();
-                } catch (InvalidMoveException e) {
-                    e.printStackTrace();
-                    return;
-                }
-
-                for(ClientData client : clients)
-                    if(client.socket_handler != null)
-                        client.socket_handler.send(MessageForClient.skipTurn());
-
-                checkWinner();
-            }
+            nextPlayer();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
@@ -519,25 +572,29 @@ public class ServerLobby extends Controller {
      * @see Game#setStudentToHall(int, int)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param student_index index of the student being moved
      */
-    public synchronized void studentSetToHall(SocketHandler client_handler, int student_index) {
+    public synchronized void studentSetToHall(SocketHandler client_handler, int requestID, int student_index) {
         if(game != null) {
+            if(rejected(client_handler, requestID, game.validateStudentToHall(client_handler.getClientID(), student_index)))
+                return;
             try {
                 game.setStudentToHall(client_handler.getClientID(), student_index);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            Message move = events.record(MessageForClient.studentSetToHall(client_handler.getClientID(), student_index));
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.studentSetToHall(client_handler.getClientID(), student_index));
+                    client.socket_handler.send(move);
 
-            client_handler.send(MessageForClient.moveSuccessful());
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
             checkWinner();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
@@ -548,26 +605,31 @@ public class ServerLobby extends Controller {
      * @see Game#setStudentToIsland(int, int, int)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param student_index index of the student being moved
-     * @param island destination island
+     * @param island id of the destination island, see {@link Game#islandID}
      */
-    public synchronized void studentSetToIsland(SocketHandler client_handler, int student_index, int island) {
+    public synchronized void studentSetToIsland(SocketHandler client_handler, int requestID, int student_index, int island) {
         if(game != null) {
+            int island_index = game.islandIndex(island);
+            if(rejected(client_handler, requestID, game.validateStudentToIsland(client_handler.getClientID(), student_index, island_index)))
+                return;
             try {
-                game.setStudentToIsland(client_handler.getClientID(), student_index, island);
+                game.setStudentToIsland(client_handler.getClientID(), student_index, island_index);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            Message move = events.record(MessageForClient.studentSetToIsland(client_handler.getClientID(), student_index, island));
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.studentSetToIsland(client_handler.getClientID(), student_index, island));
+                    client.socket_handler.send(move);
 
-            client_handler.send(MessageForClient.moveSuccessful());
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
             checkWinner();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
@@ -578,25 +640,29 @@ public class ServerLobby extends Controller {
      * @see Game#moveMotherNature(int, int)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param moves steps to move mother nature by
      */
-    public synchronized void motherNatureMoved(SocketHandler client_handler, int moves) {
+    public synchronized void motherNatureMoved(SocketHandler client_handler, int requestID, int moves) {
         if(game != null) {
+            if(rejected(client_handler, requestID, game.validateMotherNature(client_handler.getClientID(), moves)))
+                return;
             try {
                 game.moveMotherNature(client_handler.getClientID(), moves);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            Message move = events.record(MessageForClient.motherNatureMoved(client_handler.getClientID(), moves));
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.motherNatureMoved(client_handler.getClientID(), moves));
+                    client.socket_handler.send(move);
 
-            client_handler.send(MessageForClient.moveSuccessful());
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
             checkWinner();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
@@ -607,55 +673,82 @@ public class ServerLobby extends Controller {
      * @see Game#chooseCloud(int, int)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param cloud_index index of the cloud being chosen
      */
-    public synchronized void cloudChosen(SocketHandler client_handler, int cloud_index) {
+    public synchronized void cloudChosen(SocketHandler client_handler, int requestID, int cloud_index) {
         if(game != null) {
+            if(rejected(client_handler, requestID, game.validateCloud(client_handler.getClientID(), cloud_index)))
+                return;
             try {
                 game.chooseCloud(client_handler.getClientID(), cloud_index);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            //only the mover is sent the refilled clouds, but whoever missed the event gets them along with it
+            Message clouds_updated = MessageForClient.cloudsUpdate(game.getClouds());
+            Message move = events.record(MessageForClient.cloudChosen(client_handler.getClientID(), cloud_index), clouds_updated);
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.cloudChosen(client_handler.getClientID(), cloud_index));
+                    client.socket_handler.send(move);
 
-            client_handler.send(MessageForClient.moveSuccessful());
-            client_handler.send(MessageForClient.cloudsUpdate(game.getClouds()));
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
+            client_handler.send(clouds_updated);
             checkWinner();
 
-            int index;
-            for(index = 0; index < clients.size(); index++)
-                if(clients.get(index).clientID == game.currentlyPlayingPlayer())
-                    break;
+            nextPlayer();
+        } else {
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
+        }
+    }
 
-            //handles the case of the next player being temporarily disconnected
-            if(clients.get(index).socket_handler != null && clients.get(index).socket_handler.isClosed()) {
-                int finalIndex = index;
-                Thread thread = new Thread(() -> autoPlay(clients.get(finalIndex).clientID));
-                thread.start();
-                autoplay_threads.put(clients.get(index).clientID, thread);
+    /**
+     * Allows players to perform their student moves all at once, optionally followed by the mother nature move and the cloud choice, checking the validity
+     * of every move and eventually applying them to the lobby's instance of game, forwarding them to all the other players with a single message.
+     * The moves are all validated before the first is performed, so that an invalid one is rejected as any other invalid move.
+     * Consequence of {@link MessageForServerLobby#turnPlayed}
+     * @see Game#playActionTurn(int, List, List, Integer, Integer)
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
+     * @param student_indexes indexes of the students being moved
+     * @param destinations for each student the id of the destination island, see {@link Game#islandID}, or null for the hall
+     * @param mother_nature_moves steps to move mother nature by afterwards, null to not move it
+     * @param cloud_index index of the cloud being chosen afterwards, null to not choose one
+     */
+    public synchronized void turnPlayed(SocketHandler client_handler, int requestID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        if(game != null) {
+            List<Integer> island_indexes = game.islandIndexes(destinations);
+            if(rejected(client_handler, requestID, game.validateActionTurn(client_handler.getClientID(), student_indexes, island_indexes, mother_nature_moves, cloud_index)))
+                return;
+            try {
+                game.playActionTurn(client_handler.getClientID(), student_indexes, island_indexes, mother_nature_moves, cloud_index);
+            } catch(InvalidMoveException e) {
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
+                revert();
+                return;
             }
 
-            //handles the case of the next player being completely disconnected
-            if(!ready[index]) {
-                try {
-                    game.skipTurn();
-                } catch (InvalidMoveException e) {
-                    e.printStackTrace();
-                    return;
-                }
-
-                for(ClientData client : clients)
-                    if(client.socket_handler != null)
-                        client.socket_handler.send(MessageForClient.skipTurn());
+            //as for a single cloudChosen, only the mover is sent the refilled clouds
+            Message clouds_updated = cloud_index == null ? null : MessageForClient.cloudsUpdate(game.getClouds());
+            Message move = MessageForClient.turnPlayed(client_handler.getClientID(), student_indexes, destinations, mother_nature_moves, cloud_index);
+            if(clouds_updated == null)
+                events.record(move);
+            else
+                events.record(move, clouds_updated);
+            for(ClientData client : clients)
+                if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
+                    client.socket_handler.send(move);
 
-                checkWinner();
-            }
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
+            if(clouds_updated != null)
+                client_handler.send(clouds_updated);
+            checkWinner();
+            nextPlayer();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
@@ -666,49 +759,174 @@ public class ServerLobby extends Controller {
      * @see Game#activateEffect(int, int, EffectParameters)
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the move, echoed by the answer to it
      * @param npc_index index of the activated Npc
-     * @param effect_parameters parameters for the effect's activation
+     * @param effect_parameters parameters for the effect's activation, with the targeted island as its id, see {@link Game#effectIslandID}
      */
-    public synchronized void npcActivated(SocketHandler client_handler, int npc_index, EffectParameters effect_parameters) {
+    public synchronized void npcActivated(SocketHandler client_handler, int requestID, int npc_index, EffectParameters effect_parameters) {
         if(game != null) {
+            EffectParameters parameters = game.effectIslandIndex(npc_index, effect_parameters);
+            if(rejected(client_handler, requestID, game.validateEffect(client_handler.getClientID(), npc_index, parameters)))
+                return;
             try {
-                game.activateEffect(client_handler.getClientID(), npc_index, effect_parameters);
+                game.activateEffect(client_handler.getClientID(), npc_index, parameters);
             } catch(InvalidMoveException e) {
-                client_handler.send(MessageForClient.error(e.getMessage(), 7));
+                client_handler.send(MessageForClient.error(e.getMessage(), 7, requestID));
                 revert();
                 return;
             }
+            //update NPCs with students on them
+            Message npc_updated = null;
+            if(game.getNpc(npc_index).getId() == 1 ||
+                game.getNpc(npc_index).getId() == 7 ||
+                game.getNpc(npc_index).getId() == 11)
+                npc_updated = MessageForClient.npcUpdated(npc_index, game.getNpc(npc_index).getExtraProperty().stream().map(x -> Colors.fromColorIndex(x)).collect(Collectors.toList()));
+
+            Message move = MessageForClient.npcActivated(client_handler.getClientID(), npc_index, effect_parameters);
+            if(npc_updated == null)
+                events.record(move);
+            else
+                events.record(move, npc_updated);
             for(ClientData client : clients)
                 if(client.clientID != client_handler.getClientID() && client.socket_handler != null)
-                    client.socket_handler.send(MessageForClient.npcActivated(client_handler.getClientID(), npc_index, effect_parameters));
+                    client.socket_handler.send(move);
 
-            //update NPCs with students on them
-            if(game.getNpcs()[npc_index].getId() == 1 ||
-                game.getNpcs()[npc_index].getId() == 7 ||
-                game.getNpcs()[npc_index].getId() == 11)
+            if(npc_updated != null)
                 for(ClientData client : clients)
                     if(client.socket_handler != null)
-                        client.socket_handler.send(MessageForClient.npcUpdated(npc_index, game.getNpcs()[npc_index].getExtraProperty().stream().map(x -> Colors.fromColorIndex(x)).collect(Collectors.toList())));
+                        client.socket_handler.send(npc_updated);
 
-            client_handler.send(MessageForClient.moveSuccessful());
+            client_handler.send(MessageForClient.sequenced(MessageForClient.moveSuccessful(requestID), events.getSequence()));
             checkWinner();
         } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
+            client_handler.send(MessageForClient.error("There is no game currently going on", 5, requestID));
         }
     }
 
+    //answers a move which did not pass the validation, the game was not touched, hence nothing has to be reverted and nobody else has to know
+    /**
+     * Rejects a move which did not pass its validation, answering only its sender with the reason of the rejection.<br>
+     * Since the lobby's instance of game has not been altered, there is nothing to revert for the other players.
+     *
+     * @param client_handler {@link SocketHandler} of the player who sent the move
+     * @param requestID id of the request carrying the move, echoed by the answer to it
+     * @param result outcome of the validation of the move
+     * @return true if the move was rejected, false if it can be performed
+     */
+    private boolean rejected(SocketHandler client_handler, int requestID, MoveResult result) {
+        if(result.isValid())
+            return false;
+        client_handler.send(MessageForClient.error(result.message, 7, requestID));
+        return true;
+    }
+
+    //handles the turn passing to a player who is not connected
     /**
-     * Allows the client to request a fresh copy of the lobby's local mode, which is sent to him.
+     * Handles the turn passing to the next player when this one is not connected: if it's temporarily disconnected its turn will be auto-played,
+     * while if it left the game its turn is immediately skipped.
+     * @see ServerLobby#autoPlay(int)
+     */
+    private void nextPlayer() {
+        //the game might have just ended
+        if(game == null)
+            return;
+
+        int index;
+        for(index = 0; index < clients.size(); index++)
+            if(clients.get(index).clientID == game.currentlyPlayingPlayer())
+                break;
+
+        //handles the case of the next player being temporarily disconnected
+        if(clients.get(index).socket_handler != null && clients.get(index).socket_handler.isClosed())
+            scheduleAutoPlay(clients.get(index).clientID);
+
+        //handles the case of the next player being completely disconnected
+        if(!ready[index]) {
+            try {
+                game.skipTurn();
+            } catch (InvalidMoveException e) {
+                e.printStackTrace();
+                return;
+            }
+
+            Message skipped = events.record(MessageForClient.skipTurn());
+            for(ClientData client : clients)
+                if(client.socket_handler != null)
+                    client.socket_handler.send(skipped);
+
+            checkWinner();
+        }
+    }
+
+    /**
+     * Records the answer of a player to a heartbeat, the same way the server does for the clients outside of a lobby.
+     * Consequence of {@link MessageForServer#heartbeatAck}
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param timestamp timestamp carried by the heartbeat
+     * @see Server#heartbeatAck
+     */
+    public void heartbeatAck(SocketHandler client_handler, long timestamp) {
+        server.heartbeatAck(client_handler, timestamp);
+    }
+
+    /**
+     * Allows the client to request a fresh copy of the lobby's local mode, which is sent to him, or of the lobby itself if no game is going on.
      * Consequence of {@link MessageForServerLobby#resync}
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
      */
     public synchronized void resync(SocketHandler client_handler) {
-        if(game != null) {
-            client_handler.send(MessageForClient.gameStarted(this.game));
-        } else {
-            client_handler.send(MessageForClient.error("There is no game currently going on", 5));
-        }
+        for (Message message : snapshot(client_handler))
+            client_handler.send(message);
+    }
+
+    /**
+     * Allows the client to request the lobby events following the last one it received, which are sent to him, or a fresh copy of the lobby's model,
+     * or of the lobby itself if no game is going on, if some of those events are no longer available.
+     * Consequence of {@link MessageForServerLobby#missedEvents}
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param last_sequence sequence number of the last lobby event received by the client, 0 to get a fresh copy
+     */
+    public synchronized void missedEvents(SocketHandler client_handler, int last_sequence) {
+        List<Message> missed = last_sequence == 0 ? null : events.since(last_sequence);
+        for (Message message : missed != null ? missed : snapshot(client_handler))
+            client_handler.send(message);
+    }
+
+    /**
+     * Provides the lobby's data and readiness states, followed by a copy of the game if one is going on,
+     * stamped with the sequence number of the last lobby event.
+     *
+     * @param socket_handler the {@link SocketHandler} whose queue is being collapsed
+     * @return the messages to send
+     */
+    @Override
+    public synchronized List<Message> snapshot(SocketHandler socket_handler) {
+        List<Message> messages = new ArrayList<>();
+        if (game == null)
+            messages.add(MessageForClient.setLobby(this.getLobbyData()));
+        messages.add(MessageForClient.readiness(this.ready));
+        if (game != null)
+            messages.add(MessageForClient.sequenced(MessageForClient.gameStarted(server.getSnapshotCache().get(lobbyID, game)), events.getSequence()));
+        return messages;
+    }
+
+    /**
+     * Takes the snapshot on this lobby's {@link Mailbox}, so that the thread which overflowed the connection never waits for the lock of this lobby.<br>
+     * A connection which left the lobby in the meantime is handed to the {@link Server} instead.
+     *
+     * @param socket_handler the {@link SocketHandler} whose queue overflowed
+     */
+    @Override
+    public void requestSnapshot(SocketHandler socket_handler) {
+        post(() -> {
+            if (clients.stream().anyMatch(client -> client.socket_handler == socket_handler))
+                socket_handler.collapse(snapshot(socket_handler));
+            else
+                server.requestSnapshot(socket_handler);
+        });
     }
 
     //checks the model for a potential winner, and in case notifies the players and resets the lobby
@@ -717,9 +935,10 @@ public class ServerLobby extends Controller {
      */
     public synchronized void checkWinner() {
         if(game.getWinnerID() != 0) {
+            Message game_ended = events.record(MessageForClient.gameEnded(game.getWinnerID()));
             for(ClientData client : clients)
                 if(client.socket_handler != null)
-                   client.socket_handler.send(MessageForClient.gameEnded(game.getWinnerID()));
+                   client.socket_handler.send(game_ended);
             //keeping the lobby intact, so that another match can be played right away!
             resetLobby();
         }
@@ -732,9 +951,10 @@ public class ServerLobby extends Controller {
      */
     private synchronized void revert() {
         game = Game.revertToPreviousState(game);
+        Message reverted = events.record(MessageForClient.revert());
         for (ClientData client : clients) {
             if (client.socket_handler != null) {
-                client.socket_handler.send(MessageForClient.revert());
+                client.socket_handler.send(reverted);
             }
         }
     }
@@ -745,6 +965,7 @@ public class ServerLobby extends Controller {
      */
     public void resetLobby() {
         this.game = null;
+        server.getSnapshotCache().invalidate(lobbyID);
         Arrays.fill(ready, false);
 
         boolean stop;
@@ -766,9 +987,18 @@ public class ServerLobby extends Controller {
             }
         }
 
-        for(Thread autoplay : autoplay_threads.values())
-            autoplay.stop();
-        autoplay_threads = new HashMap<Integer, Thread>();
+        for(Timeout autoplay : autoplay_timeouts.values())
+            autoplay.cancel();
+        autoplay_timeouts = new HashMap<Integer, Timeout>();
+        publish();
+    }
+
+    //lists the current state of the lobby in the server's directory
+    /**
+     * Updates the entry of this lobby in the server's {@link LobbyDirectory}, to be called whenever its players change or its game starts or ends.
+     */
+    private void publish() {
+        server.getLobbyDirectory().put(lobbyID, size, expert_mode, clients.stream().map(client -> client.nickname).collect(Collectors.toList()), game != null);
     }
 
     /**
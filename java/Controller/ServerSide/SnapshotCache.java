@@ -0,0 +1,90 @@
+package Controller.ServerSide;
+
+import Controller.GameSnapshot;
+import Controller.MessageForClient;
+import Model.Game;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <strong>Cache of the {@link GameSnapshot GameSnapshots} of every {@link ServerLobby} hosted by a {@link Server}</strong>.<br>
+ * A lobby asks for the snapshot of its game every time it has to send a {@link MessageForClient#gameStarted}: at the start of the game,
+ * on every resync and on every reconnection. The game is packed only if it has changed since the last snapshot,
+ * otherwise the same snapshot is handed out again, so that a burst of reconnections costs a single encoding per lobby.
+ * <br><br>
+ * A snapshot is reused only for the very same {@link Game} instance at the same {@link Game#getVersion version}, a reverted game moves its version
+ * on, hence it always results in a new snapshot.<br>
+ * Lobbies are expected to call {@link SnapshotCache#get} while holding their own lock, different lobbies can use the cache concurrently.
+ */
+public class SnapshotCache {
+    private final Map<Integer, CachedSnapshot> snapshots;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a new empty cache.
+     */
+    public SnapshotCache() {
+        this.snapshots = new ConcurrentHashMap<Integer, CachedSnapshot>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Provides the snapshot of the given game, taking a new one only if the game has changed since the last call for the same lobby.
+     *
+     * @param lobbyID id of the {@link ServerLobby} owning the game
+     * @param game    the lobby's current {@link Game}
+     * @return a {@link GameSnapshot} of the game in its current state
+     */
+    public GameSnapshot get(int lobbyID, Game game) {
+        CachedSnapshot cached = snapshots.get(lobbyID);
+        if (cached != null && cached.game == game && cached.snapshot.getVersion() == game.getVersion()) {
+            hits.increment();
+            return cached.snapshot;
+        }
+
+        misses.increment();
+        GameSnapshot snapshot = GameSnapshot.of(game);
+        snapshots.put(lobbyID, new CachedSnapshot(game, snapshot));
+        return snapshot;
+    }
+
+    /**
+     * Forgets the snapshot of a lobby, to be called once its game is over or the lobby is deleted.
+     *
+     * @param lobbyID id of the {@link ServerLobby}
+     */
+    public void invalidate(int lobbyID) {
+        snapshots.remove(lobbyID);
+    }
+
+    /**
+     * @return number of snapshots handed out again without encoding the game
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of snapshots taken
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
+
+/**
+ * The last snapshot taken for a lobby, along with the instance of {@link Game} it was taken from.
+ */
+class CachedSnapshot {
+    public final Game game;
+    public final GameSnapshot snapshot;
+
+    public CachedSnapshot(Game game, GameSnapshot snapshot) {
+        this.game = game;
+        this.snapshot = snapshot;
+    }
+}
@@ -2,12 +2,13 @@ package Controller;
 
 import Controller.ServerSide.Server;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /*
 This class represents what an endpoint has to see of a socket connection, that being a way to receive updates when something
@@ -33,8 +34,17 @@ public class SocketHandler {
     protected Socket socket;
     protected Controller controller;
     protected int clientID;
+    //codec used to frame messages, null when messages are written on a continuous Java object stream
+    protected final MessageCodec codec;
     private final SocketReceiver socket_receiver;
     private final SocketSender socket_sender;
+    //number of pending outgoing messages after which overflow_policy is applied, 0 for an unbounded queue
+    private volatile int send_queue_limit;
+    private volatile OverflowPolicy overflow_policy;
+    //set while an overflow is being handled, so that a single sender applies the policy
+    private final AtomicBoolean overflowing;
+    //System.currentTimeMillis() of the last frame received, or of the creation of the connection
+    protected volatile long last_read_time;
 
     /**
      * Constructor that produces a new {@link SocketHandler} wrapped around the provided {@link Socket},
@@ -45,11 +55,28 @@ public class SocketHandler {
      * @param controller {@link Controller} acting as an OBSERVER, target of any upcoming update
      */
     public SocketHandler(Socket socket, Controller controller) {
+        this(socket, controller, null);
+    }
+
+    /**
+     * Constructor that produces a new {@link SocketHandler} wrapped around the provided {@link Socket}, exchanging length-prefixed frames
+     * encoded by the given {@link MessageCodec} instead of a continuous Java object stream.
+     *
+     * @param socket {@link Socket} to wrap
+     * @param controller {@link Controller} acting as an OBSERVER, target of any upcoming update
+     * @param codec {@link MessageCodec} used for every frame, null to use a continuous Java object stream
+     */
+    public SocketHandler(Socket socket, Controller controller, MessageCodec codec) {
         this.socket = socket;
         this.controller = controller;
+        this.codec = codec;
         this.clientID = 0;
         this.socket_receiver = new SocketReceiver(this);
         this.socket_sender = new SocketSender(this);
+        this.send_queue_limit = 0;
+        this.overflow_policy = OverflowPolicy.DISCONNECT;
+        this.overflowing = new AtomicBoolean(false);
+        this.last_read_time = System.currentTimeMillis();
     }
 
     /**
@@ -95,6 +122,24 @@ public class SocketHandler {
         return socket.isClosed();
     }
 
+    /**
+     * Provides the time the last frame has been received on the connection, whatever the {@link Message} it carried, so that any incoming traffic
+     * proves the other end to be alive.
+     *
+     * @return the {@link System#currentTimeMillis()} of the last frame received, or of the creation of this handler if none has been received yet
+     */
+    public long getLastReadTime() {
+        return last_read_time;
+    }
+
+    /**
+     * Severs the connection because the other end has gone silent for too long, the closure being performed by the thread reading the connection,
+     * as for an expired {@link Socket#setSoTimeout read timeout}.
+     */
+    public void expire() {
+        abortConnection();
+    }
+
     /**
      * Provides the thread that handles the receiving of {@link Message Messages}, it's up to the caller
      * how to run said thread, but unless it runs no {@link Message} will be received.
@@ -115,14 +160,111 @@ public class SocketHandler {
         return socket_sender;
     }
 
+    /**
+     * Provides the counters describing how the outgoing {@link Message Messages} of this connection are being written.
+     *
+     * @return this connection's {@link SenderStatistics}
+     */
+    public SenderStatistics getSenderStatistics() {
+        return socket_sender.getStatistics();
+    }
+
     /**
      * Queues a new message to be sent to the other side of the wrapped connection by the dedicated thread.
      *
      * @param message {@link Message} to send
      */
     public void send(Message message) {
-        if (!socket.isClosed())
-            socket_sender.send(message);
+        if (isClosed())
+            return;
+
+        if (send_queue_limit > 0 && getSenderStatistics().getQueueDepth() >= send_queue_limit)
+            handleOverflow();
+        else
+            enqueue(message);
+    }
+
+    /**
+     * Bounds the queue of outgoing {@link Message Messages}, once it holds <code>send_queue_limit</code> messages any further
+     * {@link SocketHandler#send} applies the given {@link OverflowPolicy} instead of queuing.
+     *
+     * @param send_queue_limit maximum number of pending messages, 0 for an unbounded queue
+     * @param overflow_policy  {@link OverflowPolicy} to apply once the limit is reached
+     */
+    public void setSendQueueLimit(int send_queue_limit, OverflowPolicy overflow_policy) {
+        this.send_queue_limit = send_queue_limit;
+        this.overflow_policy = overflow_policy;
+    }
+
+    /**
+     * Applies the {@link OverflowPolicy} of this connection to its full queue, the message that caused the overflow is dropped as well.<br>
+     * No lock is taken, since senders may be holding the lock of a {@link Controller}: messages sent while another thread is handling
+     * the overflow are simply dropped, and the snapshot is only requested to the {@link Controller}, which provides it through
+     * {@link SocketHandler#collapse} without making the sender wait for its lock.
+     */
+    protected void handleOverflow() {
+        SenderStatistics statistics = getSenderStatistics();
+        if (!overflowing.compareAndSet(false, true)) {
+            statistics.recordDropped(1);
+            return;
+        }
+
+        try {
+            statistics.recordOverflow();
+            statistics.recordDropped(dropPending() + 1);
+            switch (overflow_policy) {
+                case DROP_AND_RESYNC -> enqueue(MessageForClient.error("Too many messages pending, a resync is needed", 8));
+                case COLLAPSE_TO_SNAPSHOT -> controller.requestSnapshot(this);
+                case DISCONNECT -> abortConnection();
+            }
+        } finally {
+            overflowing.set(false);
+        }
+    }
+
+    /**
+     * Replaces every message still waiting to be written with the given snapshot, answering a {@link Controller#requestSnapshot}.<br>
+     * The snapshot is queued regardless of the limit of the queue, and the messages it replaces are counted as dropped.
+     *
+     * @param snapshot the messages bringing the other end of the connection up to date
+     */
+    public void collapse(List<Message> snapshot) {
+        if (isClosed())
+            return;
+
+        getSenderStatistics().recordDropped(dropPending());
+        for (Message message : snapshot)
+            enqueue(message);
+    }
+
+    /**
+     * Queues a message to be written on the connection.
+     *
+     * @param message {@link Message} to queue
+     */
+    protected void enqueue(Message message) {
+        socket_sender.send(message);
+    }
+
+    /**
+     * Removes every message waiting to be written on the connection.
+     *
+     * @return the number of messages removed
+     */
+    protected int dropPending() {
+        return socket_sender.dropPending();
+    }
+
+    /**
+     * Severs the connection from the receiving side, so that the usual closure, {@link Controller#handleDisconnect} included,
+     * is performed by the thread reading the connection rather than by the caller, which might be holding a {@link Controller}'s lock.
+     */
+    protected void abortConnection() {
+        try {
+            socket.shutdownInput();
+        } catch (IOException e) {
+            closeSocket();
+        }
     }
 
     /**
@@ -157,17 +299,23 @@ class SocketReceiver implements Runnable {
      * {@inheritDoc}
      */
     public void run() {
-        ObjectInputStream in;
+        ObjectInputStream in = null;
+        DataInputStream frames = null;
         try {
-            in = new ObjectInputStream(socket_handler.socket.getInputStream());
+            if (socket_handler.codec == null)
+                in = new ObjectInputStream(socket_handler.socket.getInputStream());
+            else
+                frames = new DataInputStream(new BufferedInputStream(socket_handler.socket.getInputStream()));
         } catch (IOException e) {
-            e.printStackTrace();
+            //the connection dropped before the stream header arrived
+            socket_handler.closeSocket();
             return;
         }
 
         while (!socket_handler.socket.isClosed()) {
             try {
-                Message message = (Message) in.readUnshared();
+                Message message = in != null ? (Message) in.readUnshared() : readFrame(frames);
+                socket_handler.last_read_time = System.currentTimeMillis();
                 //System.out.println("SocketHandler - Input read.");
                 socket_handler.controller.update(socket_handler, message);
             } catch (ClassNotFoundException e) {
@@ -179,15 +327,42 @@ class SocketReceiver implements Runnable {
             }
         }
     }
+
+    /**
+     * Reads a length-prefixed frame and decodes it with the {@link SocketHandler}'s codec.
+     *
+     * @param frames stream the frames are read from
+     * @return the decoded {@link Message}
+     * @throws IOException if the connection dropped or the frame is malformed
+     * @throws ClassNotFoundException if the frame references an unknown class
+     */
+    private Message readFrame(DataInputStream frames) throws IOException, ClassNotFoundException {
+        int length = frames.readInt();
+        if (length < 0 || length > MessageCodec.MAX_FRAME_SIZE)
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        byte[] frame = new byte[length];
+        frames.readFully(frame);
+        return socket_handler.codec.decode(frame);
+    }
 }
 
 //handles the sending of messages to the client it is referred to
 /**
- * Local class used by {@link SocketHandler} to house the thread that sends messages.
+ * Local class used by {@link SocketHandler} to house the thread that sends messages.<br>
+ * Producers append to a lock-free queue and unpark the sender, which drains everything pending in a single pass,
+ * writing up to {@link SocketSender#MAX_BATCH} messages into a buffered stream before flushing it once, so that a burst of messages
+ * results in as few writes on the connection as possible.<br>
+ * Every flush is recorded in the {@link SenderStatistics} of the {@link SocketHandler}.
  */
 class SocketSender implements Runnable {
+    //upper bound of messages written between two flushes, so that a steady stream of messages still gets flushed
+    public final static int MAX_BATCH = 64;
+    private final static int BUFFER_SIZE = 1 << 16;
+
     private final SocketHandler socket_handler;
-    private final List<Message> messages;
+    private final Queue<QueuedMessage> messages;
+    private final SenderStatistics statistics;
+    private volatile Thread sender_thread;
 
     /**
      * Constructor that memorizes a reference to the associated {@link SocketHandler}, whose connection is used to send {@link Message Messages}.
@@ -196,47 +371,101 @@ class SocketSender implements Runnable {
      */
     public SocketSender(SocketHandler socket_handler) {
         this.socket_handler = socket_handler;
-        messages = new ArrayList<Message>();
+        this.messages = new ConcurrentLinkedQueue<QueuedMessage>();
+        this.statistics = new SenderStatistics();
+        this.sender_thread = null;
     }
 
     /**
-     * Queues a {@link Message} to be sent.
+     * Queues a {@link Message} to be sent, a null message only wakes up the sender so that it can notice the connection being closed.
      *
      * @param message {@link Message} to send
      */
-    public synchronized void send(Message message) {
-        messages.add(message);
-        this.notifyAll();
+    public void send(Message message) {
+        if (message != null) {
+            messages.add(new QueuedMessage(message, System.nanoTime()));
+            statistics.recordEnqueue();
+        }
+        LockSupport.unpark(sender_thread);
+    }
+
+    /**
+     * Removes every message still waiting in the queue.
+     *
+     * @return the number of messages removed
+     */
+    public int dropPending() {
+        int dropped = 0;
+        while (messages.poll() != null)
+            dropped++;
+        statistics.recordDequeue(dropped);
+        return dropped;
+    }
+
+    /**
+     * @return the counters of the flushes performed by this sender
+     */
+    public SenderStatistics getStatistics() {
+        return statistics;
     }
 
     /**
      * {@inheritDoc}
      */
-    public synchronized void run() {
-        ObjectOutputStream out;
+    public void run() {
+        sender_thread = Thread.currentThread();
+
+        ObjectOutputStream out = null;
+        DataOutputStream frames = null;
         try {
-            out = new ObjectOutputStream(socket_handler.socket.getOutputStream());
+            BufferedOutputStream buffer = new BufferedOutputStream(socket_handler.socket.getOutputStream(), BUFFER_SIZE);
+            if (socket_handler.codec == null) {
+                out = new ObjectOutputStream(buffer);
+                out.flush();
+            } else
+                frames = new DataOutputStream(buffer);
         } catch (IOException e) {
             e.printStackTrace();
             return;
         }
 
         while (!socket_handler.socket.isClosed()) {
-            while (messages.size() == 0) {
-                try {
-                    this.wait();
-                    if (socket_handler.socket.isClosed())
-                        return;
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+            QueuedMessage queued = messages.poll();
+            if (queued != null)
+                statistics.recordDequeue(1);
+            if (queued == null) {
+                //spurious wake ups are harmless, the queue is simply checked again
+                LockSupport.park(this);
+                continue;
             }
-            Message message = messages.remove(0);
 
+            int batch = 0;
+            long total_wait = 0, max_wait = 0;
             try {
-                out.writeObject(message);
-                out.flush();
-                out.reset();
+                do {
+                    if (out != null) {
+                        out.writeObject(queued.message);
+                        out.reset();
+                    } else {
+                        byte[] frame = socket_handler.codec.encode(queued.message);
+                        frames.writeInt(frame.length);
+                        frames.write(frame);
+                    }
+                    long wait = System.nanoTime() - queued.enqueue_time;
+                    total_wait += wait;
+                    max_wait = Math.max(max_wait, wait);
+                    batch++;
+                    if (batch < MAX_BATCH && (queued = messages.poll()) != null)
+                        statistics.recordDequeue(1);
+                    else
+                        break;
+                } while (true);
+
+                if (out != null)
+                    out.flush();
+                else
+                    frames.flush();
+                statistics.recordFlush(batch, total_wait, max_wait);
                 //System.out.println("SocketHandler - Message sent.");
             } catch (IOException e) {
                 //e.printStackTrace();
@@ -244,4 +473,17 @@ class SocketSender implements Runnable {
             }
         }
     }
-}
\ No newline at end of file
+}
+
+/**
+ * A {@link Message} waiting in the queue of a {@link SocketSender}, along with the time it was queued at.
+ */
+class QueuedMessage {
+    public final Message message;
+    public final long enqueue_time;
+
+    public QueuedMessage(Message message, long enqueue_time) {
+        this.message = message;
+        this.enqueue_time = enqueue_time;
+    }
+}
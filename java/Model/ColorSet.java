@@ -0,0 +1,151 @@
+package Model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable set of {@link Colors}, such as the professors owned by a player or the ones still unclaimed.<br>
+ * The set is a bitmask of 5 bits, with the bit of each color being 1 shifted by its index, so that its colors are always
+ * iterated in the order of their indexes.
+ * <br><br>
+ * Since there are only 32 such sets, all of them are created once and shared, see {@link ColorSet#of}: changing a set gives back
+ * another of the shared instances without allocating anything, and two sets hold the same colors only if they are the same instance.
+ */
+public final class ColorSet implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final ColorSet[] SETS = new ColorSet[32];
+    static {
+        for (int mask = 0; mask < 32; mask++)
+            SETS[mask] = new ColorSet(mask);
+    }
+
+    public static final ColorSet EMPTY = SETS[0];
+    public static final ColorSet ALL = SETS[31];
+
+    private final int mask;
+
+    private ColorSet(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Getter for the set holding the colors of the given bitmask.
+     *
+     * @param mask bitmask of the colors, with the bit of each color being 1 shifted by its index, bits over the 5th one are ignored
+     * @return the shared instance holding those colors
+     */
+    public static ColorSet of(int mask) {
+        return SETS[mask & 31];
+    }
+
+    /**
+     * Getter for the bitmask of the colors in this set.
+     *
+     * @return bitmask of the colors, with the bit of each color being 1 shifted by its index
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Checks whether the given color is in this set.
+     *
+     * @param color the color to check
+     * @return true if the color is in this set
+     */
+    public boolean contains(Colors color) {
+        return contains(color.index);
+    }
+
+    /**
+     * Checks whether the color with the given index is in this set.
+     *
+     * @param index index of the color to check
+     * @return true if the color is in this set
+     */
+    public boolean contains(int index) {
+        return (mask & 1 << index) != 0;
+    }
+
+    /**
+     * Getter for this set with the given color added.
+     *
+     * @param color the color to add
+     * @return the set holding the colors of this one and the given one
+     */
+    public ColorSet with(Colors color) {
+        return SETS[mask | 1 << color.index];
+    }
+
+    /**
+     * Getter for this set with the given color removed.
+     *
+     * @param color the color to remove
+     * @return the set holding the colors of this one except the given one
+     */
+    public ColorSet without(Colors color) {
+        return SETS[mask & ~(1 << color.index)];
+    }
+
+    /**
+     * Getter for the number of colors in this set.
+     *
+     * @return number of colors in this set
+     */
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * Checks whether this set holds no color.
+     *
+     * @return true if this set is empty
+     */
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * Getter for one of the colors in this set, with the colors sorted by their index.
+     *
+     * @param index index of the color among those in this set, from 0 to {@link ColorSet#size} (excluded)
+     * @return the requested color
+     * @throws IndexOutOfBoundsException if the index is not among those of this set's colors
+     */
+    public Colors get(int index) {
+        int remaining = mask;
+        for (int i = 0; i < index && remaining != 0; i++)
+            remaining &= remaining - 1;
+        if (index < 0 || remaining == 0)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size() + " colors");
+        return Colors.fromColorIndex(Integer.numberOfTrailingZeros(remaining));
+    }
+
+    /**
+     * Getter for the colors in this set as a new list, sorted by their index.
+     *
+     * @return list of the colors in this set
+     */
+    public List<Colors> toList() {
+        List<Colors> colors = new ArrayList<Colors>(size());
+        for (int i = 0; i < 5; i++)
+            if (contains(i))
+                colors.add(Colors.fromColorIndex(i));
+        return colors;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+
+    //keeps the instances shared after deserialization
+    @Serial
+    private Object readResolve() {
+        return SETS[mask];
+    }
+}
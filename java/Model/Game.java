@@ -5,7 +5,7 @@ import org.jetbrains.annotations.TestOnly;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.function.IntUnaryOperator;
 
 //NB: outside of Game, only clientID should be used to refer to specific players
 
@@ -26,6 +26,8 @@ DEPRECATED - now game starts with game_turn at 1 - in game_turn 0 each player (o
 /**
  * Main model class, contains the global state of the game and all the references to the specific classes complementing it.
  * All the game logic is handled here, with a dedicated exception: {@link InvalidMoveException} being thrown whenever an illegal move is requested.
+ * Every move can also be checked beforehand by its validate method, such as {@link Game#validatePlayCard}, which returns a {@link MoveResult} without
+ * altering the game, and the move itself performs the same checks before changing anything.
  * <br><br>
  * <p>
  * <strong>How a game evolves:</strong>
@@ -70,8 +72,11 @@ DEPRECATED - now game starts with game_turn at 1 - in game_turn 0 each player (o
  */
 public class Game implements Serializable {
     //maybe make this transient
+
     private final List<Player> players;
-    protected List<Colors> random_students; //pre-computed order in which students are extracted form the pouch
+    protected ColorBag pouch; //students still to be extracted, drawn at random unless the pouch keeps them in a set order
+    private final long seed; //seed the game was dealt from, the same seed and moves always give back the same game
+    private long random_state; //state of the generator dealing the game and drawing the students from the pouch, see nextRandom
     public final boolean expert_mode;
 
     private int game_turn; //current turn in the whole game, turn 0 is just card-deck selection and general setup
@@ -82,10 +87,10 @@ public class Game implements Serializable {
 
     private final List<Integer> current_phase_order; //this is ordered from the player who played the LOWEST value card to the one who played the HIGHEST
 
-    private List[] clouds;
+    private OrderedColorBag[] clouds;
     private int mother_nature;
     protected List<Island> islands; //The graphics for the island is chosen based on the index of the island in this array + its number of merged islands
-    private final List<Colors> unclaimed_professors; //professors which are still not claimed by any player
+    private final ProfessorTable professors; //owner of each professor, including which ones are still not claimed by any player
     private Npc[] npcs;
     protected int npc_effect; //is usually 0, except when a Npc effect is activated and is has not resolved upon activation, but instead is due to resolve at some point during this turn, in which case it is the UID of that effect's npc
     protected int bank;
@@ -93,8 +98,10 @@ public class Game implements Serializable {
     private boolean last_game_turn;
     private boolean game_ended;
     private int winnerID;
+    private long position_hash; //xor of the keys of the counters, flags, generator, turn order, clouds and npcs, kept up to date by their setters, see positionHash
 
-    private transient byte[] serialized_game_copy; //contains a copy of this class's instance adjourned at the end of each turn, used to revert changes
+    protected transient UndoJournal journal; //changes made since the end of the last turn, used to revert them
+    private transient int version; //counts the calls to the methods altering this instance, failed moves and reverts included, starts from 0 for every copy
 
     //those constructors are called only by ServerLobby after the Game settings are decided and every player is present
     //alternatively the class can be constructed by deserialization in the client
@@ -102,25 +109,44 @@ public class Game implements Serializable {
     //Create new fresh Game
 
     /**
-     * Creates fresh and ready-to-start instance of Game.<br>
+     * Creates fresh and ready-to-start instance of Game, dealt from a seed picked at random.<br>
      * The number of provided players alters the game's setting according to the rules for 2 or 3 players.
      *
      * @param expert_mode flag to enable expert mode in the newly created game
      * @param clientIDs   list of the clientsId of the players which will take part in the game
+     * @see Game#Game(boolean, List, long)
      */
     public Game(boolean expert_mode, List<Integer> clientIDs) {
-        this.random_students = new ArrayList<Colors>();
+        this(expert_mode, clientIDs, new Random().nextLong());
+    }
+
+    /**
+     * Creates fresh and ready-to-start instance of Game, dealt from the given seed.<br>
+     * The number of provided players alters the game's setting according to the rules for 2 or 3 players.
+     * <br><br>
+     * Every random choice of the game, from the students on the islands and the position of mother nature to the npcs in play and the students
+     * drawn from the pouch, comes from the game's own generator, started from the seed. Hence two games with the same seed, players and mode
+     * are dealt the same, and stay the same as long as the same moves are played on them.
+     *
+     * @param expert_mode flag to enable expert mode in the newly created game
+     * @param clientIDs   list of the clientsId of the players which will take part in the game
+     * @param seed        seed of the game's generator, see {@link Game#getSeed}
+     */
+    public Game(boolean expert_mode, List<Integer> clientIDs, long seed) {
+        this.journal = new UndoJournal();
+        this.seed = seed;
+        this.random_state = seed;
+        this.pouch = new ColorBag();
         for (int i = 0; i < 5; i++) {
             //24 is indeed correct, see temp variable down the line
             for (int j = 0; j < 24; j++) {
-                this.random_students.add(Colors.fromColorIndex(i));
+                this.pouch.add(Colors.fromColorIndex(i));
             }
         }
-        Collections.shuffle(random_students);
 
         this.players = new ArrayList<Player>();
         for (int i = 0; i < clientIDs.size(); i++)
-            this.players.add(new Player(clientIDs.get(i), extractStudents(clientIDs.size() == 2 ? 7 : 9), clientIDs.size(), i, expert_mode ? 1 : 0));
+            this.players.add(new Player(clientIDs.get(i), extractStudents(clientIDs.size() == 2 ? 7 : 9).toList(), clientIDs.size(), i, expert_mode ? 1 : 0));
 
         this.expert_mode = expert_mode;
         this.game_turn = 1;
@@ -129,31 +155,30 @@ public class Game implements Serializable {
         this.step = 0;
         this.moved_students = 0;
         this.current_phase_order = clientIDs.size() == 2 ? new ArrayList<>(List.of(0, 1)) : new ArrayList<>(List.of(0, 1, 2));
-        this.clouds = new List[clientIDs.size()];
+        this.clouds = new OrderedColorBag[clientIDs.size()];
         for (int i = 0; i < clientIDs.size(); i++) {
             //sets up 3 students if there are only 2 players, otherwise sets up 4
-            this.clouds[i] = new ArrayList<Colors>(extractStudents(players.size() + 1));
+            this.clouds[i] = extractStudents(players.size() + 1);
         }
 
         //must be done to allow only 2 students for each color to be set on islands
-        List<Colors> temp = new ArrayList<Colors>();
+        ColorBag temp = new ColorBag();
         for (int i = 0; i < 5; i++) {
             for (int j = 0; j < 2; j++) {
                 temp.add(Colors.fromColorIndex(i));
             }
         }
-        Collections.shuffle(temp);
-        this.mother_nature = (new Random()).nextInt(12);
+        this.mother_nature = nextRandom(12);
         this.islands = new ArrayList<Island>();
         for (int i = 0; i < 12; i++) {
             if (i == (this.mother_nature + 6) % 12 || i == this.mother_nature)
                 this.islands.add(new Island(null, i));
             else
-                this.islands.add(new Island(temp.remove(0), i));
+                this.islands.add(new Island(temp.draw(nextRandom(temp.size())), i));
         }
-
-        this.unclaimed_professors = new ArrayList<Colors>();
-        this.unclaimed_professors.addAll(Arrays.asList(Colors.values()));
+        this.professors = new ProfessorTable();
+        linkIslands();
+        trackInfluence();
 
         if (expert_mode) {
             this.npcs = NpcFactory.factoryMethod(this);
@@ -165,10 +190,9 @@ public class Game implements Serializable {
         this.last_game_turn = false;
         this.game_ended = false;
         this.winnerID = 0;
+        this.position_hash = computePositionHash();
 
-        this.serialized_game_copy = null;
-
-        updateSerializedGameCopy();
+        checkpoint();
     }
 
     /**
@@ -176,16 +200,22 @@ public class Game implements Serializable {
      * @param expert_mode flag to enable expert mode in the newly created game
      * @param players list containing the {@link Player}s for this game
      * @param clientIDs list of the clientsId of the players which will take part in the game
-     * @param students students list to be used for this fame
+     * @param students students list to be used for this fame, which are extracted from the pouch in the given order
      * @param mother_nature initial Mother Nature position
      * @param islands list containing the {@link Island}s to be used for this game
      * @param npcs list containing the {@link Npc}s to be used for this game (eventually null if this game is not in expert mode)
      * @param unclaimed_professors list of {@link Colors} representing the still unclaimed professors.
-     * @implNote This constructor is meant to be used for testing purposes only.
+     * @implNote This constructor is meant to be used for testing purposes only.<br>
+     * The game's seed is 0, the students being drawn in the given order anyway.<br>
+     * The owner of each professor is read from the players' dashboards, so the unclaimed professors are expected to be exactly the ones
+     * on none of them.
      */
     @TestOnly
     public Game(boolean expert_mode, List<Player> players, List<Integer> clientIDs, List<Colors> students, int mother_nature, List<Island> islands, Npc[] npcs, List<Colors> unclaimed_professors) {
-        this.random_students = students;
+        this.journal = new UndoJournal();
+        this.seed = 0;
+        this.random_state = 0;
+        this.pouch = new OrderedColorBag(students);
         this.players = players;
         this.expert_mode = expert_mode;
         this.game_turn = 1;
@@ -194,16 +224,17 @@ public class Game implements Serializable {
         this.step = 0;
         this.moved_students = 0;
         this.current_phase_order = clientIDs.size() == 2 ? new ArrayList<>(List.of(0, 1)) : new ArrayList<>(List.of(0, 1, 2));
-        this.clouds = new List[clientIDs.size()];
+        this.clouds = new OrderedColorBag[clientIDs.size()];
         for (int i = 0; i < clientIDs.size(); i++) {
             //sets up 3 students if there are only 2 players, otherwise sets up 4
-            this.clouds[i] = new ArrayList<Colors>(extractStudents(players.size() + 1));
+            this.clouds[i] = extractStudents(players.size() + 1);
         }
 
         this.mother_nature = mother_nature;
         this.islands = new ArrayList<Island>(islands);
-
-        this.unclaimed_professors = unclaimed_professors;
+        this.professors = new ProfessorTable(players);
+        linkIslands();
+        trackInfluence();
 
         if(expert_mode)
             this.npcs = npcs.clone();
@@ -214,10 +245,43 @@ public class Game implements Serializable {
         this.last_game_turn = false;
         this.game_ended = false;
         this.winnerID = 0;
+        this.position_hash = computePositionHash();
 
-        this.serialized_game_copy = null;
+        checkpoint();
+    }
 
-        updateSerializedGameCopy();
+    /**
+     * Rebuilds a {@link Game} from its packed state, used by {@link PackedGame#toGame}.
+     *
+     * @param packed the packed state of the game
+     */
+    protected Game(PackedGame packed) {
+        this.journal = new UndoJournal();
+        this.pouch = packed.unpackPouch();
+        this.seed = packed.getSeed();
+        this.random_state = packed.getRandomState();
+        this.players = packed.unpackPlayers();
+        this.expert_mode = packed.isExpertMode();
+        this.game_turn = packed.getGameTurn();
+        this.phase = packed.getPhase();
+        this.player_turn = packed.getPlayerTurn();
+        this.step = packed.getStep();
+        this.moved_students = packed.getMovedStudents();
+        this.current_phase_order = packed.unpackPhaseOrder();
+        this.clouds = packed.unpackClouds();
+        this.mother_nature = packed.getMotherNature();
+        this.islands = packed.unpackIslands();
+        this.professors = new ProfessorTable(players);
+        linkIslands();
+        trackInfluence();
+        if (expert_mode)
+            this.npcs = packed.unpackNpcs();
+        this.npc_effect = packed.getNpcEffect();
+        this.bank = packed.getBank();
+        this.last_game_turn = packed.isLastGameTurn();
+        this.game_ended = packed.isGameEnded();
+        this.winnerID = packed.getWinnerID();
+        this.position_hash = computePositionHash();
     }
 
     //If the turn is correct, allows the player to play one of his cards
@@ -236,42 +300,23 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void playCard(int clientID, int card_index) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 0 || game_ended) throw new InvalidMoveException("Cannot be performed in the current game state.");
-        if (card_index < 0 || card_index >= players.get(playerIndexFromID(clientID)).getCards().size())
-            throw new InvalidMoveException("Invalid card index.");
-
-        //case of 3 players, all with the same 2 cards in hand
-        boolean rare_skip = false;
-        if (players.size() == 3 && players.get(playerIndexFromID(clientID)).getCards().size() == 2 && player_turn == 2) {
-            rare_skip = true;
-            for (Card card : players.get(playerIndexFromID(clientID)).getCards()) {
-                if (card.order_value != players.get(current_phase_order.get(0)).getLastCardPlayed().order_value &&
-                        card.order_value != players.get(current_phase_order.get(1)).getLastCardPlayed().order_value) {
-                    rare_skip = false;
-                    break;
-                }
-            }
-        }
-        //no-one must have played a card with the same order_value, except if that's the last card available.
-        if (players.get(playerIndexFromID(clientID)).getCards().size() > 1 && !rare_skip) {
-            boolean temp = false;
-            for (int i = 0; i < player_turn; i++)
-                if (players.get(current_phase_order.get(i)).getLastCardPlayed().order_value == players.get(playerIndexFromID(clientID)).getCards().get(card_index).order_value)
-                    temp = true;
-            if (temp)
-                throw new InvalidMoveException("A card with the same value has already been played.");
-        }
+        version++;
+        MoveResult result = validatePlayCard(clientID, card_index);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
 
-        players.get(playerIndexFromID(clientID)).playCard(card_index);
+        recordCounters();
+        Player player = players.get(playerIndexFromID(clientID));
+        Card previous_card_played = player.getLastCardPlayed();
+        player.playCard(card_index);
+        journal.record(() -> player.unplayCard(card_index, previous_card_played));
 
-        player_turn++;
+        setPlayerTurn(player_turn + 1);
         //if everyone has played a card, computes the order in which players will play and then goes to the next phase!
         if (player_turn == players.size()) {
-            player_turn = 0;
-            phase = 1;
-            step = 0;
-            moved_students = 0;
+            setPlayerTurn(0);
+            setPhase(1);
+            setStep(0);
+            setMovedStudents(0);
             List<Integer> temp_phase_order = new ArrayList<Integer>();
             for (int i = 0; i < players.size(); i++) {
                 int min = 0;
@@ -286,14 +331,13 @@ public class Game implements Serializable {
                 }
                 temp_phase_order.add(current_phase_order.get(min));
             }
-            current_phase_order.clear();
-            current_phase_order.addAll(temp_phase_order);
+            setPhaseOrder(temp_phase_order);
 
             //it's arbitrary that this is done on the player with index 0
-            if (players.get(0).getCards().size() == 0)
-                last_game_turn = true;
+            if (players.get(0).getCardsSize() == 0)
+                setLastGameTurn(true);
 
-            updateSerializedGameCopy();
+            checkpoint();
         }
         //System.out.println("played card " + card_index + " by " + clientID);
     }
@@ -314,24 +358,25 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void setStudentToHall(int clientID, int student_index) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 1 || step != 0 || game_ended)
-            throw new InvalidMoveException("Cannot be performed in the current game state.");
-        if (student_index >= players.get(playerIndexFromID(clientID)).getDashboard().getEntrance().size() || student_index < 0)
-            throw new InvalidMoveException("Invalid student index.");
-
-        Colors student = players.get(playerIndexFromID(clientID)).getDashboard().removeFromEntrance(student_index);
-        players.get(playerIndexFromID(clientID)).getDashboard().addStudentToHall(student);
-        if (players.get(playerIndexFromID(clientID)).getDashboard().getHallRow(student) % 3 == 0 && expert_mode && bank > 0) {
-            players.get(playerIndexFromID(clientID)).addCoin();
-            bank--;
+        version++;
+        MoveResult result = validateStudentToHall(clientID, student_index);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
+
+        recordCounters();
+        Player player = players.get(playerIndexFromID(clientID));
+        Colors student = removeFromEntrance(player, student_index);
+        addStudentToHall(player, student);
+        if (player.getDashboard().getHallRow(student) % 3 == 0 && expert_mode && bank > 0) {
+            player.addCoin();
+            journal.record(player::removeCoin);
+            setBank(bank - 1);
         }
         updateProfessors();
 
-        moved_students++;
+        setMovedStudents(moved_students + 1);
         if ((moved_students == 3 && players.size() == 2) || (moved_students == 4 && players.size() == 3)) {
-            step++;
-            moved_students = 0;
+            setStep(step + 1);
+            setMovedStudents(0);
         }
         //System.out.println("set student to hall " + student_index + " by " + clientID);
     }
@@ -354,19 +399,17 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void setStudentToIsland(int clientID, int student_index, int island_index) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 1 || step != 0 || game_ended)
-            throw new InvalidMoveException("Cannot be performed in the current game state.");
-        if (student_index >= players.get(playerIndexFromID(clientID)).getDashboard().getEntrance().size() || student_index < 0)
-            throw new InvalidMoveException("Invalid student index.");
-        if (island_index >= islands.size() || island_index < 0) throw new InvalidMoveException("Invalid island index.");
+        version++;
+        MoveResult result = validateStudentToIsland(clientID, student_index, island_index);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
 
-        islands.get(island_index).addStudent(players.get(playerIndexFromID(clientID)).getDashboard().removeFromEntrance(student_index));
+        recordCounters();
+        addStudentToIsland(islands.get(island_index), removeFromEntrance(players.get(playerIndexFromID(clientID)), student_index));
 
-        moved_students++;
+        setMovedStudents(moved_students + 1);
         if ((moved_students == 3 && players.size() == 2) || (moved_students == 4 && players.size() == 3)) {
-            step++;
-            moved_students = 0;
+            setStep(step + 1);
+            setMovedStudents(0);
         }
         //System.out.println("set student " + student_index + " to island " + island_index + " by " + clientID);
     }
@@ -387,30 +430,28 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void moveMotherNature(int clientID, int moves) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 1 || step != 1 || game_ended)
-            throw new InvalidMoveException("Cannot be performed in the current game state.");
-        if ((moves > players.get(playerIndexFromID(clientID)).getLastCardPlayed().movements_value && npc_effect != 4) ||
-                (moves > players.get(playerIndexFromID(clientID)).getLastCardPlayed().movements_value + 2 && npc_effect == 4) || moves < 1)
-            throw new InvalidMoveException("Invalid moves number.");
-
-        mother_nature = (mother_nature + moves) % islands.size();
+        version++;
+        MoveResult result = validateMotherNature(clientID, moves);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
+
+        recordCounters();
+        setMotherNature((mother_nature + moves) % islands.size());
         disputeIsland(mother_nature);
 
-        step++;
+        setStep(step + 1);
 
         if (last_game_turn) {
             //check for winner if there are either no more cards to play or no more students to set on clouds
             if (player_turn == players.size() - 1) {
-                game_ended = true;
-                winnerID = computeWinnerBasedOnTowers();
+                setGameEnded(true);
+                setWinnerID(computeWinnerBasedOnTowers());
                 return;
             }
-            step = 0;
-            player_turn++;
-            npc_effect = 0;
+            setStep(0);
+            setPlayerTurn(player_turn + 1);
+            setNpcEffect(0);
 
-            updateSerializedGameCopy();
+            checkpoint();
         }
         //System.out.println("moved MN " + moves + " by " + clientID);
     }
@@ -430,26 +471,63 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void chooseCloud(int clientID, int cloud_index) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 1 || step != 2 || game_ended)
-            throw new InvalidMoveException("Cannot be performed in the current game state.");
-        if (cloud_index >= players.size() || cloud_index < 0 || clouds[cloud_index].size() == 0)
-            throw new InvalidMoveException("Invalid cloud index.");
+        version++;
+        MoveResult result = validateCloud(clientID, cloud_index);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
 
         players.get(playerIndexFromID(clientID)).getDashboard().addToEntrance(clouds[cloud_index]);
+        position_hash ^= cloudKey(cloud_index);
         clouds[cloud_index].clear();
 
-        step = 0;
-        player_turn++;
-        npc_effect = 0;
+        setStep(0);
+        setPlayerTurn(player_turn + 1);
+        setNpcEffect(0);
         if (player_turn >= players.size()) {
             goToNextGameTurn();
         }
 
-        updateSerializedGameCopy();
+        checkpoint();
         //System.out.println("chosen cloud " + cloud_index + " by " + clientID);
     }
 
+    //Allows the player to perform its student moves, and eventually the following moves of its turn, all at once
+
+    /**
+     * Allows the player associated to the clientId to perform, in a single call, the moves of its action phase turn: the given students are set
+     * in order, each one to the island at the same position in destinations or to the hall if that's null, then, if provided, mother nature is moved
+     * and the cloud is chosen, unless moving mother nature ended the game.<br>
+     * Every index is relative to the state of the game right before the single move it belongs to, exactly as if the moves were performed one by one via
+     * {@link Game#setStudentToHall}, {@link Game#setStudentToIsland}, {@link Game#moveMotherNature} and {@link Game#chooseCloud}.<br><br>
+     * {@link InvalidMoveException} is thrown if the students and their destinations don't match or as soon as one of the moves can't be performed,
+     * see the single moves for the details, the moves already performed are kept and can be undone via revertToPreviousState like any other invalid move.
+     *
+     * @param clientID            id of the player performing the moves
+     * @param student_indexes     indexes of the students to set, each one relative to {@link Dashboard#getEntrance} right before being set
+     * @param destinations        for each student the index of the island where to put it, relative to {@link Game#getIslands}, or null for the hall
+     * @param mother_nature_moves number of steps to move mother nature by after setting the students, null to not move it
+     * @param cloud_index         index of the cloud to choose after moving mother nature, relative to {@link Game#getClouds}, null to not choose one
+     * @throws InvalidMoveException thrown whenever one of the moves cannot be performed
+     */
+    public void playActionTurn(int clientID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) throws InvalidMoveException {
+        if (student_indexes == null || destinations == null || student_indexes.size() != destinations.size())
+            throw new InvalidMoveException(MoveResult.INVALID_STUDENT_DESTINATIONS.message);
+
+        for (int i = 0; i < student_indexes.size(); i++) {
+            if (destinations.get(i) == null)
+                setStudentToHall(clientID, student_indexes.get(i));
+            else
+                setStudentToIsland(clientID, student_indexes.get(i), destinations.get(i));
+        }
+        if (mother_nature_moves != null) {
+            moveMotherNature(clientID, mother_nature_moves);
+            //the dispute of the island mother nature lands on may end the game, leaving no cloud to choose
+            if (game_ended)
+                return;
+        }
+        if (cloud_index != null)
+            chooseCloud(clientID, cloud_index);
+    }
+
     //Allows the player to activate one of the Npcs effects this turn. Only one activation per turn is permitted.
 
     /**
@@ -470,15 +548,217 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void activateEffect(int clientID, int npc_index, EffectParameters effect_parameters) throws InvalidMoveException {
-        if (!isMyTurn(clientID)) throw new InvalidMoveException("It's not your turn.");
-        if (phase != 1) throw new InvalidMoveException("It's not the action phase.");
-        if (npc_index < 0 || npc_index > 2) throw new InvalidMoveException("Invalid npc index.");
-        if (!expert_mode) throw new InvalidMoveException("Expert mode is not active.");
-        if (effect_parameters == null) throw new InvalidMoveException("Null effect parameters.");
-        if (npc_effect != 0) throw new InvalidMoveException("There has already been an effect activation this turn.");
+        version++;
+        MoveResult result = validateEffect(clientID, npc_index, effect_parameters);
+        if (!result.isValid()) throw new InvalidMoveException(result.message);
+
+        recordCounters();
+        position_hash ^= npcKey(npc_index);
+        try {
+            npcs[npc_index].activateEffect(this, effect_parameters);
+        } finally {
+            position_hash ^= npcKey(npc_index);
+        }
+    }
+
+    /*
+        The following functions validate each move without performing it, they have no side effects and can be called at any time
+     */
+
+    //Checks whether the player can play one of his cards
+
+    /**
+     * Checks whether the player associated to the clientId can play a card from his hand, without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#playCard}.
+     *
+     * @param clientID   id of the player performing the move
+     * @param card_index index of the card to play, relative to {@link Player#getCards}
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validatePlayCard(int clientID, int card_index) {
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+        if (phase != 0 || game_ended) return MoveResult.WRONG_GAME_STATE;
+        Player player = players.get(playerIndexFromID(clientID));
+        if (card_index < 0 || card_index >= player.getCardsSize()) return MoveResult.INVALID_CARD_INDEX;
+
+        //case of 3 players, all with the same 2 cards in hand
+        boolean rare_skip = false;
+        if (players.size() == 3 && player.getCardsSize() == 2 && player_turn == 2) {
+            rare_skip = true;
+            for (int i = 0; i < 2; i++) {
+                if (player.getCard(i).order_value != players.get(current_phase_order.get(0)).getLastCardPlayed().order_value &&
+                        player.getCard(i).order_value != players.get(current_phase_order.get(1)).getLastCardPlayed().order_value) {
+                    rare_skip = false;
+                    break;
+                }
+            }
+        }
+        //no-one must have played a card with the same order_value, except if that's the last card available.
+        if (player.getCardsSize() > 1 && !rare_skip) {
+            for (int i = 0; i < player_turn; i++)
+                if (players.get(current_phase_order.get(i)).getLastCardPlayed().order_value == player.getCard(card_index).order_value)
+                    return MoveResult.CARD_ALREADY_PLAYED;
+        }
+        return MoveResult.VALID;
+    }
+
+    //Checks whether the player can set the indicated student from his entrance to his hall
+
+    /**
+     * Checks whether the player associated to the clientId can set one of his students to his hall, without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#setStudentToHall}.
+     *
+     * @param clientID      id of the player performing the move
+     * @param student_index index of the student to set, relative to {@link Dashboard#getEntrance}
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validateStudentToHall(int clientID, int student_index) {
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+        if (phase != 1 || step != 0 || game_ended) return MoveResult.WRONG_GAME_STATE;
+        if (student_index >= players.get(playerIndexFromID(clientID)).getDashboard().getEntranceSize() || student_index < 0)
+            return MoveResult.INVALID_STUDENT_INDEX;
+        return MoveResult.VALID;
+    }
+
+    //Checks whether the player can set the indicated student from his entrance to the given island
+
+    /**
+     * Checks whether the player associated to the clientId can set one of his students on an island, without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#setStudentToIsland}.
+     *
+     * @param clientID      id of the player performing the move
+     * @param student_index index of the student to set, relative to {@link Dashboard#getEntrance}
+     * @param island_index  index of the island where to put the student on, relative to {@link Game#getIslands}
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validateStudentToIsland(int clientID, int student_index, int island_index) {
+        MoveResult result = validateStudentToHall(clientID, student_index);
+        if (!result.isValid()) return result;
+        if (island_index >= islands.size() || island_index < 0) return MoveResult.INVALID_ISLAND_INDEX;
+        return MoveResult.VALID;
+    }
+
+    //Checks whether the player can move mother nature of the given number of steps
 
-        //in Npc are handled the exceptions for 'not enough coins' and eventual invalid parameters
-        npcs[npc_index].activateEffect(this, effect_parameters);
+    /**
+     * Checks whether the player associated to the clientId can move mother nature by the given amount of steps, without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#moveMotherNature}.
+     *
+     * @param clientID id of the player performing the move
+     * @param moves    number of steps to move mother nature by
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validateMotherNature(int clientID, int moves) {
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+        if (phase != 1 || step != 1 || game_ended) return MoveResult.WRONG_GAME_STATE;
+        return validMoves(clientID, moves) ? MoveResult.VALID : MoveResult.INVALID_MOVES;
+    }
+
+    //Checks whether the player can take the students on the given cloud
+
+    /**
+     * Checks whether the player associated to the clientId can select the given cloud, without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#chooseCloud}.
+     *
+     * @param clientID    id of the player performing the move
+     * @param cloud_index index of the cloud to choose relative to {@link Game#getClouds}
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validateCloud(int clientID, int cloud_index) {
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+        if (phase != 1 || step != 2 || game_ended) return MoveResult.WRONG_GAME_STATE;
+        return validCloud(cloud_index) ? MoveResult.VALID : MoveResult.INVALID_CLOUD_INDEX;
+    }
+
+    //Checks whether the player can perform its student moves, and eventually the following moves of its turn, all at once
+
+    /**
+     * Checks whether the player associated to the clientId can perform all the given moves of its action phase turn with {@link Game#playActionTurn},
+     * without altering this game in any way.<br>
+     * Each move is checked against the state the game would have right before it, as {@link Game#playActionTurn} does while performing them.
+     * The only outcome that can't be foreseen without performing the moves is the game ending as soon as mother nature is moved, since it depends
+     * on the dispute of the island it lands on, in which case {@link Game#playActionTurn} doesn't choose the cloud.
+     *
+     * @param clientID            id of the player performing the moves
+     * @param student_indexes     indexes of the students to set, each one relative to {@link Dashboard#getEntrance} right before being set
+     * @param destinations        for each student the index of the island where to put it, relative to {@link Game#getIslands}, or null for the hall
+     * @param mother_nature_moves number of steps to move mother nature by after setting the students, null to not move it
+     * @param cloud_index         index of the cloud to choose after moving mother nature, relative to {@link Game#getClouds}, null to not choose one
+     * @return {@link MoveResult#VALID} if all the moves can be performed, otherwise the reason why the first invalid one can't
+     */
+    public MoveResult validateActionTurn(int clientID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        if (student_indexes == null || destinations == null || student_indexes.size() != destinations.size())
+            return MoveResult.INVALID_STUDENT_DESTINATIONS;
+        if (student_indexes.isEmpty() && mother_nature_moves == null && cloud_index == null)
+            return MoveResult.VALID;
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+
+        //the moves are simulated on copies of the counters they alter
+        int entrance_size = players.get(playerIndexFromID(clientID)).getDashboard().getEntranceSize();
+        int simulated_step = step;
+        int simulated_moved_students = moved_students;
+        for (int i = 0; i < student_indexes.size(); i++) {
+            if (phase != 1 || simulated_step != 0 || game_ended) return MoveResult.WRONG_GAME_STATE;
+            Integer student_index = student_indexes.get(i);
+            if (student_index == null || student_index >= entrance_size || student_index < 0) return MoveResult.INVALID_STUDENT_INDEX;
+            if (destinations.get(i) != null && (destinations.get(i) >= islands.size() || destinations.get(i) < 0)) return MoveResult.INVALID_ISLAND_INDEX;
+
+            entrance_size--;
+            simulated_moved_students++;
+            if ((simulated_moved_students == 3 && players.size() == 2) || (simulated_moved_students == 4 && players.size() == 3)) {
+                simulated_step++;
+                simulated_moved_students = 0;
+            }
+        }
+        if (mother_nature_moves != null) {
+            if (phase != 1 || simulated_step != 1 || game_ended) return MoveResult.WRONG_GAME_STATE;
+            if (!validMoves(clientID, mother_nature_moves)) return MoveResult.INVALID_MOVES;
+            //during the last game turn the turn ends with mother nature, for the whole game if this is the last player
+            if (last_game_turn && cloud_index != null)
+                return player_turn == players.size() - 1 ? MoveResult.WRONG_GAME_STATE : MoveResult.NOT_YOUR_TURN;
+            simulated_step++;
+        }
+        if (cloud_index != null) {
+            if (phase != 1 || simulated_step != 2 || game_ended) return MoveResult.WRONG_GAME_STATE;
+            if (!validCloud(cloud_index)) return MoveResult.INVALID_CLOUD_INDEX;
+        }
+        return MoveResult.VALID;
+    }
+
+    //Checks whether the player can activate one of the Npcs effects
+
+    /**
+     * Checks whether the player associated to the clientId can activate the effect of one of the available Npcs with the given parameters,
+     * without altering this game in any way.<br>
+     * Same checks, in the same order, as {@link Game#activateEffect}, including those specific to the chosen Npc and the one for the player's coins.
+     *
+     * @param clientID          id of the player performing the move
+     * @param npc_index         index of the Npc to activate relative to {@link Game#getNpcs}
+     * @param effect_parameters instance of {@link EffectParameters} constructed in accordance to the specific Npc to activate
+     * @return {@link MoveResult#VALID} if the move can be performed, otherwise the reason why it can't
+     */
+    public MoveResult validateEffect(int clientID, int npc_index, EffectParameters effect_parameters) {
+        if (!isMyTurn(clientID)) return MoveResult.NOT_YOUR_TURN;
+        if (phase != 1) return MoveResult.NOT_ACTION_PHASE;
+        if (npc_index < 0 || npc_index > 2) return MoveResult.INVALID_NPC_INDEX;
+        if (!expert_mode) return MoveResult.NOT_EXPERT_MODE;
+        if (effect_parameters == null) return MoveResult.NULL_EFFECT_PARAMETERS;
+        if (npc_effect != 0) return MoveResult.EFFECT_ALREADY_ACTIVATED;
+
+        MoveResult result = npcs[npc_index].validateEffect(this, effect_parameters);
+        if (!result.isValid()) return result;
+        if (npcs[npc_index].getCost() > players.get(playerIndexFromID(clientID)).getCoins()) return MoveResult.NOT_ENOUGH_COINS;
+        return MoveResult.VALID;
+    }
+
+    //mother nature can be moved by at least 1 step, and at most as many as allowed by the last played card, plus 2 with the effect of npc 4
+    private boolean validMoves(int clientID, int moves) {
+        int max_moves = players.get(playerIndexFromID(clientID)).getLastCardPlayed().movements_value + (npc_effect == 4 ? 2 : 0);
+        return moves >= 1 && moves <= max_moves;
+    }
+
+    private boolean validCloud(int cloud_index) {
+        return cloud_index < players.size() && cloud_index >= 0 && clouds[cloud_index].size() != 0;
     }
 
     //Skips the current turn, assumes that everything that was done in this turn has already been undone by the caller via the revertToPreviousState static method, use only if a player disconnects
@@ -499,31 +779,27 @@ public class Game implements Serializable {
      * @throws InvalidMoveException thrown whenever the move cannot be performed
      */
     public void skipTurn() throws InvalidMoveException {
+        version++;
         if (phase == 0) {
-            //since a card must be played to determine the order in which everyone will play, a card is forcefully played
-            boolean condition = false;
-            int card_index = players.get(current_phase_order.get(player_turn)).getCards().size() - 1;
-            do {
-                try {
+            //since a card must be played to determine the order in which everyone will play, the last card that can be played is forcefully played
+            for (int card_index = players.get(current_phase_order.get(player_turn)).getCardsSize() - 1; card_index >= 0; card_index--) {
+                if (validatePlayCard(currentlyPlayingPlayer(), card_index).isValid()) {
                     playCard(currentlyPlayingPlayer(), card_index);
-                    condition = false;
-                } catch (InvalidMoveException ex) {
-                    condition = true;
-                    card_index--;
+                    break;
                 }
-            } while (condition && card_index >= 0);
+            }
         } else {
-            moved_students = 0;
-            step = 0;
-            player_turn++;
+            setMovedStudents(0);
+            setStep(0);
+            setPlayerTurn(player_turn + 1);
             if (player_turn >= players.size()) {
                 if (last_game_turn)
-                    game_ended = true;
+                    setGameEnded(true);
                 else
                     goToNextGameTurn();
             }
 
-            updateSerializedGameCopy();
+            checkpoint();
         }
     }
 
@@ -538,30 +814,52 @@ public class Game implements Serializable {
      * @param clouds updated array of clouds
      */
     public void updateClouds(List<Colors>[] clouds) {
-        this.clouds = clouds;
+        version++;
+        for (int i = 0; i < this.clouds.length; i++)
+            position_hash ^= cloudKey(i);
+        this.clouds = new OrderedColorBag[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            this.clouds[i] = new OrderedColorBag(clouds[i]);
+            position_hash ^= cloudKey(i);
+        }
     }
 
-    //Undoes, if possible, everything that was done during this turn and returns a new instance of Game which is set back to the beginning of the current turn
+    //Allows the students on a npc to be assigned from outside, used only client-side
+
+    /**
+     * Allows the students on one of the npcs to be assigned from outside, see {@link Npc#setExtraProperty}.<br><br>
+     * It's intended ot be used only by {@link Controller.ClientSide.Client}, after the activation of a npc, to synchronize the students
+     * it knows are on the npc with the ones provided by the server.
+     *
+     * @param npc_index index of the npc relative to {@link Game#getNpcs}
+     * @param students  updated students of the npc
+     */
+    public void updateNpc(int npc_index, List<Colors> students) {
+        version++;
+        position_hash ^= npcKey(npc_index);
+        npcs[npc_index].setExtraProperty(students);
+        position_hash ^= npcKey(npc_index);
+    }
+
+    //Undoes everything that was done during this turn, setting the given instance of Game back to the beginning of the current turn
 
     /**
      * Returns the given instance of game to its last complete and valid state, exactly after the last turn correctly completed by a player,
      * this implies undoing any turn that was not completed all the way through.<br>
      * Consequently, game turn remains constant, and so do phase and player turn, meanwhile step and moved students are reset.
+     * <br><br>
+     * The changes are undone in place, by rolling back the journal of the changes made since the end of the last turn, hence the cost of a revert
+     * is proportional to the moves it undoes. For an instance obtained by deserialization the journal starts when it was deserialized.
      *
      * @param game the instance of Game to revert to the previous state
-     * @return the given instance of Game returned to its state exactly at the end of the last player's turn
+     * @return the given instance of Game, returned to its state exactly at the end of the last player's turn
      */
     public static Game revertToPreviousState(Game game) {
-        Game result = null;
-        if (game.serialized_game_copy == null)
-            return game;
-        try {
-            ObjectInputStream object_in_steam = new ObjectInputStream(new ByteArrayInputStream(game.serialized_game_copy));
-            result = (Game) object_in_steam.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
+        if (game.journal.size() > 0) {
+            game.version++;
+            game.journal.rollback();
         }
-        return result;
+        return game;
     }
 
     //Returns the currently playing player's clientID
@@ -589,6 +887,29 @@ public class Game implements Serializable {
         return result;
     }
 
+    /**
+     * Getter for the id of the player playing in the given position of the current phase, see {@link Game#currentPlayersTurnOrder}.
+     *
+     * @param position position of the player in the current phase, from 0 to the number of players excluded
+     * @return id of the player playing in the given position
+     */
+    public int playerInTurnOrder(int position) {
+        return players.get(current_phase_order.get(position)).clientID;
+    }
+
+    /**
+     * Getter for the position in which the given player plays in the current phase, see {@link Game#currentPlayersTurnOrder}.
+     *
+     * @param clientID id of the player
+     * @return position of the player in the current phase, -1 if no player in the game has the given id
+     */
+    public int turnOrderPosition(int clientID) {
+        for (int i = 0; i < current_phase_order.size(); i++)
+            if (players.get(current_phase_order.get(i)).clientID == clientID)
+                return i;
+        return -1;
+    }
+
     /**
      * Getter for a list of the players taking part in the game.
      *
@@ -667,7 +988,7 @@ public class Game implements Serializable {
     public List<Colors>[] getClouds() {
         List<Colors>[] result = new List[3];
         for (int i = 0; i < players.size(); i++)
-            result[i] = new ArrayList<Colors>(clouds[i]);
+            result[i] = clouds[i].toList();
         return result;
     }
 
@@ -700,7 +1021,16 @@ public class Game implements Serializable {
      * @return list of professors indicated as colors
      */
     public List<Colors> getUnclaimedProfessors() {
-        return new ArrayList<Colors>(unclaimed_professors);
+        return professors.getUnclaimed().toList();
+    }
+
+    /**
+     * Getter for the yet unclaimed professors, as the shared {@link ColorSet} holding their colors, which needs no allocation.
+     *
+     * @return set of the colors of the unclaimed professors
+     */
+    public ColorSet getUnclaimedProfessorsSet() {
+        return professors.getUnclaimed();
     }
 
     /**
@@ -714,6 +1044,229 @@ public class Game implements Serializable {
         return npcs.clone();
     }
 
+    /*
+        The following getters read single elements of the game without copying any list, allocating nothing, they are meant for code
+        reading the game very often, such as the UI drawing it, while the getters above are more convenient for anything else
+     */
+
+    /**
+     * Getter for the number of players in the game, the same as the size of {@link Game#getPlayers}.
+     *
+     * @return number of players
+     */
+    public int playerCount() {
+        return players.size();
+    }
+
+    /**
+     * Getter for one of the players, without copying the list of players.
+     *
+     * @param player_index index of the player, based upon the list from {@link Game#getPlayers}
+     * @return the requested {@link Player}
+     */
+    public Player getPlayer(int player_index) {
+        return players.get(player_index);
+    }
+
+    /**
+     * Getter for the player with the given id.
+     *
+     * @param clientID id of the player
+     * @return the requested {@link Player}, null if no player in the game has the given id
+     */
+    public Player getPlayerWithID(int clientID) {
+        for (int i = 0; i < players.size(); i++)
+            if (players.get(i).clientID == clientID)
+                return players.get(i);
+        return null;
+    }
+
+    /**
+     * Getter for the number of students in the entrance of a player, see {@link Dashboard#getEntranceSize}.
+     *
+     * @param player_index index of the player, based upon the list from {@link Game#getPlayers}
+     * @return number of students in the player's entrance
+     */
+    public int entranceSize(int player_index) {
+        return players.get(player_index).getDashboard().getEntranceSize();
+    }
+
+    /**
+     * Getter for one of the students in the entrance of a player, see {@link Dashboard#getEntranceStudent}.
+     *
+     * @param player_index index of the player, based upon the list from {@link Game#getPlayers}
+     * @param student_index index of the student, based upon the list from {@link Dashboard#getEntrance}
+     * @return the requested {@link Colors student}
+     */
+    public Colors entranceStudent(int player_index, int student_index) {
+        return players.get(player_index).getDashboard().getEntranceStudent(student_index);
+    }
+
+    /**
+     * Getter for the number of islands left, the same as the size of {@link Game#getIslands}.
+     *
+     * @return number of islands
+     */
+    public int islandCount() {
+        return islands.size();
+    }
+
+    /**
+     * Getter for one of the islands, without copying the list of islands.
+     *
+     * @param island_index index of the island, based upon the list from {@link Game#getIslands}
+     * @return the requested {@link Island}
+     */
+    public Island getIsland(int island_index) {
+        return islands.get(island_index);
+    }
+
+    /**
+     * Getter for the stable id of one of the islands, see {@link Island#getId}.<br>
+     * The messages refer to the islands by their id rather than by their index, since an id keeps pointing to the same island
+     * while the merges caused by the moves in flight shift the indexes.
+     *
+     * @param island_index index of the island, based upon the list from {@link Game#getIslands}
+     * @return the id of the island, -1 if the index is not valid
+     */
+    public int islandID(int island_index) {
+        return island_index >= 0 && island_index < islands.size() ? islands.get(island_index).getId() : -1;
+    }
+
+    /**
+     * Getter for the index of the island with the given id, or of the island it got merged into, undoing {@link Game#islandID}.
+     *
+     * @param island_id id of one of the 12 islands the game started with
+     * @return index of the island, based upon the list from {@link Game#getIslands}, -1 if the id is not valid
+     */
+    public int islandIndex(int island_id) {
+        for (int i = 0; i < islands.size(); i++)
+            if (islands.get(i).holds(island_id))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Converts the destinations of some student moves, as taken by {@link Game#playActionTurn}, to island ids, see {@link Game#islandID}.
+     *
+     * @param destinations for each student the index of the island where to put it, or null for the hall
+     * @return for each student the id of the island where to put it, or null for the hall
+     */
+    public List<Integer> islandIDs(List<Integer> destinations) {
+        return mapDestinations(destinations, this::islandID);
+    }
+
+    /**
+     * Converts the destinations of some student moves from island ids back to the indexes taken by {@link Game#playActionTurn}, undoing {@link Game#islandIDs}.
+     *
+     * @param destinations for each student the id of the island where to put it, or null for the hall
+     * @return for each student the index of the island where to put it, or null for the hall
+     */
+    public List<Integer> islandIndexes(List<Integer> destinations) {
+        return mapDestinations(destinations, this::islandIndex);
+    }
+
+    /**
+     * Converts the island targeted by the effect of an npc, if any, to its id, see {@link Game#islandID}.
+     *
+     * @param npc_index         index of the npc
+     * @param effect_parameters parameters for the effect's activation, as taken by {@link Game#activateEffect}
+     * @return the same parameters with the targeted island replaced by its id
+     */
+    public EffectParameters effectIslandID(int npc_index, EffectParameters effect_parameters) {
+        return mapIslandArgument(npc_index, effect_parameters, this::islandID);
+    }
+
+    /**
+     * Converts the island targeted by the effect of an npc, if any, from its id back to its index, undoing {@link Game#effectIslandID}.
+     *
+     * @param npc_index         index of the npc
+     * @param effect_parameters parameters for the effect's activation with the targeted island replaced by its id
+     * @return the parameters as taken by {@link Game#activateEffect}
+     */
+    public EffectParameters effectIslandIndex(int npc_index, EffectParameters effect_parameters) {
+        return mapIslandArgument(npc_index, effect_parameters, this::islandIndex);
+    }
+
+    /**
+     * Getter for the number of students of the given color on an island.
+     *
+     * @param island_index index of the island, based upon the list from {@link Game#getIslands}
+     * @param color color of the students
+     * @return number of students of the given color on the island
+     */
+    public int islandStudents(int island_index, Colors color) {
+        return islands.get(island_index).getStudents(color);
+    }
+
+    /**
+     * Getter for the number of clouds, the same as the number of players.
+     *
+     * @return number of clouds
+     */
+    public int cloudCount() {
+        return players.size();
+    }
+
+    /**
+     * Getter for the number of students on a cloud.
+     *
+     * @param cloud_index index of the cloud, based upon the array from {@link Game#getClouds}
+     * @return number of students on the cloud
+     */
+    public int cloudSize(int cloud_index) {
+        return clouds[cloud_index].size();
+    }
+
+    /**
+     * Getter for one of the students on a cloud.
+     *
+     * @param cloud_index index of the cloud, based upon the array from {@link Game#getClouds}
+     * @param student_index index of the student, based upon the list of the cloud from {@link Game#getClouds}
+     * @return the requested {@link Colors student}
+     */
+    public Colors cloudStudent(int cloud_index, int student_index) {
+        return clouds[cloud_index].get(student_index);
+    }
+
+    /**
+     * Getter for the number of professors yet unclaimed, the same as the size of {@link Game#getUnclaimedProfessors}.
+     *
+     * @return number of unclaimed professors
+     */
+    public int unclaimedProfessorsCount() {
+        return professors.getUnclaimed().size();
+    }
+
+    /**
+     * Getter for one of the professors yet unclaimed.
+     *
+     * @param index index of the professor, based upon the list from {@link Game#getUnclaimedProfessors}
+     * @return the requested professor
+     */
+    public Colors unclaimedProfessor(int index) {
+        return professors.getUnclaimed().get(index);
+    }
+
+    /**
+     * Getter for the number of {@link Npc Npcs} available in this game, 0 unless expert mode is enabled.
+     *
+     * @return number of {@link Npc Npcs}
+     */
+    public int npcCount() {
+        return expert_mode ? npcs.length : 0;
+    }
+
+    /**
+     * Getter for one of the {@link Npc Npcs} available in this game, without copying the array of npcs.
+     *
+     * @param npc_index index of the npc, based upon the array from {@link Game#getNpcs}
+     * @return the requested {@link Npc}
+     */
+    public Npc getNpc(int npc_index) {
+        return npcs[npc_index];
+    }
+
     /**
      * Getter for the id of the {@link Npc} that got activated in this turn.<br>
      * If no {@link Npc} has been activated yet, or expert mode is not active, 0 is always returned.
@@ -740,7 +1293,7 @@ public class Game implements Serializable {
      * @return the number of students left in the pouch
      */
     public int getRemainingStudentsNum() {
-        return random_students.size();
+        return pouch.size();
     }
 
     /**
@@ -766,6 +1319,18 @@ public class Game implements Serializable {
         return game_ended;
     }
 
+    /**
+     * Getter for the number of moves attempted on this instance, which increases every time a method possibly altering its state is called,
+     * even if the move turns out to be invalid.<br>
+     * The version is not serialized, so copies start counting from 0, while a revert rolls the same instance back in place and counts as one more change,
+     * see {@link Game#revertToPreviousState}. Therefore it only identifies a state together with the instance, and never goes back to a previous value.
+     *
+     * @return the version of this instance
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Getter for the id of the player who won the game.<br>
      * Always 0 unless the game has ended.
@@ -776,6 +1341,64 @@ public class Game implements Serializable {
         return winnerID;
     }
 
+    /**
+     * Provides a 64 bit hash of the current position, meant as a cheap key for caching positions or detecting repeated ones,
+     * for instance by an AI exploring the moves of a game, which would otherwise need to compare {@link Game#getGameSerialization serializations}.<br>
+     * Equal positions always have the same hash, copies and reverted games included, while different positions have the same hash only by chance.
+     * <br><br>
+     * Every part of the position keeps its hash up to date while being altered: islands and players by their own methods, the counters, flags,
+     * turn order, clouds and npcs of the game by the setters of the game, so that a call only combines the hashes of the islands and the players
+     * with the game's own, without allocating anything.<br>
+     * The state of the game's generator is part of the position, so two positions with the same hash will also draw the same students from the pouch,
+     * whose content is left out as it holds whatever students are elsewhere missing. The unclaimed professors are left out as well, being those
+     * not owned by any player. Only the games {@link Game#Game(boolean, List, List, List, int, List, Npc[], List) built for testing},
+     * whose pouch deals a given list of students in order rather than by the generator, may have the same hash for positions which are going
+     * to draw different students.
+     *
+     * @return the hash of the current position
+     */
+    public long positionHash() {
+        long hash = position_hash;
+        for (int i = 0; i < islands.size(); i++)
+            hash ^= islands.get(i).positionHash();
+        for (int i = 0; i < players.size(); i++)
+            hash ^= players.get(i).positionHash();
+        return hash;
+    }
+
+    //computes from scratch the part of the hash that the setters of the game keep up to date
+    private long computePositionHash() {
+        long hash = gameKey(0, game_turn) ^ gameKey(1, phase) ^ gameKey(2, player_turn) ^ gameKey(3, step) ^ gameKey(4, moved_students)
+                ^ gameKey(5, mother_nature) ^ gameKey(6, npc_effect) ^ gameKey(7, bank) ^ gameKey(8, expert_mode ? 1 : 0) ^ gameKey(9, winnerID)
+                ^ gameKey(10, last_game_turn ? 1 : 0) ^ gameKey(11, game_ended ? 1 : 0) ^ gameKey(12, random_state) ^ phaseOrderKey();
+        for (int i = 0; i < clouds.length; i++)
+            hash ^= cloudKey(i);
+        if (npcs != null)
+            for (int i = 0; i < npcs.length; i++)
+                hash ^= npcKey(i);
+        return hash;
+    }
+
+    private static long gameKey(int slot, long value) {
+        return PositionKeys.key(PositionKeys.GAME, slot, value);
+    }
+
+    private long phaseOrderKey() {
+        long hash = 0;
+        for (int i = 0; i < current_phase_order.size(); i++)
+            hash ^= gameKey(20 + i, current_phase_order.get(i));
+        return hash;
+    }
+
+    private long cloudKey(int cloud_index) {
+        return PositionKeys.students(PositionKeys.CLOUD, cloud_index, clouds[cloud_index]);
+    }
+
+    //the npcs know nothing of their position, their hash is scrambled differently for every slot
+    private long npcKey(int npc_index) {
+        return PositionKeys.mix(npcs[npc_index].positionHash() ^ PositionKeys.key(PositionKeys.NPC, 100 + npc_index, 0));
+    }
+
     /**
      * Getter for the serialization of this instance of Game.
      *
@@ -815,31 +1438,288 @@ public class Game implements Serializable {
      *
      * @param clientID the client id to convert into an index
      * @return the index of the requested player inside the players list.
+     * @throws NoSuchElementException if no player in the game has the given id
      */
     protected int playerIndexFromID(int clientID) {
-        return IntStream.range(0, players.size())
-                .filter(i -> players.get(i).clientID == clientID)
-                .findAny().orElseThrow();
+        for (int i = 0; i < players.size(); i++)
+            if (players.get(i).clientID == clientID)
+                return i;
+        throw new NoSuchElementException("No player with id " + clientID);
+    }
+
+    /*
+        The following functions change the state of the game recording in the journal how to undo each change, they are used by the moves and the Npcs
+     */
+
+    //Records how to restore the counters and flags of the game, every move calls it before changing anything
+    /**
+     * Records in the journal the current value of the counters and flags of the game, from game turn to winner,
+     * so that they are restored by a revert, regardless of how many times the move being performed changes them.<br>
+     * The game's part of the {@link Game#positionHash position hash} is recorded and restored along with them: since the journal is rolled back
+     * from the last change to the first, once this record is undone every change the move made after it is undone as well, including those whose
+     * undo actions assign the fields of the game or of its npcs directly, without going through the setters keeping the hash up to date.
+     */
+    protected void recordCounters() {
+        int game_turn = this.game_turn, phase = this.phase, player_turn = this.player_turn, step = this.step, moved_students = this.moved_students;
+        int mother_nature = this.mother_nature, npc_effect = this.npc_effect, bank = this.bank, winnerID = this.winnerID;
+        boolean last_game_turn = this.last_game_turn, game_ended = this.game_ended;
+        long position_hash = this.position_hash;
+        journal.record(() -> {
+            this.game_turn = game_turn;
+            this.phase = phase;
+            this.player_turn = player_turn;
+            this.step = step;
+            this.moved_students = moved_students;
+            this.mother_nature = mother_nature;
+            this.npc_effect = npc_effect;
+            this.bank = bank;
+            this.winnerID = winnerID;
+            this.last_game_turn = last_game_turn;
+            this.game_ended = game_ended;
+            this.position_hash = position_hash;
+        });
+    }
+
+    //Sets the game turn keeping the position hash up to date, and so do the following setters for the other counters, flags and turn order
+    private void setGameTurn(int game_turn) {
+        rehash(0, this.game_turn, game_turn);
+        this.game_turn = game_turn;
+    }
+
+    private void setPhase(int phase) {
+        rehash(1, this.phase, phase);
+        this.phase = phase;
+    }
+
+    private void setPlayerTurn(int player_turn) {
+        rehash(2, this.player_turn, player_turn);
+        this.player_turn = player_turn;
+    }
+
+    private void setStep(int step) {
+        rehash(3, this.step, step);
+        this.step = step;
+    }
+
+    private void setMovedStudents(int moved_students) {
+        rehash(4, this.moved_students, moved_students);
+        this.moved_students = moved_students;
+    }
+
+    private void setMotherNature(int mother_nature) {
+        rehash(5, this.mother_nature, mother_nature);
+        this.mother_nature = mother_nature;
+    }
+
+    /**
+     * Sets the npc whose effect is due to resolve during this turn, keeping the position hash up to date, used by the npcs upon their activation.
+     *
+     * @param npc_effect UID of the npc, 0 if no effect is due to resolve
+     */
+    protected void setNpcEffect(int npc_effect) {
+        rehash(6, this.npc_effect, npc_effect);
+        this.npc_effect = npc_effect;
+    }
+
+    private void setBank(int bank) {
+        rehash(7, this.bank, bank);
+        this.bank = bank;
+    }
+
+    private void setWinnerID(int winnerID) {
+        rehash(9, this.winnerID, winnerID);
+        this.winnerID = winnerID;
+    }
+
+    private void setLastGameTurn(boolean last_game_turn) {
+        rehash(10, this.last_game_turn ? 1 : 0, last_game_turn ? 1 : 0);
+        this.last_game_turn = last_game_turn;
+    }
+
+    private void setGameEnded(boolean game_ended) {
+        rehash(11, this.game_ended ? 1 : 0, game_ended ? 1 : 0);
+        this.game_ended = game_ended;
     }
 
-    //Extracts the given number of students from the randomized list, if there are not enough students available returns as many as there are still available, eventually returns an empty list if none is available
+    private void setRandomState(long random_state) {
+        rehash(12, this.random_state, random_state);
+        this.random_state = random_state;
+    }
+
+    private void setPhaseOrder(List<Integer> phase_order) {
+        position_hash ^= phaseOrderKey();
+        current_phase_order.clear();
+        current_phase_order.addAll(phase_order);
+        position_hash ^= phaseOrderKey();
+    }
+
+    //replaces in the position hash the key of a feature of the game having the old value with the one having the new value
+    private void rehash(int slot, long old_value, long new_value) {
+        position_hash ^= gameKey(slot, old_value) ^ gameKey(slot, new_value);
+    }
+
+    /**
+     * Removes a student from the entrance of the given player, see {@link Dashboard#removeFromEntrance}, recording how to undo it.
+     *
+     * @param player the {@link Player} whose dashboard is changed
+     * @param index  index of the student to remove, based upon the list from {@link Dashboard#getEntrance}
+     * @return the removed {@link Colors student}
+     */
+    protected Colors removeFromEntrance(Player player, int index) {
+        Colors student = player.getDashboard().removeFromEntrance(index);
+        journal.record(() -> player.getDashboard().addToEntrance(index, student));
+        return student;
+    }
+
+    /**
+     * Adds a student to the entrance of the given player, see {@link Dashboard#addToEntrance}, recording how to undo it.
+     *
+     * @param player  the {@link Player} whose dashboard is changed
+     * @param student {@link Colors student} to add to the entrance
+     */
+    protected void addToEntrance(Player player, Colors student) {
+        player.getDashboard().addToEntrance(student);
+        journal.record(() -> player.getDashboard().removeFromEntrance(player.getDashboard().getEntranceSize() - 1));
+    }
+
+    /**
+     * Adds a student to the hall of the given player, see {@link Dashboard#addStudentToHall}, recording how to undo it.
+     *
+     * @param player  the {@link Player} whose dashboard is changed
+     * @param student {@link Colors student} to add to the hall
+     */
+    protected void addStudentToHall(Player player, Colors student) {
+        player.getDashboard().addStudentToHall(student);
+        journal.record(() -> player.getDashboard().removeStudentFromHall(student));
+    }
+
+    /**
+     * Removes a student from the hall of the given player, see {@link Dashboard#removeStudentFromHall}, recording how to undo it.
+     *
+     * @param player  the {@link Player} whose dashboard is changed
+     * @param student {@link Colors student} to remove from the hall
+     * @return true if a student was removed
+     */
+    protected boolean removeStudentFromHall(Player player, Colors student) {
+        boolean removed = player.getDashboard().removeStudentFromHall(student);
+        if (removed)
+            journal.record(() -> player.getDashboard().addStudentToHall(student));
+        return removed;
+    }
+
+    /**
+     * Adds a student to the given island, see {@link Island#addStudent}, recording how to undo it.
+     *
+     * @param island  the {@link Island} receiving the student
+     * @param student {@link Colors student} to add to the island
+     */
+    protected void addStudentToIsland(Island island, Colors student) {
+        island.addStudent(student);
+        journal.record(() -> island.removeStudent(student));
+    }
+
+    /**
+     * Places or removes the interdiction of the given island, see {@link Island#setInterdiction}, recording how to undo it.
+     *
+     * @param island       the {@link Island} whose interdiction changes
+     * @param interdiction new interdiction of the island
+     */
+    protected void setInterdiction(Island island, boolean interdiction) {
+        boolean previous_interdiction = island.getInterdiction();
+        island.setInterdiction(interdiction);
+        journal.record(() -> island.setInterdiction(previous_interdiction));
+    }
+
+    /**
+     * Makes the currently playing player pay for the activation of a Npc, the coins except the first one going to the bank, recording how to undo it.
+     *
+     * @param cost current cost of the Npc
+     * @throws InvalidMoveException thrown if the player doesn't have enough coins
+     */
+    protected void payEffect(int cost) throws InvalidMoveException {
+        Player player = players.get(current_phase_order.get(player_turn));
+        player.pay(cost);
+        journal.record(() -> player.refund(cost));
+        setBank(bank + cost - 1);
+    }
+
+    //Extracts the given number of students from the pouch, if there are not enough students available returns as many as there are still available, eventually returns an empty bag if none is available
 
     /**
      * Extracts the requested number of students, in the from of {@link Colors colors}, from the pouch and returns them.<br>
      * If there are not enough students left in the pouch the last game turn flag is set and as many students as possible are returned.
      *
      * @param num number of students to extract and return
-     * @return list of the extracted students
+     * @return bag of the extracted students, in the order they were extracted
      */
-    protected List<Colors> extractStudents(int num) {
-        List<Colors> result = new ArrayList<Colors>(random_students.subList(0, Math.min(num, random_students.size())));
-        random_students.subList(0, Math.min(num, random_students.size())).clear();
-        if (random_students.size() == 0) {
-            last_game_turn = true;
-        }
+    protected OrderedColorBag extractStudents(int num) {
+        OrderedColorBag result = new OrderedColorBag(num);
+        extractStudents(num, result);
         return result;
     }
 
+    /**
+     * Extracts the requested number of students from the pouch and adds them to the given bag, as {@link Game#extractStudents(int)} does.<br>
+     * Each student is drawn from the pouch with the game's generator, with every student left in it being as likely to be drawn,
+     * so the pouch needs no shuffling and the draws of a game are repeated exactly when the game is copied or rebuilt.
+     *
+     * @param num number of students to extract
+     * @param target bag receiving the extracted students, after the ones it already holds
+     */
+    protected void extractStudents(int num, OrderedColorBag target) {
+        int extracted = Math.min(num, pouch.size());
+        Colors[] students = new Colors[extracted];
+        long previous_random_state = random_state;
+        for (int i = 0; i < extracted; i++) {
+            students[i] = pouch.draw(nextRandom(pouch.size()));
+            target.add(students[i]);
+        }
+        journal.record(() -> {
+            for (int i = extracted - 1; i >= 0; i--)
+                pouch.undoDraw(students[i]);
+            setRandomState(previous_random_state);
+        });
+        if (pouch.size() == 0) {
+            setLastGameTurn(true);
+        }
+    }
+
+    //Advances the game's generator, a splitmix64 sequence, and returns a number in [0, bound)
+
+    /**
+     * Provides the next number of the game's generator, a splitmix64 sequence started from the {@link Game#getSeed seed} whose whole state
+     * is {@link Game#random_state}, so that it is copied, packed and reverted along with the rest of the game.<br>
+     * Every random choice of the game is made with it, no generator is shared between games.
+     * The caller is in charge of recording how to restore the state, if needed.
+     *
+     * @param bound upper bound (excluded) of the number, must be positive
+     * @return a number from 0 to the bound (excluded)
+     */
+    protected int nextRandom(int bound) {
+        setRandomState(random_state + 0x9E3779B97F4A7C15L);
+        return (int) ((PositionKeys.mix(random_state) >>> 1) % bound);
+    }
+
+    /**
+     * Getter for the seed this game was dealt from.<br>
+     * A game built by {@link Game#Game(boolean, List, long)} with the same seed, players and mode, then played with the same moves,
+     * is the same as this one, which allows to replay a game from its seed and its moves.
+     *
+     * @return the seed of the game, 0 for the games built for testing
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the state of the game's generator, used to pack the game.
+     *
+     * @return the current state of the generator
+     */
+    protected long getRandomState() {
+        return random_state;
+    }
+
     //Computes the dispute on the island specified by the index inside the islands list, if the ownership changes proceeds to call checkForMerges
 
     /**
@@ -856,104 +1736,166 @@ public class Game implements Serializable {
     protected void disputeIsland(int index) {
         //handle interdiction effect
         if (islands.get(index).getInterdiction()) {
-            islands.get(index).setInterdiction(false);
+            setInterdiction(islands.get(index), false);
             for (int i = 0; i < 3; i++) {
                 if (npcs[i].getId() == 5) {
-                    npcs[i].extraEffect();
+                    Npc npc = npcs[i];
+                    position_hash ^= npcKey(i);
+                    npc.extraEffect();
+                    position_hash ^= npcKey(i);
+                    journal.record(npc::undoExtraEffect);
                     break;
                 }
             }
             return;
         }
 
-        int[] per_player_total = new int[players.size()];
-        int[] professor_owners = new int[5];
-
-        for (int i = 0; i < 5; i++) {
-            for (int j = 0; j < players.size(); j++) {
-                if (players.get(j).getDashboard().getProfessor(i))
-                    professor_owners[i] = j;
-            }
-        }
-
-        if (npc_effect != 6 && islands.get(index).getOwnerIndex() != null)
-            per_player_total[islands.get(index).getOwnerIndex()] += islands.get(index).getNumOfMergedIslands();
-
-        int temp = -1;
-        if (npc_effect == 9) {
-            for (Npc npc : npcs) if (npc.getId() == 9) temp = npc.getExtraProperty().get(0);
-        }
-        for (int i = 0; i < 5; i++) {
-            if (temp == i)
-                continue;
-            if (!unclaimed_professors.contains(Colors.fromColorIndex(i)))
-                per_player_total[professor_owners[i]] += islands.get(index).getStudents(i);
-        }
-
-        if (npc_effect == 8)
-            per_player_total[current_phase_order.get(player_turn)] += 2;
-
-        int max_index = 0;
+        //the influence of the students is kept up to date by the island, only the towers and the npc effects are left to add
+        Island island = islands.get(index);
+        Integer owner = island.getOwnerIndex();
+        ColorSet influence_colors = influenceColors();
+        int max_index = 0, max_influence = 0;
         boolean tie = false;
-        for (int i = 1; i < per_player_total.length; i++) {
-            if (per_player_total[i] > per_player_total[max_index]) {
+        for (int i = 0; i < players.size(); i++) {
+            int influence = island.getInfluence(i);
+            if (influence_colors != ColorSet.ALL)
+                for (int color = 0; color < 5; color++)
+                    if (!influence_colors.contains(color) && professors.getOwner(color) == i)
+                        influence -= island.getStudents(color);
+            if (npc_effect != 6 && owner != null && owner == i)
+                influence += island.getNumOfMergedIslands();
+            if (npc_effect == 8 && current_phase_order.get(player_turn) == i)
+                influence += 2;
+
+            if (i == 0 || influence > max_influence) {
                 max_index = i;
+                max_influence = influence;
                 tie = false;
-            } else if (per_player_total[i] == per_player_total[max_index])
+            } else if (influence == max_influence)
                 tie = true;
         }
 
-        if ((islands.get(index).getOwnerIndex() == null ||
-                max_index != islands.get(index).getOwnerIndex()) && !tie) {
-            if (islands.get(index).getOwnerIndex() != null)
-                players.get(islands.get(index).getOwnerIndex()).getDashboard().increaseRooks(islands.get(index).getNumOfMergedIslands());
-            islands.get(index).setOwnerIndex(max_index);
-            players.get(max_index).getDashboard().decreaseRooks(islands.get(index).getNumOfMergedIslands());
-            checkForMerges();
+        if ((owner == null || max_index != owner) && !tie) {
+            Integer previous_owner = owner;
+            if (previous_owner != null) {
+                Dashboard previous_owner_dashboard = players.get(previous_owner).getDashboard();
+                int freed_rooks = island.getNumOfMergedIslands();
+                previous_owner_dashboard.increaseRooks(freed_rooks);
+                journal.record(() -> previous_owner_dashboard.increaseRooks(-freed_rooks));
+            }
+            island.setOwnerIndex(max_index);
+            journal.record(() -> island.setOwnerIndex(previous_owner));
+            Dashboard new_owner_dashboard = players.get(max_index).getDashboard();
+            int rooks = new_owner_dashboard.getRooks();
+            new_owner_dashboard.decreaseRooks(island.getNumOfMergedIslands());
+            int placed_rooks = rooks - new_owner_dashboard.getRooks();
+            journal.record(() -> new_owner_dashboard.increaseRooks(placed_rooks));
+            checkForMerges(index);
             //check for winner if he used his last tower
             for (Player player : players) {
                 if (player.getDashboard().getRooks() <= 0) {
-                    game_ended = true;
-                    winnerID = player.clientID;
+                    setGameEnded(true);
+                    setWinnerID(player.clientID);
                     break;
                 }
             }
         }
     }
 
-    //Checks for potential merges and if any is found, it is computed, repeats until no potential merges are left
+    //Merges the island whose owner just changed with its neighbours, if they share its owner
 
     /**
-     * Scans all the {@link Island islands} executing each merge that's possible between them.<br>
+     * Merges the {@link Island island} whose owner has just changed with each of its neighbours sharing its new owner.<br>
      * When 2 {@link Island islands} with adjacent index (wrap-around included) share a common owner, the first {@link Island island} merges into
      * itself the second one, which in turn gets deleted from the {@link Island islands} list.<br>
      * <br>
+     * Since islands are merged as soon as they share their owner, no other island can be merged, hence the merges only involve the neighbours
+     * of the given island, found in constant time along the ring the islands are linked in, see {@link Island#getNext}.<br>
+     * The merges take place in the same order as a scan of the whole list from its first island would find them, which matters only when
+     * the islands left are just enough for one of them.
+     * <br><br>
      * This method is executed after every change to the ownership of an {@link Island island}.
+     *
+     * @param index index of the island whose owner has changed, relative to the islands list
      */
-    protected void checkForMerges() {
-        boolean repeat = true;
-        while (repeat && islands.size() > 3) {
-            repeat = false;
-            for (int i = 0; i < islands.size(); i++) {
-                if (islands.get(i).merge(islands.get((i + 1) % islands.size()))) {
-                    if (mother_nature >= (i + 1) % islands.size())
-                        mother_nature = (mother_nature - 1 + (islands.size() - 1)) % (islands.size() - 1);
-
-                    islands.remove((i + 1) % islands.size());
-
-                    repeat = true;
-                    break;
-                }
-            }
+    protected void checkForMerges(int index) {
+        if (index == 0) {
+            mergeNext(0);
+            mergeNext(islands.size() - 1);
+        } else {
+            if (mergeNext(index - 1))
+                index--;
+            mergeNext(index);
         }
 
         //check for winner if there are only 3 islands left
         if (islands.size() == 3) {
-            game_ended = true;
-            winnerID = computeWinnerBasedOnTowers();
+            setGameEnded(true);
+            setWinnerID(computeWinnerBasedOnTowers());
         }
     }
 
+    //Merges into the island at the given index the one following it, if they share a common owner and more than 3 islands are left
+
+    /**
+     * Merges into the {@link Island island} at the given index the one following it, if they share a common owner and more than 3 islands are left.<br>
+     * The merged island is taken out of both the ring and the islands list, and mother nature is moved along with the list if needed.
+     *
+     * @param index index of the island to merge the following one into, relative to the islands list
+     * @return true if the merge took place
+     */
+    private boolean mergeNext(int index) {
+        Island island = islands.get(index), merged_island = island.getNext();
+        boolean interdiction = island.getInterdiction();
+        if (islands.size() <= 3 || !island.merge(merged_island))
+            return false;
+
+        int merged_index = (index + 1) % islands.size();
+        if (mother_nature >= merged_index)
+            setMotherNature((mother_nature - 1 + (islands.size() - 1)) % (islands.size() - 1));
+        islands.remove(merged_index);
+        merged_island.unlink();
+        journal.record(() -> {
+            merged_island.relink();
+            islands.add(merged_index, merged_island);
+            island.unmerge(merged_island, interdiction);
+        });
+        return true;
+    }
+
+    //Links each island to its neighbours, following the order of the islands list
+
+    /**
+     * Links each {@link Island island} to its neighbours in a ring following the order of the islands list, wrap-around included.<br>
+     * The links are not serialized, hence they are built again whenever a game is built or deserialized.
+     */
+    private void linkIslands() {
+        for (int i = 0; i < islands.size(); i++)
+            islands.get(i).link(islands.get((i + islands.size() - 1) % islands.size()), islands.get((i + 1) % islands.size()));
+    }
+
+    //Maps each island of the given destinations, leaving the hall ones null
+    private List<Integer> mapDestinations(List<Integer> destinations, IntUnaryOperator mapping) {
+        if (destinations == null)
+            return null;
+        List<Integer> result = new ArrayList<Integer>(destinations.size());
+        for (Integer destination : destinations)
+            result.add(destination == null ? null : mapping.applyAsInt(destination));
+        return result;
+    }
+
+    //Maps the island argument of the effect parameters of the given npc, leaving them untouched if the npc targets no island or they are too few
+    private EffectParameters mapIslandArgument(int npc_index, EffectParameters effect_parameters, IntUnaryOperator mapping) {
+        if (npcs == null || npc_index < 0 || npc_index >= npcs.length || effect_parameters == null)
+            return effect_parameters;
+        int argument = npcs[npc_index].islandArgument();
+        if (argument < 0 || argument >= effect_parameters.args.size())
+            return effect_parameters;
+        List<Integer> args = new ArrayList<Integer>(effect_parameters.args);
+        args.set(argument, mapping.applyAsInt(args.get(argument)));
+        return new EffectParameters(args);
+    }
+
     //Checks if any professor has to be allocated from the table to a player or re-allocated from a player to another
     /**
      * Computes the rightful owner of each professor, updating them if needed.<br>
@@ -964,39 +1906,85 @@ public class Game implements Serializable {
      * This method is called every time a student is set to a player's hall.
      */
     protected void updateProfessors() {
-        for (int i = 0; i < unclaimed_professors.size(); i++) {
-            for (Player player : players) {
-                if (player.getDashboard().getHallRow(unclaimed_professors.get(i)) > 0) {
-                    player.getDashboard().setProfessor(unclaimed_professors.remove(i), true);
+        ColorSet unclaimed = professors.getUnclaimed();
+        for (int i = 0; i < unclaimed.size(); i++) {
+            int professor = unclaimed.get(i).index;
+            for (int j = 0; j < players.size(); j++) {
+                if (players.get(j).getDashboard().getHallRow(professor) > 0) {
+                    setProfessorOwner(professor, j);
+                    journal.record(() -> setProfessorOwner(professor, -1));
                     break;
                 }
             }
         }
-        for (Colors color : Colors.values()) {
-            if (!unclaimed_professors.contains(color)) {
-                int current_owner;
-                //j could start from 1
-                for (current_owner = 0; current_owner < players.size(); current_owner++) {
-                    if (players.get(current_owner).getDashboard().getProfessor(color)) {
-                        break;
-                    }
-                }
-                int rightful_owner = current_owner;
-                for (int j = 0; j < players.size(); j++) {
-                    if (current_owner == j) continue;
-                    if (players.get(j).getDashboard().getHallRow(color) > players.get(current_owner).getDashboard().getHallRow(color))
-                        rightful_owner = j;
-                }
-                if (npc_effect == 2 && players.get(current_phase_order.get(player_turn)).getDashboard().getHallRow(color) >= players.get(current_owner).getDashboard().getHallRow(color))
-                    rightful_owner = current_phase_order.get(player_turn);
-                if (current_owner != rightful_owner) {
-                    players.get(current_owner).getDashboard().setProfessor(color, false);
-                    players.get(rightful_owner).getDashboard().setProfessor(color, true);
-                }
+        for (int color = 0; color < 5; color++) {
+            int current_owner = professors.getOwner(color);
+            if (current_owner < 0)
+                continue;
+            int rightful_owner = current_owner;
+            for (int j = 0; j < players.size(); j++) {
+                if (current_owner == j) continue;
+                if (players.get(j).getDashboard().getHallRow(color) > players.get(current_owner).getDashboard().getHallRow(color))
+                    rightful_owner = j;
+            }
+            if (npc_effect == 2 && players.get(current_phase_order.get(player_turn)).getDashboard().getHallRow(color) >= players.get(current_owner).getDashboard().getHallRow(color))
+                rightful_owner = current_phase_order.get(player_turn);
+            if (current_owner != rightful_owner) {
+                int professor = color;
+                setProfessorOwner(professor, rightful_owner);
+                journal.record(() -> setProfessorOwner(professor, current_owner));
             }
         }
     }
 
+    //Gives the professor of the given color to the given player, keeping the influence on the islands up to date
+
+    /**
+     * Gives the professor of the given color to the given player, taking it from its previous owner, if any, and moving accordingly the
+     * influence on each {@link Island island}.<br>
+     * Used both to change the owner of a professor and to undo the change.
+     *
+     * @param color index of the color of the professor
+     * @param owner index of the new owner of the professor, -1 to leave it unclaimed
+     */
+    private void setProfessorOwner(int color, int owner) {
+        int previous_owner = professors.getOwner(color);
+        if (previous_owner >= 0)
+            players.get(previous_owner).getDashboard().setProfessor(Colors.fromColorIndex(color), false);
+        if (owner >= 0)
+            players.get(owner).getDashboard().setProfessor(Colors.fromColorIndex(color), true);
+        professors.setOwner(color, owner);
+        for (int i = 0; i < islands.size(); i++)
+            islands.get(i).moveProfessor(color, previous_owner);
+    }
+
+    //Starts keeping the influence on each island up to date
+
+    /**
+     * Makes each {@link Island island} keep the influence of each player up to date, see {@link Island#getInfluence},
+     * reading the owner of each professor from this game's table.<br>
+     * The influence is not serialized, hence it is built again whenever a game is built or deserialized.
+     */
+    private void trackInfluence() {
+        for (int i = 0; i < islands.size(); i++)
+            islands.get(i).trackInfluence(professors, players.size());
+    }
+
+    //Returns the colors whose students count towards the influence on the islands, as a bitmask
+
+    /**
+     * Getter for the colors whose students count towards the influence on the {@link Island islands}, as set by the npc whose effect is active, if any.
+     *
+     * @return set of the counted colors
+     */
+    private ColorSet influenceColors() {
+        if (npc_effect != 0)
+            for (int i = 0; i < npcs.length; i++)
+                if (npcs[i].getId() == npc_effect)
+                    return npcs[i].influenceColors();
+        return ColorSet.ALL;
+    }
+
     //Computes the winner in the case that it has to be decided based on the number of islands and/or professors controlled
     /**
      * Chooses a winner after the last game turn has ended, choosing the player who has the most towers, and, in case
@@ -1027,11 +2015,8 @@ public class Game implements Serializable {
 
         //NOTE: if there is a tie, even with professors counted in, the lower-index player wins
         if (contested) {
-            for (Colors color : Colors.values()) {
-                for (int i = 0; i < players.size(); i++)
-                    if (players.get(i).getDashboard().getProfessor(color))
-                        scores[i]++;
-            }
+            for (int i = 0; i < players.size(); i++)
+                scores[i] += professors.getOwnedBy(i).size();
 
             winner = 0;
             for (int i = 1; i < players.size(); i++) {
@@ -1048,40 +2033,34 @@ public class Game implements Serializable {
      * Concludes the current game turn and sets up the next one, by resetting the clouds, npcs, and turn order for the players.
      */
     protected void goToNextGameTurn() {
-        player_turn = 0;
-        phase = 0;
-        game_turn++;
+        setPlayerTurn(0);
+        setPhase(0);
+        setGameTurn(game_turn + 1);
 
         //Collections.reverse(current_phase_order); would have been cool but...
         int temp = current_phase_order.get(0);
-        current_phase_order.clear();
+        List<Integer> phase_order = new ArrayList<Integer>();
         //Assuming the order of "players" represents a clockwise turn...
         for (int i = 0; i < players.size(); i++)
-            current_phase_order.add((temp + i) % players.size());
+            phase_order.add((temp + i) % players.size());
+        setPhaseOrder(phase_order);
 
         for (int i = 0; i < players.size(); i++) {
-            if (clouds[i].size() == 0)
-                clouds[i].addAll(extractStudents(players.size() + 1));
+            if (clouds[i].size() == 0) {
+                position_hash ^= cloudKey(i);
+                extractStudents(players.size() + 1, clouds[i]);
+                position_hash ^= cloudKey(i);
+            }
         }
     }
 
-    //Backs up the current game state in a serialized version of this class inside itself
+    //Marks the end of a turn, after which the changes can no longer be reverted
 
     /**
-     * Updates the serialized copy that every instance of {@link Game} holds of itself with a new serialization computed within this method.
+     * Marks the current state of the game as the one every revert brings it back to, forgetting every change recorded until now.
      */
-    protected void updateSerializedGameCopy() {
-        try {
-            ByteArrayOutputStream bytearray_output_stream = new ByteArrayOutputStream();
-            ObjectOutputStream object_out_steam = new ObjectOutputStream(bytearray_output_stream);
-            object_out_steam.writeObject(this);
-            object_out_steam.flush();
-            object_out_steam.close();
-            this.serialized_game_copy = bytearray_output_stream.toByteArray();
-        } catch (IOException e) {
-            e.printStackTrace();
-            this.serialized_game_copy = null;
-        }
+    protected void checkpoint() {
+        journal.checkpoint();
     }
 
     /**
@@ -1092,6 +2071,9 @@ public class Game implements Serializable {
     @Serial
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
+        journal = new UndoJournal();
+        linkIslands();
+        trackInfluence();
 
         //deserialize with just as many students as you serialized with
         /*random_students = new ArrayList<Colors>();
@@ -25,15 +25,27 @@ public abstract class Npc {
      * or each specific npc's documentations to see which parameters are needed for each npc.
      * <br><br>
      * For npcs whose effect resolves instantly this method completes the activation entirely, while for npcs which alter other behaviours
-     * in the subsequent game steps their activation just sets {@link Game#npc_effect} to their id.
+     * in the subsequent game steps their activation just sets {@link Game#npc_effect} to their id.<br>
+     * The parameters are expected to have already been checked by {@link Npc#validateEffect}.
      *
      * @param game instance of {@link Game} containing the npc
      * @param effect_parameters parameters for the effect's activation
-     * @throws InvalidMoveException thrown whenever the parameters do not match the required specifics or when the player
-     * requesting the activation doesn't have enough coins.
+     * @throws InvalidMoveException thrown when the player requesting the activation doesn't have enough coins.
      */
     protected abstract void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException;
 
+    /**
+     * Checks whether the provided {@link EffectParameters effect parameters} are valid for this npc, without altering the game or the npc in any way.<br>
+     * Called by {@link Game#validateEffect} before the activation, npcs which don't need any parameter accept anything.
+     *
+     * @param game instance of {@link Game} containing the npc
+     * @param effect_parameters parameters for the effect's activation
+     * @return {@link MoveResult#VALID} if the parameters are valid, otherwise the reason why they aren't
+     */
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
+        return MoveResult.VALID;
+    }
+
     /**
      * Getter for the id of the specific npc, from 1 to 12 (extremes included).
      *
@@ -49,6 +61,13 @@ public abstract class Npc {
      */
     public abstract int getCost();
 
+    /**
+     * Sets the current activation cost of the specific npc, used to rebuild it from a {@link PackedGame}.
+     *
+     * @param cost the new activation cost
+     */
+    protected abstract void setCost(int cost);
+
     /**
      * Getter for the minimum number of arguments required for this npc's activation.
      *
@@ -56,6 +75,16 @@ public abstract class Npc {
      */
     public abstract int getArgsNum();
 
+    /**
+     * Getter for the position among the effect parameters of the island targeted by this npc's effect, if any.<br>
+     * The messages carry that island as its stable id, see {@link Game#effectIslandID}.
+     *
+     * @return position of the targeted island in {@link EffectParameters#args}, -1 if the effect targets no island
+     */
+    protected int islandArgument() {
+        return -1;
+    }
+
     /**
      * Executes a varying extra action correlated to the npc's effect.
      */
@@ -63,6 +92,33 @@ public abstract class Npc {
         return;
     }
 
+    /**
+     * Undoes the action executed by {@link Npc#extraEffect()}, used to revert the game.
+     */
+    protected void undoExtraEffect() {
+        return;
+    }
+
+    /**
+     * Getter for the colors whose students count towards the influence on the islands while this npc's effect is active.
+     *
+     * @return set of the counted colors, all of them unless the npc excludes some
+     */
+    protected ColorSet influenceColors() {
+        return ColorSet.ALL;
+    }
+
+    /**
+     * Getter for the hash of this npc's part of the position, that is its cost and its extra properties, see {@link Game#positionHash}.<br>
+     * Npcs with extra properties add them to the hash of their cost, which every npc has. The game only asks for it when the npc is created
+     * or altered, keeping the hash of its npcs up to date along with its own.
+     *
+     * @return xor of the keys of the features of this npc
+     */
+    protected long positionHash() {
+        return PositionKeys.key(PositionKeys.NPC, getId(), getCost());
+    }
+
     /**
      * Getter for all the potential properties that a specific npc might have,
      * going from none to a maximum of 6.
@@ -81,4 +137,13 @@ public abstract class Npc {
     public void setExtraProperty(List<Colors> prop) {
         return;
     }
+
+    /**
+     * Restores the npc's extra properties from the values returned by {@link Npc#getExtraProperty}, used to rebuild it from a {@link PackedGame}.
+     *
+     * @param extra_property the npc's extra properties, empty if it has none
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        return;
+    }
 }
@@ -0,0 +1,176 @@
+package Model;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ColorBag} keeping its students in the order they were added, for the groups whose students are chosen by their position,
+ * such as the entrances, the clouds and the students on the npcs.<br>
+ * The students are held as the indexes of their colors in a byte array, next to the number of students of each color,
+ * so that a group can be counted per color as cheaply as an unordered bag.
+ * Only the students held are serialized, not the room left for the ones to come.
+ */
+public class OrderedColorBag extends ColorBag {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient byte[] students;
+
+    /**
+     * Creates an empty bag, with room for the given number of students before having to grow.
+     *
+     * @param capacity number of students the bag can hold before growing
+     */
+    public OrderedColorBag(int capacity) {
+        super();
+        this.students = new byte[capacity];
+    }
+
+    /**
+     * Creates a bag holding the given students, in the same order.
+     *
+     * @param students the students to put in the bag
+     */
+    public OrderedColorBag(List<Colors> students) {
+        this(students.size());
+        for (int i = 0; i < students.size(); i++)
+            add(students.get(i));
+    }
+
+    /**
+     * Getter for one of the students in this bag, in the order they were added.
+     *
+     * @param index index of the student, from 0 to {@link ColorBag#size} (excluded)
+     * @return the requested student
+     * @throws IndexOutOfBoundsException if the index is not among those of this bag's students
+     */
+    @Override
+    public Colors get(int index) {
+        checkIndex(index);
+        return Colors.fromColorIndex(students[index]);
+    }
+
+    /**
+     * Adds a student after the ones already in this bag.
+     *
+     * @param student the student to add
+     */
+    @Override
+    public void add(Colors student) {
+        add(size, student);
+    }
+
+    /**
+     * Adds a student at the given position, shifting the following ones.
+     *
+     * @param index position of the new student, from 0 to {@link ColorBag#size} (included)
+     * @param student the student to add
+     */
+    public void add(int index, Colors student) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " students");
+        if (size == students.length)
+            students = Arrays.copyOf(students, Math.max(4, size * 2));
+        System.arraycopy(students, index, students, index + 1, size - index);
+        students[index] = (byte) student.index;
+        super.add(student);
+    }
+
+    /**
+     * Adds all the students of the given bag after the ones already in this bag, in the order of {@link ColorBag#get}.
+     *
+     * @param to_add the students to add
+     */
+    public void addAll(ColorBag to_add) {
+        for (int i = 0; i < to_add.size(); i++)
+            add(to_add.get(i));
+    }
+
+    /**
+     * Removes the first student of the given color from this bag, if there is one.
+     *
+     * @param student color of the student to remove
+     * @return true if a student was removed
+     */
+    @Override
+    public boolean remove(Colors student) {
+        for (int i = 0; i < size; i++)
+            if (students[i] == student.index) {
+                remove(i);
+                return true;
+            }
+        return false;
+    }
+
+    /**
+     * Removes the student at the given position, shifting the following ones.
+     *
+     * @param index position of the student to remove
+     * @return the removed student
+     * @throws IndexOutOfBoundsException if the index is not among those of this bag's students
+     */
+    @Override
+    public Colors remove(int index) {
+        Colors removed = get(index);
+        System.arraycopy(students, index + 1, students, index, size - index - 1);
+        counts[removed.index]--;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Draws the first student of this bag, whatever the given index.
+     *
+     * @param random_index ignored, the students are dealt in order
+     * @return the drawn student
+     */
+    @Override
+    public Colors draw(int random_index) {
+        return remove(0);
+    }
+
+    /**
+     * Puts back a student taken by {@link OrderedColorBag#draw} in front of the others.
+     *
+     * @param student the drawn student
+     */
+    @Override
+    public void undoDraw(Colors student) {
+        add(0, student);
+    }
+
+    /**
+     * Provides a copy of this bag, which can be changed independently of it.
+     *
+     * @return the copy of this bag
+     */
+    @Override
+    public OrderedColorBag copy() {
+        OrderedColorBag copy = new OrderedColorBag(students.length);
+        System.arraycopy(students, 0, copy.students, 0, size);
+        for (int i = 0; i < 5; i++)
+            copy.counts[i] = counts[i];
+        copy.size = size;
+        return copy;
+    }
+
+    @Serial
+    private void writeObject(java.io.ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.write(students, 0, size);
+    }
+
+    @Serial
+    private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        students = new byte[size];
+        in.readFully(students);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " students");
+    }
+}
@@ -0,0 +1,82 @@
+package Model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Owner of each professor in a {@link Game}, packed in a single int with 3 bits per color, the ones of each color being shifted by 3 times its index.<br>
+ * The bits of a color hold 0 while its professor is unclaimed, otherwise the index of the player owning it plus 1.
+ * <br><br>
+ * The table is the game's record of the unclaimed professors, while the players' {@link Dashboard dashboards} keep the ones
+ * they own, the game changes both together. The {@link Island islands} of the game read it to keep the influence of each player.
+ */
+class ProfessorTable implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int owners;
+
+    /**
+     * Creates a table with every professor unclaimed, as at the start of a game.
+     */
+    ProfessorTable() {
+        this.owners = 0;
+    }
+
+    /**
+     * Creates a table with the professors owned as on the dashboards of the given players, the others being unclaimed.
+     *
+     * @param players the players of the game, in the game's order
+     */
+    ProfessorTable(List<Player> players) {
+        this.owners = 0;
+        for (int i = 0; i < players.size(); i++)
+            for (int color = 0; color < 5; color++)
+                if (players.get(i).getDashboard().getProfessor(color))
+                    setOwner(color, i);
+    }
+
+    /**
+     * Getter for the owner of a professor.
+     *
+     * @param color index of the color of the professor
+     * @return index of the player owning the professor, -1 if it is unclaimed
+     */
+    int getOwner(int color) {
+        return (owners >>> 3 * color & 0b111) - 1;
+    }
+
+    /**
+     * Sets the owner of a professor.
+     *
+     * @param color index of the color of the professor
+     * @param owner index of the player owning the professor, -1 to leave it unclaimed
+     */
+    void setOwner(int color, int owner) {
+        owners = owners & ~(0b111 << 3 * color) | (owner + 1) << 3 * color;
+    }
+
+    /**
+     * Getter for the professors which are still unclaimed.
+     *
+     * @return set of the colors of the unclaimed professors
+     */
+    ColorSet getUnclaimed() {
+        return getOwnedBy(-1);
+    }
+
+    /**
+     * Getter for the professors owned by a player.
+     *
+     * @param player index of the player, -1 for the unclaimed professors
+     * @return set of the colors of the professors owned by the player
+     */
+    ColorSet getOwnedBy(int player) {
+        int mask = 0;
+        for (int color = 0; color < 5; color++)
+            if (getOwner(color) == player)
+                mask |= 1 << color;
+        return ColorSet.of(mask);
+    }
+}
@@ -0,0 +1,389 @@
+package Controller;
+
+import Controller.ServerSide.ClientData;
+import Controller.ServerSide.LobbyData;
+import Controller.ServerSide.LobbyFilter;
+import Controller.ServerSide.LobbySummary;
+import Model.Colors;
+import Model.EffectParameters;
+import Model.Game;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Frame layout: [version][tag][fields...]
+Integers are written as zigzag varints, so that small values (indexes, sizes, error codes) take a single byte,
+nullable values are preceded by a presence byte and lists by their size plus one, 0 standing for null.
+Messages for the client are followed by their sequence number: [version][tag][fields...][sequence]
+ */
+
+/**
+ * <strong>Compact binary {@link MessageCodec}</strong>.<br>
+ * Every frame starts with the {@link BinaryCodec#VERSION} of the format and a one byte tag identifying the {@link Message}, followed
+ * by the message's fields written one by one, so that no class descriptor ever travels on the connection.<br>
+ * Every {@link MessageForServer}, {@link MessageForServerLobby} and {@link MessageForClient} has its own tag, along with their payloads
+ * ({@link LobbyData}, {@link ClientData}, {@link LobbySummary}, {@link LobbyFilter}, {@link EffectParameters}, lists of {@link Colors} and the {@link GameSnapshot} of the {@link Game}).<br>
+ * Each message writes its own tag and fields through its override of {@link Message#writeBinary}, using the helpers of this class,
+ * while decoding rebuilds the messages through the static methods of {@link MessageForServer}, {@link MessageForServerLobby} and {@link MessageForClient}.
+ * <br><br>
+ * A frame with an unknown version or tag is rejected with a {@link StreamCorruptedException}.
+ */
+public class BinaryCodec implements MessageCodec {
+    //2: the game of MessageGameStarted travels as a compressed GameSnapshot
+    //3: every MessageForClient ends with its lobby event sequence number, MessageHello carries the last one received
+    //4: whole action turns travel as MessageTurnPlayedLB and MessageTurnPlayed
+    //5: every MessageForServerLobby ends with its request id, MessageMoveSuccessful and MessageError carry the one they answer
+    //6: lobbies are browsed by page, MessageBrowseLobbies, MessageLobbiesPage, MessageLobbyUpdated and MessageLobbyRemoved
+    //7: matchmaking, MessageEnqueue, MessageLeaveQueue and MessageQueued
+    //8: server driven heartbeats, MessageHeartbeat and MessageHeartbeatAck
+    //9: the game of MessageGameStarted travels as a PackedGame instead of its compressed serialization
+    //10: the PackedGame carries the state of the generator drawing the students from the pouch
+    //11: the PackedGame carries the seed of the game
+    public final static int VERSION = 11;
+
+    //MessageForServer
+    final static int PING = 1, HELLO = 2, CREATE_LOBBY = 3, JOIN_LOBBY = 4, GET_LOBBIES = 5, BROWSE_LOBBIES = 6, ENQUEUE = 7, LEAVE_QUEUE = 8,
+            HEARTBEAT_ACK = 9;
+    //MessageForServerLobby
+    final static int LEAVE_LOBBY = 16, TOGGLE_READY = 17, CARD_PLAYED_LB = 18, STUDENT_SET_TO_HALL_LB = 19, STUDENT_SET_TO_ISLAND_LB = 20,
+            MOTHER_NATURE_MOVED_LB = 21, CLOUD_CHOSEN_LB = 22, NPC_ACTIVATED_LB = 23, RESYNC = 24, MISSED_EVENTS = 25, TURN_PLAYED_LB = 26;
+    //MessageForClient
+    final static int ACK = 32, SET_LOBBY = 33, LOBBIES_LIST = 34, READINESS = 35, CARD_PLAYED = 36, STUDENT_SET_TO_HALL = 37,
+            STUDENT_SET_TO_ISLAND = 38, MOTHER_NATURE_MOVED = 39, CLOUD_CHOSEN = 40, NPC_ACTIVATED = 41, SKIP_TURN = 42, MOVE_SUCCESSFUL = 43,
+            CLOUDS_UPDATED = 44, NPC_UPDATED = 45, REVERT = 46, GAME_STARTED = 47, GAME_ENDED = 48, ERROR = 49, TURN_PLAYED = 50,
+            LOBBIES_PAGE = 51, LOBBY_UPDATED = 52, LOBBY_REMOVED = 53, QUEUED = 54, HEARTBEAT = 55;
+
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] encode(Message message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+
+        message.writeBinary(out);
+
+        if (message instanceof MessageForServerLobby m)
+            writeInt(out, m.getRequestID());
+        if (message instanceof MessageForClient m)
+            writeInt(out, m.getSequence());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Message decode(byte[] frame) throws IOException, ClassNotFoundException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+
+        int version = in.readUnsignedByte();
+        if (version != VERSION)
+            throw new StreamCorruptedException("Unsupported binary format version: " + version);
+
+        int tag = in.readUnsignedByte();
+        Message message = switch (tag) {
+            case PING -> MessageForServer.ping();
+            case HELLO -> MessageForServer.hello(readInt(in), readString(in), readInt(in));
+            case CREATE_LOBBY -> MessageForServer.createLobby(readInt(in), in.readBoolean());
+            case JOIN_LOBBY -> MessageForServer.joinLobby(readInt(in));
+            case GET_LOBBIES -> MessageForServer.getLobbies();
+            case BROWSE_LOBBIES -> MessageForServer.browseLobbies(readLobbyFilter(in), readInt(in), readInt(in), in.readBoolean());
+            case ENQUEUE -> MessageForServer.enqueue(readInt(in), in.readBoolean());
+            case LEAVE_QUEUE -> MessageForServer.leaveQueue();
+            case HEARTBEAT_ACK -> MessageForServer.heartbeatAck(in.readLong());
+            case LEAVE_LOBBY -> MessageForServerLobby.leaveLobby();
+            case TOGGLE_READY -> MessageForServerLobby.toggleReady();
+            case CARD_PLAYED_LB -> MessageForServerLobby.cardPlayed(readInt(in));
+            case STUDENT_SET_TO_HALL_LB -> MessageForServerLobby.studentSetToHall(readInt(in));
+            case STUDENT_SET_TO_ISLAND_LB -> MessageForServerLobby.studentSetToIsland(readInt(in), readNullableInt(in));
+            case MOTHER_NATURE_MOVED_LB -> MessageForServerLobby.motherNatureMoved(readInt(in));
+            case CLOUD_CHOSEN_LB -> MessageForServerLobby.cloudChosen(readInt(in));
+            case NPC_ACTIVATED_LB -> MessageForServerLobby.npcActivated(readInt(in), readEffectParameters(in));
+            case RESYNC -> MessageForServerLobby.resync();
+            case MISSED_EVENTS -> MessageForServerLobby.missedEvents(readInt(in));
+            case TURN_PLAYED_LB -> MessageForServerLobby.turnPlayed(readIntegers(in), readIntegers(in), readNullableInt(in), readNullableInt(in));
+            case ACK -> MessageForClient.ack(readInt(in));
+            case SET_LOBBY -> MessageForClient.setLobby(readLobbyData(in));
+            case LOBBIES_LIST -> {
+                int size = readSize(in);
+                List<LobbyData> lobbies = size == -1 ? null : new ArrayList<LobbyData>(size);
+                for (int i = 0; i < size; i++)
+                    lobbies.add(readLobbyData(in));
+                yield MessageForClient.lobbiesList(lobbies);
+            }
+            case LOBBIES_PAGE -> {
+                int size = readSize(in);
+                List<LobbySummary> lobbies = size == -1 ? null : new ArrayList<LobbySummary>(size);
+                for (int i = 0; i < size; i++)
+                    lobbies.add(readLobbySummary(in));
+                yield MessageForClient.lobbiesPage(lobbies, readInt(in), readInt(in));
+            }
+            case LOBBY_UPDATED -> MessageForClient.lobbyUpdated(readLobbySummary(in));
+            case LOBBY_REMOVED -> MessageForClient.lobbyRemoved(readInt(in));
+            case QUEUED -> MessageForClient.queued(readInt(in), in.readBoolean());
+            case HEARTBEAT -> MessageForClient.heartbeat(in.readLong());
+            case READINESS -> {
+                int size = readSize(in);
+                boolean[] ready_array = size == -1 ? null : new boolean[size];
+                for (int i = 0; i < size; i++)
+                    ready_array[i] = in.readBoolean();
+                yield MessageForClient.readiness(ready_array);
+            }
+            case CARD_PLAYED -> MessageForClient.cardPlayed(readInt(in), readInt(in));
+            case STUDENT_SET_TO_HALL -> MessageForClient.studentSetToHall(readInt(in), readInt(in));
+            case STUDENT_SET_TO_ISLAND -> MessageForClient.studentSetToIsland(readInt(in), readInt(in), readInt(in));
+            case MOTHER_NATURE_MOVED -> MessageForClient.motherNatureMoved(readInt(in), readInt(in));
+            case CLOUD_CHOSEN -> MessageForClient.cloudChosen(readInt(in), readInt(in));
+            case NPC_ACTIVATED -> MessageForClient.npcActivated(readInt(in), readInt(in), readEffectParameters(in));
+            case TURN_PLAYED -> MessageForClient.turnPlayed(readInt(in), readIntegers(in), readIntegers(in), readNullableInt(in), readNullableInt(in));
+            case SKIP_TURN -> MessageForClient.skipTurn();
+            case MOVE_SUCCESSFUL -> MessageForClient.moveSuccessful(readInt(in));
+            case CLOUDS_UPDATED -> {
+                int size = readSize(in);
+                List<Colors>[] clouds = size == -1 ? null : newColorLists(size);
+                for (int i = 0; i < size; i++)
+                    clouds[i] = readColors(in);
+                yield MessageForClient.cloudsUpdate(clouds);
+            }
+            case NPC_UPDATED -> MessageForClient.npcUpdated(readInt(in), readColors(in));
+            case REVERT -> MessageForClient.revert();
+            case GAME_STARTED -> MessageForClient.gameStarted(readSnapshot(in));
+            case GAME_ENDED -> MessageForClient.gameEnded(readInt(in));
+            case ERROR -> MessageForClient.error(readString(in), readInt(in), readInt(in));
+            default -> throw new StreamCorruptedException("Unknown message tag: " + tag);
+        };
+
+        if (message instanceof MessageForServerLobby)
+            MessageForServerLobby.requested(message, readInt(in));
+        if (message instanceof MessageForClient)
+            MessageForClient.sequenced(message, readInt(in));
+        return message;
+    }
+
+    //The snapshot already carries the game in the fixed layout of PackedGame, so it's copied as is
+    static void writeSnapshot(DataOutputStream out, GameSnapshot snapshot) throws IOException {
+        if (snapshot == null) {
+            writeSize(out, -1);
+            return;
+        }
+        writeSize(out, snapshot.getPacked().length);
+        out.write(snapshot.getPacked());
+        writeInt(out, snapshot.getVersion());
+    }
+
+    private static GameSnapshot readSnapshot(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size == -1)
+            return null;
+        byte[] packed = new byte[size];
+        in.readFully(packed);
+        return new GameSnapshot(readInt(in), packed);
+    }
+
+    static void writeLobbyData(DataOutputStream out, LobbyData lobby) throws IOException {
+        out.writeBoolean(lobby != null);
+        if (lobby == null)
+            return;
+        writeInt(out, lobby.lobbyID);
+        writeInt(out, lobby.size);
+        out.writeBoolean(lobby.expert_mode);
+        writeSize(out, lobby.clients == null ? -1 : lobby.clients.size());
+        if (lobby.clients != null) {
+            for (ClientData client : lobby.clients) {
+                writeInt(out, client.clientID);
+                writeString(out, client.nickname);
+                writeInt(out, client.getLobbyID());
+            }
+        }
+    }
+
+    private static LobbyData readLobbyData(DataInputStream in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        int lobbyID = readInt(in);
+        int size = readInt(in);
+        boolean expert_mode = in.readBoolean();
+        int num_of_clients = readSize(in);
+        List<ClientData> clients = num_of_clients == -1 ? null : new ArrayList<ClientData>(num_of_clients);
+        for (int i = 0; i < num_of_clients; i++)
+            clients.add(new ClientData(readInt(in), readString(in), null, readInt(in)));
+        return new LobbyData(lobbyID, size, expert_mode, clients);
+    }
+
+    static void writeLobbySummary(DataOutputStream out, LobbySummary lobby) throws IOException {
+        out.writeBoolean(lobby != null);
+        if (lobby == null)
+            return;
+        writeInt(out, lobby.lobbyID);
+        writeInt(out, lobby.size);
+        out.writeBoolean(lobby.expert_mode);
+        writeSize(out, lobby.nicknames.size());
+        for (String nickname : lobby.nicknames)
+            writeString(out, nickname);
+        out.writeBoolean(lobby.started);
+        writeInt(out, lobby.position);
+    }
+
+    private static LobbySummary readLobbySummary(DataInputStream in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        int lobbyID = readInt(in);
+        int size = readInt(in);
+        boolean expert_mode = in.readBoolean();
+        int num_of_players = readSize(in);
+        List<String> nicknames = new ArrayList<String>(Math.max(num_of_players, 0));
+        for (int i = 0; i < num_of_players; i++)
+            nicknames.add(readString(in));
+        return new LobbySummary(lobbyID, size, expert_mode, nicknames, in.readBoolean(), readInt(in));
+    }
+
+    //the expert mode is written as 0 for any, 1 for normal and 2 for expert
+    static void writeLobbyFilter(DataOutputStream out, LobbyFilter filter) throws IOException {
+        out.writeBoolean(filter != null);
+        if (filter == null)
+            return;
+        writeInt(out, filter.size);
+        out.writeByte(filter.expert_mode == null ? 0 : filter.expert_mode ? 2 : 1);
+        out.writeBoolean(filter.open_only);
+        writeString(out, filter.nickname);
+    }
+
+    private static LobbyFilter readLobbyFilter(DataInputStream in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        int size = readInt(in);
+        int expert_mode = in.readUnsignedByte();
+        return new LobbyFilter(size, expert_mode == 0 ? null : expert_mode == 2, in.readBoolean(), readString(in));
+    }
+
+    static void writeEffectParameters(DataOutputStream out, EffectParameters effect_parameters) throws IOException {
+        writeSize(out, effect_parameters == null ? -1 : effect_parameters.args.size());
+        if (effect_parameters != null)
+            for (Integer arg : effect_parameters.args)
+                writeInt(out, arg);
+    }
+
+    private static EffectParameters readEffectParameters(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size == -1)
+            return null;
+        List<Integer> args = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++)
+            args.add(readInt(in));
+        return new EffectParameters(args);
+    }
+
+    static void writeColors(DataOutputStream out, List<Colors> colors) throws IOException {
+        writeSize(out, colors == null ? -1 : colors.size());
+        if (colors != null)
+            for (Colors color : colors)
+                out.writeByte(color.index);
+    }
+
+    private static List<Colors> readColors(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size == -1)
+            return null;
+        List<Colors> colors = new ArrayList<Colors>(size);
+        for (int i = 0; i < size; i++)
+            colors.add(Colors.fromColorIndex(in.readUnsignedByte()));
+        return colors;
+    }
+
+    //arrays of a generic type can only be created raw, every element is filled by readColors
+    @SuppressWarnings("unchecked")
+    private static List<Colors>[] newColorLists(int size) {
+        return (List<Colors>[]) new List<?>[size];
+    }
+
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            writeSize(out, -1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeSize(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size == -1)
+            return null;
+        byte[] bytes = new byte[size];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null)
+            writeInt(out, value);
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readInt(in) : null;
+    }
+
+    static void writeIntegers(DataOutputStream out, List<Integer> values) throws IOException {
+        writeSize(out, values == null ? -1 : values.size());
+        if (values != null)
+            for (Integer value : values)
+                writeNullableInt(out, value);
+    }
+
+    private static List<Integer> readIntegers(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size == -1)
+            return null;
+        List<Integer> values = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++)
+            values.add(readNullableInt(in));
+        return values;
+    }
+
+    //sizes are shifted by one so that -1 (null) is encoded as 0
+    static void writeSize(DataOutputStream out, int size) throws IOException {
+        writeVarint(out, size + 1);
+    }
+
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = readVarint(in) - 1;
+        if (size < -1 || size > MAX_FRAME_SIZE)
+            throw new StreamCorruptedException("Invalid size: " + size);
+        return size;
+    }
+
+    //zigzag encoding, so that negative values stay short too
+    static void writeInt(DataOutputStream out, int value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static int readInt(DataInputStream in) throws IOException {
+        int value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+}
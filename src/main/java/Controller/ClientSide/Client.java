@@ -3,11 +3,14 @@ package Controller.ClientSide;
 import Controller.*;
 import Controller.ServerSide.ClientData;
 import Controller.ServerSide.LobbyData;
+import Controller.ServerSide.LobbyFilter;
+import Controller.ServerSide.LobbySummary;
 import Exceptions.InvalidMoveException;
 import Model.Colors;
 import Model.EffectParameters;
 import Model.Game;
 import Model.GameState;
+import Model.MoveResult;
 import View.CLI.CLI;
 import View.GUI.GUI;
 import View.UI;
@@ -20,7 +23,12 @@ import java.net.Socket;
 import java.net.URI;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /*
@@ -49,19 +57,31 @@ This class is the gate for the UI to get data from the model, Game, and to send
  * <ul>
  *    <li> <i>reconnecting</i> - after the connection to the server has been lost and reconnections attempt are being made every second
  *    <li> <i>loading_storage</i> - while an attempt to recover a session from a previous execution of the program started by this client is on going
- *    <li> <i>waiting_for_move_successful</i> - reached after a request for a move being performed has been sent to the server, this state is maintained
- *          until the server acknowledges the move
+ *    <li> <i>pending moves</i> - reached after a request for a move being performed has been sent to the server, this state is maintained
+ *          until the server has answered every move sent; up to {@link Client#MAX_PENDING_MOVES} moves can be in flight at the same time
+ *    <li> <i>recovering</i> - after a gap in the sequence numbers of the lobby events has been spotted, until the missing events, or a whole copy
+ *          of the game, are received
  * </ul>
+ * Every move request carries an id, echoed by the server's answer to it, so that answers are matched to their moves regardless of how many are in flight.
+ * A move is applied to the local model as soon as it's sent, a rejected one makes the server revert the turn, which takes along the moves sent after it.
+ * <br><br>
+ * Every event of the lobby is applied at most once and in order: events already applied are dropped, while an event following a missing one
+ * makes the client request the events it missed, see {@link MessageForServerLobby#missedEvents}.
  * <br><br>
  * Since it implements {@link Controller}, it is an <strong>OBSERVER</strong> to its {@link SocketHandler} connected to the server.
  */
 public class Client extends Controller {
     public final static int RECONNECTION_TRY_INTERVAL = 1000;
-    public final static int PING_INTERVAL = 5000;
+    public final static int MAX_PENDING_MOVES = 8;
+    public final static int LOBBIES_PAGE_SIZE = 4;
     public final static String LOCAL_STORAGE_NAME = "client";
     public final static String LOCAL_STORAGE_EXTENSION = "dat";
     public final static int STORAGE_DURATION = 3600 * 24; //in seconds
     public static boolean ENABLE_STORAGE = true;
+    //when true the connection is served by a single-threaded NioTransport, the server must be using one as well
+    public static boolean ENABLE_NIO_TRANSPORT = false;
+    //when true messages are framed with the BinaryCodec, the server must be using it as well
+    public static boolean ENABLE_BINARY_CODEC = false;
 
     private Integer myClientID;
     private LobbyData lobby;
@@ -69,16 +89,42 @@ public class Client extends Controller {
     private final String server_ip;
     private final int server_port;
     private SocketHandler socket_handler;
-    private Thread socket_receiver_thread, socket_sender_thread, ping_thread;
+    private Thread socket_receiver_thread, socket_sender_thread;
+    private NioTransport nio_transport;
     private List<LobbyData> lobbiesList;
+    //page of lobbies browsed, kept up to date by the server as long as the client is not in a lobby
+    private List<LobbySummary> lobbies_page;
+    //filter of the lobbies browsed, null until the client browses them
+    private LobbyFilter lobbies_filter;
+    private int lobbies_cursor;
+    private int next_lobbies_cursor;
+    //cursors of the pages before the browsed one
+    private final Deque<Integer> previous_lobbies_cursors;
+    //size of the game the client is waiting for in the matchmaking queue, 0 when not waiting
+    private int queue_size;
+    private boolean queue_expert_mode;
     private boolean[] ready_flags;
     //true when the client lost connection and is trying to reconnect
     private boolean reconnecting;
     //true when the client has read the previous id and nickname from local store and is trying to log back in with them
     private boolean loading_storage;
-    //true when a move has been sent to the server, and the client is waiting for the moveSuccessful message
-    private boolean waiting_for_move_successful;
+    //moves sent to the server and not answered yet, by request id, in the order they were sent
+    private final Map<Integer, String> pending_moves;
+    //id of the last request sent to the server
+    private int last_requestID;
     private int waiting_for_move_successful_attempts;
+    //true once the current game has ended, until a new one starts
+    private boolean game_ended;
+    //sequence number of the last lobby event applied to the local model
+    private int last_sequence;
+    //sequence number of the message being applied, 0 when it is outside the lobby's event stream
+    private int applying_sequence;
+    //sequence number of the last lobby event the requested replay follows, -1 when no lobby event nor copy of the game has been requested
+    private int awaiting_resync_since;
+    //true when a whole copy of the game has been requested, instead of the missing lobby events
+    private boolean awaiting_snapshot;
+    //true when the last lobby event received has been dropped, along with the messages completing it
+    private boolean event_dropped;
     //contains the arguments of the last performed move, used by the GUI to show animations.
     private final List<Integer> last_move_data;
 
@@ -102,11 +148,21 @@ public class Client extends Controller {
         this.nickname = null;
         this.ui = ui;
         this.lobbiesList = null;
+        this.lobbies_page = null;
+        this.lobbies_filter = null;
+        this.previous_lobbies_cursors = new ArrayDeque<Integer>();
+        this.queue_size = 0;
         this.ready_flags = null;
         this.reconnecting = false;
         this.loading_storage = false;
-        this.waiting_for_move_successful = false;
+        this.pending_moves = new LinkedHashMap<Integer, String>();
+        this.last_requestID = 0;
         this.waiting_for_move_successful_attempts = 0;
+        this.game_ended = false;
+        this.last_sequence = 0;
+        this.awaiting_resync_since = -1;
+        this.awaiting_snapshot = false;
+        this.event_dropped = false;
         this.last_move_data = new ArrayList<Integer>();
     }
 
@@ -120,14 +176,7 @@ public class Client extends Controller {
      */
     public void start() {
         try {
-            Socket socket = new Socket(server_ip, server_port);
-            this.socket_handler = new SocketHandler(socket, this);
-            this.socket_receiver_thread = new Thread(this.socket_handler.getReceiver());
-            this.socket_receiver_thread.start();
-            this.socket_sender_thread = new Thread(this.socket_handler.getSender());
-            this.socket_sender_thread.start();
-            this.ping_thread = new Thread(this::pingServer);
-            this.ping_thread.start();
+            connect();
 
             //load previous credentials from local storage
             if (ENABLE_STORAGE && new File(LOCAL_STORAGE_NAME + "." + LOCAL_STORAGE_EXTENSION).isFile()) {
@@ -165,6 +214,26 @@ public class Client extends Controller {
         ui.start(this);
     }
 
+    /**
+     * Opens a new connection to the {@link Server}, either wrapping a {@link Socket} in a {@link SocketHandler} served by its own threads,
+     * or, when {@link Client#ENABLE_NIO_TRANSPORT} is set, registering it to this client's {@link NioTransport}.
+     *
+     * @throws IOException if the connection could not be established
+     */
+    private void connect() throws IOException {
+        if (ENABLE_NIO_TRANSPORT) {
+            if (nio_transport == null)
+                nio_transport = new NioTransport(1, ENABLE_BINARY_CODEC ? new BinaryCodec() : new SerializationCodec());
+            this.socket_handler = nio_transport.connect(server_ip, server_port, this);
+        } else
+            this.socket_handler = new SocketHandler(new Socket(server_ip, server_port), this, ENABLE_BINARY_CODEC ? new BinaryCodec() : null);
+
+        this.socket_receiver_thread = new Thread(this.socket_handler.getReceiver());
+        this.socket_receiver_thread.start();
+        this.socket_sender_thread = new Thread(this.socket_handler.getSender());
+        this.socket_sender_thread.start();
+    }
+
     /**
      * Sets the necessary parameters for this client to be used.
      * @param socket_handler this client's {@link SocketHandler}
@@ -204,16 +273,15 @@ public class Client extends Controller {
 
             synchronized (this) {
                 try {
-                    Socket socket = new Socket(server_ip, server_port);
-                    this.socket_handler = new SocketHandler(socket, this);
-                    this.socket_receiver_thread = new Thread(this.socket_handler.getReceiver());
-                    this.socket_receiver_thread.start();
-                    this.socket_sender_thread = new Thread(this.socket_handler.getSender());
-                    this.socket_sender_thread.start();
-                    ui.resetState();
+                    connect();
+                    //a game going on is resumed from the last event applied, unless a move of this client is still waiting to be validated
+                    boolean resume = game != null && !game_ended && pending_moves.isEmpty();
+                    clearResync();
+                    if (game == null)
+                        ui.resetState();
                     if (nickname != null) {
                         if (myClientID != 0)
-                            this.socket_handler.send(MessageForServer.hello(myClientID, nickname));
+                            this.socket_handler.send(MessageForServer.hello(myClientID, nickname, resume ? last_sequence : 0));
                         else
                             this.socket_handler.send(MessageForServer.hello(0, nickname));
                     }
@@ -228,22 +296,6 @@ public class Client extends Controller {
         //getLobbies();
     }
 
-    /**
-     * While connected to the server, sends it a ping every {@link Client#PING_INTERVAL}, informing it that the connection is still alive.<br>
-     */
-    private void pingServer() {
-        while(true) {
-            try {
-                Thread.sleep(PING_INTERVAL);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-
-            if(!socket_handler.isClosed() && socket_handler != null)
-                socket_handler.send(MessageForServer.ping());
-        }
-    }
-
     /**
      * {@inheritDoc}
      *
@@ -255,12 +307,86 @@ public class Client extends Controller {
             //System.out.println("Update handled.");
             //System.out.println(message.getClass());
 
+            if (message instanceof MessageForClient && !inSequence((MessageForClient) message))
+                return;
             message.execute(this, socket_handler);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Checks whether a message is the next lobby event to apply to the local model.<br>
+     * Events already applied are dropped, while an event following a missing one is dropped and triggers the recovery of those missing.
+     * Messages outside the lobby's event stream are always applied, except for those completing an event that has been dropped.
+     * <br><br>
+     * While a replay of the missing events is awaited, every event is dropped until the first one of the replay arrives,
+     * since the replay holds the events that arrived in the meantime as well. While a copy of the game is awaited instead,
+     * the events keep being applied in order until the copy replaces the whole model.
+     *
+     * @param message the {@link MessageForClient} received
+     * @return true if the message has to be applied
+     */
+    private boolean inSequence(MessageForClient message) {
+        int sequence = message.getSequence();
+        applying_sequence = sequence;
+        if (sequence == 0)
+            return !(message.isEventDetail() && event_dropped);
+
+        //a copy of the game makes every previous event irrelevant
+        if (message.isSnapshot()) {
+            last_sequence = sequence;
+            clearResync();
+            event_dropped = false;
+            return true;
+        }
+
+        boolean awaiting_replay = awaiting_resync_since >= 0 && !awaiting_snapshot;
+        if (awaiting_replay ? sequence == awaiting_resync_since + 1 : sequence == last_sequence + 1) {
+            last_sequence = sequence;
+            if (awaiting_replay)
+                clearResync();
+            event_dropped = false;
+            return true;
+        }
+
+        if (sequence > last_sequence)
+            recover(last_sequence);
+        event_dropped = true;
+        return false;
+    }
+
+    /**
+     * Requests the server the lobby events following the given one, only once until they are received.<br>
+     * If a move of this client is still waiting to be validated, a whole copy of the game is requested instead,
+     * since the move has already been applied to the local model.
+     *
+     * @param since sequence number of the last lobby event whose content is in the local model
+     */
+    private void recover(int since) {
+        if (!pending_moves.isEmpty())
+            requestSnapshot();
+        else if (awaiting_resync_since < 0) {
+            awaiting_resync_since = since;
+            socket_handler.send(MessageForServerLobby.missedEvents(since));
+        }
+    }
+
+    //requests a whole copy of the game, which replaces a replay of the missing events already requested
+    private void requestSnapshot() {
+        if (awaiting_snapshot)
+            return;
+        awaiting_resync_since = last_sequence;
+        awaiting_snapshot = true;
+        socket_handler.send(MessageForServerLobby.resync());
+    }
+
+    //forgets the request of a replay or of a copy of the game, so that a new one can be sent
+    private void clearResync() {
+        awaiting_resync_since = -1;
+        awaiting_snapshot = false;
+    }
+
 
 
     /*
@@ -288,6 +414,9 @@ public class Client extends Controller {
         loading_storage = false;
         ui.nicknameConfirmed();
         ui.refresh();
+        //a new connection has no subscription to the lobbies browsed before
+        if (lobby == null && lobbies_filter != null)
+            refreshLobbies();
 
         //save credentials to file
         try {
@@ -316,6 +445,7 @@ public class Client extends Controller {
     public synchronized void setLobby(SocketHandler handler, LobbyData lobby) {
         if (lobby != null) {
             this.lobby = lobby;
+            this.queue_size = 0;
             ui.inLobby();
 
             /*String output = "Current lobby:\nId: " + lobby.lobbyID + " Expert mode: " + lobby.expert_mode + " Size: " + lobby.size;
@@ -327,7 +457,7 @@ public class Client extends Controller {
             this.lobby = null;
             ui.noLobby();
             //updates the old lobbies list after you leave your lobby
-            getLobbies();
+            refreshLobbies();
             //ui.showMessage("Lobby left");
         }
 
@@ -358,6 +488,77 @@ public class Client extends Controller {
         //ui.showMessage(output);
     }
 
+    /**
+     * Replaces the browsed page of lobbies with the one received.<br>
+     * Consequence of {@link MessageForClient#lobbiesPage}.
+     *
+     * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param lobbies list of {@link LobbySummary}, the lobbies in the page
+     * @param cursor cursor of the page
+     * @param next_cursor cursor of the following page, 0 if this is the last one
+     */
+    public synchronized void lobbiesPage(SocketHandler handler, List<LobbySummary> lobbies, int cursor, int next_cursor) {
+        lobbies_page = new ArrayList<LobbySummary>(lobbies);
+        lobbies_cursor = cursor;
+        next_lobbies_cursor = next_cursor;
+        ui.refresh();
+    }
+
+    /**
+     * Updates a lobby of the browsed page, or adds it in its place if it has just entered the page.<br>
+     * Consequence of {@link MessageForClient#lobbyUpdated}.
+     *
+     * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param lobby {@link LobbySummary} of the lobby
+     */
+    public synchronized void lobbyUpdated(SocketHandler handler, LobbySummary lobby) {
+        if (lobbies_page == null)
+            return;
+        lobbies_page.removeIf(summary -> summary.lobbyID == lobby.lobbyID);
+        int index = 0;
+        while (index < lobbies_page.size() && lobbies_page.get(index).position < lobby.position)
+            index++;
+        lobbies_page.add(index, lobby);
+        ui.refresh();
+    }
+
+    /**
+     * Removes a lobby from the browsed page.<br>
+     * Consequence of {@link MessageForClient#lobbyRemoved}.
+     *
+     * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param lobbyID id of the lobby
+     */
+    public synchronized void lobbyRemoved(SocketHandler handler, int lobbyID) {
+        if (lobbies_page != null && lobbies_page.removeIf(summary -> summary.lobbyID == lobbyID))
+            ui.refresh();
+    }
+
+    /**
+     * Updates the kind of game the client is waiting for in the matchmaking queue.<br>
+     * Consequence of {@link MessageForClient#queued}.
+     *
+     * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param size number of players of the game, 0 if the client is no longer waiting
+     * @param expert_mode expert mode of the game
+     */
+    public synchronized void queued(SocketHandler handler, int size, boolean expert_mode) {
+        queue_size = size;
+        queue_expert_mode = expert_mode;
+        ui.refresh();
+    }
+
+    /**
+     * Answers a heartbeat of the server, which is sent only when the connection has been silent for a while, proving it to be still alive.<br>
+     * Consequence of {@link MessageForClient#heartbeat}.
+     *
+     * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param timestamp timestamp carried by the heartbeat, echoed back
+     */
+    public void heartbeat(SocketHandler handler, long timestamp) {
+        handler.send(MessageForServer.heartbeatAck(timestamp));
+    }
+
     //Function which gives the current readiness status of players inside a lobby, used in 2 occasions,
     //before the lobby's game starts, to see who is ready and who is not, and during a game, to mark permanently disconnected player
 
@@ -429,9 +630,10 @@ public class Client extends Controller {
      * @param handler       {@link SocketHandler} which caused the update resulting in this method's invocation
      * @param clientID      id of the opponent performing the move
      * @param student_index index of the moved student
-     * @param island_index  index of the target island
+     * @param island        id of the target island, see {@link Game#islandID}
      */
-    public synchronized void studentSetToIsland(SocketHandler handler, int clientID, int student_index, int island_index) {
+    public synchronized void studentSetToIsland(SocketHandler handler, int clientID, int student_index, int island) {
+        int island_index = game.islandIndex(island);
         try {
             game.setStudentToIsland(clientID, student_index, island_index);
         } catch (InvalidMoveException e) {
@@ -494,11 +696,11 @@ public class Client extends Controller {
      * @param handler           {@link SocketHandler} which caused the update resulting in this method's invocation
      * @param clientID          id of the opponent performing the move
      * @param npc_index         index of the activated Npc
-     * @param effect_parameters parameters for the Npc's activation
+     * @param effect_parameters parameters for the Npc's activation, with the targeted island as its id, see {@link Game#effectIslandID}
      */
     public synchronized void npcActivated(SocketHandler handler, int clientID, int npc_index, EffectParameters effect_parameters) {
         try {
-            game.activateEffect(clientID, npc_index, effect_parameters);
+            game.activateEffect(clientID, npc_index, game.effectIslandIndex(npc_index, effect_parameters));
         } catch (InvalidMoveException e) {
             ui.showMessage("error: the move could not be applied", UIColors.RED);
         }
@@ -508,6 +710,34 @@ public class Client extends Controller {
         last_move_data.add(npc_index);
     }
 
+    /**
+     * Updates the local copy of the model according to the student moves performed all at once by another player,
+     * along with the mother nature move and the cloud choice if they were performed as well.<br>
+     * Consequence of {@link MessageForClient#turnPlayed}.
+     * @see Game#playActionTurn(int, List, List, Integer, Integer)
+     *
+     * @param handler             {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param clientID            id of the opponent performing the moves
+     * @param student_indexes     indexes of the moved students
+     * @param destinations        for each student the id of the target island, see {@link Game#islandID}, or null for the hall
+     * @param mother_nature_moves steps mother nature was moved by, null if it wasn't moved
+     * @param cloud_index         index of the cloud chosen, null if none was chosen
+     */
+    public synchronized void turnPlayed(SocketHandler handler, int clientID, List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        try {
+            game.playActionTurn(clientID, student_indexes, game.islandIndexes(destinations), mother_nature_moves, cloud_index);
+        } catch (InvalidMoveException e) {
+            ui.showMessage("error: the move could not be applied", UIColors.RED);
+        }
+        ui.showMessage(student_indexes.size() + " students set by " + clientIDToNickname(clientID) +
+                (mother_nature_moves != null ? ", mother nature moved by " + mother_nature_moves + " steps" : "") +
+                (cloud_index != null ? ", cloud " + cloud_index + " chosen" : ""), UIColors.WHITE);
+
+        last_move_data.clear();
+        if (cloud_index != null)
+            last_move_data.add(cloud_index);
+    }
+
     /**
      * Skips the current turn of the model according to the {@link Controller.ServerSide.ServerLobby}'s handling of another player's disconnection.<br>
      * Consequence of {@link MessageForClient#skipTurn}.
@@ -526,16 +756,23 @@ public class Client extends Controller {
     }
 
     /**
-     * Acknowledgment that the previous move requested the server was approved and applied lobby-wide.<br>
+     * Acknowledgment that a move requested the server was approved and applied lobby-wide.<br>
      * Consequence of {@link MessageForClient#moveSuccessful}.
      *
      * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param requestID id of the request carrying the approved move
      */
-    public synchronized void moveSuccessful(SocketHandler handler) {
-        waiting_for_move_successful = false;
+    public synchronized void moveSuccessful(SocketHandler handler, int requestID) {
+        String move = pending_moves.remove(requestID);
+        //the validated move is missing from the local model, which has been reverted or replaced since it was performed,
+        //the event carried by this answer, if any, is replayed along with the following ones
+        if (move == null && game != null) {
+            recover(applying_sequence != 0 ? applying_sequence - 1 : last_sequence);
+            return;
+        }
         waiting_for_move_successful_attempts = 0;
         ui.refresh();
-        ui.showMessage("move validated by the server", UIColors.CYAN);
+        ui.showMessage((move != null ? move : "move") + " validated by the server", UIColors.CYAN);
     }
 
     /**
@@ -559,7 +796,7 @@ public class Client extends Controller {
      * @param students students for the updated Npc
      */
     public synchronized void npcUpdated(SocketHandler handler, int npc_index, List<Colors> students) {
-        this.game.getNpcs()[npc_index].setExtraProperty(students);
+        this.game.updateNpc(npc_index, students);
         ui.showMessage("npc number " + npc_index + " updated", UIColors.GRAY);
     }
 
@@ -571,7 +808,8 @@ public class Client extends Controller {
      * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
      */
     public synchronized void revert(SocketHandler handler) {
-        waiting_for_move_successful = false;
+        //the moves still in flight were performed on top of the reverted ones, they are undone as well
+        pending_moves.clear();
         waiting_for_move_successful_attempts = 0;
         game = Game.revertToPreviousState(game);
     }
@@ -586,8 +824,9 @@ public class Client extends Controller {
     public synchronized void gameStart(SocketHandler handler, Game game) {
         this.ui.gameStart();
         this.game = game;
-        waiting_for_move_successful = false;
+        pending_moves.clear();
         waiting_for_move_successful_attempts = 0;
+        game_ended = false;
         last_move_data.clear();
         //refresh only AFTER game has been set
         ui.refresh();
@@ -603,7 +842,7 @@ public class Client extends Controller {
      */
     public synchronized void gameEnd(SocketHandler handler, int winnerId) {
         this.ui.gameEnd(winnerId);
-        waiting_for_move_successful = true;
+        game_ended = true;
         waiting_for_move_successful_attempts = 0;
         //this.game = null;
         ui.showMessage("--> game ended, winner: " + clientIDToNickname(winnerId), winnerId == myClientID ? UIColors.GREEN : UIColors.RED);
@@ -624,13 +863,22 @@ public class Client extends Controller {
      *     <li> Action not permitted.
      *     <li> Server error, request not fulfilled, nothing has changed.
      *     <li> Invalid move.
+     *     <li> Messages were dropped because the connection fell behind, the state has to be fetched again.
      * </ol>
      *
      * @param handler {@link SocketHandler} which caused the update resulting in this method's invocation
      * @param msg error message
      * @param errorCode error code
+     * @param requestID id of the request which failed, 0 if the error doesn't answer a specific request
      */
-    public synchronized void error(SocketHandler handler, String msg, int errorCode) {
+    public synchronized void error(SocketHandler handler, String msg, int errorCode, int requestID) {
+        //the move has been rejected, without the server's game being touched
+        String rejected_move = requestID != 0 ? pending_moves.remove(requestID) : null;
+        //the rejected move was already applied to the local model, which is fetched again as a whole, once for all the moves sent after it
+        if (errorCode == 7 && rejected_move != null && game != null) {
+            dropMovesAfter(requestID);
+            requestSnapshot();
+        }
         //your nickname was taken while you were reconnecting, choose another one
         if (errorCode == 3) {
             if (reconnecting) {
@@ -645,6 +893,23 @@ public class Client extends Controller {
             nickname = null;
             ui.resetState();
         }
+        //the previous lobby could not be joined back, the game resumed after the reconnection is gone
+        if (errorCode == 2 && game != null) {
+            game = null;
+            ui.resetState();
+        }
+        //some updates never reached this client, the lobby or game state has to be fetched again
+        if (errorCode == 8) {
+            if (game != null) {
+                clearResync();
+                recover(last_sequence);
+            } else if (lobby != null)
+                socket_handler.send(MessageForServerLobby.resync());
+            else
+                refreshLobbies();
+            pending_moves.clear();
+            waiting_for_move_successful_attempts = 0;
+        }
         ui.showMessage("Error: " + msg, errorCode != 1 && errorCode != 6 ? UIColors.RED : UIColors.YELLOW);
         //ui.showMessage("Error: " + msg + " \nCode: " + errorCode, errorCode != 1 && errorCode != 6 ? UIColors.RED : UIColors.YELLOW);
     }
@@ -686,6 +951,71 @@ public class Client extends Controller {
         socket_handler.send(MessageForServer.getLobbies());
     }
 
+    /**
+     * Asks the server to find a game of the given kind, instead of choosing a lobby to join.<br>
+     * If the request is successful a {@link MessageForClient#queued} is received, and once enough players are waiting
+     * a {@link MessageForClient#setLobby} for the new lobby, followed by the start of its game.
+     *
+     * @param size number of players of the game
+     * @param expert_mode flag for expert mode in the game
+     */
+    public void enqueue(int size, boolean expert_mode) {
+        socket_handler.send(MessageForServer.enqueue(size, expert_mode));
+    }
+
+    /**
+     * Stops waiting for a game in the matchmaking queue.
+     */
+    public void leaveQueue() {
+        socket_handler.send(MessageForServer.leaveQueue());
+    }
+
+    /**
+     * Requests the server the first page of the lobbies matching the given filter, subscribing to its changes.<br>
+     * If the request is successful a {@link MessageForClient#lobbiesPage} is received, followed by a {@link MessageForClient#lobbyUpdated}
+     * or {@link MessageForClient#lobbyRemoved} for every change of the page, until the client browses another page or enters a lobby.
+     *
+     * @param filter {@link LobbyFilter} the lobbies have to match
+     */
+    public synchronized void browseLobbies(LobbyFilter filter) {
+        lobbies_filter = filter;
+        previous_lobbies_cursors.clear();
+        socket_handler.send(MessageForServer.browseLobbies(filter, 0, LOBBIES_PAGE_SIZE, true));
+    }
+
+    /**
+     * Requests the server the page of lobbies following the browsed one, if any.
+     *
+     * @return false if the browsed page is the last one
+     */
+    public synchronized boolean nextLobbiesPage() {
+        if (lobbies_filter == null || next_lobbies_cursor == 0)
+            return false;
+        previous_lobbies_cursors.push(lobbies_cursor);
+        socket_handler.send(MessageForServer.browseLobbies(lobbies_filter, next_lobbies_cursor, LOBBIES_PAGE_SIZE, true));
+        return true;
+    }
+
+    /**
+     * Requests the server the page of lobbies preceding the browsed one, if any.
+     *
+     * @return false if the browsed page is the first one
+     */
+    public synchronized boolean previousLobbiesPage() {
+        if (lobbies_filter == null || previous_lobbies_cursors.isEmpty())
+            return false;
+        socket_handler.send(MessageForServer.browseLobbies(lobbies_filter, previous_lobbies_cursors.pop(), LOBBIES_PAGE_SIZE, true));
+        return true;
+    }
+
+    //asks again for the browsed page of lobbies, or the whole list if the client never browsed them
+    private synchronized void refreshLobbies() {
+        if (lobbies_filter != null)
+            socket_handler.send(MessageForServer.browseLobbies(lobbies_filter, lobbies_cursor, LOBBIES_PAGE_SIZE, true));
+        else
+            getLobbies();
+    }
+
     /**
      * Allows the client to leave its current lobby, if any.
      */
@@ -713,13 +1043,8 @@ public class Client extends Controller {
      */
     public void playCard(int card_index) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
             try {
                 game.playCard(myClientID, card_index);
@@ -727,9 +1052,7 @@ public class Client extends Controller {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.cardPlayed(card_index));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.cardPlayed(card_index), "card played");
         }
     }
 
@@ -741,13 +1064,8 @@ public class Client extends Controller {
      */
     public void setStudentToHall(int student_index) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
             try {
                 game.setStudentToHall(myClientID, student_index);
@@ -755,9 +1073,7 @@ public class Client extends Controller {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.studentSetToHall(student_index));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.studentSetToHall(student_index), "student set to hall");
         }
     }
 
@@ -770,23 +1086,18 @@ public class Client extends Controller {
      */
     public void setStudentToIsland(int student_index, int island_index) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
+            //the island is sent as its id, which stays valid even if the moves still in flight merge it
+            int island = game.islandID(island_index);
             try {
                 game.setStudentToIsland(myClientID, student_index, island_index);
             } catch (InvalidMoveException e) {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.studentSetToIsland(student_index, island_index));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.studentSetToIsland(student_index, island), "student set to island");
         }
     }
 
@@ -798,13 +1109,8 @@ public class Client extends Controller {
      */
     public void moveMotherNature(int moves) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
             try {
                 game.moveMotherNature(myClientID, moves);
@@ -812,9 +1118,7 @@ public class Client extends Controller {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.motherNatureMoved(moves));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.motherNatureMoved(moves), "mother nature move");
         }
     }
 
@@ -826,13 +1130,8 @@ public class Client extends Controller {
      */
     public void chooseCloud(int cloud_index) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
             try {
                 game.chooseCloud(myClientID, cloud_index);
@@ -840,9 +1139,7 @@ public class Client extends Controller {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.cloudChosen(cloud_index));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.cloudChosen(cloud_index), "cloud choice");
         }
     }
 
@@ -855,32 +1152,102 @@ public class Client extends Controller {
      */
     public void activateEffect(int npc_index, EffectParameters effect_parameters) {
         if (game != null) {
-            if (waiting_for_move_successful) {
-                ui.showMessage("Waiting for the server to validate your previous move...", UIColors.CYAN);
-                waiting_for_move_successful_attempts += 1;
-                if(waiting_for_move_successful_attempts >= 3)
-                    resync();
+            if (!canSendMove())
                 return;
-            }
 
+            //the effect may merge the island it targets, so its id is taken beforehand
+            EffectParameters parameters = game.effectIslandID(npc_index, effect_parameters);
             try {
                 game.activateEffect(myClientID, npc_index, effect_parameters);
             } catch (InvalidMoveException e) {
                 ui.showMessage(e.getMessage(), UIColors.RED);
                 return;
             }
-            socket_handler.send(MessageForServerLobby.npcActivated(npc_index, effect_parameters));
-            waiting_for_move_successful = true;
-            waiting_for_move_successful_attempts = 0;
+            sendMove(MessageForServerLobby.npcActivated(npc_index, parameters), "npc activation");
+        }
+    }
+
+    /**
+     * Allows the client to set its students, and optionally to move mother nature and choose a cloud afterwards, in the game that is currently going on,
+     * with a single request to the server instead of one for each move.<br>
+     * The moves are checked with {@link Game#validateActionTurn} first, so that an invalid one leaves the local model untouched.
+     * @see Game#playActionTurn(int, List, List, Integer, Integer)
+     *
+     * @param student_indexes     indexes of the students to move, each one relative to {@link GameState#myPlayer}'s dashboard entrance right before being moved
+     * @param destinations        for each student the index of the island where to put it relative to {@link GameState#getIslands}, or null for the hall
+     * @param mother_nature_moves steps to move mother nature by afterwards, null to not move it
+     * @param cloud_index         index of the cloud to choose afterwards, null to not choose one
+     */
+    public void playTurn(List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        if (game != null) {
+            if (!canSendMove())
+                return;
+
+            MoveResult result = game.validateActionTurn(myClientID, student_indexes, destinations, mother_nature_moves, cloud_index);
+            if (!result.isValid()) {
+                ui.showMessage(result.message, UIColors.RED);
+                return;
+            }
+            //mother nature may merge the destinations, so their ids are taken beforehand
+            List<Integer> islands = game.islandIDs(destinations);
+            try {
+                game.playActionTurn(myClientID, student_indexes, destinations, mother_nature_moves, cloud_index);
+            } catch (InvalidMoveException e) {
+                ui.showMessage(e.getMessage(), UIColors.RED);
+                return;
+            }
+            sendMove(MessageForServerLobby.turnPlayed(student_indexes, islands, mother_nature_moves, cloud_index), "action turn");
+        }
+    }
+
+    /**
+     * Checks whether a new move can be sent, that is the current game hasn't ended and fewer than {@link Client#MAX_PENDING_MOVES} moves
+     * are still waiting to be validated.<br>
+     * After a few failed attempts the game is fetched again, in case the answers to the moves in flight got lost.
+     *
+     * @return true if a new move can be sent
+     */
+    private synchronized boolean canSendMove() {
+        if (game_ended) {
+            ui.showMessage("The game has ended...", UIColors.CYAN);
+            return false;
+        }
+        if (pending_moves.size() >= MAX_PENDING_MOVES) {
+            ui.showMessage("Waiting for the server to validate your previous moves...", UIColors.CYAN);
+            waiting_for_move_successful_attempts += 1;
+            if(waiting_for_move_successful_attempts >= 3)
+                resync();
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * Sends a move to the server, tagged with a new request id, without waiting for the previous moves to be validated.
+     *
+     * @param move the {@link Message} carrying the move, constructed by {@link MessageForServerLobby}
+     * @param description short description of the move, shown once it's validated
+     */
+    private synchronized void sendMove(Message move, String description) {
+        last_requestID++;
+        pending_moves.put(last_requestID, description);
+        waiting_for_move_successful_attempts = 0;
+        socket_handler.send(MessageForServerLobby.requested(move, last_requestID));
+    }
+
+    //forgets the moves sent after the given one, which were performed on top of it and will be replaced by the copy of the game
+    private void dropMovesAfter(int requestID) {
+        pending_moves.keySet().removeIf(pending_requestID -> pending_requestID > requestID);
     }
 
     /**
-     * Allows the client to re-fetch the lobby's model instance from the server.
+     * Allows the client to re-fetch the lobby events it missed from the server, or the lobby's whole model instance
+     * if a move of this client is still waiting to be validated.
      */
-    public void resync() {
+    public synchronized void resync() {
         if (game != null) {
-            socket_handler.send(MessageForServerLobby.resync());
+            clearResync();
+            recover(last_sequence);
         }
         waiting_for_move_successful_attempts = 0;
     }
@@ -943,6 +1310,47 @@ public class Client extends Controller {
         return new ArrayList<LobbyData>(lobbiesList);
     }
 
+    /**
+     * Provides the page of lobbies browsed with {@link Client#browseLobbies}, as last updated by the server.
+     *
+     * @return the {@link LobbySummary} of every lobby in the page, null if no page has been received yet
+     */
+    public synchronized List<LobbySummary> getLobbiesPage() {
+        if (lobbies_page == null)
+            return null;
+        return new ArrayList<LobbySummary>(lobbies_page);
+    }
+
+    /**
+     * Provides the filter of the lobbies browsed with {@link Client#browseLobbies}.
+     *
+     * @return the {@link LobbyFilter}, null if the client never browsed the lobbies
+     */
+    public synchronized LobbyFilter getLobbiesFilter() {
+        return lobbies_filter;
+    }
+
+    /**
+     * @return number of players of the game the client is waiting for in the matchmaking queue, 0 if not waiting
+     */
+    public synchronized int getQueueSize() {
+        return queue_size;
+    }
+
+    /**
+     * @return expert mode of the game the client is waiting for in the matchmaking queue
+     */
+    public synchronized boolean getQueueExpertMode() {
+        return queue_expert_mode;
+    }
+
+    /**
+     * @return number of pages of lobbies before the browsed one
+     */
+    public synchronized int getLobbiesPageIndex() {
+        return previous_lobbies_cursors.size();
+    }
+
     /**
      * Provides the readiness status of all the players the current lobby.<br>
      * Its ordered the same as {@link LobbyData#clients}.
@@ -1026,7 +1434,6 @@ public class Client extends Controller {
     public void stop() {
         socket_receiver_thread.stop();
         socket_sender_thread.stop();
-        ping_thread.stop();
         System.exit(0);
     }
 
@@ -1035,11 +1442,15 @@ public class Client extends Controller {
      * Immediately afterwards prompts the user for which {@link UI} to use.<br>
      * After everything has been decided starts the client and tries to establish a connection to the server.
      *
-     * @param argv <i>unused</i>
+     * @param argv optionally "--nio", to connect through a {@link NioTransport}, and "--binary", to use the {@link BinaryCodec},
+     *             matching the options the server has been started with
      */
     public static void main(String[] argv) {
         Client client = null;
 
+        ENABLE_NIO_TRANSPORT = Arrays.asList(argv).contains("--nio");
+        ENABLE_BINARY_CODEC = Arrays.asList(argv).contains("--binary");
+
         Scanner console = new Scanner(System.in);
 
         System.out.print("""
@@ -2,6 +2,8 @@ package Controller;
 
 import Controller.ClientSide.Client;
 
+import java.util.List;
+
 /**
  * Abstraction of a controller, implemented by both the {@link Client} and {@link Server}.<br>
  * A {@link Controller} is a costume <strong>OBSERVER</strong> to {@link SocketHandler}, which is supposed to call:
@@ -27,4 +29,27 @@ public abstract class Controller {
      * @param clientID the Id of the client, remembered by {@link SocketHandler}, losing the connection
      */
     public abstract void handleDisconnect(int clientID);
+
+    /**
+     * Provides the {@link Message Messages} that bring the other end of the given connection up to date with the state this controller
+     * holds for it, used by a {@link SocketHandler} to replace its pending messages when following {@link OverflowPolicy#COLLAPSE_TO_SNAPSHOT}.
+     *
+     * @param socket_handler the {@link SocketHandler} whose queue is being collapsed
+     * @return the messages to send, none by default
+     */
+    public List<Message> snapshot(SocketHandler socket_handler) {
+        return List.of();
+    }
+
+    /**
+     * Asks this controller for the {@link Controller#snapshot} of the given connection, to be handed to {@link SocketHandler#collapse},
+     * called by a {@link SocketHandler} following {@link OverflowPolicy#COLLAPSE_TO_SNAPSHOT} once its queue overflows.<br>
+     * The request comes from whatever thread overflowed the queue, so a controller guarding its state with a lock has to take the snapshot
+     * later on its own thread, by default the snapshot is taken right away.
+     *
+     * @param socket_handler the {@link SocketHandler} whose queue overflowed
+     */
+    public void requestSnapshot(SocketHandler socket_handler) {
+        socket_handler.collapse(snapshot(socket_handler));
+    }
 }
@@ -4,6 +4,9 @@ import Controller.ClientSide.Client;
 import Controller.ServerSide.Server;
 import Controller.ServerSide.ServerLobby;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
 import java.io.Serializable;
 
 //IMPORTANT: always duplicate/clone/copy each data structure being set into a message!
@@ -52,6 +55,17 @@ public abstract class Message implements Serializable {
         System.out.println("Invalid message handled on the server in ServerLobby.");
     }
 
+    /**
+     * Writes this message in a frame of the {@link BinaryCodec}, its tag first and then its fields.<br>
+     * Every message exchanged by the codec overrides this method, the others cannot be encoded.
+     *
+     * @param out stream of the frame being written
+     * @throws IOException if the message cannot be written
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        throw new NotSerializableException("No binary encoding for " + this);
+    }
+
     @Override
     public String toString() {
         return this.getClass().getSimpleName();
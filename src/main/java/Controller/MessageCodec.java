@@ -0,0 +1,36 @@
+package Controller;
+
+import java.io.IOException;
+
+/**
+ * Strategy used to turn a {@link Message} into the content of a frame and back, shared by {@link SocketHandler} and {@link NioSocketHandler}.<br>
+ * Two implementations are available:
+ * <ul>
+ *     <li> {@link SerializationCodec} - standard Java serialization of the whole message, each frame being self-contained
+ *     <li> {@link BinaryCodec} - compact, versioned, tag-based encoding written field by field
+ * </ul>
+ * Both ends of a connection must use the same codec.
+ */
+public interface MessageCodec {
+    //upper bound for a single frame, anything bigger is considered a corrupted connection
+    int MAX_FRAME_SIZE = 1 << 24;
+
+    /**
+     * Encodes a {@link Message} into the content of a frame, length prefix excluded.
+     *
+     * @param message {@link Message} to encode
+     * @return the encoded bytes
+     * @throws IOException if the message could not be encoded
+     */
+    byte[] encode(Message message) throws IOException;
+
+    /**
+     * Rebuilds the {@link Message} encoded in the content of a frame.
+     *
+     * @param frame content of the frame, length prefix excluded
+     * @return the decoded {@link Message}
+     * @throws IOException if the frame is malformed
+     * @throws ClassNotFoundException if the frame references an unknown class
+     */
+    Message decode(byte[] frame) throws IOException, ClassNotFoundException;
+}
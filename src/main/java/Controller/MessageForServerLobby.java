@@ -3,7 +3,11 @@ package Controller;
 import Controller.ServerSide.ServerLobby;
 import Model.EffectParameters;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Abstract class consisting only of static methods.<br>
@@ -11,6 +15,31 @@ import java.io.Serializable;
  * The {@link Message Messages} constructed via this class are intended to be received by a {@link ServerLobby}.
  */
 public abstract class MessageForServerLobby extends Message implements Serializable {
+    //id given by the client to this request, echoed by the answers to it, 0 if the client doesn't need to match them
+    private int requestID;
+
+    /**
+     * Provides the id given by the client to this request.<br>
+     * The {@link MessageForClient#moveSuccessful(int)} or {@link MessageForClient#error(String, int, int)} answering a move carry the same id,
+     * so that a client with several moves in flight can tell which one they refer to.
+     *
+     * @return the id of this request, 0 if none was given
+     */
+    public int getRequestID() {
+        return requestID;
+    }
+
+    /**
+     * Stamps the given message with the id of the request it carries.
+     *
+     * @param message {@link Message} to stamp, constructed by this class
+     * @param requestID id of the request, chosen by the client
+     * @return the same message, stamped
+     */
+    public static Message requested(Message message, int requestID) {
+        ((MessageForServerLobby) message).requestID = requestID;
+        return message;
+    }
 
     /**
      * Allows the client to leave its current lobby and go back to choosing/creating one.
@@ -54,7 +83,7 @@ public abstract class MessageForServerLobby extends Message implements Serializa
      * Used by the server to send the update to the other clients.
      *
      * @param student_index index of the moved student
-     * @param island index of the target island
+     * @param island id of the target island, which stays the same as islands merge
      * @return the constructed {@link Message}
      */
     public static Message studentSetToIsland(int student_index, Integer island) {
@@ -85,19 +114,43 @@ public abstract class MessageForServerLobby extends Message implements Serializa
      * Used by the server to send the update to the other clients.
      *
      * @param npc_index index of the activated Npc
-     * @param effect_parameters paramters for teh activated Npc
+     * @param effect_parameters paramters for teh activated Npc, with the targeted island as its id
      * @return the constructed {@link Message}
      */
     public static Message npcActivated(int npc_index, EffectParameters effect_parameters) {
         return new MessageNpcActivatedLB(npc_index, effect_parameters);
     }
 
+    /**
+     * Allows the current playing client to perform its student moves all at once, optionally followed by the mother nature move and the cloud choice,
+     * in a single round trip.
+     *
+     * @param student_indexes indexes of the moved students, each one relative to the entrance right before being moved
+     * @param destinations for each student the id of the target island, or null for the hall
+     * @param mother_nature_moves steps mother nature is moved by afterwards, null to not move it
+     * @param cloud_index index of the cloud chosen afterwards, null to not choose one
+     * @return the constructed {@link Message}
+     */
+    public static Message turnPlayed(List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        return new MessageTurnPlayedLB(student_indexes, destinations, mother_nature_moves, cloud_index);
+    }
+
     /**
      * Used by a client to request the server a fresh copy of the model.
      */
     public static Message resync() {
         return new MessageResync();
     }
+
+    /**
+     * Used by a client to request the server the lobby events it missed, those following the last one it received.
+     *
+     * @param last_sequence sequence number of the last lobby event received
+     * @return the constructed {@link Message}
+     */
+    public static Message missedEvents(int last_sequence) {
+        return new MessageMissedEvents(last_sequence);
+    }
 }
 
 /**
@@ -119,6 +172,13 @@ class MessageLeaveLobby extends MessageForServerLobby implements Serializable {
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
         lobby.leaveLobby(socket_handler);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.LEAVE_LOBBY);
+    }
 }
 
 /**
@@ -140,6 +200,13 @@ class MessageToggleReady extends MessageForServerLobby implements Serializable {
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
         lobby.toggleReady(socket_handler);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.TOGGLE_READY);
+    }
 }
 
 /**
@@ -163,7 +230,15 @@ class MessageCardPlayedLB extends MessageForServerLobby implements Serializable
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.cardPlayed(socket_handler, card_index);
+        lobby.cardPlayed(socket_handler, getRequestID(), card_index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CARD_PLAYED_LB);
+        BinaryCodec.writeInt(out, card_index);
     }
 }
 
@@ -188,7 +263,15 @@ class MessageStudentSetToHallLB extends MessageForServerLobby implements Seriali
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.studentSetToHall(socket_handler, student_index);
+        lobby.studentSetToHall(socket_handler, getRequestID(), student_index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.STUDENT_SET_TO_HALL_LB);
+        BinaryCodec.writeInt(out, student_index);
     }
 }
 
@@ -204,7 +287,7 @@ class MessageStudentSetToIslandLB extends MessageForServerLobby implements Seria
      * Allows the current playing client to set a student to an island.
      *
      * @param student_index index of the moved student
-     * @param island index of the target island
+     * @param island id of the target island, which stays the same as islands merge
      * @return the constructed {@link Message}
      */
     public MessageStudentSetToIslandLB(int student_index, Integer island) {
@@ -216,7 +299,16 @@ class MessageStudentSetToIslandLB extends MessageForServerLobby implements Seria
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.studentSetToIsland(socket_handler, student_index, island);
+        lobby.studentSetToIsland(socket_handler, getRequestID(), student_index, island);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.STUDENT_SET_TO_ISLAND_LB);
+        BinaryCodec.writeInt(out, student_index);
+        BinaryCodec.writeNullableInt(out, island);
     }
 }
 
@@ -241,7 +333,15 @@ class MessageMotherNatureMovedLB extends MessageForServerLobby implements Serial
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.motherNatureMoved(socket_handler, moved);
+        lobby.motherNatureMoved(socket_handler, getRequestID(), moved);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.MOTHER_NATURE_MOVED_LB);
+        BinaryCodec.writeInt(out, moved);
     }
 }
 
@@ -266,7 +366,15 @@ class MessageCloudChosenLB extends MessageForServerLobby implements Serializable
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.cloudChosen(socket_handler, cloud_index);
+        lobby.cloudChosen(socket_handler, getRequestID(), cloud_index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.CLOUD_CHOSEN_LB);
+        BinaryCodec.writeInt(out, cloud_index);
     }
 }
 
@@ -282,7 +390,7 @@ class MessageNpcActivatedLB extends MessageForServerLobby implements Serializabl
      * Allows the client to activate an NPC effect.
      *
      * @param npc_index index of the activated Npc
-     * @param effect_parameters paramters for teh activated Npc
+     * @param effect_parameters paramters for teh activated Npc, with the targeted island as its id
      * @return the constructed {@link Message}
      */
     public MessageNpcActivatedLB(int npc_index, EffectParameters effect_parameters) {
@@ -294,7 +402,16 @@ class MessageNpcActivatedLB extends MessageForServerLobby implements Serializabl
      * {@inheritDoc}
      */
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
-        lobby.npcActivated(socket_handler, npc_index, effect_parameters);
+        lobby.npcActivated(socket_handler, getRequestID(), npc_index, effect_parameters);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.NPC_ACTIVATED_LB);
+        BinaryCodec.writeInt(out, npc_index);
+        BinaryCodec.writeEffectParameters(out, effect_parameters);
     }
 }
 
@@ -316,4 +433,85 @@ class MessageResync extends MessageForServerLobby implements Serializable {
     public void execute(ServerLobby lobby, SocketHandler socket_handler) {
         lobby.resync(socket_handler);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.RESYNC);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Used by a client to request the server the lobby events it missed, those following the last one it received.
+ */
+class MessageMissedEvents extends MessageForServerLobby implements Serializable {
+    public final int last_sequence;
+
+    /**
+     * Used by a client to request the server the lobby events it missed, those following the last one it received.
+     *
+     * @param last_sequence sequence number of the last lobby event received
+     */
+    public MessageMissedEvents(int last_sequence) {
+        this.last_sequence = last_sequence;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(ServerLobby lobby, SocketHandler socket_handler) {
+        lobby.missedEvents(socket_handler, last_sequence);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.MISSED_EVENTS);
+        BinaryCodec.writeInt(out, last_sequence);
+    }
+}
+
+/**
+ * See: {@link Message}
+ * Allows the current playing client to perform its student moves all at once, optionally followed by the mother nature move and the cloud choice.
+ */
+class MessageTurnPlayedLB extends MessageForServerLobby implements Serializable {
+    public final List<Integer> student_indexes, destinations;
+    public final Integer mother_nature_moves, cloud_index;
+
+    /**
+     * Allows the current playing client to perform its student moves all at once, optionally followed by the mother nature move and the cloud choice.
+     *
+     * @param student_indexes indexes of the moved students, each one relative to the entrance right before being moved
+     * @param destinations for each student the id of the target island, or null for the hall
+     * @param mother_nature_moves steps mother nature is moved by afterwards, null to not move it
+     * @param cloud_index index of the cloud chosen afterwards, null to not choose one
+     */
+    public MessageTurnPlayedLB(List<Integer> student_indexes, List<Integer> destinations, Integer mother_nature_moves, Integer cloud_index) {
+        this.student_indexes = student_indexes == null ? null : new ArrayList<Integer>(student_indexes);
+        this.destinations = destinations == null ? null : new ArrayList<Integer>(destinations);
+        this.mother_nature_moves = mother_nature_moves;
+        this.cloud_index = cloud_index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void execute(ServerLobby lobby, SocketHandler socket_handler) {
+        lobby.turnPlayed(socket_handler, getRequestID(), student_indexes, destinations, mother_nature_moves, cloud_index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    void writeBinary(DataOutputStream out) throws IOException {
+        out.writeByte(BinaryCodec.TURN_PLAYED_LB);
+        BinaryCodec.writeIntegers(out, student_indexes);
+        BinaryCodec.writeIntegers(out, destinations);
+        BinaryCodec.writeNullableInt(out, mother_nature_moves);
+        BinaryCodec.writeNullableInt(out, cloud_index);
+    }
+}
@@ -0,0 +1,19 @@
+package Controller;
+
+/**
+ * What a {@link SocketHandler} does when its queue of outgoing {@link Message Messages} reaches its high-water mark,
+ * usually because the other end stopped reading.
+ * <ul>
+ *     <li> {@link OverflowPolicy#DROP_AND_RESYNC} - every pending message is dropped and replaced by an {@link MessageForClient#error error}
+ *     with code 8, asking the client to request a fresh copy of its state
+ *     <li> {@link OverflowPolicy#COLLAPSE_TO_SNAPSHOT} - every pending message is dropped and replaced by the current state, as provided by
+ *     {@link Controller#snapshot} of the observing {@link Controller} once it answers {@link Controller#requestSnapshot}
+ *     <li> {@link OverflowPolicy#DISCONNECT} - every pending message is dropped and the connection is severed, the client will then go through
+ *     the usual reconnection procedure
+ * </ul>
+ */
+public enum OverflowPolicy {
+    DROP_AND_RESYNC,
+    COLLAPSE_TO_SNAPSHOT,
+    DISCONNECT
+}
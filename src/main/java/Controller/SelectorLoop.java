@@ -0,0 +1,110 @@
+package Controller;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Class used by {@link NioTransport} to house a selector thread and the connections assigned to it.<br>
+ * Every operation on the {@link SelectionKey SelectionKeys} happens on this thread, other threads only enqueue requests and wake the selector.
+ */
+class SelectorLoop implements Runnable {
+    private final Selector selector;
+    private final Queue<NioSocketHandler> pending_registrations;
+    private final Queue<NioSocketHandler> pending_writes;
+    private volatile boolean running;
+
+    /**
+     * Constructor that memorizes the {@link Selector} this loop will run on.
+     *
+     * @param selector an open {@link Selector}
+     */
+    public SelectorLoop(Selector selector) {
+        this.selector = selector;
+        this.pending_registrations = new ConcurrentLinkedQueue<NioSocketHandler>();
+        this.pending_writes = new ConcurrentLinkedQueue<NioSocketHandler>();
+        this.running = true;
+    }
+
+    /**
+     * Queues a new connection to be registered to this loop's selector.
+     *
+     * @param socket_handler the connection to register
+     */
+    public void register(NioSocketHandler socket_handler) {
+        pending_registrations.add(socket_handler);
+        selector.wakeup();
+    }
+
+    /**
+     * Informs this loop that the given connection has frames waiting to be written.
+     *
+     * @param socket_handler the connection with pending frames
+     */
+    public void requestWrite(NioSocketHandler socket_handler) {
+        pending_writes.add(socket_handler);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops this loop, closing every connection still registered.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void run() {
+        long last_sweep = System.currentTimeMillis();
+
+        while (running) {
+            try {
+                selector.select(NioTransport.SWEEP_INTERVAL);
+            } catch (IOException e) {
+                e.printStackTrace();
+                break;
+            }
+
+            NioSocketHandler socket_handler;
+            while ((socket_handler = pending_registrations.poll()) != null)
+                socket_handler.attach(selector);
+            while ((socket_handler = pending_writes.poll()) != null)
+                socket_handler.enableWrites();
+
+            for (SelectionKey key : selector.selectedKeys()) {
+                socket_handler = (NioSocketHandler) key.attachment();
+                try {
+                    if (key.isValid() && key.isReadable())
+                        socket_handler.onReadable();
+                    if (key.isValid() && key.isWritable())
+                        socket_handler.onWritable();
+                } catch (RuntimeException e) {
+                    //a malformed frame or a failing controller only drops its own connection, the others on this loop are still served
+                    e.printStackTrace();
+                    socket_handler.closeSocket();
+                }
+            }
+            selector.selectedKeys().clear();
+
+            long now = System.currentTimeMillis();
+            if (now - last_sweep >= NioTransport.SWEEP_INTERVAL) {
+                for (SelectionKey key : selector.keys())
+                    ((NioSocketHandler) key.attachment()).checkReadTimeout(now);
+                last_sweep = now;
+            }
+        }
+
+        for (SelectionKey key : selector.keys())
+            ((NioSocketHandler) key.attachment()).closeSocket();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
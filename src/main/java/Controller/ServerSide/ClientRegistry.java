@@ -0,0 +1,124 @@
+package Controller.ServerSide;
+
+import Controller.SocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * <strong>Registry of the clients registered on a {@link Server}</strong>, by clientID and by nickname.<br>
+ * Every nickname is reserved by a single client from its registration until the client is permanently deleted, so that checking whether a nickname is
+ * taken never needs to scan the registered clients. Registrations, reconnections and deletions are atomic with respect to each other,
+ * without any lock held by the caller: a client reconnecting right while it's being deleted is either reconnected or deleted, never both.
+ * <br><br>
+ * A client is considered disconnected when its {@link SocketHandler} is closed, only disconnected clients can be reconnected or deleted.
+ */
+public class ClientRegistry {
+    private final Map<Integer, ClientData> clients;
+    //nickname -> clientID of the client reserving it
+    private final Map<String, Integer> nicknames;
+
+    /**
+     * Creates a new empty registry.
+     */
+    public ClientRegistry() {
+        this.clients = new ConcurrentHashMap<Integer, ClientData>();
+        this.nicknames = new ConcurrentHashMap<String, Integer>();
+    }
+
+    /**
+     * Provides the data of a registered client.
+     *
+     * @param clientID id of the client
+     * @return the client's {@link ClientData}, null if no client is registered with the given id
+     */
+    public ClientData get(int clientID) {
+        return clients.get(clientID);
+    }
+
+    /**
+     * Checks whether a nickname is reserved by a registered client.
+     *
+     * @param nickname the nickname to check
+     * @return true if the nickname is taken
+     */
+    public boolean isTaken(String nickname) {
+        return nicknames.containsKey(nickname);
+    }
+
+    /**
+     * Registers a new client, reserving its nickname.
+     *
+     * @param nickname       nickname chosen by the client
+     * @param socket_handler {@link SocketHandler} of the client's connection
+     * @param id_generator   source of candidate ids, called until it provides one not in use and different from 0
+     * @return the {@link ClientData} of the new client, null if the nickname is already taken
+     */
+    public ClientData register(String nickname, SocketHandler socket_handler, IntSupplier id_generator) {
+        if (isTaken(nickname))
+            return null;
+
+        ClientData client;
+        do {
+            int clientID = id_generator.getAsInt();
+            client = clientID == 0 ? null : new ClientData(clientID, nickname, socket_handler);
+        } while (client == null || clients.putIfAbsent(client.clientID, client) != null);
+
+        if (nicknames.putIfAbsent(nickname, client.clientID) != null) {
+            //someone else reserved the nickname in the meantime
+            clients.remove(client.clientID);
+            return null;
+        }
+        return client;
+    }
+
+    /**
+     * Moves a disconnected client to a new connection, keeping its id and nickname.
+     *
+     * @param clientID       id of the client
+     * @param nickname       nickname of the client, it has to match the registered one
+     * @param socket_handler {@link SocketHandler} of the new connection
+     * @return the {@link ClientData} the client had before reconnecting, null if no disconnected client matches the given id and nickname
+     */
+    public ClientData reconnect(int clientID, String nickname, SocketHandler socket_handler) {
+        ClientData[] previous = new ClientData[1];
+        clients.computeIfPresent(clientID, (id, client) -> {
+            if (!client.nickname.equals(nickname) || !isDisconnected(client))
+                return client;
+            previous[0] = client;
+            return new ClientData(id, client.nickname, socket_handler);
+        });
+        return previous[0];
+    }
+
+    /**
+     * Permanently deletes a client, if it's still disconnected, releasing its nickname.
+     *
+     * @param clientID id of the client
+     * @return the {@link ClientData} of the deleted client, null if no disconnected client is registered with the given id
+     */
+    public ClientData release(int clientID) {
+        ClientData[] released = new ClientData[1];
+        clients.computeIfPresent(clientID, (id, client) -> {
+            if (!isDisconnected(client))
+                return client;
+            released[0] = client;
+            return null;
+        });
+        if (released[0] != null)
+            nicknames.remove(released[0].nickname, clientID);
+        return released[0];
+    }
+
+    /**
+     * @return number of registered clients, connected or not
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    private static boolean isDisconnected(ClientData client) {
+        return client.socket_handler == null || client.socket_handler.isClosed();
+    }
+}
@@ -0,0 +1,65 @@
+package Controller.ServerSide;
+
+import Controller.SocketHandler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <strong>Pool of threads running the {@link Controller.Message Messages} received by a {@link Server} and by its {@link ServerLobby ServerLobbies}</strong>.<br>
+ * Every lobby gets its own {@link Mailbox}, so that the messages of a lobby are handled in order, while different lobbies progress in parallel
+ * on the threads of the pool. The messages handled by the server itself, such as hello, createLobby, joinLobby and getLobbies, are split
+ * among a fixed number of shards by connection, each one a mailbox as well, so that the requests of a connection keep their order
+ * without waiting for those of every other connection.
+ * <br><br>
+ * A dispatcher with no threads runs every message right away on the thread receiving it, which is what a server that has not been started yet,
+ * and the tests driving it directly, rely on.
+ *
+ * @see Mailbox
+ */
+public class Dispatcher {
+    public final static int MAILBOX_BATCH = 16;
+
+    private final ExecutorService executor;
+    private final Mailbox[] shards;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param threads     number of threads of the pool, 0 to run every message on the thread receiving it
+     * @param thread_mode {@link ThreadMode} of the threads of the pool
+     */
+    public Dispatcher(int threads, ThreadMode thread_mode) {
+        this.executor = threads > 0 ? Executors.newFixedThreadPool(threads, thread_mode.threadFactory()) : null;
+        this.shards = new Mailbox[Math.max(threads, 1)];
+        for (int i = 0; i < shards.length; i++)
+            shards[i] = newMailbox();
+    }
+
+    /**
+     * Provides the mailbox handling the server's messages of the given connection.
+     *
+     * @param socket_handler the {@link SocketHandler} of the connection
+     * @return the shard of the connection, always the same one for the same connection
+     */
+    public Mailbox shardOf(SocketHandler socket_handler) {
+        return shards[Math.floorMod(System.identityHashCode(socket_handler), shards.length)];
+    }
+
+    /**
+     * Creates a new mailbox running its tasks on the threads of this dispatcher, to be used by a single lobby.
+     *
+     * @return the new {@link Mailbox}
+     */
+    public Mailbox newMailbox() {
+        return new Mailbox(executor, MAILBOX_BATCH);
+    }
+
+    /**
+     * Stops the threads of this dispatcher once the tasks already posted have been run.
+     */
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdown();
+    }
+}
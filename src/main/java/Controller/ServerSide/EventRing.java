@@ -0,0 +1,93 @@
+package Controller.ServerSide;
+
+import Controller.Message;
+import Controller.MessageForClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <strong>Ring buffer of the most recent events broadcast by a {@link ServerLobby}</strong>.<br>
+ * Every event gets the next sequence number, stamped on its first message via {@link MessageForClient#sequenced}, so that a client can tell
+ * whether it missed any event. The following messages of an event, if any, are the details completing it (see {@link MessageForClient#isEventDetail}).<br>
+ * A client which missed some events, or which reconnected, gets back only the ones following the last it received, as long as they are
+ * still in the ring, otherwise it needs a whole copy of the game.
+ * <br><br>
+ * Sequence numbers keep growing for the whole life of the lobby, even across games, so that a client can never mistake an event of
+ * a previous game for a new one.<br>
+ * This class is not thread safe, it's guarded by the lock of the lobby owning it.
+ */
+public class EventRing {
+    private final Message[][] events;
+    //sequence number of the last event recorded, 0 if none
+    private int sequence;
+    //sequence number of the oldest event still available
+    private int oldest;
+
+    /**
+     * Creates a new empty ring.
+     *
+     * @param capacity number of events kept before the oldest ones start being overwritten
+     */
+    public EventRing(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The ring must hold at least one event.");
+
+        this.events = new Message[capacity][];
+        this.sequence = 0;
+        this.oldest = 1;
+    }
+
+    /**
+     * Records a new event, stamping its first message with the event's sequence number.
+     *
+     * @param message the message carrying the event, constructed by {@link MessageForClient}
+     * @param details messages completing the event, if any
+     * @return the given message, stamped
+     */
+    public Message record(Message message, Message... details) {
+        sequence++;
+        MessageForClient.sequenced(message, sequence);
+
+        Message[] event = new Message[details.length + 1];
+        event[0] = message;
+        System.arraycopy(details, 0, event, 1, details.length);
+        events[sequence % events.length] = event;
+        if (sequence - oldest >= events.length)
+            oldest = sequence - events.length + 1;
+
+        return message;
+    }
+
+    /**
+     * Provides every message of the events following the given one, in order.
+     *
+     * @param last_sequence sequence number of the last event received
+     * @return the messages of the missed events, possibly none, or null if some of them are no longer available
+     */
+    public List<Message> since(int last_sequence) {
+        if (last_sequence < oldest - 1 || last_sequence > sequence)
+            return null;
+
+        List<Message> missed = new ArrayList<Message>();
+        for (int i = last_sequence + 1; i <= sequence; i++)
+            missed.addAll(Arrays.asList(events[i % events.length]));
+        return missed;
+    }
+
+    /**
+     * Forgets every recorded event, while keeping the sequence numbers growing.
+     */
+    public void clear() {
+        Arrays.fill(events, null);
+        oldest = sequence + 1;
+    }
+
+    /**
+     * @return sequence number of the last event recorded, 0 if none
+     */
+    public int getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,165 @@
+package Controller.ServerSide;
+
+import Controller.MessageForClient;
+import Controller.SocketHandler;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <strong>Liveness checks of every connection of a {@link Server}</strong>, performed in bulk by a sweep running on the server's {@link TimerWheel}.<br>
+ * Any frame received on a connection proves the other end to be alive (see {@link SocketHandler#getLastReadTime}), hence connections carrying
+ * traffic are never sent anything. Once a connection has been silent for an interval, it is sent a {@link MessageForClient#heartbeat}, which the client
+ * answers right away with the timestamp it carried, and each further interval of silence counts as a missed heartbeat and gets another one sent.
+ * A connection silent for longer than the timeout is severed, see {@link SocketHandler#expire}.
+ * <br><br>
+ * The answers give the round trip time of each connection, which is kept, along with the missed heartbeats, in a {@link HeartbeatStatistics}
+ * for every connection. The round trip is measured until the answer is handled, hence it includes the time it waited in a {@link Mailbox}.<br>
+ * Closed connections are forgotten by the next sweep.
+ */
+public class HeartbeatMonitor {
+    public final static int DEFAULT_INTERVAL = 5000;
+    public final static int DEFAULT_SWEEP_INTERVAL = 1000;
+
+    private final TimerWheel timer;
+    //milliseconds of silence after which a heartbeat is sent
+    private final int interval;
+    //milliseconds of silence after which a connection is severed
+    private final int timeout;
+    private final int sweep_interval;
+    private final Map<SocketHandler, WatchedConnection> connections;
+    private final AtomicBoolean started;
+    private final LongAdder expired_connections;
+    private final LongAdder missed_beats;
+
+    /**
+     * Creates a new monitor, its sweep is not started until the first connection is watched.
+     *
+     * @param timer          {@link TimerWheel} running the sweep
+     * @param interval       milliseconds of silence after which a connection is sent a heartbeat
+     * @param timeout        milliseconds of silence after which a connection is severed
+     * @param sweep_interval milliseconds between two sweeps, the precision of the interval and of the timeout
+     */
+    public HeartbeatMonitor(TimerWheel timer, int interval, int timeout, int sweep_interval) {
+        this.timer = timer;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.sweep_interval = sweep_interval;
+        this.connections = new ConcurrentHashMap<SocketHandler, WatchedConnection>();
+        this.started = new AtomicBoolean(false);
+        this.expired_connections = new LongAdder();
+        this.missed_beats = new LongAdder();
+    }
+
+    /**
+     * Starts checking the liveness of a connection, until it gets closed.
+     *
+     * @param socket_handler {@link SocketHandler} of the connection
+     */
+    public void watch(SocketHandler socket_handler) {
+        connections.put(socket_handler, new WatchedConnection(socket_handler));
+        if (!started.get() && started.compareAndSet(false, true))
+            timer.schedule(this::sweep, sweep_interval);
+    }
+
+    /**
+     * Records the answer of a client to a heartbeat.
+     *
+     * @param socket_handler {@link SocketHandler} of the connection which received the answer
+     * @param timestamp      {@link System#nanoTime()} the heartbeat was sent at, as echoed by the client
+     */
+    public void recordAnswer(SocketHandler socket_handler, long timestamp) {
+        WatchedConnection connection = connections.get(socket_handler);
+        long round_trip = System.nanoTime() - timestamp;
+        //a timestamp from the future was not produced by this server
+        if (connection != null && round_trip >= 0)
+            connection.statistics.recordAnswer(round_trip);
+    }
+
+    /**
+     * Provides the heartbeat counters of a connection.
+     *
+     * @param socket_handler {@link SocketHandler} of the connection
+     * @return the {@link HeartbeatStatistics} of the connection, null if it's not being watched
+     */
+    public HeartbeatStatistics getStatistics(SocketHandler socket_handler) {
+        WatchedConnection connection = connections.get(socket_handler);
+        return connection == null ? null : connection.statistics;
+    }
+
+    /**
+     * @return number of connections being watched
+     */
+    public int getConnections() {
+        return connections.size();
+    }
+
+    /**
+     * @return number of connections severed for being silent longer than the timeout
+     */
+    public long getExpiredConnections() {
+        return expired_connections.sum();
+    }
+
+    /**
+     * @return number of heartbeats left unanswered for a whole interval, on every connection watched so far
+     */
+    public long getMissedBeats() {
+        return missed_beats.sum();
+    }
+
+    //checks every connection at once on the thread of the wheel, setting the timer for the next sweep
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        Iterator<WatchedConnection> iterator = connections.values().iterator();
+        while (iterator.hasNext()) {
+            WatchedConnection connection = iterator.next();
+            SocketHandler socket_handler = connection.socket_handler;
+            if (socket_handler.isClosed()) {
+                iterator.remove();
+                continue;
+            }
+
+            long last_read_time = socket_handler.getLastReadTime();
+            if (now - last_read_time > timeout) {
+                iterator.remove();
+                expired_connections.increment();
+                socket_handler.expire();
+            } else if (connection.beat_time > last_read_time) {
+                //nothing received since the last heartbeat
+                if (now - connection.beat_time >= interval) {
+                    connection.statistics.recordMissed();
+                    missed_beats.increment();
+                    beat(connection, now);
+                }
+            } else if (now - last_read_time >= interval) {
+                beat(connection, now);
+            }
+        }
+        timer.schedule(this::sweep, sweep_interval);
+    }
+
+    private void beat(WatchedConnection connection, long now) {
+        connection.beat_time = now;
+        connection.statistics.recordBeat();
+        connection.socket_handler.send(MessageForClient.heartbeat(System.nanoTime()));
+    }
+}
+
+/**
+ * Connection watched by a {@link HeartbeatMonitor}, along with the time of the last heartbeat sent to it, 0 if none, only accessed by the sweep.
+ */
+class WatchedConnection {
+    final SocketHandler socket_handler;
+    final HeartbeatStatistics statistics;
+    long beat_time;
+
+    WatchedConnection(SocketHandler socket_handler) {
+        this.socket_handler = socket_handler;
+        this.statistics = new HeartbeatStatistics();
+        this.beat_time = 0;
+    }
+}
@@ -0,0 +1,112 @@
+package Controller.ServerSide;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the heartbeats a {@link HeartbeatMonitor} exchanged with a connection.<br>
+ * A heartbeat is sent only to a connection that has been silent for a while, and is answered by the client with the timestamp it carried,
+ * from which the round trip time of the connection is measured, as the last one, the largest one and a smoothed average of them.
+ * A heartbeat followed by another interval of silence is recorded as missed.
+ * <br><br>
+ * All the counters can be updated and read concurrently.
+ */
+public class HeartbeatStatistics {
+    //weight of the last round trip time in the smoothed one, as for the smoothed RTT of TCP
+    private final static double SMOOTHING = 0.125;
+
+    private final LongAdder sent_beats;
+    private final LongAdder answered_beats;
+    private final LongAdder missed_beats;
+    private final AtomicLong last_round_trip_nanos;
+    private final AtomicLong smoothed_round_trip_nanos;
+    private final LongAccumulator max_round_trip_nanos;
+
+    /**
+     * Creates a new instance of this class with every counter set to zero.
+     */
+    public HeartbeatStatistics() {
+        this.sent_beats = new LongAdder();
+        this.answered_beats = new LongAdder();
+        this.missed_beats = new LongAdder();
+        this.last_round_trip_nanos = new AtomicLong(0);
+        this.smoothed_round_trip_nanos = new AtomicLong(0);
+        this.max_round_trip_nanos = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records a heartbeat being sent.
+     */
+    void recordBeat() {
+        sent_beats.increment();
+    }
+
+    /**
+     * Records a heartbeat left unanswered for a whole interval.
+     */
+    void recordMissed() {
+        missed_beats.increment();
+    }
+
+    /**
+     * Records the answer to a heartbeat.
+     *
+     * @param round_trip time, in nanoseconds, elapsed between the heartbeat being sent and its answer being received
+     */
+    void recordAnswer(long round_trip) {
+        answered_beats.increment();
+        last_round_trip_nanos.set(round_trip);
+        max_round_trip_nanos.accumulate(round_trip);
+        smoothed_round_trip_nanos.getAndUpdate(smoothed -> smoothed == 0 ? round_trip : (long) (smoothed + SMOOTHING * (round_trip - smoothed)));
+    }
+
+    /**
+     * @return number of heartbeats sent
+     */
+    public long getSentBeats() {
+        return sent_beats.sum();
+    }
+
+    /**
+     * @return number of heartbeats answered
+     */
+    public long getAnsweredBeats() {
+        return answered_beats.sum();
+    }
+
+    /**
+     * @return number of heartbeats left unanswered for a whole interval
+     */
+    public long getMissedBeats() {
+        return missed_beats.sum();
+    }
+
+    /**
+     * @return round trip time, in nanoseconds, of the last heartbeat answered, 0 if none has been answered yet
+     */
+    public long getLastRoundTripNanos() {
+        return last_round_trip_nanos.get();
+    }
+
+    /**
+     * @return smoothed average of the round trip times, in nanoseconds, of the heartbeats answered, 0 if none has been answered yet
+     */
+    public long getSmoothedRoundTripNanos() {
+        return smoothed_round_trip_nanos.get();
+    }
+
+    /**
+     * @return largest round trip time, in nanoseconds, of a heartbeat answered
+     */
+    public long getMaxRoundTripNanos() {
+        return max_round_trip_nanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("beats=%d answered=%d missed=%d rtt_ms=%.1f (smoothed %.1f, max %.1f)",
+                getSentBeats(), getAnsweredBeats(), getMissedBeats(), getLastRoundTripNanos() / 1000000.0,
+                getSmoothedRoundTripNanos() / 1000000.0, getMaxRoundTripNanos() / 1000000.0);
+    }
+}
@@ -0,0 +1,213 @@
+package Controller.ServerSide;
+
+import Controller.MessageForClient;
+import Controller.SocketHandler;
+
+import java.util.*;
+
+/**
+ * <strong>Directory of the lobbies of a {@link Server}</strong>, kept up to date by the lobbies themselves whenever they are created, joined, left,
+ * started or deleted, so that listing them never has to visit every {@link ServerLobby}.<br>
+ * The lobbies are described by {@link LobbySummary LobbySummaries} ordered by creation, and indexed in buckets of lobbies sharing size, expert mode
+ * and whether they can be joined: a page of the lobbies matching a {@link LobbyFilter} is taken by merging the matching buckets from the
+ * cursor on, hence its cost depends on the size of the page, not on the number of lobbies (except when filtering by nickname, which has to check
+ * the lobbies one by one).
+ * <br><br>
+ * A client browsing a page can subscribe to it, receiving from then on a {@link MessageForClient#lobbyUpdated} for every lobby of the page,
+ * or newly created after it on the last page, that changes, and a {@link MessageForClient#lobbyRemoved} for every lobby leaving it.
+ * Each client has at most one subscription, replaced by the next page it browses and dropped once it enters a lobby or loses its connection.
+ * Pages and updates are sent while holding the directory's lock, hence a client never gets an update older than the page it applies to.
+ */
+public class LobbyDirectory {
+    public final static int MAX_PAGE_SIZE = 50;
+
+    //lobbyID -> summary
+    private final Map<Integer, LobbySummary> lobbies;
+    //bucket -> summaries of the bucket by position, see bucketOf
+    private final Map<Integer, NavigableMap<Integer, LobbySummary>> buckets;
+    private final Map<SocketHandler, Subscription> subscriptions;
+    private int last_position;
+
+    /**
+     * Creates a new empty directory.
+     */
+    public LobbyDirectory() {
+        this.lobbies = new HashMap<Integer, LobbySummary>();
+        this.buckets = new HashMap<Integer, NavigableMap<Integer, LobbySummary>>();
+        this.subscriptions = new HashMap<SocketHandler, Subscription>();
+        this.last_position = 0;
+    }
+
+    /**
+     * Adds a lobby to the directory, or updates it if already present, notifying the subscribed clients it concerns.
+     *
+     * @param lobbyID id of the lobby
+     * @param size size of the lobby
+     * @param expert_mode expert mode of the lobby
+     * @param nicknames nicknames of the players in the lobby
+     * @param started whether a game is going on in the lobby
+     */
+    public synchronized void put(int lobbyID, int size, boolean expert_mode, List<String> nicknames, boolean started) {
+        LobbySummary previous = lobbies.get(lobbyID);
+        LobbySummary lobby = new LobbySummary(lobbyID, size, expert_mode, nicknames, started, previous != null ? previous.position : ++last_position);
+        if (lobby.sameAs(previous))
+            return;
+
+        if (previous != null)
+            unindex(previous);
+        lobbies.put(lobbyID, lobby);
+        buckets.computeIfAbsent(bucketOf(lobby), bucket -> new TreeMap<Integer, LobbySummary>()).put(lobby.position, lobby);
+        publish(previous, lobby);
+    }
+
+    /**
+     * Removes a lobby from the directory, notifying the subscribed clients it concerns.
+     *
+     * @param lobbyID id of the lobby
+     */
+    public synchronized void remove(int lobbyID) {
+        LobbySummary previous = lobbies.remove(lobbyID);
+        if (previous == null)
+            return;
+
+        unindex(previous);
+        publish(previous, null);
+    }
+
+    /**
+     * Sends to the client the page of lobbies matching the filter that follows the given cursor, with a {@link MessageForClient#lobbiesPage},
+     * and subscribes it to the updates of that page, or drops its subscription.
+     *
+     * @param client_handler {@link SocketHandler} of the client
+     * @param filter {@link LobbyFilter} the lobbies have to match
+     * @param cursor position of the last lobby of the previous page, 0 for the first page
+     * @param page_size maximum number of lobbies in the page, up to {@link LobbyDirectory#MAX_PAGE_SIZE}
+     * @param subscribe true to subscribe the client to the page, false to drop its subscription, if any
+     */
+    public synchronized void browse(SocketHandler client_handler, LobbyFilter filter, int cursor, int page_size, boolean subscribe) {
+        page_size = Math.min(Math.max(page_size, 1), MAX_PAGE_SIZE);
+        List<LobbySummary> page = page(filter, cursor, page_size + 1);
+        boolean more = page.size() > page_size;
+        if (more)
+            page = page.subList(0, page_size);
+        int next_cursor = more ? page.get(page_size - 1).position : 0;
+
+        client_handler.send(MessageForClient.lobbiesPage(page, cursor, next_cursor));
+        if (subscribe)
+            subscriptions.put(client_handler, new Subscription(filter, cursor, more ? next_cursor : Integer.MAX_VALUE));
+        else
+            subscriptions.remove(client_handler);
+    }
+
+    /**
+     * Drops the subscription of a client, if any.
+     *
+     * @param client_handler {@link SocketHandler} of the client
+     */
+    public synchronized void unsubscribe(SocketHandler client_handler) {
+        subscriptions.remove(client_handler);
+    }
+
+    /**
+     * Provides every lobby in the directory, in creation order.
+     *
+     * @return the {@link LobbySummary} of every lobby
+     */
+    public synchronized List<LobbySummary> list() {
+        return page(LobbyFilter.ANY, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return number of lobbies in the directory
+     */
+    public synchronized int size() {
+        return lobbies.size();
+    }
+
+    /**
+     * @return number of clients subscribed to a page of the directory
+     */
+    public synchronized int getSubscribers() {
+        return subscriptions.size();
+    }
+
+    //merges the buckets matching the filter, each one already sorted by position, taking the lowest position among them at every step
+    private List<LobbySummary> page(LobbyFilter filter, int cursor, int limit) {
+        List<Iterator<LobbySummary>> sources = new ArrayList<Iterator<LobbySummary>>();
+        List<LobbySummary> heads = new ArrayList<LobbySummary>();
+        for (NavigableMap<Integer, LobbySummary> bucket : buckets.values()) {
+            if (!filter.matchesSettings(bucket.firstEntry().getValue()))
+                continue;
+            Iterator<LobbySummary> source = bucket.tailMap(cursor, false).values().iterator();
+            if (source.hasNext()) {
+                sources.add(source);
+                heads.add(source.next());
+            }
+        }
+
+        List<LobbySummary> page = new ArrayList<LobbySummary>();
+        while (page.size() < limit && !sources.isEmpty()) {
+            int lowest = 0;
+            for (int i = 1; i < heads.size(); i++)
+                if (heads.get(i).position < heads.get(lowest).position)
+                    lowest = i;
+
+            if (filter.matches(heads.get(lowest)))
+                page.add(heads.get(lowest));
+            if (sources.get(lowest).hasNext()) {
+                heads.set(lowest, sources.get(lowest).next());
+            } else {
+                sources.remove(lowest);
+                heads.remove(lowest);
+            }
+        }
+        return page;
+    }
+
+    //sends the change of a lobby to the subscribers whose page it concerns, forgetting those whose connection is closed
+    private void publish(LobbySummary previous, LobbySummary lobby) {
+        Iterator<Map.Entry<SocketHandler, Subscription>> iterator = subscriptions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SocketHandler, Subscription> subscription = iterator.next();
+            if (subscription.getKey().isClosed()) {
+                iterator.remove();
+            } else if (lobby != null && subscription.getValue().covers(lobby)) {
+                subscription.getKey().send(MessageForClient.lobbyUpdated(lobby));
+            } else if (previous != null && subscription.getValue().covers(previous)) {
+                subscription.getKey().send(MessageForClient.lobbyRemoved(previous.lobbyID));
+            }
+        }
+    }
+
+    private void unindex(LobbySummary lobby) {
+        NavigableMap<Integer, LobbySummary> bucket = buckets.get(bucketOf(lobby));
+        bucket.remove(lobby.position);
+        if (bucket.isEmpty())
+            buckets.remove(bucketOf(lobby));
+    }
+
+    //lobbies in the same bucket either all match the settings of a filter or none of them does
+    private static int bucketOf(LobbySummary lobby) {
+        return lobby.size << 2 | (lobby.expert_mode ? 2 : 0) | (lobby.isOpen() ? 1 : 0);
+    }
+}
+
+/**
+ * Page of the {@link LobbyDirectory} a client is subscribed to: the lobbies matching its filter whose position is after the cursor of the page,
+ * up to the last one of the page, or with no limit for the last page, so that the lobbies created later are included.
+ */
+class Subscription {
+    final LobbyFilter filter;
+    final int from;
+    final int to;
+
+    Subscription(LobbyFilter filter, int from, int to) {
+        this.filter = filter;
+        this.from = from;
+        this.to = to;
+    }
+
+    boolean covers(LobbySummary lobby) {
+        return lobby.position > from && lobby.position <= to && filter.matches(lobby);
+    }
+}
@@ -0,0 +1,82 @@
+package Controller.ServerSide;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <strong>Queue of tasks run one at a time, in the order they were posted, on the threads of a shared {@link Executor}</strong>.<br>
+ * A mailbox takes a thread of the executor only while it has tasks to run, and gives it back after at most a batch of them,
+ * queueing itself again behind the other mailboxes if more tasks are left. This way many mailboxes share a few threads fairly,
+ * and a single busy one can't starve the others.
+ * <br><br>
+ * A mailbox without an executor runs every task right away on the thread posting it.<br>
+ * Tasks can be posted concurrently, an exception thrown by a task is printed and doesn't stop the following ones.
+ * @see Dispatcher
+ */
+public class Mailbox implements Runnable {
+    private final Executor executor;
+    //maximum number of tasks run before giving the thread back to the executor
+    private final int batch;
+    private final Queue<Runnable> tasks;
+    //number of tasks posted and not run yet, the mailbox is scheduled on the executor whenever it's not 0
+    private final AtomicInteger pending;
+
+    /**
+     * Creates a new empty mailbox.
+     *
+     * @param executor {@link Executor} running the tasks, null to run them on the thread posting them
+     * @param batch    maximum number of tasks run in a row before letting the other mailboxes of the same executor run
+     */
+    public Mailbox(Executor executor, int batch) {
+        this.executor = executor;
+        this.batch = batch;
+        this.tasks = new ConcurrentLinkedQueue<Runnable>();
+        this.pending = new AtomicInteger(0);
+    }
+
+    /**
+     * Queues a task, to be run after every task posted before it.
+     *
+     * @param task the task to run
+     */
+    public void post(Runnable task) {
+        if (executor == null) {
+            runTask(task);
+            return;
+        }
+
+        tasks.add(task);
+        if (pending.getAndIncrement() == 0)
+            executor.execute(this);
+    }
+
+    /**
+     * Runs up to a batch of the queued tasks, scheduling the mailbox again if any are left.<br>
+     * Meant to be called by the executor only.
+     */
+    public void run() {
+        for (int i = 0; i < batch; i++) {
+            runTask(tasks.poll());
+            if (pending.decrementAndGet() == 0)
+                return;
+        }
+        executor.execute(this);
+    }
+
+    /**
+     * @return number of tasks posted and not run yet
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    private static void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package Controller.ServerSide;
+
+import java.util.*;
+
+/**
+ * <strong>Queues of the players of a {@link Server} waiting to be matched</strong>, one for every combination of lobby size and expert mode.<br>
+ * A player joins the queue of the game it wants and, as soon as enough players wait in that queue, the oldest ones are taken out of it
+ * together to form a match, for which the server opens a new lobby. Joining, leaving and being matched cost the same whatever the number
+ * of players waiting, since every queue keeps its players in arrival order and indexed by id.
+ * <br><br>
+ * Players which lost their connection or entered a lobby on their own while waiting are dropped when their turn to be matched comes.
+ * How long players wait in each queue is recorded in a {@link QueueStatistics}.
+ */
+public class Matchmaker {
+    //bucketOf(size, expert_mode) -> queue
+    private final Map<Integer, WaitingQueue> queues;
+    //clientID -> queue the client is waiting in
+    private final Map<Integer, WaitingQueue> waiting;
+
+    /**
+     * Creates a new matchmaker with every queue empty.
+     */
+    public Matchmaker() {
+        this.queues = new HashMap<Integer, WaitingQueue>();
+        this.waiting = new HashMap<Integer, WaitingQueue>();
+    }
+
+    /**
+     * Puts a client in the queue for the given kind of game, taking it out of any other queue, and forms a match if enough players are waiting.
+     * A client already waiting in the same queue keeps its place.
+     *
+     * @param client {@link ClientData} of the client
+     * @param size size of the game
+     * @param expert_mode expert mode of the game
+     * @return the {@link ClientData} of the players of the new match, in arrival order, null if no match could be formed
+     */
+    public synchronized List<ClientData> enqueue(ClientData client, int size, boolean expert_mode) {
+        WaitingQueue queue = queues.computeIfAbsent(bucketOf(size, expert_mode), bucket -> new WaitingQueue(size));
+        WaitingQueue previous = waiting.get(client.clientID);
+        if (previous != queue) {
+            if (previous != null)
+                previous.remove(client.clientID);
+            queue.add(client);
+            waiting.put(client.clientID, queue);
+        }
+        return match(queue);
+    }
+
+    /**
+     * Puts the players of a match that couldn't start back at the head of their queue, ahead of the players that arrived after them,
+     * and forms a match again if enough players are waiting.<br>
+     * The players no longer available are left out, as well as those already waiting again in some queue.
+     *
+     * @param players {@link ClientData} of the players of the match, in arrival order
+     * @param size size of the game
+     * @param expert_mode expert mode of the game
+     * @return the {@link ClientData} of the players of the new match, in arrival order, null if no match could be formed
+     */
+    public synchronized List<ClientData> requeue(List<ClientData> players, int size, boolean expert_mode) {
+        WaitingQueue queue = queues.computeIfAbsent(bucketOf(size, expert_mode), bucket -> new WaitingQueue(size));
+        List<ClientData> returning = new ArrayList<ClientData>(players.size());
+        for (ClientData player : players) {
+            if (isAvailable(player) && !waiting.containsKey(player.clientID)) {
+                returning.add(player);
+                waiting.put(player.clientID, queue);
+            }
+        }
+        queue.addFirst(returning);
+        return match(queue);
+    }
+
+    /**
+     * Takes a client out of the queue it's waiting in, if any.
+     *
+     * @param clientID id of the client
+     * @return true if the client was waiting
+     */
+    public synchronized boolean remove(int clientID) {
+        WaitingQueue queue = waiting.remove(clientID);
+        if (queue == null)
+            return false;
+        queue.remove(clientID);
+        return true;
+    }
+
+    /**
+     * Checks whether a client is waiting in a queue.
+     *
+     * @param clientID id of the client
+     * @return true if the client is waiting
+     */
+    public synchronized boolean isWaiting(int clientID) {
+        return waiting.containsKey(clientID);
+    }
+
+    /**
+     * Provides the counters of the queue for the given kind of game.
+     *
+     * @param size size of the game
+     * @param expert_mode expert mode of the game
+     * @return the {@link QueueStatistics} of the queue
+     */
+    public synchronized QueueStatistics getStatistics(int size, boolean expert_mode) {
+        return queues.computeIfAbsent(bucketOf(size, expert_mode), bucket -> new WaitingQueue(size)).statistics;
+    }
+
+    //takes the oldest players of the queue out of it once there are enough of them, dropping those no longer available
+    private List<ClientData> match(WaitingQueue queue) {
+        if (queue.players.size() < queue.size)
+            return null;
+
+        List<WaitingPlayer> match = new ArrayList<WaitingPlayer>(queue.size);
+        Iterator<WaitingPlayer> iterator = queue.players.values().iterator();
+        while (iterator.hasNext() && match.size() < queue.size) {
+            WaitingPlayer player = iterator.next();
+            if (isAvailable(player.client)) {
+                match.add(player);
+            } else {
+                iterator.remove();
+                waiting.remove(player.client.clientID);
+                queue.statistics.recordLeave();
+            }
+        }
+        if (match.size() < queue.size)
+            return null;
+
+        long now = System.nanoTime(), total_wait = 0, max_wait = 0;
+        List<ClientData> players = new ArrayList<ClientData>(queue.size);
+        for (WaitingPlayer player : match) {
+            queue.players.remove(player.client.clientID);
+            waiting.remove(player.client.clientID);
+            total_wait += now - player.since;
+            max_wait = Math.max(max_wait, now - player.since);
+            players.add(player.client);
+        }
+        queue.statistics.recordMatch(players.size(), total_wait, max_wait);
+        return players;
+    }
+
+    private static boolean isAvailable(ClientData client) {
+        return client.socket_handler != null && !client.socket_handler.isClosed() && client.getLobbyID() == 0;
+    }
+
+    private static int bucketOf(int size, boolean expert_mode) {
+        return size << 1 | (expert_mode ? 1 : 0);
+    }
+}
+
+/**
+ * Players of a {@link Matchmaker} waiting for one kind of game, by clientID in arrival order.
+ */
+class WaitingQueue {
+    final int size;
+    final LinkedHashMap<Integer, WaitingPlayer> players;
+    final QueueStatistics statistics;
+
+    WaitingQueue(int size) {
+        this.size = size;
+        this.players = new LinkedHashMap<Integer, WaitingPlayer>();
+        this.statistics = new QueueStatistics();
+    }
+
+    void add(ClientData client) {
+        players.put(client.clientID, new WaitingPlayer(client, System.nanoTime()));
+        statistics.recordJoin();
+    }
+
+    //puts the given players ahead of the waiting ones, which costs as much as the queue is long but only happens when a match can't start
+    void addFirst(List<ClientData> clients) {
+        LinkedHashMap<Integer, WaitingPlayer> later = new LinkedHashMap<Integer, WaitingPlayer>(players);
+        players.clear();
+        long now = System.nanoTime();
+        for (ClientData client : clients) {
+            players.put(client.clientID, new WaitingPlayer(client, now));
+            statistics.recordJoin();
+        }
+        players.putAll(later);
+    }
+
+    void remove(int clientID) {
+        if (players.remove(clientID) != null)
+            statistics.recordLeave();
+    }
+}
+
+/**
+ * Player waiting in a {@link WaitingQueue}, since the given {@link System#nanoTime()}.
+ */
+class WaitingPlayer {
+    final ClientData client;
+    final long since;
+
+    WaitingPlayer(ClientData client, long since) {
+        this.client = client;
+        this.since = since;
+    }
+}
@@ -7,12 +7,15 @@ import org.jetbrains.annotations.TestOnly;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /*
@@ -39,29 +42,50 @@ if(payload != null)
 /**
  * Main Server class, both containing the welcome socket and handling the requests from those clients that not yet in a lobby.<br>
  * This class handles the connection of every new client and their subsequent registration via and hello message.<br>
- * Here are stored all the {@link ClientData} for every registered client, and all the lobbies currently available.<br>
+ * Here are stored all the {@link ClientData} for every registered client, and all the lobbies currently available, which are listed to the clients
+ * through a {@link LobbyDirectory} kept up to date by the lobbies themselves.<br>
  * The procedure for a connecting client is as follows:
  * <ul>
  *     <li> The client opens a connection with the server, being now simply connected and unable to do anything except registering
  *     <li> The client registers via an {@link MessageForServer#hello hello message}, choosing a nickname in the process
- *     <li> After the registration, a client can now access all the server's functions, suck as {@link Server#createLobby}, {@link Server#joinLobby} and {@link Server#getLobbies(SocketHandler) getLobbies}
+ *     <li> After the registration, a client can now access all the server's functions, suck as {@link Server#createLobby}, {@link Server#joinLobby} and {@link Server#getLobbies(SocketHandler) getLobbies},
+ *     or let the server find a game for it with {@link Server#enqueue}
  * </ul>
- * This class handles client requests through an additional queue to cope with potentially massive traffic, every {@link Message} received is queued and not executed immediately,
- * with a dedicated thread that consumes the queue separately.<br>
- * Each new socket connection has a read timeout of {@link Server#PING_TIMEOUT}, after which is severed if no message is received in the meantime.
- * Consequently {@link Client} implements a ping thread that always sends atleast a message to the server withing before the timout expires, unless the connection is lost.
+ * This class handles client requests through a {@link Dispatcher} to cope with potentially massive traffic, every {@link Message} received is queued in the
+ * {@link Mailbox} of its connection's shard and run on a pool of threads shared with the lobbies, which have a mailbox of their own.<br>
+ * Every new connection is watched by a {@link HeartbeatMonitor}, which severs it once nothing has been received for {@link Server#PING_TIMEOUT}:
+ * any message counts, and a connection silent for {@link HeartbeatMonitor#DEFAULT_INTERVAL} is sent a heartbeat, which {@link Client} answers right away,
+ * so that clients never have to ping the server on their own.<br>
+ * Every timer of the server and of its lobbies, from the deletion of disconnected clients to the sweep of the heartbeat monitor, runs on a single {@link TimerWheel}.
  * <br><br>
  * Since it implements {@link Controller}, it is an <strong>OBSERVER</strong> to every {@link SocketHandler} of a connected client.
  */
 public class Server extends Controller {
     public final static int PERMANENT_DISCONNECTION_TIME = 45000; //1 minute
     public final static int PING_TIMEOUT = 15000;
+    public final static int DEFAULT_SEND_QUEUE_LIMIT = 512;
 
     private final int port;
-
-    private final Map<Integer, ClientData> clients;
-    private final Map<Integer, Thread> client_deletion_threads;
-    private final List<Update> incoming_updates;
+    //number of selector threads used by the non-blocking transport, 0 when using a SocketHandler thread pair per connection
+    private final int selector_threads;
+    //kind of threads running the connections and the timers
+    private final ThreadMode thread_mode;
+    private final MessageCodec codec;
+    //bound applied to the outgoing queue of every accepted connection, see SocketHandler.setSendQueueLimit
+    private int send_queue_limit;
+    private OverflowPolicy overflow_policy;
+
+    private final SnapshotCache snapshot_cache;
+
+    private final ClientRegistry clients;
+    //clientID -> timer deleting the disconnected client, see handleDisconnect
+    private final Map<Integer, Timeout> client_deletion_timeouts;
+    //timers of the server and of its lobbies
+    private final TimerWheel timer;
+    private final HeartbeatMonitor heartbeats;
+    //number of threads handling the messages once the server is started
+    private int dispatcher_threads;
+    private Dispatcher dispatcher;
 
     /**
      * Returns the reference to this server's {@link ServerLobby}s map ({@link Server#lobbies}).
@@ -74,7 +98,10 @@ public class Server extends Controller {
     }
 
     private final LinkedHashMap<Integer, ServerLobby> lobbies;
-    private final Random random_number_generator;
+    private final LobbyDirectory lobby_directory;
+    private final Matchmaker matchmaker;
+    private final Random random_number_generator; //picks the ids of the clients and the lobbies, drawn from the threads of the connections
+    private final Random game_seeds; //picks the seeds of the games started by the lobbies, apart from the ids so that they don't depend on the connections
 
     /**
      * Prepares an instance of this class, configuring its welcome socket endpoint.
@@ -82,12 +109,85 @@ public class Server extends Controller {
      * @param port port the server will be available on
      */
     public Server(int port) {
+        this(port, 0, ThreadMode.PLATFORM, null);
+    }
+
+    /**
+     * Prepares an instance of this class, configuring its welcome socket endpoint, the transport and the codec used for the connections and the kind of
+     * threads running the connections and the timing wheel.
+     *
+     * @param port             port the server will be available on
+     * @param selector_threads number of selector threads of the {@link NioTransport} serving every connection,
+     *                         0 to serve each connection with its own pair of {@link SocketHandler} threads instead
+     * @param thread_mode      {@link ThreadMode} of the threads started by this server and its lobbies
+     * @param codec            {@link MessageCodec} framing the messages of every connection, null to use a continuous Java object stream
+     *                         (or a {@link SerializationCodec} for the {@link NioTransport}, which always needs frames)
+     */
+    public Server(int port, int selector_threads, ThreadMode thread_mode, MessageCodec codec) {
         this.port = port;
-        this.clients = new HashMap<Integer, ClientData>();
-        this.client_deletion_threads = new HashMap<Integer, Thread>();
-        this.incoming_updates = new ArrayList<Update>();
+        this.selector_threads = selector_threads;
+        this.thread_mode = thread_mode;
+        this.codec = codec;
+        this.send_queue_limit = DEFAULT_SEND_QUEUE_LIMIT;
+        this.overflow_policy = OverflowPolicy.COLLAPSE_TO_SNAPSHOT;
+        this.snapshot_cache = new SnapshotCache();
+        this.clients = new ClientRegistry();
+        this.client_deletion_timeouts = new ConcurrentHashMap<Integer, Timeout>();
+        this.timer = new TimerWheel(TimerWheel.DEFAULT_TICK, TimerWheel.DEFAULT_WHEEL_SIZE, thread_mode);
+        this.heartbeats = new HeartbeatMonitor(timer, HeartbeatMonitor.DEFAULT_INTERVAL, PING_TIMEOUT, HeartbeatMonitor.DEFAULT_SWEEP_INTERVAL);
+        this.dispatcher_threads = Runtime.getRuntime().availableProcessors();
+        this.dispatcher = new Dispatcher(0, thread_mode);
         this.lobbies = new LinkedHashMap<Integer, ServerLobby>();
-        this.random_number_generator = new Random(1);
+        this.lobby_directory = new LobbyDirectory();
+        this.matchmaker = new Matchmaker();
+        this.random_number_generator = new Random();
+        this.game_seeds = new Random();
+        setSeed(new Random().nextLong());
+    }
+
+    /**
+     * Configures the seed from which this server picks the seeds of the games started by its lobbies, by default one picked at random.<br>
+     * Two servers with the same seed deal the same sequence of games, each of which can then be replayed from its own
+     * {@link Model.Game#getSeed seed} alone. The ids of the clients and of the lobbies are picked from the same seed, but by the threads
+     * of the connections concurrently, so they are only granted to be unique, not to repeat from one run to the other.
+     *
+     * @param seed the seed of this server
+     */
+    public synchronized void setSeed(long seed) {
+        random_number_generator.setSeed(seed);
+        game_seeds.setSeed(~seed);
+    }
+
+    /**
+     * Picks the seed of a new game, see {@link Model.Game#Game(boolean, List, long)}.
+     *
+     * @return the seed for the game
+     */
+    public synchronized long nextGameSeed() {
+        return game_seeds.nextLong();
+    }
+
+    /**
+     * Configures the bound applied to the outgoing queue of every connection accepted from now on,
+     * by default {@link Server#DEFAULT_SEND_QUEUE_LIMIT} messages with {@link OverflowPolicy#COLLAPSE_TO_SNAPSHOT}.
+     *
+     * @param send_queue_limit maximum number of pending messages of a connection, 0 for an unbounded queue
+     * @param overflow_policy  {@link OverflowPolicy} to apply once the limit is reached
+     * @see SocketHandler#setSendQueueLimit
+     */
+    public void setSendQueueLimit(int send_queue_limit, OverflowPolicy overflow_policy) {
+        this.send_queue_limit = send_queue_limit;
+        this.overflow_policy = overflow_policy;
+    }
+
+    /**
+     * Configures the number of threads handling the messages received by this server and its lobbies once the server is started,
+     * by default one for each available processor.
+     *
+     * @param dispatcher_threads number of threads of the {@link Dispatcher}
+     */
+    public void setDispatcherThreads(int dispatcher_threads) {
+        this.dispatcher_threads = dispatcher_threads;
     }
 
     //Accepts incoming client connections and sets up a Client instance for each new connection
@@ -97,8 +197,14 @@ public class Server extends Controller {
      * A call to this method is <strong>blocking</strong>, this method is not intended to return unless the program is forcefully terminated.
      */
     public void startServer() {
+        dispatcher = new Dispatcher(dispatcher_threads, thread_mode);
+        if (selector_threads > 0) {
+            startNioServer();
+            return;
+        }
+
         ServerSocket server_socket;
-        ExecutorService exec = Executors.newCachedThreadPool();
+        ExecutorService exec = thread_mode.newExecutor();
 
         try {
             server_socket = new ServerSocket(port);
@@ -106,13 +212,12 @@ public class Server extends Controller {
             return;
         }
 
-        exec.submit(this::updatesHandler);
-
         while(true) {
             try {
                 Socket socket = server_socket.accept();
-                socket.setSoTimeout(PING_TIMEOUT);
-                SocketHandler client_handler = new SocketHandler(socket, this);
+                SocketHandler client_handler = new SocketHandler(socket, this, codec);
+                client_handler.setSendQueueLimit(send_queue_limit, overflow_policy);
+                heartbeats.watch(client_handler);
                 exec.submit(client_handler.getReceiver());
                 exec.submit(client_handler.getSender());
             } catch(IOException e) {
@@ -121,45 +226,54 @@ public class Server extends Controller {
             }
         }
         exec.shutdown();
+        dispatcher.shutdown();
+        timer.stop();
     }
 
-    //Routes incoming messages to the appropriate methods in charge of handling the proper reply
+    //Same as startServer, but every accepted connection is handed over to the selectors of a NioTransport
     /**
-     * Consumes the queue of incoming {@link Message} by routing them to the appropriate methods in charge of delivering a proper
-     * reply, using that messages's {@link Message#execute(Server, SocketHandler)}.
+     * Variant of {@link Server#startServer} used when {@link Server#selector_threads} is positive: every accepted connection is registered to
+     * a {@link NioTransport}, whose selector threads take care of all the connections instead of a thread pair for each of them.
      */
-    private synchronized void updatesHandler() {
-        while(true) {
-            while(incoming_updates.size() == 0) {
-                try {
-                    this.wait();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
+    private void startNioServer() {
+        ServerSocketChannel server_channel;
+        NioTransport transport;
 
-            Update update = incoming_updates.remove(0);
+        try {
+            server_channel = ServerSocketChannel.open();
+            server_channel.bind(new InetSocketAddress(port));
+            transport = new NioTransport(selector_threads, codec != null ? codec : new SerializationCodec());
+        } catch(IOException e) {
+            return;
+        }
 
+        while(true) {
             try {
-                //System.out.println("Update handled.");
-
-                update.message.execute(this, update.socket_handler);
-            } catch(Exception e) {
+                SocketChannel channel = server_channel.accept();
+                SocketHandler client_handler = transport.register(channel, this, 0);
+                client_handler.setSendQueueLimit(send_queue_limit, overflow_policy);
+                heartbeats.watch(client_handler);
+            } catch(IOException e) {
                 e.printStackTrace();
+                break;
             }
         }
+        transport.shutdown();
+        dispatcher.shutdown();
+        timer.stop();
     }
 
-    //Receive updates and puts them in queue to be handled
+    //Receive updates and puts them in the mailbox of their connection to be handled
     /**
-     * {@inheritDoc}
+     * {@inheritDoc}<br>
+     * The message is routed to the method in charge of delivering a proper reply, using its {@link Message#execute(Server, SocketHandler)},
+     * on a thread of the {@link Dispatcher}, after every message received before it on the same connection.
      *
      * @param client_handler the {@link SocketHandler} which received the {@link Message} and is dispatching the update
      * @param message the {@link Message} received
      */
-    public synchronized void update(SocketHandler client_handler, Message message) {
-        incoming_updates.add(new Update(client_handler, message));
-        this.notifyAll();
+    public void update(SocketHandler client_handler, Message message) {
+        dispatcher.shardOf(client_handler).post(() -> message.execute(this, client_handler));
     }
 
     //Called whenever a client's connection is closed
@@ -170,38 +284,39 @@ public class Server extends Controller {
      *
      * @param clientID the Id of the client, remembered by {@link SocketHandler}, losing the connection
      */
-    public synchronized void handleDisconnect(int clientID) {
+    public void handleDisconnect(int clientID) {
         if(clientID != 0)
            System.out.println("Disconnected player: " + clientID);
 
+        if (clientID != 0)
+            matchmaker.remove(clientID);
         if (clientID != 0) {
-            Thread thread = new Thread(() -> deleteClient(clientID));
-            thread.start();
-            client_deletion_threads.put(clientID, thread);
+            Timeout previous = client_deletion_timeouts.put(clientID, timer.schedule(() -> deleteClient(clientID), PERMANENT_DISCONNECTION_TIME));
+            if (previous != null)
+                previous.cancel();
         }
     }
 
     //Used by handleDisconnect to remove clients after PERMANENT_DISCONNECTION_TIME that they dropped their connection
     /**
-     * Ran in a separate thread by {@link Client#handleDisconnect} to remove clients after {@link Server#PERMANENT_DISCONNECTION_TIME} that they dropped their connection.<br>
-     * This thread is interrupted if the target client reconnects.
+     * Ran by a timer of the {@link TimerWheel}, set by {@link Server#handleDisconnect}, to remove clients after {@link Server#PERMANENT_DISCONNECTION_TIME} that they dropped their connection.<br>
+     * The timer is cancelled if the target client reconnects, and does nothing if it is no longer the deletion timer registered for its client.
+     * The client is deleted only if it's still disconnected, atomically with respect to a reconnection, see {@link ClientRegistry#release},
+     * while its lobby is told on the lobby's own {@link Mailbox}, not to hold up the other timers.
      *
      * @param clientID id of the client that got permanently disconnected
      */
     private void deleteClient(int clientID) {
-        try {
-            Thread.sleep(PERMANENT_DISCONNECTION_TIME);
-        } catch(InterruptedException e) {
-            e.printStackTrace();
-        }
-        synchronized(this) {
-            if(clients.get(clientID).socket_handler.isClosed()) {
-                //this lets automatically continue a potential game the client was in, simply without him
-                if(lobbies.get(clients.get(clientID).getLobbyID()) != null)
-                    lobbies.get(clients.get(clientID).getLobbyID()).permanentDisconnectedPlayer(clientID);
-                clients.remove(clientID);
-                client_deletion_threads.remove(clientID);
-            }
+        Timeout deletion = client_deletion_timeouts.get(clientID);
+        if(deletion == null || !deletion.isExpired() || !client_deletion_timeouts.remove(clientID, deletion))
+            return;
+
+        ClientData client = clients.release(clientID);
+        if(client != null) {
+            //this lets automatically continue a potential game the client was in, simply without him
+            ServerLobby lobby = getLobby(client.getLobbyID());
+            if(lobby != null)
+                lobby.post(() -> lobby.permanentDisconnectedPlayer(clientID));
         }
     }
 
@@ -212,53 +327,65 @@ public class Server extends Controller {
     /**
      * Registers a newly connected client, with the nickname it provides.
      * Consequence of {@link MessageForServer#hello}.
+     * <br><br>
+     * Clients are registered in a {@link ClientRegistry}, hence no lock of the server is taken, except for the lookup of a reconnecting client's lobby,
+     * which is then told of the reconnection on its own {@link Mailbox}.
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
      * @param old_clientID old client id for a reconnecting client, 0 for completely new clients
      * @param nickname nickname chosen by the client
+     * @param last_sequence sequence number of the last lobby event received by a reconnecting client, 0 to get a whole copy of its game
      */
-    public synchronized void hello(SocketHandler client_handler, int old_clientID, String nickname) {
+    public void hello(SocketHandler client_handler, int old_clientID, String nickname, int last_sequence) {
         //checks if the client has already performed the hello
         if(client_handler.getClientID() != 0) {
             client_handler.send(MessageForClient.error("you are already logged in", 1));
             return;
         }
 
-        if(old_clientID != 0 && clients.get(old_clientID) != null && clients.get(old_clientID).nickname.equals(nickname) && clients.get(old_clientID).socket_handler.isClosed()) {
+        ClientData previous = old_clientID != 0 ? clients.reconnect(old_clientID, nickname, client_handler) : null;
+        if(previous != null) {
             //if possible, reconnect a client with and old_clientID to his old lobby
-            client_deletion_threads.get(old_clientID).stop();
-            client_deletion_threads.remove(old_clientID);
+            Timeout deletion = client_deletion_timeouts.remove(old_clientID);
+            if(deletion != null)
+                deletion.cancel();
 
-            int oldLobbyID = clients.get(old_clientID).getLobbyID();
-            clients.put(old_clientID, new ClientData(old_clientID, clients.get(old_clientID).nickname, client_handler));
+            int oldLobbyID = previous.getLobbyID();
             client_handler.setClientID(old_clientID);
             client_handler.send(MessageForClient.ack(old_clientID));
 
-            //put the player back in its lobby
+            //put the player back in its lobby, on the lobby's own mailbox so that the moves already queued there come first
             if(oldLobbyID != 0) {
-                try {
-                    lobbies.get(oldLobbyID).reconnectPlayer(clients.get(old_clientID));
-                } catch(LobbyException | NullPointerException e) {
+                ServerLobby lobby = getLobby(oldLobbyID);
+                ClientData client = clients.get(old_clientID);
+                if(lobby == null) {
                     client_handler.send(MessageForClient.error("unable to reconnect to previous lobby", 2));
                     System.out.println("unable to reconnect to previous lobby");
-                    lobbies.get(oldLobbyID).permanentDisconnectedPlayer(old_clientID);
+                } else {
+                    lobby.post(() -> {
+                        try {
+                            lobby.reconnectPlayer(client, last_sequence);
+                        } catch(LobbyException e) {
+                            client_handler.send(MessageForClient.error("unable to reconnect to previous lobby", 2));
+                            System.out.println("unable to reconnect to previous lobby");
+                            lobby.permanentDisconnectedPlayer(old_clientID);
+                        }
+                    });
                 }
             }
 
             System.out.println("Reconnected user with nickname: " + nickname + ", and clientID: " + old_clientID);
-        } else if(nickname == null || nickname.length() == 0 || clients.values().stream().anyMatch(client -> client.nickname.equals(nickname))) {
-            //prevents two distinct users from having the same nickname
+            return;
+        }
+
+        //assigns a new clientID to a new user, unless two distinct users would have the same nickname
+        ClientData client = nickname == null || nickname.length() == 0 ? null : clients.register(nickname, client_handler, random_number_generator::nextInt);
+        if(client == null) {
             client_handler.send(MessageForClient.error("nickname already in use", 3));
         } else {
-            //assigns a new clientID to a new user
-            int newClientID = random_number_generator.nextInt();
-            while(newClientID == 0 || clients.get(newClientID) != null)
-                newClientID = random_number_generator.nextInt();
-
-            clients.put(newClientID, new ClientData(newClientID, nickname, client_handler));
-            client_handler.setClientID(newClientID);
-            client_handler.send(MessageForClient.ack(newClientID));
-            System.out.println("Registered user with nickname: " + nickname + ", and clientID: " + newClientID);
+            client_handler.setClientID(client.clientID);
+            client_handler.send(MessageForClient.ack(client.clientID));
+            System.out.println("Registered user with nickname: " + nickname + ", and clientID: " + client.clientID);
         }
     }
 
@@ -278,9 +405,7 @@ public class Server extends Controller {
         } else if(clients.get(client_handler.getClientID()).getLobbyID() != 0) {
             client_handler.send(MessageForClient.error("you cannot create a lobby while being in one", 5));
         } else {
-            int newLobbyID = random_number_generator.nextInt();
-            while(newLobbyID == 0 || lobbies.get(newLobbyID) != null)
-                newLobbyID = random_number_generator.nextInt();
+            int newLobbyID = newLobbyID();
 
             ServerLobby lobby = buildLobby(newLobbyID, size, expert_mode);
             try {
@@ -291,6 +416,7 @@ public class Server extends Controller {
             }
             //client_handler.send(MessageForClient.setLobby(lobby.getLobbyData()));
             lobbies.put(newLobbyID, lobby);
+            leaveQueue(client_handler.getClientID());
         }
     }
 
@@ -315,6 +441,7 @@ public class Server extends Controller {
         } else {
             try {
                 lobbies.get(lobbyID).addPlayer(clients.get(client_handler.getClientID()));
+                leaveQueue(client_handler.getClientID());
                 //client_handler.send(MessageForClient.setLobby(lobbies.get(lobbyID).getLobbyData()));
             } catch(LobbyException e) {
                 client_handler.send(MessageForClient.error(e.getMessage(), 6));
@@ -322,17 +449,120 @@ public class Server extends Controller {
         }
     }
 
+    //Puts the client in the matchmaking queue for the given kind of game, starting a new game once enough players wait in it
+    /**
+     * Puts the client in the {@link Matchmaker}'s queue for the given kind of game, confirming it with a {@link MessageForClient#queued}.
+     * As soon as enough players wait in that queue a new lobby is created for them and its game is started right away.
+     * Consequence of {@link MessageForServer#enqueue}.
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param size number of players of the game
+     * @param expert_mode flag indicating if expert mode is enabled or not in the game
+     */
+    public void enqueue(SocketHandler client_handler, int size, boolean expert_mode) {
+        if(!checkIDPresent(client_handler)) return;
+        ClientData client = clients.get(client_handler.getClientID());
+        if(size != 2 && size != 3) {
+            client_handler.send(MessageForClient.error("invalid parameters", 4));
+        } else if(client.getLobbyID() != 0) {
+            client_handler.send(MessageForClient.error("you cannot look for a game while being in a lobby", 5));
+        } else {
+            client_handler.send(MessageForClient.queued(size, expert_mode));
+            List<ClientData> players = matchmaker.enqueue(client, size, expert_mode);
+            if(players != null)
+                startMatch(players, size, expert_mode);
+        }
+    }
+
+    //Takes the client out of the matchmaking queue
+    /**
+     * Takes the client out of the {@link Matchmaker}'s queue it's waiting in, if any, confirming it with a {@link MessageForClient#queued} of size 0.
+     * Consequence of {@link MessageForServer#leaveQueue}.
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     */
+    public void leaveQueue(SocketHandler client_handler) {
+        if(!checkIDPresent(client_handler)) return;
+        matchmaker.remove(client_handler.getClientID());
+        client_handler.send(MessageForClient.queued(0, false));
+    }
+
+    //Measures the round trip time of the connection
+    /**
+     * Records the answer of a client to a heartbeat in the {@link HeartbeatMonitor}, no registration needed.
+     * Consequence of {@link MessageForServer#heartbeatAck}.
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param timestamp timestamp carried by the heartbeat
+     */
+    public void heartbeatAck(SocketHandler client_handler, long timestamp) {
+        heartbeats.recordAnswer(client_handler, timestamp);
+    }
+
+    //takes a client entering a lobby on its own out of the matchmaking queue, letting it know
+    private void leaveQueue(int clientID) {
+        ClientData client = clients.get(clientID);
+        if(matchmaker.remove(clientID) && client != null && client.socket_handler != null)
+            client.socket_handler.send(MessageForClient.queued(0, false));
+    }
+
+    /**
+     * Creates a new lobby for the players matched by the {@link Matchmaker} and starts its game.<br>
+     * Should some of the players have entered another lobby in the meantime, the others are put back at the head of the queue, see {@link Matchmaker#requeue}.
+     *
+     * @param players {@link ClientData} of the matched players
+     * @param size size of the new lobby
+     * @param expert_mode flag indicating if expert mode is enabled or not in the new lobby
+     */
+    private synchronized void startMatch(List<ClientData> players, int size, boolean expert_mode) {
+        if(players.stream().anyMatch(player -> player.getLobbyID() != 0)) {
+            List<ClientData> match = matchmaker.requeue(players, size, expert_mode);
+            if(match != null)
+                startMatch(match, size, expert_mode);
+            return;
+        }
+
+        int newLobbyID = newLobbyID();
+        ServerLobby lobby = buildLobby(newLobbyID, size, expert_mode);
+        lobbies.put(newLobbyID, lobby);
+        for(ClientData player : players) {
+            try {
+                lobby.addPlayer(player);
+            } catch(LobbyException e) {
+                player.socket_handler.send(MessageForClient.error("error while joining the matched lobby", 6));
+            }
+        }
+        lobby.readyAll();
+        System.out.println("Matched " + players.size() + " players in lobby: " + newLobbyID);
+    }
+
     //Sends to the client a list of all available lobbies
     /**
-     * Sends to the client a list of all available lobbies.
+     * Sends to the client a list of all available lobbies, taken from the {@link LobbyDirectory}, whose clients have only their nickname set.
      * Consequence of {@link MessageForServer#getLobbies}.
      *
      * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
      */
-    public synchronized void getLobbies(SocketHandler client_handler) {
+    public void getLobbies(SocketHandler client_handler) {
         if(!checkIDPresent(client_handler)) return;
-        //consider returning only lobbies with a free player slot
-        client_handler.send(MessageForClient.lobbiesList(lobbies.values().stream().map(lobby -> lobby.getLobbyData()).collect(Collectors.toList())));
+        client_handler.send(MessageForClient.lobbiesList(lobby_directory.list().stream().map(LobbySummary::toLobbyData).collect(Collectors.toList())));
+    }
+
+    //Sends to the client a page of the lobbies matching its filter
+    /**
+     * Sends to the client a page of the lobbies matching its filter, optionally subscribing it to the changes of the lobbies in the page.
+     * Consequence of {@link MessageForServer#browseLobbies}.
+     * @see LobbyDirectory#browse
+     *
+     * @param client_handler {@link SocketHandler} which caused the update resulting in this method's invocation
+     * @param filter {@link LobbyFilter} the lobbies have to match, null to match every lobby
+     * @param cursor cursor of the page, 0 for the first one
+     * @param page_size maximum number of lobbies in the page
+     * @param subscribe true to subscribe the client to the page, false to drop its subscription
+     */
+    public void browseLobbies(SocketHandler client_handler, LobbyFilter filter, int cursor, int page_size, boolean subscribe) {
+        if(!checkIDPresent(client_handler)) return;
+        lobby_directory.browse(client_handler, filter != null ? filter : LobbyFilter.ANY, cursor, page_size, subscribe);
     }
 
     /**
@@ -341,7 +571,7 @@ public class Server extends Controller {
      * @param client_handler {@link SocketHandler} of the connected client
      * @return true if the client is properly registered
      */
-    private synchronized boolean checkIDPresent(SocketHandler client_handler) {
+    private boolean checkIDPresent(SocketHandler client_handler) {
         if(client_handler.getClientID() == 0) {
            client_handler.send(MessageForClient.error("you must first send and hello message", 5));
             return false;
@@ -353,6 +583,24 @@ public class Server extends Controller {
         return true;
     }
 
+    //picks an id no other lobby has
+    private synchronized int newLobbyID() {
+        int newLobbyID = random_number_generator.nextInt();
+        while(newLobbyID == 0 || lobbies.get(newLobbyID) != null)
+            newLobbyID = random_number_generator.nextInt();
+        return newLobbyID;
+    }
+
+    /**
+     * Looks a lobby up by its id.
+     *
+     * @param lobbyID id of the lobby
+     * @return the {@link ServerLobby}, null if there is none with the given id
+     */
+    private synchronized ServerLobby getLobby(int lobbyID) {
+        return lobbies.get(lobbyID);
+    }
+
     /**
      * The provided lobby gets deleted, it goes to dust, ceases to exist in every possibly meaningful way...<br>
      * Or at least that's what we all hope for, a quick end to its life, but it's up to the garbage collector to make it happen with no pain!
@@ -361,15 +609,122 @@ public class Server extends Controller {
      */
     protected synchronized void deleteLobby(int lobbyID) {
         lobbies.remove(lobbyID);
+        lobby_directory.remove(lobbyID);
+        snapshot_cache.invalidate(lobbyID);
+    }
+
+    /**
+     * Provides the monitor checking the liveness of this server's connections, along with the {@link HeartbeatStatistics} of each of them.
+     *
+     * @return this server's {@link HeartbeatMonitor}
+     */
+    public HeartbeatMonitor getHeartbeatMonitor() {
+        return heartbeats;
+    }
+
+    /**
+     * Provides the timing wheel running the timers of this server, so that its lobbies can schedule their own timers on it.
+     *
+     * @return this server's {@link TimerWheel}
+     */
+    TimerWheel getTimer() {
+        return timer;
+    }
+
+    /**
+     * Provides the directory listing this server's lobbies, which the lobbies keep up to date.
+     *
+     * @return this server's {@link LobbyDirectory}
+     */
+    public LobbyDirectory getLobbyDirectory() {
+        return lobby_directory;
+    }
+
+    /**
+     * Provides the matchmaker of this server, along with the {@link QueueStatistics} of its queues.
+     *
+     * @return this server's {@link Matchmaker}
+     */
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    /**
+     * Provides the dispatcher running the messages received by this server, so that its lobbies can get their own {@link Mailbox} from it.
+     *
+     * @return this server's {@link Dispatcher}
+     */
+    Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Provides the cache shared by this server's lobbies for the snapshots of their games.
+     *
+     * @return this server's {@link SnapshotCache}
+     */
+    public SnapshotCache getSnapshotCache() {
+        return snapshot_cache;
+    }
+
+    /**
+     * Clients outside of a lobby only have to fetch the lobbies list again, which is requested to them with an error of code 8,
+     * so that no lock is needed.
+     *
+     * @param socket_handler the {@link SocketHandler} whose queue is being collapsed
+     * @return the messages to send
+     */
+    @Override
+    public List<Message> snapshot(SocketHandler socket_handler) {
+        return List.of(MessageForClient.error("Too many messages pending, a resync is needed", 8));
     }
 
     /**
      * The main that starts the server, providing its LAN IP address on the console.
      *
-     * @param argv <i>unused</i>
+     * @param argv optionally "--nio" followed by the number of selector threads, to use a {@link NioTransport} for the connections,
+     *             "--virtual", to use {@link ThreadMode#VIRTUAL}, "--binary", to use the {@link BinaryCodec}, and "--queue-limit" followed by the
+     *             maximum number of pending messages of a connection and optionally by an {@link OverflowPolicy}, "--workers" followed by the number
+     *             of threads of the {@link Dispatcher}, "--seed" followed by the seed of the server, see {@link Server#setSeed}
      */
     public static void main(String[] argv) {
-        Server server = new Server(31234);
+        //"--nio [threads]" serves every connection through a NioTransport, "--virtual" runs connections and timers on virtual threads,
+        //"--binary" frames every message with the BinaryCodec, "--queue-limit n [policy]" bounds the outgoing queue of every connection,
+        //"--workers n" sets the threads handling the messages of the server and its lobbies, "--seed n" makes the sequence of games repeatable
+        int selector_threads = 0;
+        ThreadMode thread_mode = ThreadMode.PLATFORM;
+        MessageCodec codec = null;
+        int send_queue_limit = DEFAULT_SEND_QUEUE_LIMIT;
+        OverflowPolicy overflow_policy = OverflowPolicy.COLLAPSE_TO_SNAPSHOT;
+        int dispatcher_threads = Runtime.getRuntime().availableProcessors();
+        Long seed = null;
+        for (int i = 0; i < argv.length; i++) {
+            if (argv[i].equals("--nio"))
+                selector_threads = i + 1 < argv.length && argv[i + 1].matches("[0-9]+") ? Integer.parseInt(argv[++i]) : Runtime.getRuntime().availableProcessors();
+            else if (argv[i].equals("--virtual"))
+                thread_mode = ThreadMode.VIRTUAL;
+            else if (argv[i].equals("--binary"))
+                codec = new BinaryCodec();
+            else if (argv[i].equals("--queue-limit") && i + 1 < argv.length && argv[i + 1].matches("[0-9]+")) {
+                send_queue_limit = Integer.parseInt(argv[++i]);
+                for (OverflowPolicy policy : OverflowPolicy.values())
+                    if (i + 1 < argv.length && policy.name().equalsIgnoreCase(argv[i + 1])) {
+                        overflow_policy = policy;
+                        i++;
+                    }
+            } else if (argv[i].equals("--workers") && i + 1 < argv.length && argv[i + 1].matches("[0-9]+"))
+                dispatcher_threads = Math.max(Integer.parseInt(argv[++i]), 1);
+            else if (argv[i].equals("--seed") && i + 1 < argv.length && argv[i + 1].matches("-?[0-9]+"))
+                seed = Long.parseLong(argv[++i]);
+        }
+        if (!thread_mode.isSupported())
+            System.out.println("Virtual threads are not supported by this runtime, falling back to platform threads...");
+
+        Server server = new Server(31234, selector_threads, thread_mode, codec);
+        server.setSendQueueLimit(send_queue_limit, overflow_policy);
+        server.setDispatcherThreads(dispatcher_threads);
+        if (seed != null)
+            server.setSeed(seed);
         try {
             System.out.println("Starting server on " + InetAddress.getLocalHost() + ":31234...");
         } catch (UnknownHostException e) {
@@ -382,13 +737,3 @@ public class Server extends Controller {
                 "If this continues to happen at startup probably another process is using port 31234 on your device!");
     }
 }
-
-class Update {
-    public final SocketHandler socket_handler;
-    public final Message message;
-
-    public Update(SocketHandler client_handler, Message message) {
-        this.socket_handler = client_handler;
-        this.message = message;
-    }
-}
\ No newline at end of file
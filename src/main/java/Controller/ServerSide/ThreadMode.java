@@ -0,0 +1,91 @@
+package Controller.ServerSide;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Kind of threads the {@link Server} runs its connections and timers on.
+ * <ul>
+ *     <li> {@link ThreadMode#PLATFORM} - a platform thread for every task, the default behaviour
+ *     <li> {@link ThreadMode#VIRTUAL} - a virtual thread for every task, so that thousands of idle connections and sleeping timers
+ *     do not consume as many OS threads
+ * </ul>
+ * Virtual threads are looked up at runtime, since they are only available on Java 21 and later, on older runtimes
+ * {@link ThreadMode#VIRTUAL} falls back to platform threads.
+ * <br><br>
+ * The {@link ServerLobby lobbies} and the {@link Server} still guard their state with monitors ({@code synchronized}), a lobby's
+ * {@link Mailbox} running each of its tasks while holding the lobby's monitor.
+ * On runtimes before Java 24 a virtual thread holding or waiting for a monitor is pinned to its carrier, so the code holding those monitors
+ * never waits for I/O: outgoing messages are only queued to the {@link Controller.SocketHandler SocketHandlers}, the sockets being written by other threads,
+ * and the lobbies are reached through their mailboxes, which run the tasks of a lobby one at a time, keeping the monitors mostly uncontended.
+ */
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL;
+
+    //factory of virtual threads, null if the runtime does not support them
+    private static final ThreadFactory VIRTUAL_FACTORY = lookupVirtualFactory();
+
+    /**
+     * Checks whether this mode is actually backed by the kind of threads it names on the current runtime.
+     *
+     * @return false if this is {@link ThreadMode#VIRTUAL} and the runtime does not support virtual threads, true otherwise
+     */
+    public boolean isSupported() {
+        return this == PLATFORM || VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Provides a {@link ThreadFactory} producing threads of this mode.
+     *
+     * @return the factory for this mode
+     */
+    public ThreadFactory threadFactory() {
+        if (this == VIRTUAL && VIRTUAL_FACTORY != null)
+            return VIRTUAL_FACTORY;
+        return Thread::new;
+    }
+
+    /**
+     * Provides an executor running every task submitted on a thread of this mode, platform threads are reused when idle while
+     * virtual threads are never pooled.
+     *
+     * @return a new {@link ExecutorService}
+     */
+    public ExecutorService newExecutor() {
+        if (this == VIRTUAL && VIRTUAL_FACTORY != null) {
+            try {
+                //Executors.newThreadPerTaskExecutor(factory), virtual threads are cheap enough not to be pooled
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, VIRTUAL_FACTORY);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newCachedThreadPool(VIRTUAL_FACTORY);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Starts a new thread of this mode running the given task.
+     *
+     * @param task the task to run
+     * @return the started {@link Thread}
+     */
+    public Thread start(Runnable task) {
+        Thread thread = threadFactory().newThread(task);
+        thread.start();
+        return thread;
+    }
+
+    //Thread.ofVirtual().factory(), looked up reflectively to keep compiling on Java 17
+    private static ThreadFactory lookupVirtualFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Controller.ServerSide;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a timer scheduled on a {@link TimerWheel}, which can be used to cancel it before it fires.<br>
+ * A timer is either waiting, expired once its task has been started, or cancelled, and never changes again once it's no longer waiting,
+ * hence a timer that has been cancelled is guaranteed not to run its task.
+ */
+public class Timeout {
+    private final static int WAITING = 0;
+    private final static int EXPIRED = 1;
+    private final static int CANCELLED = 2;
+
+    private final TimerWheel wheel;
+    final Runnable task;
+    //System.nanoTime() the timer expires at
+    final long deadline;
+    private final AtomicInteger state;
+
+    //position in the wheel, only accessed by its thread
+    int bucket;
+    long rounds;
+    Timeout previous;
+    Timeout next;
+
+    Timeout(TimerWheel wheel, Runnable task, long deadline) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadline = deadline;
+        this.state = new AtomicInteger(WAITING);
+        this.bucket = -1;
+    }
+
+    /**
+     * Cancels the timer, if it has not fired yet.
+     *
+     * @return true if the timer has been cancelled, false if it had already fired or been cancelled
+     */
+    public boolean cancel() {
+        if (!state.compareAndSet(WAITING, CANCELLED))
+            return false;
+        wheel.cancelled(this);
+        return true;
+    }
+
+    /**
+     * @return true if the timer has fired, its task being run or done
+     */
+    public boolean isExpired() {
+        return state.get() == EXPIRED;
+    }
+
+    /**
+     * @return true if the timer has been cancelled before firing
+     */
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    //called by the thread of the wheel once the timer's tick comes, false if it has been cancelled in the meantime
+    boolean expire() {
+        return state.compareAndSet(WAITING, EXPIRED);
+    }
+}
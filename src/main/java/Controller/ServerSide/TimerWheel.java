@@ -0,0 +1,178 @@
+package Controller.ServerSide;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <strong>Hashed timing wheel running every timer of a {@link Server} and of its lobbies on a single thread</strong>.<br>
+ * The wheel is a ring of buckets, each one covering a tick of time: a timer is put in the bucket of the tick it expires at, along with the number of
+ * whole turns of the ring left before then, and at every tick the thread of the wheel fires the timers of the next bucket whose turns are over.
+ * Scheduling and cancelling a timer cost the same whatever the number of timers, so that a thousand clients disconnecting at once cost a thousand
+ * entries in the wheel instead of a thousand sleeping threads.
+ * <br><br>
+ * Timers are scheduled and cancelled from any thread through lock-free queues, drained by the thread of the wheel, which is started along with the first timer.
+ * A timer never fires before its delay, and at most a tick after it.<br>
+ * The tasks of the timers are run on the thread of the wheel, one after the other, hence they must be short: a task with more work to do, such as
+ * one needing the lock of a {@link ServerLobby}, posts it to a {@link Mailbox} instead.
+ *
+ * @see Timeout
+ */
+public class TimerWheel {
+    public final static int DEFAULT_TICK = 100;
+    public final static int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tick_nanos;
+    //heads of the doubly linked lists of the timers in each bucket, only accessed by the thread of the wheel
+    private final Timeout[] buckets;
+    private final int mask;
+    private final long start_time;
+    //timers scheduled and cancelled since the last tick, moved in and out of the buckets by the thread of the wheel
+    private final Queue<Timeout> scheduled;
+    private final Queue<Timeout> cancelled;
+    private final ThreadMode thread_mode;
+    private final AtomicBoolean started;
+    private final AtomicInteger pending;
+    private volatile boolean stopped;
+    //number of ticks elapsed since start_time, only accessed by the thread of the wheel
+    private long tick;
+
+    /**
+     * Creates a new wheel, its thread is not started until the first timer is scheduled.
+     *
+     * @param tick        milliseconds covered by each bucket, the precision of the timers
+     * @param wheel_size  number of buckets, rounded up to a power of two, timers longer than a whole turn of the wheel wait for several turns
+     * @param thread_mode {@link ThreadMode} of the thread of the wheel
+     */
+    public TimerWheel(int tick, int wheel_size, ThreadMode thread_mode) {
+        if (tick < 1 || wheel_size < 1)
+            throw new IllegalArgumentException("Both the tick and the size of the wheel must be positive.");
+
+        int size = 1;
+        while (size < wheel_size)
+            size <<= 1;
+        this.tick_nanos = tick * 1000000L;
+        this.buckets = new Timeout[size];
+        this.mask = buckets.length - 1;
+        this.start_time = System.nanoTime();
+        this.scheduled = new ConcurrentLinkedQueue<Timeout>();
+        this.cancelled = new ConcurrentLinkedQueue<Timeout>();
+        this.thread_mode = thread_mode;
+        this.started = new AtomicBoolean(false);
+        this.pending = new AtomicInteger(0);
+        this.stopped = false;
+        this.tick = 0;
+    }
+
+    /**
+     * Schedules a task to be run once, after the given delay, on the thread of this wheel.
+     *
+     * @param task  the task to run
+     * @param delay milliseconds to wait before running the task
+     * @return the {@link Timeout} of the task, which can be used to cancel it
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + Math.max(delay, 0) * 1000000L);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread thread = thread_mode.threadFactory().newThread(this::run);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return number of timers scheduled that have neither fired nor been cancelled yet
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the thread of this wheel, the timers not fired yet never will.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    //called by Timeout.cancel once it has been cancelled, it's taken out of its bucket at the next tick
+    void cancelled(Timeout timeout) {
+        pending.decrementAndGet();
+        cancelled.add(timeout);
+    }
+
+    //the thread of the wheel, waking up at every tick to fire the timers of its bucket
+    private void run() {
+        while (!stopped) {
+            long sleep = start_time + (tick + 1) * tick_nanos - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null)
+                unlink(timeout);
+            while ((timeout = scheduled.poll()) != null)
+                if (!timeout.isCancelled())
+                    link(timeout);
+            fire((int) (tick & mask));
+            tick++;
+        }
+    }
+
+    //puts a timer in the bucket of the tick it expires at, or in the current one if that tick is already gone
+    private void link(Timeout timeout) {
+        long expiration = Math.max((timeout.deadline - start_time) / tick_nanos, tick);
+        timeout.rounds = (expiration - tick) / buckets.length;
+        timeout.bucket = (int) (expiration & mask);
+        timeout.next = buckets[timeout.bucket];
+        if (timeout.next != null)
+            timeout.next.previous = timeout;
+        buckets[timeout.bucket] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.bucket < 0)
+            return;
+
+        if (timeout.previous != null)
+            timeout.previous.next = timeout.next;
+        else
+            buckets[timeout.bucket] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    //fires the timers of the bucket whose turns are over, the others are left for the next turn
+    private void fire(int bucket) {
+        Timeout timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds <= 0) {
+                unlink(timeout);
+                if (timeout.expire()) {
+                    pending.decrementAndGet();
+                    try {
+                        timeout.task.run();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package Model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiset of {@link Colors students}, keeping just the number of students of each color, such as the pouch of a {@link Game}.<br>
+ * Adding or removing a student changes a single counter, without shifting or allocating anything, and the students are
+ * seen sorted by the index of their color, see {@link ColorBag#get}.
+ * <br><br>
+ * The students of an {@link OrderedColorBag} are instead kept in the order they were added, for the groups whose students are
+ * chosen by their position, such as the entrances.
+ */
+public class ColorBag implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    protected final int[] counts; //five element array, indicating the total of students present per-color
+    protected int size;
+
+    /**
+     * Creates an empty bag.
+     */
+    public ColorBag() {
+        this.counts = new int[5];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a bag holding the given students.
+     *
+     * @param students the students to put in the bag
+     */
+    public ColorBag(List<Colors> students) {
+        this();
+        for (int i = 0; i < students.size(); i++)
+            add(students.get(i));
+    }
+
+    /**
+     * Getter for the number of students in this bag.
+     *
+     * @return number of students in this bag
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether this bag holds no student.
+     *
+     * @return true if this bag is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Getter for the number of students of a color in this bag.
+     *
+     * @param color the color of the students
+     * @return number of students of that color
+     */
+    public int count(Colors color) {
+        return counts[color.index];
+    }
+
+    /**
+     * Getter for the number of students of a color in this bag.
+     *
+     * @param color index of the color of the students
+     * @return number of students of that color
+     */
+    public int count(int color) {
+        return counts[color];
+    }
+
+    /**
+     * Getter for one of the students in this bag, with the students sorted by the index of their color.
+     *
+     * @param index index of the student, from 0 to {@link ColorBag#size} (excluded)
+     * @return the requested student
+     * @throws IndexOutOfBoundsException if the index is not among those of this bag's students
+     */
+    public Colors get(int index) {
+        return Colors.fromColorIndex(colorAt(index));
+    }
+
+    /**
+     * Adds a student to this bag.
+     *
+     * @param student the student to add
+     */
+    public void add(Colors student) {
+        counts[student.index]++;
+        size++;
+    }
+
+    /**
+     * Removes a student of the given color from this bag, if there is one.
+     *
+     * @param student color of the student to remove
+     * @return true if a student was removed
+     */
+    public boolean remove(Colors student) {
+        if (counts[student.index] == 0)
+            return false;
+        counts[student.index]--;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes one of the students in this bag, as seen by {@link ColorBag#get}.
+     *
+     * @param index index of the student to remove
+     * @return the removed student
+     * @throws IndexOutOfBoundsException if the index is not among those of this bag's students
+     */
+    public Colors remove(int index) {
+        Colors removed = get(index);
+        counts[removed.index]--;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Draws a student out of this bag.<br>
+     * Every student is as likely to be drawn as the others when the given index is picked at random. An {@link OrderedColorBag}
+     * is instead always drawn from the front, so that a bag filled in a known order deals its students in that order.
+     *
+     * @param random_index a number from 0 to {@link ColorBag#size} (excluded), picking the student to draw
+     * @return the drawn student
+     */
+    public Colors draw(int random_index) {
+        return remove(random_index);
+    }
+
+    /**
+     * Puts back a student taken by {@link ColorBag#draw}, undoing the draw.<br>
+     * The students drawn together are expected to be put back from the last drawn to the first.
+     *
+     * @param student the drawn student
+     */
+    public void undoDraw(Colors student) {
+        add(student);
+    }
+
+    /**
+     * Removes every student from this bag.
+     */
+    public void clear() {
+        for (int i = 0; i < 5; i++)
+            counts[i] = 0;
+        size = 0;
+    }
+
+    /**
+     * Provides a copy of this bag, which can be changed independently of it.
+     *
+     * @return the copy of this bag
+     */
+    public ColorBag copy() {
+        ColorBag copy = new ColorBag();
+        for (int i = 0; i < 5; i++)
+            copy.counts[i] = counts[i];
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Getter for the students in this bag as a new list, in the order of {@link ColorBag#get}.
+     *
+     * @return list of the students in this bag
+     */
+    public List<Colors> toList() {
+        List<Colors> result = new ArrayList<Colors>(size);
+        for (int i = 0; i < size; i++)
+            result.add(get(i));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+
+    //index of the color of the student at the given index, with the students sorted by color
+    private int colorAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " students");
+        int color = 0;
+        while (index >= counts[color])
+            index -= counts[color++];
+        return color;
+    }
+}
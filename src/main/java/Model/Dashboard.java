@@ -1,9 +1,6 @@
 package Model;
 
-import org.jetbrains.annotations.TestOnly;
-
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,10 +16,11 @@ import java.util.List;
  *     the first player is White, followed by Black and Gray.
  */
 public class Dashboard implements Serializable {
-    private List<Colors> entrance;
+    private OrderedColorBag entrance;
     private int[] hall; //five element array, indicating the total of students present per-color
-    private boolean[] professors;
+    private ColorSet professors;
     private int rooks; //count of available rooks
+    private long position_hash; //xor of the keys of the features of this dashboard, see PositionKeys
 
     /**
      * Constructor that allows the dashboard's initialization at the beginnning of a game.
@@ -31,15 +29,14 @@ public class Dashboard implements Serializable {
      * @param players_number number of players in the game, used to determine other parameters
      */
     public Dashboard(List<Colors> entrance, int players_number) {
-        this.entrance = entrance;
+        this.entrance = new OrderedColorBag(entrance);
         this.hall = new int[5];
-        this.professors = new boolean[5];
-        for(int i = 0; i < 5; i++)
-            this.professors[i] = false;
+        this.professors = ColorSet.EMPTY;
         if(players_number == 2)
             this.rooks = 8;
         else
             this.rooks = 6;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -48,14 +45,17 @@ public class Dashboard implements Serializable {
      * @param rooks number of available rooks
      * @param hall five element array indicating the total of students present per-color
      * @param professors five element array indicating the already claimed professors
-     * @implNote This constructor is meant to be used for testing purposes only.
+     * @implNote Besides testing, this constructor is used to rebuild a dashboard from a {@link PackedGame}.
      */
-    @TestOnly
     public Dashboard(List<Colors> entrance, int rooks, int[] hall, boolean[] professors) {
-        this.entrance = entrance;
+        this.entrance = new OrderedColorBag(entrance);
         this.hall = hall;
-        this.professors = professors;
+        this.professors = ColorSet.EMPTY;
+        for(int i = 0; i < 5; i++)
+            if(professors[i])
+                this.professors = this.professors.with(Colors.fromColorIndex(i));
         this.rooks = rooks;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -65,7 +65,26 @@ public class Dashboard implements Serializable {
      * @return the list of students in the entrance
      */
     public List<Colors> getEntrance() {
-        return new ArrayList<Colors>(entrance);
+        return entrance.toList();
+    }
+
+    /**
+     * Getter for the number of students in the entrance, without copying them.
+     *
+     * @return the number of students in the entrance
+     */
+    public int getEntranceSize() {
+        return entrance.size();
+    }
+
+    /**
+     * Getter for one of the students in the entrance, without copying the others.
+     *
+     * @param index index of the student, based upon the list from {@link Dashboard#getEntrance}
+     * @return the requested {@link Colors student}
+     */
+    public Colors getEntranceStudent(int index) {
+        return entrance.get(index);
     }
 
     /**
@@ -75,7 +94,23 @@ public class Dashboard implements Serializable {
      * @return the removed {@link Colors student}
      */
     protected Colors removeFromEntrance(int index) {
-        return entrance.remove(index);
+        Colors removed = entrance.get(index);
+        position_hash ^= entranceKey(removed.index);
+        entrance.remove(index);
+        position_hash ^= entranceKey(removed.index);
+        return removed;
+    }
+
+    /**
+     * Puts back the provided {@link Colors student} in the entrance at the given position, undoing {@link Dashboard#removeFromEntrance}.
+     *
+     * @param index position the student was removed from, based upon the list from {@link Dashboard#getEntrance}
+     * @param to_add {@link Colors student} to put back in the entrance
+     */
+    protected void addToEntrance(int index, Colors to_add) {
+        position_hash ^= entranceKey(to_add.index);
+        entrance.add(index, to_add);
+        position_hash ^= entranceKey(to_add.index);
     }
 
     /**
@@ -84,16 +119,22 @@ public class Dashboard implements Serializable {
      * @param to_add {@link Colors student} to add to the entrance
      */
     protected void addToEntrance(Colors to_add) {
+        position_hash ^= entranceKey(to_add.index);
         entrance.add(to_add);
+        position_hash ^= entranceKey(to_add.index);
     }
 
     /**
      * Adds all the provided {@link Colors students} to the entrance.
      *
-     * @param to_add list of students to add in bulk to the entrance
+     * @param to_add students to add in bulk to the entrance, in their order
      */
-    protected void addToEntrance(List<Colors> to_add) {
+    protected void addToEntrance(ColorBag to_add) {
+        for(int i = 0; i < 5; i++)
+            position_hash ^= entranceKey(i);
         entrance.addAll(to_add);
+        for(int i = 0; i < 5; i++)
+            position_hash ^= entranceKey(i);
     }
 
     /**
@@ -125,7 +166,7 @@ public class Dashboard implements Serializable {
      * @param color the color of the row to which to add a student
      */
     protected void addStudentToHall(Colors color) {
-        hall[color.index]++;
+        setHallRow(color.index, hall[color.index] + 1);
     }
 
     //If the number of students of that color is already 0, it does not go below that and returns false, otherwise true
@@ -139,7 +180,7 @@ public class Dashboard implements Serializable {
      */
     protected boolean removeStudentFromHall(Colors color) {
         if(hall[color.index] > 0) {
-            hall[color.index]--;
+            setHallRow(color.index, hall[color.index] - 1);
             return true;
         }
         return false;
@@ -153,7 +194,7 @@ public class Dashboard implements Serializable {
      * @return true if the tested professor is on this dashboard
      */
     public boolean getProfessor(Colors color) {
-        return professors[color.index];
+        return professors.contains(color);
     }
 
     /**
@@ -164,7 +205,16 @@ public class Dashboard implements Serializable {
      * @return true if the tested professor is on this dashboard
      */
     public boolean getProfessor(int index) {
-        return professors[index];
+        return professors.contains(index);
+    }
+
+    /**
+     * Getter for the {@link Colors professors} owned by the player who owns this dashboard.
+     *
+     * @return set of the colors of the professors on this dashboard
+     */
+    public ColorSet getProfessors() {
+        return professors;
     }
 
     /**
@@ -174,7 +224,9 @@ public class Dashboard implements Serializable {
      * @param status new ownership status, true for owned, false for now owned
      */
     protected void setProfessor(Colors color, boolean status) {
-        professors[color.index] = status;
+        position_hash ^= professorKey(color.index);
+        professors = status ? professors.with(color) : professors.without(color);
+        position_hash ^= professorKey(color.index);
     }
 
     /**
@@ -192,7 +244,7 @@ public class Dashboard implements Serializable {
      * @param quantity the amount of rooks to increase the available quantity by
      */
     protected void increaseRooks(int quantity) {
-        rooks += quantity;
+        setRooks(rooks + quantity);
     }
 
     /**
@@ -203,7 +255,45 @@ public class Dashboard implements Serializable {
      */
     protected void decreaseRooks(int quantity) {
         if(rooks > 0)
-            rooks -= quantity;
+            setRooks(rooks - quantity);
+    }
+
+    /**
+     * Getter for the hash of this dashboard's part of the position, kept up to date by every method altering the dashboard.<br>
+     * The students in the entrance count regardless of their order.
+     *
+     * @return xor of the keys of the features of this dashboard, see {@link Game#positionHash}
+     */
+    protected long positionHash() {
+        return position_hash;
+    }
+
+    //keeps the hash up to date while changing the number of students in a row
+    private void setHallRow(int color, int count) {
+        position_hash ^= PositionKeys.count(PositionKeys.HALL, color, hall[color]) ^ PositionKeys.count(PositionKeys.HALL, color, count);
+        hall[color] = count;
+    }
+
+    private void setRooks(int rooks) {
+        position_hash ^= PositionKeys.count(PositionKeys.ROOKS, 0, this.rooks) ^ PositionKeys.count(PositionKeys.ROOKS, 0, rooks);
+        this.rooks = rooks;
+    }
+
+    //key of the number of students of a color in the entrance
+    private long entranceKey(int color) {
+        return PositionKeys.count(PositionKeys.ENTRANCE, color, entrance.count(color));
+    }
+
+    private long professorKey(int color) {
+        return PositionKeys.count(PositionKeys.PROFESSOR, color, professors.contains(color) ? 1 : 0);
+    }
+
+    //computes from scratch the hash that the methods altering this dashboard keep up to date
+    private long computePositionHash() {
+        long hash = PositionKeys.count(PositionKeys.ROOKS, 0, rooks);
+        for(int i = 0; i < 5; i++)
+            hash ^= entranceKey(i) ^ professorKey(i) ^ PositionKeys.count(PositionKeys.HALL, i, hall[i]);
+        return hash;
     }
 
 }
@@ -27,10 +27,7 @@ public class GameState {
      * @return the {@link Player player} representing to the provided client
      */
     public Player myPlayer(Client client) {
-        for(Player player : game.getPlayers())
-            if(player.clientID == client.getClientID())
-                return player;
-        return null;
+        return game.getPlayerWithID(client.getClientID());
     }
 
     //returns only the players that are not the client
@@ -42,12 +39,37 @@ public class GameState {
      */
     public List<Player> otherPlayers(Client client) {
         List<Player> result = new ArrayList<Player>();
-        for(Player player : game.getPlayers())
-            if(player.clientID != client.getClientID())
-                result.add(player);
+        for(int i = 0; i < game.playerCount(); i++)
+            if(game.getPlayer(i).clientID != client.getClientID())
+                result.add(game.getPlayer(i));
         return result;
     }
 
+    /**
+     * Provides one of the {@link Player players} which in the game do not correspond to the provided client, without building the list
+     * from {@link GameState#otherPlayers}.
+     *
+     * @param client {@link Client client} used to skip his player
+     * @param index index of the opponent, based upon the list from {@link GameState#otherPlayers}
+     * @return the requested opponent of the provided client
+     */
+    public Player otherPlayer(Client client, int index) {
+        for(int i = 0; i < game.playerCount(); i++)
+            if(game.getPlayer(i).clientID != client.getClientID() && index-- == 0)
+                return game.getPlayer(i);
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Provides the number of {@link Player players} which in the game do not correspond to the provided client, the same as the size of {@link GameState#otherPlayers}.
+     *
+     * @param client {@link Client client} whose opponents will be counted
+     * @return the number of opponents of the provided client
+     */
+    public int otherPlayersCount(Client client) {
+        return game.getPlayerWithID(client.getClientID()) == null ? game.playerCount() : game.playerCount() - 1;
+    }
+
     /**
      * See: {@link Game#isMyTurn(int)}
      */
@@ -69,6 +91,20 @@ public class GameState {
         return game.currentPlayersTurnOrder();
     }
 
+    /**
+     * See: {@link Game#playerInTurnOrder(int)}
+     */
+    public int playerInTurnOrder(int position) {
+        return game.playerInTurnOrder(position);
+    }
+
+    /**
+     * See: {@link Game#turnOrderPosition(int)}
+     */
+    public int turnOrderPosition(int clientID) {
+        return game.turnOrderPosition(clientID);
+    }
+
     /**
      * See: {@link Game#getPlayers()}
      */
@@ -139,6 +175,13 @@ public class GameState {
         return game.getUnclaimedProfessors();
     }
 
+    /**
+     * See: {@link Game#getUnclaimedProfessorsSet()}
+     */
+    public ColorSet getUnclaimedProfessorsSet() {
+        return game.getUnclaimedProfessorsSet();
+    }
+
     /**
      * See: {@link Game#getNpcs()}
      */
@@ -146,6 +189,111 @@ public class GameState {
         return game.getNpcs();
     }
 
+    /**
+     * See: {@link Game#playerCount()}
+     */
+    public int playerCount() {
+        return game.playerCount();
+    }
+
+    /**
+     * See: {@link Game#getPlayer(int)}
+     */
+    public Player getPlayer(int player_index) {
+        return game.getPlayer(player_index);
+    }
+
+    /**
+     * See: {@link Game#getPlayerWithID(int)}
+     */
+    public Player getPlayerWithID(int clientID) {
+        return game.getPlayerWithID(clientID);
+    }
+
+    /**
+     * See: {@link Game#entranceSize(int)}
+     */
+    public int entranceSize(int player_index) {
+        return game.entranceSize(player_index);
+    }
+
+    /**
+     * See: {@link Game#entranceStudent(int, int)}
+     */
+    public Colors entranceStudent(int player_index, int student_index) {
+        return game.entranceStudent(player_index, student_index);
+    }
+
+    /**
+     * See: {@link Game#islandCount()}
+     */
+    public int islandCount() {
+        return game.islandCount();
+    }
+
+    /**
+     * See: {@link Game#getIsland(int)}
+     */
+    public Island getIsland(int island_index) {
+        return game.getIsland(island_index);
+    }
+
+    /**
+     * See: {@link Game#islandStudents(int, Colors)}
+     */
+    public int islandStudents(int island_index, Colors color) {
+        return game.islandStudents(island_index, color);
+    }
+
+    /**
+     * See: {@link Game#cloudCount()}
+     */
+    public int cloudCount() {
+        return game.cloudCount();
+    }
+
+    /**
+     * See: {@link Game#cloudSize(int)}
+     */
+    public int cloudSize(int cloud_index) {
+        return game.cloudSize(cloud_index);
+    }
+
+    /**
+     * See: {@link Game#cloudStudent(int, int)}
+     */
+    public Colors cloudStudent(int cloud_index, int student_index) {
+        return game.cloudStudent(cloud_index, student_index);
+    }
+
+    /**
+     * See: {@link Game#unclaimedProfessorsCount()}
+     */
+    public int unclaimedProfessorsCount() {
+        return game.unclaimedProfessorsCount();
+    }
+
+    /**
+     * See: {@link Game#unclaimedProfessor(int)}
+     */
+    public Colors unclaimedProfessor(int index) {
+        return game.unclaimedProfessor(index);
+    }
+
+    /**
+     * See: {@link Game#npcCount()}
+     */
+    public int npcCount() {
+        return game.npcCount();
+    }
+
+    /**
+     * See: {@link Game#getNpc(int)}
+     */
+    public Npc getNpc(int npc_index) {
+        return game.getNpc(npc_index);
+    }
+
     /**
      * Returns the {@link Npc} with the specified id if present in the current game, otherwise returns null.
      *
@@ -153,9 +301,9 @@ public class GameState {
      * @return the {@link Npc} with the provided id, if present, otherwise null
      */
     public Npc getNpcWithId(int id) {
-        for(Npc npc : game.getNpcs())
-            if(npc.getId() == id)
-                return npc;
+        for(int i = 0; i < game.npcCount(); i++)
+            if(game.getNpc(i).getId() == id)
+                return game.getNpc(i);
         return null;
     }
 
@@ -201,6 +349,13 @@ public class GameState {
         return game.getWinnerID();
     }
 
+    /**
+     * See: {@link Game#getSeed()}
+     */
+    public long getSeed() {
+        return game.getSeed();
+    }
+
     /**
      * Returns a string describing entirely the current game state.
      * This is the main source of data for the CLI during a game.
@@ -228,7 +383,8 @@ public class GameState {
 
         }*/
         result.append("\n@|bold Turn order (first to last):|@ ");
-        for(int id : game.currentPlayersTurnOrder()) {
+        for(int i = 0; i < game.playerCount(); i++) {
+            int id = game.playerInTurnOrder(i);
             if(id == client.getClientID())
                 result.append("@|blue ").append(client.clientIDToNickname(id)).append("|@ ");
             else
@@ -237,27 +393,25 @@ public class GameState {
 
         result.append("\n\n");
         result.append("Clouds: " + "\n");
-        for(int i = 0; i < game.getClouds().length; i++) {
-            if(game.getClouds()[i] != null) {
-                for (Colors color : game.getClouds()[i]) {
-                    switch(color) {
-                        case YELLOW -> result.append("@|bg_yellow  ").append(i).append(" |@ ");
-                        case BLUE -> result.append("@|bg_blue  ").append(i).append(" |@ ");
-                        case GREEN -> result.append("@|bg_green  ").append(i).append(" |@ ");
-                        case RED -> result.append("@|bg_red  ").append(i).append(" |@ ");
-                        case MAGENTA -> result.append("@|bg_magenta  ").append(i).append(" |@ ");
-                    }
+        for(int i = 0; i < game.cloudCount(); i++) {
+            for (int j = 0; j < game.cloudSize(i); j++) {
+                switch(game.cloudStudent(i, j)) {
+                    case YELLOW -> result.append("@|bg_yellow  ").append(i).append(" |@ ");
+                    case BLUE -> result.append("@|bg_blue  ").append(i).append(" |@ ");
+                    case GREEN -> result.append("@|bg_green  ").append(i).append(" |@ ");
+                    case RED -> result.append("@|bg_red  ").append(i).append(" |@ ");
+                    case MAGENTA -> result.append("@|bg_magenta  ").append(i).append(" |@ ");
                 }
-                result.append("\n");
             }
+            result.append("\n");
         }
         result.append("\n@|bold Mother nature is on island:|@ @|italic ").append(game.getMotherNature()).append("|@\n");
         result.append("@|bold Islands:|@" + "\n\n");
         result.append(game.expert_mode ? "@|faint index\t\tstudents\tmerges\t\tinterdicted\towner|@\n" : "@|faint index\t\tstudents\tmerges\t\towner|@\n");
-        for(int i = 0; i < game.getIslands().size(); i++) {
+        for(int i = 0; i < game.islandCount(); i++) {
             String row = i + "\t\t";
 
-            Island island = game.getIslands().get(i);
+            Island island = game.getIsland(i);
 
             row += "@|fg_yellow " + island.getStudents(0) +
                     "|@@|fg_blue " + island.getStudents(1) +
@@ -269,10 +423,10 @@ public class GameState {
                 row += island.getInterdiction() ? "yes" : "no" + "\t\t";
 
             if(island.getOwnerIndex() != null) {
-                if(game.getPlayers().get(island.getOwnerIndex()).clientID == client.getClientID())
-                    row += "@|blue " + client.clientIDToNickname(game.getPlayers().get(island.getOwnerIndex()).clientID) + "|@";
+                if(game.getPlayer(island.getOwnerIndex()).clientID == client.getClientID())
+                    row += "@|blue " + client.clientIDToNickname(game.getPlayer(island.getOwnerIndex()).clientID) + "|@";
                 else
-                    row += "@|red " + client.clientIDToNickname(game.getPlayers().get(island.getOwnerIndex()).clientID) + "|@";
+                    row += "@|red " + client.clientIDToNickname(game.getPlayer(island.getOwnerIndex()).clientID) + "|@";
             } else
                 row += "@|faint none|@";
 
@@ -283,8 +437,9 @@ public class GameState {
         }
         result.append("\n");
         result.append("Unclaimed professors: ");
-        for(Colors color : game.getUnclaimedProfessors()) {
-            switch(color) {
+        ColorSet unclaimed_professors = game.getUnclaimedProfessorsSet();
+        for(int i = 0; i < unclaimed_professors.size(); i++) {
+            switch(unclaimed_professors.get(i)) {
                 case YELLOW -> result.append("@|fg_yellow P|@ ");
                 case BLUE -> result.append("@|fg_blue P|@ ");
                 case GREEN -> result.append("@|fg_green P|@ ");
@@ -296,7 +451,8 @@ public class GameState {
 
         if(game.expert_mode) {
             result.append("NPCs id list: ");
-            for(Npc npc : game.getNpcs()) {
+            for(int i = 0; i < game.npcCount(); i++) {
+                Npc npc = game.getNpc(i);
                 result.append("@|cyan ").append(npc.getId()).append("|@ ");
                 switch(npc.getId()) {
                     case 1, 7, 11 -> result.append("(").append(npc.getExtraProperty().stream().map(x -> switch (Colors.fromColorIndex(x)) {
@@ -324,8 +480,8 @@ public class GameState {
             }
             result.append("\n");
             result.append("NPCs costs: ");
-            for(Npc npc : game.getNpcs())
-                result.append("@|cyan ").append(npc.getCost()).append("|@ ");
+            for(int i = 0; i < game.npcCount(); i++)
+                result.append("@|cyan ").append(game.getNpc(i).getCost()).append("|@ ");
             result.append("\n");
             result.append("Active NPC: @|cyan ").append(game.getNpcEffect()).append("|@\n");
             result.append("Bank: @|yellow ").append(game.getBank()).append("|@\n");
@@ -335,18 +491,19 @@ public class GameState {
             result.append("Winner: ").append(client.clientIDToNickname(game.getWinnerID())).append("\n\n");
 
         result.append("\n@|bold Players:|@" + "\n\n");
-        for(Player player : game.getPlayers()) {
+        for(int p = 0; p < game.playerCount(); p++) {
+            Player player = game.getPlayer(p);
             if(player.clientID == client.getClientID())
                 result.append("@|blink_fast YOU|@: @|blue ").append(client.clientIDToNickname(player.clientID)).append("|@\n");
             else
                 result.append("@|faint player:|@ @|red ").append(client.clientIDToNickname(player.clientID)).append("|@\n");
 
             result.append("Cards in hand:\nOrder values ->   ");
-            for(Card card : player.getCards())
-                result.append("\t").append(card.order_value);
+            for(int i = 0; i < player.getCardsSize(); i++)
+                result.append("\t").append(player.getCard(i).order_value);
             result.append("\nMovement values ->");
-            for(Card card : player.getCards())
-                result.append("\t").append(card.movements_value);
+            for(int i = 0; i < player.getCardsSize(); i++)
+                result.append("\t").append(player.getCard(i).movements_value);
             result.append("\n");
 
             if(player.getLastCardPlayed() != null)
@@ -355,8 +512,8 @@ public class GameState {
                 result.append("Coins: ").append(player.getCoins()).append("\n");
             Dashboard dashboard = player.getDashboard();
             result.append("Entrance: ");
-            for(int i = 0; i < dashboard.getEntrance().size(); i++) {
-                switch(dashboard.getEntrance().get(i)) {
+            for(int i = 0; i < dashboard.getEntranceSize(); i++) {
+                switch(dashboard.getEntranceStudent(i)) {
                     case YELLOW -> result.append("@|bg_yellow  ").append(i).append(" |@ ");
                     case BLUE -> result.append("@|bg_blue  ").append(i).append(" |@ ");
                     case GREEN -> result.append("@|bg_green  ").append(i).append(" |@ ");
@@ -22,6 +22,10 @@ public class Island implements Serializable {
     private Integer owner_index; //from which rooks color is deducible
     private int num_of_merged_islands;
     private boolean interdiction;
+    private long position_hash; //xor of the keys of the features of this island, see PositionKeys
+    private transient Island previous, next; //neighbouring islands, clockwise, linked by the game holding this island
+    private transient ProfessorTable professors; //owner of the professor of each color, shared with the game holding this island
+    private transient int[] influence; //students on this island whose professor is owned by each player
 
     public final int index;
 
@@ -29,7 +33,7 @@ public class Island implements Serializable {
      * Construct for a new island initialized ready for the start of a game.
      *
      * @param starting_student the initial student placed on the island at the beginning of each game, null for no pre-placed student
-     * @param index index of this island among the 12 in the game
+     * @param index index of this island among the 12 in the game, which becomes its id
      */
     public Island(Colors starting_student, int index) {
         this.students = new int[5];
@@ -39,6 +43,7 @@ public class Island implements Serializable {
         this.num_of_merged_islands = 1;
         this.interdiction = false;
         this.index = index;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -47,7 +52,8 @@ public class Island implements Serializable {
      * @param owner_index index of this island among the others in game
      * @param number_of_merged_islands number of "contained" islands
      * @param interdiction flag indicting if this island is or it is not interdicted (see {@link Npc5})
-     * @implNote This constructor is meant to be used for testing purposes only.
+     * @implNote This constructor is meant to be used for testing purposes only.<br>
+     * Every island built this way has id 0, so {@link Game#islandIndex} can't tell them apart.
      */
     @TestOnly
     public Island(int[] starting_student, Integer owner_index, int number_of_merged_islands, boolean interdiction) {
@@ -56,6 +62,25 @@ public class Island implements Serializable {
         this.num_of_merged_islands = number_of_merged_islands;
         this.interdiction = interdiction;
         this.index = 0;
+        this.position_hash = computePositionHash();
+    }
+
+    /**
+     * Constructor used by {@link PackedGame#toGame} to rebuild an island in any state of the game.
+     *
+     * @param students five element array, indicating the total of students present per-color
+     * @param owner_index index of the owner of the island, relative to the players array in {@link Game}, null for no owner
+     * @param num_of_merged_islands number of islands merged into this one, itself included
+     * @param interdiction flag indicting if this island is or it is not interdicted (see {@link Npc5})
+     * @param index index of this island among the 12 in the game
+     */
+    protected Island(int[] students, Integer owner_index, int num_of_merged_islands, boolean interdiction, int index) {
+        this.students = students;
+        this.owner_index = owner_index;
+        this.num_of_merged_islands = num_of_merged_islands;
+        this.interdiction = interdiction;
+        this.index = index;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -84,7 +109,16 @@ public class Island implements Serializable {
      * @param color of the student to add to the island
      */
     protected void addStudent(Colors color) {
-        students[color.index]++;
+        setStudents(color.index, students[color.index] + 1);
+    }
+
+    /**
+     * Removes the given student from the island, undoing {@link Island#addStudent}.
+     *
+     * @param color of the student to remove from the island
+     */
+    protected void removeStudent(Colors color) {
+        setStudents(color.index, students[color.index] - 1);
     }
 
     /**
@@ -101,10 +135,12 @@ public class Island implements Serializable {
     /**
      * Sets the ownership of this island to the provided player.
      *
-     * @param index index of the player which will become the new owner, relative to the players array in {@link Game}
+     * @param index index of the player which will become the new owner, relative to the players array in {@link Game}, null for no owner
      */
-    protected void setOwnerIndex(int index) {
+    protected void setOwnerIndex(Integer index) {
+        position_hash ^= ownerKey();
         owner_index = index;
+        position_hash ^= ownerKey();
     }
 
     /**
@@ -116,6 +152,27 @@ public class Island implements Serializable {
         return num_of_merged_islands;
     }
 
+    /**
+     * Getter for the stable id of this island, that is its index among the 12 islands the game started with.<br>
+     * Unlike the position in {@link Game#getIslands}, the id never changes as islands get merged: an island keeps its own id while
+     * merging the following one into itself, and the ids of the islands merged into it follow its own clockwise, see {@link Island#holds}.
+     *
+     * @return the index of this island among the 12 in the game
+     */
+    public int getId() {
+        return index;
+    }
+
+    /**
+     * Checks whether the original island with the given id is this island or one of those merged into it.
+     *
+     * @param id id of one of the 12 islands the game started with
+     * @return true if the island with the given id is part of this one
+     */
+    protected boolean holds(int id) {
+        return id >= 0 && id < 12 && Math.floorMod(id - index, 12) < num_of_merged_islands;
+    }
+
     /**
      * Getter for whether an interdiction is currently placed on this island or not.
      *
@@ -131,7 +188,9 @@ public class Island implements Serializable {
      * @param interdiction new value for the interdiction flag
      */
     protected void setInterdiction(boolean interdiction) {
+        position_hash ^= interdictionKey();
         this.interdiction = interdiction;
+        position_hash ^= interdictionKey();
     }
 
     //return true if it merges the given island successfully with this one and assumes that the given island is then discarded, false if the merges is not possible
@@ -152,9 +211,151 @@ public class Island implements Serializable {
             return false;
 
         for(int i = 0; i < 5; i++)
-            students[i] += island.students[i];
-        num_of_merged_islands += island.num_of_merged_islands;
-        interdiction = interdiction || island.interdiction;
+            setStudents(i, students[i] + island.students[i]);
+        setNumOfMergedIslands(num_of_merged_islands + island.num_of_merged_islands);
+        setInterdiction(interdiction || island.interdiction);
         return true;
     }
+
+    /**
+     * Separates from this island one that was merged into it, undoing {@link Island#merge}.
+     *
+     * @param island the island that was merged into this one
+     * @param interdiction interdiction of this island before the merge
+     */
+    protected void unmerge(Island island, boolean interdiction) {
+        for(int i = 0; i < 5; i++)
+            setStudents(i, students[i] - island.students[i]);
+        setNumOfMergedIslands(num_of_merged_islands - island.num_of_merged_islands);
+        setInterdiction(interdiction);
+        //the influence on the separated island was not kept up to date while it was merged
+        if(professors != null)
+            island.trackInfluence(professors, influence.length);
+    }
+
+    /**
+     * Getter for the island that follows this one clockwise, the merges of the islands being accounted for.<br>
+     * The islands of a game are linked in a ring, whose order is the one of the list from {@link Game#getIslands}, wrap-around included.
+     *
+     * @return the next island, null if this island is not part of a game
+     */
+    public Island getNext() {
+        return next;
+    }
+
+    /**
+     * Getter for the island that precedes this one clockwise, the merges of the islands being accounted for.
+     *
+     * @return the previous island, null if this island is not part of a game
+     */
+    public Island getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Links this island between the two given ones, which are expected to be linked with it in turn.
+     *
+     * @param previous the island preceding this one
+     * @param next the island following this one
+     */
+    protected void link(Island previous, Island next) {
+        this.previous = previous;
+        this.next = next;
+    }
+
+    /**
+     * Takes this island out of the ring, linking together its neighbours, as it gets merged into one of them.<br>
+     * This island keeps its own links, so that {@link Island#relink} can put it back in constant time.
+     */
+    protected void unlink() {
+        previous.next = next;
+        next.previous = previous;
+    }
+
+    /**
+     * Puts this island back in the ring between the neighbours it was taken out from, undoing {@link Island#unlink}.
+     */
+    protected void relink() {
+        previous.next = this;
+        next.previous = this;
+    }
+
+    /**
+     * Getter for the influence of the given player on this island due to the students alone, that is the number of students on
+     * this island whose professor the player owns.<br>
+     * It is kept up to date while the students and the professors change, towers and npc effects are left to {@link Game#disputeIsland}.
+     *
+     * @param player_index index of the player, relative to the players array in {@link Game}
+     * @return the number of students on this island whose professor the player owns
+     */
+    protected int getInfluence(int player_index) {
+        return influence[player_index];
+    }
+
+    /**
+     * Starts keeping the influence of each player up to date, computing it from scratch.
+     *
+     * @param professors owner of the professor of each color, which the game keeps up to date
+     * @param players_number number of players in the game
+     */
+    protected void trackInfluence(ProfessorTable professors, int players_number) {
+        this.professors = professors;
+        this.influence = new int[players_number];
+        for(int i = 0; i < 5; i++)
+            if(professors.getOwner(i) >= 0)
+                influence[professors.getOwner(i)] += students[i];
+    }
+
+    /**
+     * Moves the influence of the students of the given color from the previous owner of their professor to the new one,
+     * called by the game right after changing the owner.
+     *
+     * @param color index of the color of the professor
+     * @param previous_owner index of the previous owner of the professor, -1 if it was unclaimed
+     */
+    protected void moveProfessor(int color, int previous_owner) {
+        if(previous_owner >= 0)
+            influence[previous_owner] -= students[color];
+        int owner = professors.getOwner(color);
+        if(owner >= 0)
+            influence[owner] += students[color];
+    }
+
+    /**
+     * Getter for the hash of this island's part of the position, kept up to date by every method altering the island.
+     *
+     * @return xor of the keys of the features of this island, see {@link Game#positionHash}
+     */
+    protected long positionHash() {
+        return position_hash;
+    }
+
+    //keeps the hash and the influence up to date while changing the number of students of a color
+    private void setStudents(int color, int count) {
+        position_hash ^= PositionKeys.count(PositionKeys.ISLAND_STUDENTS, index * 5 + color, students[color]) ^ PositionKeys.count(PositionKeys.ISLAND_STUDENTS, index * 5 + color, count);
+        if(professors != null && professors.getOwner(color) >= 0)
+            influence[professors.getOwner(color)] += count - students[color];
+        students[color] = count;
+    }
+
+    private void setNumOfMergedIslands(int num_of_merged_islands) {
+        position_hash ^= PositionKeys.count(PositionKeys.ISLAND_MERGED, index, this.num_of_merged_islands) ^ PositionKeys.count(PositionKeys.ISLAND_MERGED, index, num_of_merged_islands);
+        this.num_of_merged_islands = num_of_merged_islands;
+    }
+
+    private long ownerKey() {
+        return PositionKeys.count(PositionKeys.ISLAND_OWNER, index, owner_index == null ? 0 : owner_index + 1);
+    }
+
+    private long interdictionKey() {
+        return PositionKeys.count(PositionKeys.ISLAND_INTERDICTION, index, interdiction ? 1 : 0);
+    }
+
+    //computes from scratch the hash that the methods altering this island keep up to date
+    private long computePositionHash() {
+        long hash = ownerKey() ^ interdictionKey() ^ PositionKeys.count(PositionKeys.ISLAND_MERGED, index, num_of_merged_islands);
+        for(int i = 0; i < 5; i++)
+            hash ^= PositionKeys.count(PositionKeys.ISLAND_STUDENTS, index * 5 + i, students[i]);
+        return hash;
+    }
 }
@@ -0,0 +1,48 @@
+package Model;
+
+/**
+ * Enum for the outcome of the validation of a move, as returned by the validate methods of {@link Game}, such as {@link Game#validatePlayCard}.<br>
+ * {@link MoveResult#VALID} is the only outcome allowing the move to be performed, every other one comes with the same message
+ * the move itself would throw as an {@link Exceptions.InvalidMoveException}.
+ * <br><br>
+ * Validating a move has no side effects and allocates nothing, so an invalid move can be rejected without ever touching the game.
+ */
+public enum MoveResult {
+    VALID("Valid move."),
+    NOT_YOUR_TURN("It's not your turn."),
+    WRONG_GAME_STATE("Cannot be performed in the current game state."),
+    NOT_ACTION_PHASE("It's not the action phase."),
+    INVALID_CARD_INDEX("Invalid card index."),
+    CARD_ALREADY_PLAYED("A card with the same value has already been played."),
+    INVALID_STUDENT_INDEX("Invalid student index."),
+    INVALID_ISLAND_INDEX("Invalid island index."),
+    INVALID_MOVES("Invalid moves number."),
+    INVALID_CLOUD_INDEX("Invalid cloud index."),
+    INVALID_STUDENT_DESTINATIONS("Invalid student destinations."),
+    INVALID_NPC_INDEX("Invalid npc index."),
+    NOT_EXPERT_MODE("Expert mode is not active."),
+    NULL_EFFECT_PARAMETERS("Null effect parameters."),
+    EFFECT_ALREADY_ACTIVATED("There has already been an effect activation this turn."),
+    BAD_EFFECT_PARAMETERS("The effect could not be activated due to bad parameters."),
+    INVALID_EFFECT_STUDENTS("The effect could not be activated due to bad parameters, invalid student indexes."),
+    DUPLICATED_EFFECT_INDEX("The effect could not be activated due to bad parameters, duplicated index provided."),
+    NOT_ENOUGH_COINS("You don't have enough coins.");
+
+    public final String message; //reason of the rejection, shown to the player
+
+    /**
+     * Constructor that associates at every outcome its message.
+     *
+     * @param message message describing the outcome being constructed
+     */
+    MoveResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return true only for {@link MoveResult#VALID}
+     */
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
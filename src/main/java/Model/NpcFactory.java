@@ -7,21 +7,17 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
 
 /**
  * Factory class for the specific classes that extend {@link Npc}, those being the 12 distinct npcs in the game.
  * This exists mainly to allow the 12 specific npc classes to remain private.
  */
 public class NpcFactory {
-    private static final Random ran = new Random();
-
     /**
      * Static factory method that provides an array of 3 {@link Npc Npcs} ready for an expert instance of {@link Game}.
-     * The Npcs are chosen randomly from the pool of 12, and none is chosen more than once.
+     * The Npcs are chosen randomly from the pool of 12 with the game's generator, and none is chosen more than once.
      *
-     * @param game instance of {@link Game} which will receive the Npcs, used to provide the students for the Npcs that need them
+     * @param game instance of {@link Game} which will receive the Npcs, used to choose them and to provide the students for the Npcs that need them
      * @return an array of 3 randomly selected {@link Npc Npcs}
      */
     protected static Npc[] factoryMethod(Game game) {
@@ -30,7 +26,7 @@ public class NpcFactory {
 
         for(int i = 0; i < result.length; i++) {
             int temp;
-            do temp = ran.nextInt(1, 13);
+            do temp = game.nextRandom(12) + 1;
             while(already_extracted.contains(temp));
             already_extracted.add(temp);
             result[i] = switch (temp) {
@@ -51,6 +47,34 @@ public class NpcFactory {
         return result;
     }
 
+    /**
+     * Static factory method that rebuilds an {@link Npc} from its state, as packed by {@link PackedGame}.
+     *
+     * @param id id of the npc, from 1 to 12
+     * @param cost current activation cost of the npc
+     * @param extra_property the npc's extra properties, as returned by {@link Npc#getExtraProperty}
+     * @return the rebuilt {@link Npc}
+     */
+    protected static Npc restore(int id, int cost, List<Integer> extra_property) {
+        Npc result = switch (id) {
+            case 1 -> new Npc1(new OrderedColorBag(0));
+            case 2 -> new Npc2();
+            case 3 -> new Npc3();
+            case 4 -> new Npc4();
+            case 5 -> new Npc5();
+            case 6 -> new Npc6();
+            case 7 -> new Npc7(new OrderedColorBag(0));
+            case 8 -> new Npc8();
+            case 9 -> new Npc9();
+            case 10 -> new Npc10();
+            case 11 -> new Npc11(new OrderedColorBag(0));
+            /*case 12,*/ default -> new Npc12();
+        };
+        result.setCost(cost);
+        result.restoreExtraProperty(extra_property);
+        return result;
+    }
+
     /**
      * Returns the desired {@link Npc}, eventually consuming students from the specified list (if necessary for the specific npc).
      * @param students list of {@link Colors} representing the students eventually to be used to construct the npc
@@ -64,7 +88,7 @@ public class NpcFactory {
             case 1 -> {
                 List<Colors> temp = new ArrayList<>();
                 for (int i = 0; i < 4; i++) temp.add(students.remove(0));
-                yield new Npc1(temp);
+                yield new Npc1(new OrderedColorBag(temp));
             }
             case 2 -> new Npc2();
             case 3 -> new Npc3();
@@ -74,7 +98,7 @@ public class NpcFactory {
             case 7 -> {
                 List<Colors> temp = new ArrayList<>();
                 for (int i = 0; i < 6; i++) temp.add(students.remove(0));
-                yield new Npc7(temp);
+                yield new Npc7(new OrderedColorBag(temp));
             }
             case 8 -> new Npc8();
             case 9 -> new Npc9();
@@ -82,7 +106,7 @@ public class NpcFactory {
             case 11 -> {
                 List<Colors> temp = new ArrayList<>();
                 for (int i = 0; i < 4; i++) temp.add(students.remove(0));
-                yield new Npc11(temp);
+                yield new Npc11(new OrderedColorBag(temp));
             }
             /*case 12,*/ default -> new Npc12();
         };
@@ -100,14 +124,14 @@ class Npc1 extends Npc implements Serializable {
     protected final int args_num = 2;
     public static final int base_cost = 1;
     private int cost;
-    private List<Colors> students;
+    private OrderedColorBag students;
 
     /**
      * Constructor used by {@link NpcFactory#factoryMethod}
      *
      * @param students students that will end up available on the Npc
      */
-    public Npc1(List<Colors> students) {
+    public Npc1(OrderedColorBag students) {
         this.students = students;
         this.cost = base_cost;
     }
@@ -117,18 +141,26 @@ class Npc1 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 2 || effect_parameters.args.get(0) >= students.size() || effect_parameters.args.get(0) < 0 || effect_parameters.args.get(1) >= game.islands.size() || effect_parameters.args.get(1) < 0)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
-        game.islands.get(effect_parameters.args.get(1)).addStudent(students.remove(effect_parameters.args.get(0).intValue()));
-        students.addAll(game.extractStudents(1));
+        OrderedColorBag previous_students = students.copy();
+        game.journal.record(() -> students = previous_students);
+        game.addStudentToIsland(game.islands.get(effect_parameters.args.get(1)), students.remove(effect_parameters.args.get(0).intValue()));
+        game.extractStudents(1, students);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -146,18 +178,44 @@ class Npc1 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
     public List<Integer> getExtraProperty() {
-        return students.stream().map(x -> x.index).collect(Collectors.toList());
+        List<Integer> result = new ArrayList<Integer>(students.size());
+        for(int i = 0; i < students.size(); i++)
+            result.add(students.get(i).index);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        students = new OrderedColorBag(extra_property.size());
+        for(int i = 0; i < extra_property.size(); i++)
+            students.add(Colors.fromColorIndex(extra_property.get(i)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected long positionHash() {
+        return super.positionHash() ^ PositionKeys.students(PositionKeys.NPC_STUDENTS, uid, students);
     }
 
     /**
      * {@inheritDoc}
      */
     public void setExtraProperty(List<Colors> prop) {
-        this.students = new ArrayList<Colors>(prop);
+        this.students = new OrderedColorBag(prop);
     }
 
     /**
@@ -167,6 +225,13 @@ class Npc1 extends Npc implements Serializable {
         return args_num;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected int islandArgument() {
+        return 1;
+    }
+
     /**
      * Returns the Npc's effect description.
      */
@@ -203,11 +268,11 @@ class Npc2 extends Npc implements Serializable {
      * {@inheritDoc}
      */
     public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+        game.payEffect(this.cost);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -225,6 +290,13 @@ class Npc2 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -268,17 +340,23 @@ class Npc3 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 1 || effect_parameters.args.get(0) >= game.islands.size() || effect_parameters.args.get(0) < 0)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
         game.disputeIsland(effect_parameters.args.get(0));
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -296,6 +374,13 @@ class Npc3 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -303,6 +388,13 @@ class Npc3 extends Npc implements Serializable {
         return args_num;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected int islandArgument() {
+        return 0;
+    }
+
     /**
      * Returns the Npc's effect description.
      */
@@ -339,11 +431,11 @@ class Npc4 extends Npc implements Serializable {
      * {@inheritDoc}
      */
     public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+        game.payEffect(this.cost);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -361,6 +453,13 @@ class Npc4 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -405,18 +504,25 @@ class Npc5 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 1 || effect_parameters.args.get(0) >= game.islands.size() || effect_parameters.args.get(0) < 0)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
-        game.islands.get(effect_parameters.args.get(0)).setInterdiction(true);
+        game.setInterdiction(game.islands.get(effect_parameters.args.get(0)), true);
         interdictions_count--;
+        game.journal.record(() -> interdictions_count++);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -434,6 +540,13 @@ class Npc5 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -441,6 +554,13 @@ class Npc5 extends Npc implements Serializable {
         interdictions_count++;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void undoExtraEffect() {
+        interdictions_count--;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -448,6 +568,20 @@ class Npc5 extends Npc implements Serializable {
         return new ArrayList<>(List.of(interdictions_count));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        interdictions_count = extra_property.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected long positionHash() {
+        return super.positionHash() ^ PositionKeys.count(PositionKeys.NPC_PROPERTY, uid, interdictions_count);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -455,6 +589,13 @@ class Npc5 extends Npc implements Serializable {
         return args_num;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected int islandArgument() {
+        return 0;
+    }
+
     /**
      * Returns the Npc's effect description.
      */
@@ -491,11 +632,11 @@ class Npc6 extends Npc implements Serializable {
      * {@inheritDoc}
      */
     public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+        game.payEffect(this.cost);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -513,6 +654,13 @@ class Npc6 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -542,14 +690,14 @@ class Npc7 extends Npc implements Serializable {
     protected final int args_num = 3;
     public static final int base_cost = 1;
     private int cost;
-    private List<Colors> students;
+    private OrderedColorBag students;
 
     /**
      * Constructor used by {@link NpcFactory#factoryMethod}
      *
      * @param students students that will end up available on the Npc
      */
-    public Npc7(List<Colors> students) {
+    public Npc7(OrderedColorBag students) {
         this.cost = base_cost;
         this.students = students;
     }
@@ -560,24 +708,32 @@ class Npc7 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 3 || effect_parameters.args.get(0) < 1 || effect_parameters.args.get(0) > 3 || effect_parameters.args.size() < effect_parameters.args.get(0)*2 + 1)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
         for(int i = 0; i < effect_parameters.args.get(0); i++) {
             if(effect_parameters.args.get(i + 1) < 0 || effect_parameters.args.get(i + 1) >= students.size() ||
                     effect_parameters.args.get(i + 1 + effect_parameters.args.get(0)) < 0 ||
-                    effect_parameters.args.get(i + 1 + effect_parameters.args.get(0)) >= game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getEntrance().size())
-                throw new InvalidMoveException("The effect could not be activated due to bad parameters, invalid student indexes.");
+                    effect_parameters.args.get(i + 1 + effect_parameters.args.get(0)) >= game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getEntranceSize())
+                return MoveResult.INVALID_EFFECT_STUDENTS;
             for(int j = 0; j < i; j++) {
                 if(effect_parameters.args.get(i + 1) == effect_parameters.args.get(j + 1) || effect_parameters.args.get(i + 1 + effect_parameters.args.get(0)) == effect_parameters.args.get(j + 1 + effect_parameters.args.get(0)))
-                    throw new InvalidMoveException("The effect could not be activated due to bad parameters, duplicated index provided.");
+                    return MoveResult.DUPLICATED_EFFECT_INDEX;
             }
         }
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
-        List<Colors> swapped_students = new ArrayList<Colors>();
+        OrderedColorBag previous_students = students.copy();
+        game.journal.record(() -> students = previous_students);
+        Player player = game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer()));
+        OrderedColorBag swapped_students = new OrderedColorBag(3);
 
         List<Integer> students_from_card = new ArrayList<Integer>(effect_parameters.args.subList(1, effect_parameters.args.get(0) + 1));
         List<Integer> students_from_entrance = new ArrayList<Integer>(effect_parameters.args.subList(effect_parameters.args.get(0) + 1, effect_parameters.args.get(0)*2 + 1));
@@ -586,17 +742,16 @@ class Npc7 extends Npc implements Serializable {
             students_from_entrance.sort(Collections.reverseOrder());
         }
         for(int i = 0; i < effect_parameters.args.get(0); i++) {
-            swapped_students.add(
-                    game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().removeFromEntrance(students_from_entrance.get(i))
-            );
-            game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().addToEntrance(students.get(students_from_card.get(i)));
+            swapped_students.add(game.removeFromEntrance(player, students_from_entrance.get(i)));
+            game.addToEntrance(player, students.get(students_from_card.get(i)));
             students.remove(students_from_card.get(i).intValue());
         }
 
         students.addAll(swapped_students);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -614,18 +769,44 @@ class Npc7 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
     public List<Integer> getExtraProperty() {
-        return students.stream().map(x -> x.index).collect(Collectors.toList());
+        List<Integer> result = new ArrayList<Integer>(students.size());
+        for(int i = 0; i < students.size(); i++)
+            result.add(students.get(i).index);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        students = new OrderedColorBag(extra_property.size());
+        for(int i = 0; i < extra_property.size(); i++)
+            students.add(Colors.fromColorIndex(extra_property.get(i)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected long positionHash() {
+        return super.positionHash() ^ PositionKeys.students(PositionKeys.NPC_STUDENTS, uid, students);
     }
 
     /**
      * {@inheritDoc}
      */
     public void setExtraProperty(List<Colors> prop) {
-        students = new ArrayList<Colors>(prop);
+        students = new OrderedColorBag(prop);
     }
 
     /**
@@ -672,11 +853,11 @@ class Npc8 extends Npc implements Serializable {
      * {@inheritDoc}
      */
     public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+        game.payEffect(this.cost);
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -694,6 +875,13 @@ class Npc8 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -738,17 +926,25 @@ class Npc9 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 1 || effect_parameters.args.get(0) < 0 || effect_parameters.args.get(0) > 4)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
+        Colors previous_blocked_color = blocked_color;
+        game.journal.record(() -> blocked_color = previous_blocked_color);
         this.blocked_color = Colors.fromColorIndex(effect_parameters.args.get(0));
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -766,6 +962,13 @@ class Npc9 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -773,6 +976,27 @@ class Npc9 extends Npc implements Serializable {
         return new ArrayList<>(blocked_color != null ? List.of(blocked_color.index) : List.of());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        blocked_color = extra_property.isEmpty() ? null : Colors.fromColorIndex(extra_property.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected ColorSet influenceColors() {
+        return blocked_color == null ? ColorSet.ALL : ColorSet.ALL.without(blocked_color);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected long positionHash() {
+        return super.positionHash() ^ PositionKeys.count(PositionKeys.NPC_PROPERTY, uid, blocked_color == null ? 0 : blocked_color.index + 1);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -816,25 +1040,30 @@ class Npc10 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 2 || effect_parameters.args.get(0) < 0 ||
-                effect_parameters.args.get(0) >= game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getEntrance().size() ||
-                effect_parameters.args.get(1) < 0 || effect_parameters.args.get(1) > 4 || game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getHallRow(effect_parameters.args.get(1)) == 0)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+                effect_parameters.args.get(0) >= game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getEntranceSize() ||
+                effect_parameters.args.get(1) < 0 || effect_parameters.args.get(1) > 4 || game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().getHallRow(effect_parameters.args.get(1)) == 0)
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().addStudentToHall(
-                game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().removeFromEntrance(effect_parameters.args.get(0))
-        );
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().addToEntrance(Colors.fromColorIndex(effect_parameters.args.get(1)));
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().removeStudentFromHall(Colors.fromColorIndex(effect_parameters.args.get(1)));
+        Player player = game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer()));
+        game.addStudentToHall(player, game.removeFromEntrance(player, effect_parameters.args.get(0)));
+        game.addToEntrance(player, Colors.fromColorIndex(effect_parameters.args.get(1)));
+        game.removeStudentFromHall(player, Colors.fromColorIndex(effect_parameters.args.get(1)));
 
         game.updateProfessors();
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -852,6 +1081,13 @@ class Npc10 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -882,12 +1118,12 @@ class Npc11 extends Npc implements Serializable {
     protected final int args_num = 1;
     public static final int base_cost = 2;
     private int cost;
-    private List<Colors> students;
+    private OrderedColorBag students;
 
     /**
      * Constructor used by {@link NpcFactory#factoryMethod}
      */
-    public Npc11(List<Colors> students) {
+    public Npc11(OrderedColorBag students) {
         this.cost = base_cost;
         this.students = students;
     }
@@ -897,21 +1133,29 @@ class Npc11 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 1 || effect_parameters.args.get(0) >= students.size() || effect_parameters.args.get(0) < 0)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
+        OrderedColorBag previous_students = students.copy();
+        game.journal.record(() -> students = previous_students);
         int index = effect_parameters.args.get(0);
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).getDashboard().addStudentToHall(students.remove(index));
-        students.addAll(game.extractStudents(1));
+        game.addStudentToHall(game.getPlayer(game.playerIndexFromID(game.currentlyPlayingPlayer())), students.remove(index));
+        game.extractStudents(1, students);
 
         game.updateProfessors();
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -929,18 +1173,44 @@ class Npc11 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
     public List<Integer> getExtraProperty() {
-        return students.stream().map(x -> x.index).collect(Collectors.toList());
+        List<Integer> result = new ArrayList<Integer>(students.size());
+        for(int i = 0; i < students.size(); i++)
+            result.add(students.get(i).index);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void restoreExtraProperty(List<Integer> extra_property) {
+        students = new OrderedColorBag(extra_property.size());
+        for(int i = 0; i < extra_property.size(); i++)
+            students.add(Colors.fromColorIndex(extra_property.get(i)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected long positionHash() {
+        return super.positionHash() ^ PositionKeys.students(PositionKeys.NPC_STUDENTS, uid, students);
     }
 
     /**
      * {@inheritDoc}
      */
     public void setExtraProperty(List<Colors> prop) {
-        students = new ArrayList<Colors>(prop);
+        students = new OrderedColorBag(prop);
     }
 
     /**
@@ -985,28 +1255,36 @@ class Npc12 extends Npc implements Serializable {
     /**
      * {@inheritDoc}
      */
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(effect_parameters.args.size() < 1 || effect_parameters.args.get(0) < 0 || effect_parameters.args.get(0) > 4)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    /**
+     * {@inheritDoc}
+     */
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
         //Important: this is intended NOT to undo an eventual true last_game_turn, since it would
         //be impossible to determine where to put each refurbished student!
 
+        //the students are drawn from the pouch at random, so putting them back needs no shuffling
+        ColorBag previous_pouch = game.pouch.copy();
+        game.journal.record(() -> game.pouch = previous_pouch);
         for(Player player : game.getPlayers()) {
             for(int i = 0; i < 3; i++) {
-                if(player.getDashboard().removeStudentFromHall(Colors.fromColorIndex(effect_parameters.args.get(0))))
-                    game.random_students.add(Colors.fromColorIndex(effect_parameters.args.get(0)));
+                if(game.removeStudentFromHall(player, Colors.fromColorIndex(effect_parameters.args.get(0))))
+                    game.pouch.add(Colors.fromColorIndex(effect_parameters.args.get(0)));
             }
-            Collections.shuffle(game.random_students);
         }
 
         game.updateProfessors();
 
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     /**
@@ -1024,6 +1302,13 @@ class Npc12 extends Npc implements Serializable {
         return cost;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1054,19 +1339,22 @@ class NpcTemplate extends Npc implements Serializable {
     }
 
     //Effect description
-    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+    protected MoveResult validateEffect(Game game, EffectParameters effect_parameters) {
         if(//check parameters//)
-            throw new InvalidMoveException("The effect could not be activated due to bad parameters.");
+            return MoveResult.BAD_EFFECT_PARAMETERS;
         //additional checks
+        return MoveResult.VALID;
+    }
 
-        game.getPlayers().get(game.playerIndexFromID(game.currentlyPlayingPlayer())).pay(this.cost);
-        game.bank += this.cost - 1;
+    public void activateEffect(Game game, EffectParameters effect_parameters) throws InvalidMoveException {
+        game.payEffect(this.cost);
 
         //logic
 
         //set npc_effect even if the effect resolves instantly, to prevent further activations
-        game.npc_effect = uid;
+        game.setNpcEffect(uid);
         cost++;
+        game.journal.record(() -> cost--);
     }
 
     public int getId() {
@@ -1077,6 +1365,10 @@ class NpcTemplate extends Npc implements Serializable {
         return cost;
     }
 
+    protected void setCost(int cost) {
+        this.cost = cost;
+    }
+
     public void extraEffect() {
         return;
     }
@@ -0,0 +1,563 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <strong>Complete state of a {@link Game} packed in a single byte array</strong> of fixed size and layout, see {@link PackedGame#SIZE}.<br>
+ * Every value sits at an offset known in advance, whatever the number of players, so the state can be copied with a single array copy,
+ * compared and hashed as a whole, or read field by field without rebuilding the game.
+ * <br><br>
+ * The layout holds, one byte per value unless stated otherwise:
+ * <ul>
+ * <li> the number of players, the flags (expert mode, last game turn, game ended), the turn counters, mother nature, the npc effect, the bank,
+ *      the phase order and the unclaimed professors, followed by the winner's id (4 bytes) and the seed of the game (8 bytes);
+ * <li> the state of the generator drawing the students from the pouch (8 bytes) and the students still in it (up to 120), sorted by color
+ *      unless the pouch deals them in a set order, see {@link OrderedColorBag#draw};
+ * <li> the islands, each with its index, owner (0 for none, otherwise the owner's index + 1), merged islands, interdiction and students per color (up to 12);
+ * <li> the clouds, each with its students (up to 4);
+ * <li> the players, each with its id (4 bytes), coins, rooks, professors as a bitmask of their color indexes, hall rows, hand as a bitmask
+ *      of the order values of its cards (2 bytes), last played card's order value (0 for none) and entrance students (up to 9);
+ * <li> the npcs, each with its id, cost and extra properties (up to 6), as returned by {@link Npc#getExtraProperty}.
+ * </ul>
+ * Groups whose order matters to the moves, such as the entrance, keep one byte per student, in order. The hand is rebuilt ordered by
+ * value, as every game dealt by {@link Game#Game(boolean, List)} keeps it, and only the {@link Card cards} of the standard deck can be packed.
+ * <br><br>
+ * The {@link Game#getVersion version} and the undo journal of the game are not part of its state, a game rebuilt via {@link PackedGame#toGame} starts without both.
+ */
+public class PackedGame {
+    public final static int MAX_PLAYERS = 3;
+
+    //header
+    private final static int NUM_OF_PLAYERS = 0, FLAGS = 1, GAME_TURN = 2, PHASE = 3, PLAYER_TURN = 4, STEP = 5, MOVED_STUDENTS = 6, MOTHER_NATURE = 7,
+            NPC_EFFECT = 8, BANK = 9, PHASE_ORDER = 10, UNCLAIMED_PROFESSORS = PHASE_ORDER + MAX_PLAYERS, WINNER = UNCLAIMED_PROFESSORS + 6;
+    private final static int EXPERT_MODE = 1, LAST_GAME_TURN = 2, GAME_ENDED = 4, ORDERED_POUCH = 8;
+    //[seed x8] then [random state x8][size][students...]
+    private final static int SEED = WINNER + 4, RANDOM_STATE = SEED + 8, POUCH = RANDOM_STATE + 8, POUCH_CAPACITY = 120;
+    //[size] then for each island [index][owner + 1][merged islands][interdiction][students per color...]
+    private final static int ISLANDS = POUCH + 1 + POUCH_CAPACITY, ISLANDS_CAPACITY = 12, ISLAND_SIZE = 9;
+    private final static int ISLAND_INDEX = 0, ISLAND_OWNER = 1, ISLAND_MERGED = 2, ISLAND_INTERDICTION = 3, ISLAND_STUDENTS = 4;
+    //for each cloud [size][students...]
+    private final static int CLOUDS = ISLANDS + 1 + ISLANDS_CAPACITY * ISLAND_SIZE, CLOUD_CAPACITY = 4, CLOUD_SIZE = 1 + CLOUD_CAPACITY;
+    //for each player [clientID x4][coins][rooks][professors][hall per color...][hand x2][last card played][entrance size][entrance...]
+    private final static int PLAYERS = CLOUDS + MAX_PLAYERS * CLOUD_SIZE, ENTRANCE_CAPACITY = 9, PLAYER_SIZE = 16 + ENTRANCE_CAPACITY;
+    private final static int PLAYER_ID = 0, PLAYER_COINS = 4, PLAYER_ROOKS = 5, PLAYER_PROFESSORS = 6, PLAYER_HALL = 7, PLAYER_HAND = 12,
+            PLAYER_LAST_CARD = 14, PLAYER_ENTRANCE = 15;
+    //for each npc [id][cost][extra properties size][extra properties...]
+    private final static int NPCS = PLAYERS + MAX_PLAYERS * PLAYER_SIZE, NPC_PROPERTY_CAPACITY = 6, NPC_SIZE = 3 + NPC_PROPERTY_CAPACITY;
+
+    /**
+     * Number of bytes of every packed game.
+     */
+    public final static int SIZE = NPCS + 3 * NPC_SIZE;
+
+    private final byte[] state;
+
+    /**
+     * Wraps an already packed game, such as the one provided by {@link PackedGame#getBytes}, without copying it.
+     *
+     * @param state the packed state of a game
+     * @throws IllegalArgumentException if the state is not {@link PackedGame#SIZE} bytes long or has an invalid number of players
+     */
+    public PackedGame(byte[] state) {
+        if (state.length != SIZE || state[NUM_OF_PLAYERS] < 2 || state[NUM_OF_PLAYERS] > MAX_PLAYERS)
+            throw new IllegalArgumentException("Not a packed game.");
+        this.state = state;
+    }
+
+    /**
+     * Packs the complete state of the given game.
+     *
+     * @param game {@link Game} to pack
+     * @return the packed state of the game
+     * @throws IllegalArgumentException if the game holds something the layout has no room for, which no game dealt by {@link Game#Game(boolean, List)} does
+     */
+    public static PackedGame of(Game game) {
+        List<Player> players = game.getPlayers();
+        byte[] state = new byte[SIZE];
+        state[NUM_OF_PLAYERS] = (byte) players.size();
+        state[FLAGS] = (byte) ((game.expert_mode ? EXPERT_MODE : 0) | (game.isLastGameTurn() ? LAST_GAME_TURN : 0) | (game.isGameEnded() ? GAME_ENDED : 0)
+                | (game.pouch instanceof OrderedColorBag ? ORDERED_POUCH : 0));
+        state[GAME_TURN] = (byte) game.getGameTurn();
+        state[PHASE] = (byte) game.getPhase();
+        state[PLAYER_TURN] = (byte) game.getPlayerTurn();
+        state[STEP] = (byte) game.getStep();
+        state[MOVED_STUDENTS] = (byte) game.getMovedStudents();
+        state[MOTHER_NATURE] = (byte) game.getMotherNature();
+        state[NPC_EFFECT] = (byte) game.npc_effect;
+        state[BANK] = (byte) game.bank;
+        List<Integer> phase_order = game.currentPlayersTurnOrder();
+        for (int i = 0; i < phase_order.size(); i++)
+            state[PHASE_ORDER + i] = (byte) game.playerIndexFromID(phase_order.get(i));
+        packStudents(state, UNCLAIMED_PROFESSORS, game.getUnclaimedProfessors(), 5);
+        packInt(state, WINNER, game.getWinnerID());
+        packLong(state, SEED, game.getSeed());
+        packLong(state, RANDOM_STATE, game.getRandomState());
+        packStudents(state, POUCH, game.pouch, POUCH_CAPACITY);
+
+        List<Island> islands = game.islands;
+        if (islands.size() > ISLANDS_CAPACITY)
+            throw new IllegalArgumentException("Too many islands to pack.");
+        state[ISLANDS] = (byte) islands.size();
+        for (int i = 0; i < islands.size(); i++) {
+            Island island = islands.get(i);
+            int offset = ISLANDS + 1 + i * ISLAND_SIZE;
+            state[offset + ISLAND_INDEX] = (byte) island.index;
+            state[offset + ISLAND_OWNER] = (byte) (island.getOwnerIndex() == null ? 0 : island.getOwnerIndex() + 1);
+            state[offset + ISLAND_MERGED] = (byte) island.getNumOfMergedIslands();
+            state[offset + ISLAND_INTERDICTION] = (byte) (island.getInterdiction() ? 1 : 0);
+            for (int color = 0; color < 5; color++)
+                state[offset + ISLAND_STUDENTS + color] = (byte) island.getStudents(color);
+        }
+
+        List<Colors>[] clouds = game.getClouds();
+        for (int i = 0; i < players.size(); i++)
+            packStudents(state, CLOUDS + i * CLOUD_SIZE, clouds[i], CLOUD_CAPACITY);
+
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            Dashboard dashboard = player.getDashboard();
+            int offset = PLAYERS + i * PLAYER_SIZE;
+            packInt(state, offset + PLAYER_ID, player.clientID);
+            state[offset + PLAYER_COINS] = (byte) player.getCoins();
+            state[offset + PLAYER_ROOKS] = (byte) dashboard.getRooks();
+            for (int color = 0; color < 5; color++)
+                state[offset + PLAYER_HALL + color] = (byte) dashboard.getHallRow(color);
+            state[offset + PLAYER_PROFESSORS] = (byte) dashboard.getProfessors().getMask();
+            int hand = 0;
+            for (int j = 0; j < player.getCardsSize(); j++)
+                hand |= 1 << (standardCard(player.getCard(j)) - 1);
+            state[offset + PLAYER_HAND] = (byte) (hand >> 8);
+            state[offset + PLAYER_HAND + 1] = (byte) hand;
+            state[offset + PLAYER_LAST_CARD] = (byte) (player.getLastCardPlayed() == null ? 0 : standardCard(player.getLastCardPlayed()));
+            packStudents(state, offset + PLAYER_ENTRANCE, dashboard.getEntrance(), ENTRANCE_CAPACITY);
+        }
+
+        if (game.expert_mode) {
+            Npc[] npcs = game.getNpcs();
+            for (int i = 0; i < npcs.length; i++) {
+                int offset = NPCS + i * NPC_SIZE;
+                state[offset] = (byte) npcs[i].getId();
+                state[offset + 1] = (byte) npcs[i].getCost();
+                List<Integer> extra_property = npcs[i].getExtraProperty();
+                if (extra_property == null)
+                    continue;
+                if (extra_property.size() > NPC_PROPERTY_CAPACITY)
+                    throw new IllegalArgumentException("Too many npc properties to pack.");
+                state[offset + 2] = (byte) extra_property.size();
+                for (int j = 0; j < extra_property.size(); j++)
+                    state[offset + 3 + j] = extra_property.get(j).byteValue();
+            }
+        }
+        return new PackedGame(state);
+    }
+
+    /**
+     * Rebuilds a new, independent instance of the game this state was packed from.
+     *
+     * @return the unpacked {@link Game}
+     */
+    public Game toGame() {
+        return new Game(this);
+    }
+
+    /**
+     * Provides a copy of this packed game, which can be changed independently of it.
+     *
+     * @return the copy of this packed game
+     */
+    public PackedGame copy() {
+        return new PackedGame(state.clone());
+    }
+
+    /**
+     * Copies this packed game over the given one, without allocating anything.
+     *
+     * @param target packed game to overwrite
+     */
+    public void copyInto(PackedGame target) {
+        System.arraycopy(state, 0, target.state, 0, SIZE);
+    }
+
+    /**
+     * Provides the bytes of this packed game, which must not be modified.
+     *
+     * @return the packed state, {@link PackedGame#SIZE} bytes long
+     */
+    public byte[] getBytes() {
+        return state;
+    }
+
+    /**
+     * @return number of players in the game
+     */
+    public int getNumOfPlayers() {
+        return state[NUM_OF_PLAYERS];
+    }
+
+    /**
+     * See: {@link Game#expert_mode}
+     */
+    public boolean isExpertMode() {
+        return (state[FLAGS] & EXPERT_MODE) != 0;
+    }
+
+    /**
+     * See: {@link Game#getGameTurn()}
+     */
+    public int getGameTurn() {
+        return state[GAME_TURN];
+    }
+
+    /**
+     * See: {@link Game#getPhase()}
+     */
+    public int getPhase() {
+        return state[PHASE];
+    }
+
+    /**
+     * See: {@link Game#getPlayerTurn()}
+     */
+    public int getPlayerTurn() {
+        return state[PLAYER_TURN];
+    }
+
+    /**
+     * See: {@link Game#getStep()}
+     */
+    public int getStep() {
+        return state[STEP];
+    }
+
+    /**
+     * See: {@link Game#getMovedStudents()}
+     */
+    public int getMovedStudents() {
+        return state[MOVED_STUDENTS];
+    }
+
+    /**
+     * See: {@link Game#getMotherNature()}
+     */
+    public int getMotherNature() {
+        return state[MOTHER_NATURE];
+    }
+
+    /**
+     * See: {@link Game#getNpcEffect()}
+     */
+    public int getNpcEffect() {
+        return state[NPC_EFFECT];
+    }
+
+    /**
+     * See: {@link Game#getBank()}
+     */
+    public int getBank() {
+        return state[BANK];
+    }
+
+    /**
+     * See: {@link Game#isLastGameTurn()}
+     */
+    public boolean isLastGameTurn() {
+        return (state[FLAGS] & LAST_GAME_TURN) != 0;
+    }
+
+    /**
+     * See: {@link Game#isGameEnded()}
+     */
+    public boolean isGameEnded() {
+        return (state[FLAGS] & GAME_ENDED) != 0;
+    }
+
+    /**
+     * See: {@link Game#getWinnerID()}
+     */
+    public int getWinnerID() {
+        return unpackInt(WINNER);
+    }
+
+    /**
+     * See: {@link Game#getSeed()}
+     */
+    public long getSeed() {
+        return unpackLong(SEED);
+    }
+
+    /**
+     * See: {@link Game#getRemainingStudentsNum()}
+     */
+    public int getRemainingStudentsNum() {
+        return state[POUCH] & 0xFF;
+    }
+
+    /**
+     * @return number of islands left in the game, see {@link Game#getIslands()}
+     */
+    public int getIslandsNum() {
+        return state[ISLANDS];
+    }
+
+    /**
+     * Getter for the number of students of a color on an island.
+     *
+     * @param island index of the island, relative to {@link Game#getIslands}
+     * @param color  index of the {@link Colors color} of the students
+     * @return the number of students of the color on the island
+     */
+    public int getIslandStudents(int island, int color) {
+        return state[ISLANDS + 1 + island * ISLAND_SIZE + ISLAND_STUDENTS + color];
+    }
+
+    /**
+     * Getter for the owner of an island.
+     *
+     * @param island index of the island, relative to {@link Game#getIslands}
+     * @return the index of the player owning the island, -1 if there isn't one
+     */
+    public int getIslandOwner(int island) {
+        return state[ISLANDS + 1 + island * ISLAND_SIZE + ISLAND_OWNER] - 1;
+    }
+
+    /**
+     * Getter for the number of islands merged into an island.
+     *
+     * @param island index of the island, relative to {@link Game#getIslands}
+     * @return number of islands the island counts as
+     */
+    public int getNumOfMergedIslands(int island) {
+        return state[ISLANDS + 1 + island * ISLAND_SIZE + ISLAND_MERGED];
+    }
+
+    /**
+     * Getter for the number of students on a cloud.
+     *
+     * @param cloud index of the cloud, relative to {@link Game#getClouds}
+     * @return number of students on the cloud
+     */
+    public int getCloudSize(int cloud) {
+        return state[CLOUDS + cloud * CLOUD_SIZE];
+    }
+
+    /**
+     * Getter for the id of a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return the player's clientID
+     */
+    public int getClientID(int player) {
+        return unpackInt(PLAYERS + player * PLAYER_SIZE + PLAYER_ID);
+    }
+
+    /**
+     * Getter for the number of students in a hall row of a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @param color  index of the {@link Colors color} of the row
+     * @return number of students in the row
+     */
+    public int getHallRow(int player, int color) {
+        return state[PLAYERS + player * PLAYER_SIZE + PLAYER_HALL + color];
+    }
+
+    /**
+     * Getter for the professors owned by a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return bitmask of the color indexes of the professors owned by the player
+     */
+    public int getProfessors(int player) {
+        return state[PLAYERS + player * PLAYER_SIZE + PLAYER_PROFESSORS];
+    }
+
+    /**
+     * Getter for the rooks left to a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return number of rooks left on the player's dashboard
+     */
+    public int getRooks(int player) {
+        return state[PLAYERS + player * PLAYER_SIZE + PLAYER_ROOKS];
+    }
+
+    /**
+     * Getter for the coins of a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return number of coins the player has
+     */
+    public int getCoins(int player) {
+        return state[PLAYERS + player * PLAYER_SIZE + PLAYER_COINS];
+    }
+
+    /**
+     * Getter for the cards in the hand of a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return bitmask of the cards held by the player, where bit <code>i</code> stands for the card with order value <code>i + 1</code>
+     */
+    public int getHand(int player) {
+        int offset = PLAYERS + player * PLAYER_SIZE + PLAYER_HAND;
+        return (state[offset] & 0xFF) << 8 | (state[offset + 1] & 0xFF);
+    }
+
+    /**
+     * Getter for the number of students in the entrance of a player.
+     *
+     * @param player index of the player, relative to {@link Game#getPlayers}
+     * @return number of students in the player's entrance
+     */
+    public int getEntranceSize(int player) {
+        return state[PLAYERS + player * PLAYER_SIZE + PLAYER_ENTRANCE];
+    }
+
+    /**
+     * Compares the whole packed state of two games.
+     *
+     * @param obj object to compare
+     * @return true if obj is a {@link PackedGame} holding the very same state
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PackedGame && Arrays.equals(state, ((PackedGame) obj).state);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(state);
+    }
+
+    //unpacking, used by the Game constructor rebuilding the game
+
+    List<Integer> unpackPhaseOrder() {
+        List<Integer> result = new ArrayList<Integer>(getNumOfPlayers());
+        for (int i = 0; i < getNumOfPlayers(); i++)
+            result.add((int) state[PHASE_ORDER + i]);
+        return result;
+    }
+
+    ColorBag unpackPouch() {
+        OrderedColorBag pouch = new OrderedColorBag(unpackStudents(POUCH));
+        return (state[FLAGS] & ORDERED_POUCH) != 0 ? pouch : new ColorBag(pouch.toList());
+    }
+
+    long getRandomState() {
+        return unpackLong(RANDOM_STATE);
+    }
+
+    List<Island> unpackIslands() {
+        List<Island> result = new ArrayList<Island>(getIslandsNum());
+        for (int i = 0; i < getIslandsNum(); i++) {
+            int offset = ISLANDS + 1 + i * ISLAND_SIZE;
+            int[] students = new int[5];
+            for (int color = 0; color < 5; color++)
+                students[color] = state[offset + ISLAND_STUDENTS + color];
+            int owner = state[offset + ISLAND_OWNER];
+            result.add(new Island(students, owner == 0 ? null : owner - 1, state[offset + ISLAND_MERGED], state[offset + ISLAND_INTERDICTION] != 0,
+                    state[offset + ISLAND_INDEX]));
+        }
+        return result;
+    }
+
+    OrderedColorBag[] unpackClouds() {
+        OrderedColorBag[] result = new OrderedColorBag[getNumOfPlayers()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = new OrderedColorBag(unpackStudents(CLOUDS + i * CLOUD_SIZE));
+        return result;
+    }
+
+    List<Player> unpackPlayers() {
+        List<Player> result = new ArrayList<Player>(getNumOfPlayers());
+        for (int i = 0; i < getNumOfPlayers(); i++) {
+            int offset = PLAYERS + i * PLAYER_SIZE;
+            int[] hall = new int[5];
+            boolean[] professors = new boolean[5];
+            for (int color = 0; color < 5; color++) {
+                hall[color] = state[offset + PLAYER_HALL + color];
+                professors[color] = (state[offset + PLAYER_PROFESSORS] & 1 << color) != 0;
+            }
+            Dashboard dashboard = new Dashboard(unpackStudents(offset + PLAYER_ENTRANCE), state[offset + PLAYER_ROOKS], hall, professors);
+
+            int hand = getHand(i);
+            List<Card> cards = new ArrayList<Card>(Integer.bitCount(hand));
+            for (int value = 1; value <= 10; value++)
+                if ((hand & 1 << (value - 1)) != 0)
+                    cards.add(standardCard(value));
+            int last_card_played = state[offset + PLAYER_LAST_CARD];
+            result.add(new Player(getClientID(i), i, dashboard, cards, last_card_played == 0 ? null : standardCard(last_card_played), state[offset + PLAYER_COINS]));
+        }
+        return result;
+    }
+
+    Npc[] unpackNpcs() {
+        Npc[] result = new Npc[3];
+        for (int i = 0; i < result.length; i++) {
+            int offset = NPCS + i * NPC_SIZE;
+            List<Integer> extra_property = new ArrayList<Integer>(state[offset + 2]);
+            for (int j = 0; j < state[offset + 2]; j++)
+                extra_property.add((int) state[offset + 3 + j]);
+            result[i] = NpcFactory.restore(state[offset], state[offset + 1], extra_property);
+        }
+        return result;
+    }
+
+    //helpers
+
+    private static void packStudents(byte[] state, int offset, List<Colors> students, int capacity) {
+        if (students.size() > capacity)
+            throw new IllegalArgumentException("Too many students to pack.");
+        state[offset] = (byte) students.size();
+        for (int i = 0; i < students.size(); i++)
+            state[offset + 1 + i] = (byte) students.get(i).index;
+    }
+
+    private static void packStudents(byte[] state, int offset, ColorBag students, int capacity) {
+        if (students.size() > capacity)
+            throw new IllegalArgumentException("Too many students to pack.");
+        state[offset] = (byte) students.size();
+        for (int i = 0; i < students.size(); i++)
+            state[offset + 1 + i] = (byte) students.get(i).index;
+    }
+
+    private List<Colors> unpackStudents(int offset) {
+        int size = state[offset] & 0xFF;
+        List<Colors> result = new ArrayList<Colors>(size);
+        for (int i = 0; i < size; i++)
+            result.add(Colors.fromColorIndex(state[offset + 1 + i]));
+        return result;
+    }
+
+    private static void packInt(byte[] state, int offset, int value) {
+        state[offset] = (byte) (value >> 24);
+        state[offset + 1] = (byte) (value >> 16);
+        state[offset + 2] = (byte) (value >> 8);
+        state[offset + 3] = (byte) value;
+    }
+
+    private static void packLong(byte[] state, int offset, long value) {
+        packInt(state, offset, (int) (value >> 32));
+        packInt(state, offset + 4, (int) value);
+    }
+
+    private int unpackInt(int offset) {
+        return (state[offset] & 0xFF) << 24 | (state[offset + 1] & 0xFF) << 16 | (state[offset + 2] & 0xFF) << 8 | (state[offset + 3] & 0xFF);
+    }
+
+    private long unpackLong(int offset) {
+        return (long) unpackInt(offset) << 32 | unpackInt(offset + 4) & 0xFFFFFFFFL;
+    }
+
+    //the order value of a card of the standard deck, whose movements value is half of it, rounded up
+    private static int standardCard(Card card) {
+        if (card.order_value < 1 || card.order_value > 10 || card.movements_value != (card.order_value + 1) / 2)
+            throw new IllegalArgumentException("Only the cards of the standard deck can be packed.");
+        return card.order_value;
+    }
+
+    private static Card standardCard(int order_value) {
+        return new Card(order_value, (order_value + 1) / 2);
+    }
+}
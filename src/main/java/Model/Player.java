@@ -26,6 +26,7 @@ public class Player implements Serializable {
     private List<Card> cards;
     private Card last_card_played;
     private int coins;
+    private long position_hash; //xor of the keys of the features of this player, dashboard excluded, see PositionKeys
 
     /**
      * Constructor for a player as it should be at the beginning of a game.
@@ -54,6 +55,7 @@ public class Player implements Serializable {
         ));
         this.last_card_played = null;
         this.coins = coins;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -74,6 +76,27 @@ public class Player implements Serializable {
         this.cards = cards;
         this.last_card_played = null;
         this.coins = coins;
+        this.position_hash = computePositionHash();
+    }
+
+    /**
+     * Constructor used by {@link PackedGame#toGame} to rebuild a player in any state of the game.
+     *
+     * @param clientID id given to the player by the {@link Server}
+     * @param player_index index of this player inside the players list in {@link Game}
+     * @param dashboard the player's {@link Dashboard}
+     * @param cards list of {@link Card Cards} still held by the player
+     * @param last_card_played the player's last played card, null if none
+     * @param coins number of coins the player has
+     */
+    protected Player(int clientID, int player_index, Dashboard dashboard, List<Card> cards, Card last_card_played, int coins) {
+        this.clientID = clientID;
+        this.player_index = player_index;
+        this.dashboard = dashboard;
+        this.cards = cards;
+        this.last_card_played = last_card_played;
+        this.coins = coins;
+        this.position_hash = computePositionHash();
     }
 
     /**
@@ -94,13 +117,47 @@ public class Player implements Serializable {
         return new ArrayList<Card>(cards);
     }
 
+    /**
+     * Getter for the number of {@link Card Cards} left in the hand of the player, without copying them.
+     *
+     * @return number of {@link Card Cards} still held by the player
+     */
+    public int getCardsSize() {
+        return cards.size();
+    }
+
+    /**
+     * Getter for one of the {@link Card Cards} left in the hand of the player, without copying the others.
+     *
+     * @param card_index index of the card relative to the cards list from {@link Player#getCards}
+     * @return the requested {@link Card}
+     */
+    public Card getCard(int card_index) {
+        return cards.get(card_index);
+    }
+
     /**
      * Plays the card indicated by the index from the player's hand, placing it as the last played card.
      *
      * @param card_index index of the card to play relative to the cards list from {@link Player#getCards}
      */
     protected void playCard(int card_index) {
+        position_hash ^= lastCardKey();
         last_card_played = cards.remove(card_index);
+        position_hash ^= lastCardKey() ^ handKey(last_card_played);
+    }
+
+    /**
+     * Puts back in the player's hand the last played card, undoing {@link Player#playCard}.
+     *
+     * @param card_index index the card was played from, relative to the cards list from {@link Player#getCards}
+     * @param previous_card_played card that was the last played one before it
+     */
+    protected void unplayCard(int card_index, Card previous_card_played) {
+        position_hash ^= lastCardKey() ^ handKey(last_card_played);
+        cards.add(card_index, last_card_played);
+        last_card_played = previous_card_played;
+        position_hash ^= lastCardKey();
     }
 
     /**
@@ -125,7 +182,14 @@ public class Player implements Serializable {
      * Increases by one the count of coins owned by the player.
      */
     protected void addCoin() {
-        coins++;
+        setCoins(coins + 1);
+    }
+
+    /**
+     * Decreases by one the count of coins owned by the player, undoing {@link Player#addCoin}.
+     */
+    protected void removeCoin() {
+        setCoins(coins - 1);
     }
 
     /**
@@ -138,6 +202,47 @@ public class Player implements Serializable {
     protected void pay(int cost) throws InvalidMoveException {
         if(cost > coins)
             throw new InvalidMoveException("You don't have enough coins.");
-        coins -= cost;
+        setCoins(coins - cost);
+    }
+
+    /**
+     * Gives back to the player the coins it paid, undoing {@link Player#pay}.
+     *
+     * @param cost number of coins paid
+     */
+    protected void refund(int cost) {
+        setCoins(coins + cost);
+    }
+
+    /**
+     * Getter for the hash of this player's part of the position, its dashboard included, kept up to date by every method altering the player.<br>
+     * The cards in the hand count regardless of their order.
+     *
+     * @return xor of the keys of the features of this player, see {@link Game#positionHash}
+     */
+    protected long positionHash() {
+        //the dashboard knows nothing of its owner, its hash is scrambled differently for every player
+        return position_hash ^ PositionKeys.mix(dashboard.positionHash() ^ PositionKeys.key(PositionKeys.PLAYER, player_index, 0));
+    }
+
+    private void setCoins(int coins) {
+        position_hash ^= PositionKeys.count(PositionKeys.COINS, player_index, this.coins) ^ PositionKeys.count(PositionKeys.COINS, player_index, coins);
+        this.coins = coins;
+    }
+
+    private long handKey(Card card) {
+        return PositionKeys.key(PositionKeys.HAND, player_index, card.order_value);
+    }
+
+    private long lastCardKey() {
+        return PositionKeys.count(PositionKeys.LAST_CARD, player_index, last_card_played == null ? 0 : last_card_played.order_value);
+    }
+
+    //computes from scratch the hash that the methods altering this player keep up to date
+    private long computePositionHash() {
+        long hash = lastCardKey() ^ PositionKeys.count(PositionKeys.COINS, player_index, coins);
+        for (Card card : cards)
+            hash ^= handKey(card);
+        return hash;
     }
 }
@@ -0,0 +1,67 @@
+package Model;
+
+/**
+ * Zobrist keys of the features of a game position, as combined by {@link Game#positionHash}.<br>
+ * Every feature of the position, such as the number of students of a color on an island, is identified by its kind, a slot telling apart
+ * the instances of the same kind (the island and the color, in the example) and its value. The key of each feature is a pseudo random
+ * 64 bit value derived from those three numbers alone, so that the same position hashes the same on every machine, without any table.
+ * <br><br>
+ * The hash of a position is the xor of the keys of its features, which is kept up to date by xoring out the key of the old value of
+ * a feature and xoring in the key of the new one. Counters whose value is 0 contribute no key, so that an empty row or island needs none.
+ */
+class PositionKeys {
+    //kinds of feature
+    static final int GAME = 0, CLOUD = 1, ISLAND_STUDENTS = 2, ISLAND_OWNER = 3, ISLAND_MERGED = 4, ISLAND_INTERDICTION = 5, ENTRANCE = 6,
+            HALL = 7, PROFESSOR = 8, ROOKS = 9, HAND = 10, LAST_CARD = 11, COINS = 12, PLAYER = 13, NPC = 14, NPC_STUDENTS = 15, NPC_PROPERTY = 16;
+
+    /**
+     * Provides the key of a feature.
+     *
+     * @param kind  kind of the feature
+     * @param slot  instance of the feature among the ones of the same kind
+     * @param value value of the feature
+     * @return the key of the feature having the given value
+     */
+    static long key(int kind, int slot, long value) {
+        return mix(kind * 0x9E3779B97F4A7C15L + slot * 0xC2B2AE3D27D4EB4FL + value * 0x165667B19E3779F9L);
+    }
+
+    /**
+     * Provides the key of a counter, none if it is 0.
+     *
+     * @param kind  kind of the counter
+     * @param slot  instance of the counter among the ones of the same kind
+     * @param count value of the counter
+     * @return the key of the counter having the given value, 0 if the value is 0
+     */
+    static long count(int kind, int slot, int count) {
+        return count == 0 ? 0 : key(kind, slot, count);
+    }
+
+    /**
+     * Provides the key of a group of students regardless of their order, that is of the number of students of each color in it.
+     *
+     * @param kind     kind of the group
+     * @param slot     instance of the group among the ones of the same kind
+     * @param students students in the group
+     * @return the xor of the keys of the number of students of each color in the group
+     */
+    static long students(int kind, int slot, ColorBag students) {
+        long hash = 0;
+        for (int color = 0; color < 5; color++)
+            hash ^= count(kind, slot * 5 + color, students.count(color));
+        return hash;
+    }
+
+    /**
+     * Scrambles the bits of the given value, a bijection also used to tell apart the hashes of equal parts of a position owned by different players.
+     *
+     * @param z value to scramble
+     * @return the scrambled value
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
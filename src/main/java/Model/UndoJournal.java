@@ -0,0 +1,53 @@
+package Model;
+
+import java.util.ArrayList;
+
+/**
+ * Journal of the changes made to a {@link Game} since its last checkpoint, each one recorded as the action undoing it.<br>
+ * Rolling back runs the recorded actions from the last to the first, bringing the game back to the checkpoint in place,
+ * with a cost proportional to the moves performed since then, instead of the size of the whole game.
+ * <br><br>
+ * The actions are only ever run on the game they were recorded for, and they change it directly, without being recorded themselves.
+ */
+class UndoJournal {
+    private final ArrayList<Runnable> undo_actions;
+
+    /**
+     * Creates an empty journal.
+     */
+    UndoJournal() {
+        this.undo_actions = new ArrayList<Runnable>();
+    }
+
+    /**
+     * Records a change, providing the action that undoes it.
+     *
+     * @param undo_action action bringing the game back to its state right before the change
+     */
+    void record(Runnable undo_action) {
+        undo_actions.add(undo_action);
+    }
+
+    /**
+     * Forgets every change recorded, making the current state of the game the one to roll back to.
+     */
+    void checkpoint() {
+        undo_actions.clear();
+    }
+
+    /**
+     * Undoes every change recorded since the last checkpoint, in reverse order, which becomes the current state of the game again.
+     */
+    void rollback() {
+        for (int i = undo_actions.size() - 1; i >= 0; i--)
+            undo_actions.get(i).run();
+        undo_actions.clear();
+    }
+
+    /**
+     * @return number of changes recorded since the last checkpoint
+     */
+    int size() {
+        return undo_actions.size();
+    }
+}
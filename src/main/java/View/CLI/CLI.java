@@ -2,7 +2,8 @@ package View.CLI;
 
 import Controller.ClientSide.Client;
 import Controller.ServerSide.ClientData;
-import Controller.ServerSide.LobbyData;
+import Controller.ServerSide.LobbyFilter;
+import Controller.ServerSide.LobbySummary;
 import Model.EffectParameters;
 import Model.GameState;
 import View.*;
@@ -12,6 +13,7 @@ import static org.fusesource.jansi.Ansi.*;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
@@ -39,9 +41,6 @@ public class CLI implements UI {
     private boolean afterGame;
     private int winnerId;
 
-    private static final int lobbies_per_page = 4;
-    private int lobbies_page;
-
     private final String os = System.getProperty("os.name");
 
     /**
@@ -56,8 +55,6 @@ public class CLI implements UI {
         this.inGame = false;
         this.afterGame = false;
         this.winnerId = 0;
-
-        this.lobbies_page = 0;
     }
 
     /**
@@ -122,48 +119,33 @@ public class CLI implements UI {
                             switch (parsed_input[0]) {
                                 case "createlobby", "cl" -> client.createLobby(Integer.parseInt(parsed_input[1]), Integer.parseInt(parsed_input[2]) != 0);
                                 case "joinlobby", "jl" -> {
-                                    if (Integer.parseInt(parsed_input[1]) < client.getLobbiesList().size())
-                                        client.joinLobby(client.getLobbiesList().get(Integer.parseInt(parsed_input[1])).lobbyID);
+                                    List<LobbySummary> page = client.getLobbiesPage();
+                                    if (page != null && Integer.parseInt(parsed_input[1]) < page.size())
+                                        client.joinLobby(page.get(Integer.parseInt(parsed_input[1])).lobbyID);
                                     else
                                         System.out.println("Invalid index...\nConsider refreshing!");
                                 }
-                                case "getlobbies", "refresh", "gl", "r" -> client.getLobbies();
+                                case "queue", "q" -> client.enqueue(Integer.parseInt(parsed_input[1]), Integer.parseInt(parsed_input[2]) != 0);
+                                case "leavequeue", "lq" -> client.leaveQueue();
+                                case "getlobbies", "refresh", "gl", "r" -> client.browseLobbies(currentFilter());
                                 case "nextpage", "np" -> {
-                                    if (client.getLobbiesList().size() - lobbies_per_page * lobbies_page > lobbies_per_page) {
-                                        lobbies_page++;
-                                        refresh();
-                                    } else
+                                    if (!client.nextLobbiesPage())
                                         System.out.println("This is the last page...");
                                 }
                                 case "prevpage", "pp" -> {
-                                    if (lobbies_page > 0) {
-                                        lobbies_page--;
-                                        refresh();
-                                    } else
+                                    if (!client.previousLobbiesPage())
                                         System.out.println("This is the first page...");
                                 }
+                                case "filter", "f" -> {
+                                    //sizes other than 2 and 3, as well as "any", match every size
+                                    int size = parsed_input.length > 1 && parsed_input[1].matches("[23]") ? Integer.parseInt(parsed_input[1]) : 0;
+                                    Boolean expert_mode = parsed_input.length > 2 && !parsed_input[2].equals("any") ? parsed_input[2].equals("expert") : null;
+                                    boolean open_only = parsed_input.length > 3 && parsed_input[3].equals("open");
+                                    client.browseLobbies(new LobbyFilter(size, expert_mode, open_only, currentFilter().nickname));
+                                }
                                 case "search", "s" -> {
-                                    if (client.getLobbiesList() != null) {
-                                        String search_string = parsed_input[1];
-
-                                        StringBuilder output = new StringBuilder("Results for user \"" + search_string + "\":");
-                                        for (LobbyData lobbyData : client.getLobbiesList()) {
-                                            if (lobbyData.clients.stream().map(cd -> cd.nickname)
-                                                    .anyMatch(nickname -> nickname.toLowerCase()
-                                                            .contains(search_string.toLowerCase()))) {
-                                                output.append("\n@|green Index: ").append(client.getLobbiesList().indexOf(lobbyData)).append("|@");
-                                                //output += "\n@|cyan Id: " + lobbyData.lobbyID + " Expert mode: " + lobbyData.expert_mode + " Size: " + lobbyData.size + "|@";
-                                                output.append("\n@|cyan Size: ").append(lobbyData.size).append(", Expert mode: ").append(lobbyData.expert_mode).append("|@");
-                                                output.append("\n@|yellow Participants:");
-                                                for (ClientData cd : lobbyData.clients)
-                                                    output.append("\n").append(cd.nickname);
-                                                output.append("|@\n");
-                                            }
-                                        }
-
-                                        System.out.println(ansi().render(output.toString()));
-                                    } else
-                                        System.out.println("Loading lobbies...");
+                                    LobbyFilter filter = currentFilter();
+                                    client.browseLobbies(new LobbyFilter(filter.size, filter.expert_mode, filter.open_only, parsed_input.length > 1 ? parsed_input[1] : null));
                                 }
                                 case "quit", "exit" -> {
                                     client.deleteLocalStorage();
@@ -201,6 +183,7 @@ public class CLI implements UI {
                                         .stream().map(card -> card.order_value).toList().indexOf(Integer.parseInt(parsed_input[1])));
                                 case "sstohall", "sh" -> client.setStudentToHall(Integer.parseInt(parsed_input[1]));
                                 case "sstoisland", "si" -> client.setStudentToIsland(Integer.parseInt(parsed_input[1]), Integer.parseInt(parsed_input[2]));
+                                case "playturn", "pt" -> playTurn(parsed_input);
                                 case "movemn", "mm" -> client.moveMotherNature(Integer.parseInt(parsed_input[1]));
                                 case "choosecloud", "cc" -> client.chooseCloud(Integer.parseInt(parsed_input[1]));
                                 case "activateeffect", "ae" -> {
@@ -255,6 +238,32 @@ public class CLI implements UI {
         }
     }
 
+    /**
+     * Parses the moves of a "playturn" command and sends them all at once.<br>
+     * Every student move is given as [student index]:[island index], or [student index]:h for the hall, optionally
+     * followed by mn:[steps] and cc:[cloud index].
+     *
+     * @param parsed_input the command split in words
+     */
+    private void playTurn(String[] parsed_input) {
+        List<Integer> student_indexes = new ArrayList<Integer>();
+        List<Integer> destinations = new ArrayList<Integer>();
+        Integer mother_nature_moves = null, cloud_index = null;
+
+        for (int i = 1; i < parsed_input.length; i++) {
+            String[] move = parsed_input[i].split(":");
+            switch (move[0]) {
+                case "mn" -> mother_nature_moves = Integer.parseInt(move[1]);
+                case "cc" -> cloud_index = Integer.parseInt(move[1]);
+                default -> {
+                    student_indexes.add(Integer.parseInt(move[0]));
+                    destinations.add(move[1].equals("h") ? null : Integer.parseInt(move[1]));
+                }
+            }
+        }
+        client.playTurn(student_indexes, destinations, mother_nature_moves, cloud_index);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -279,7 +288,6 @@ public class CLI implements UI {
      */
     public void noLobby() {
         inLobby = false;
-        lobbies_page = 0;
     }
 
     /**
@@ -340,18 +348,27 @@ public class CLI implements UI {
         ));
 
         if(!inLobby) { //you are not in any lobby
-            if(client.getLobbiesList() != null) {
-                System.out.println("Lobbies, page " + (lobbies_page + 1) + " of " + (client.getLobbiesList().size() / lobbies_per_page + 1));
+            if(client.getQueueSize() != 0)
+                System.out.println(ansi().render("@|magenta Looking for a game of " + client.getQueueSize() + " players" +
+                        (client.getQueueExpertMode() ? ", expert mode" : "") + "...|@\n"));
+            List<LobbySummary> page = client.getLobbiesPage();
+            if(page != null) {
+                LobbyFilter filter = currentFilter();
+                System.out.println("Lobbies, page " + (client.getLobbiesPageIndex() + 1) +
+                        (filter.size != 0 ? ", size " + filter.size : "") +
+                        (filter.expert_mode != null ? (filter.expert_mode ? ", expert" : ", normal") : "") +
+                        (filter.open_only ? ", open only" : "") +
+                        (filter.nickname != null ? ", players matching \"" + filter.nickname + "\"" : ""));
 
                 StringBuilder output = new StringBuilder();
-                for(int i = lobbies_page * lobbies_per_page; i < (lobbies_page + 1) * lobbies_per_page && i < client.getLobbiesList().size(); i++) {
-                    LobbyData lobbyData = client.getLobbiesList().get(i);
+                for(int i = 0; i < page.size(); i++) {
+                    LobbySummary lobby = page.get(i);
                     output.append("\n@|green Index: ").append(i).append("|@");
-                    //output += "\n@|cyan Id: " + lobbyData.lobbyID + " Expert mode: " + lobbyData.expert_mode + " Size: " + lobbyData.size + "|@";
-                    output.append("\n@|cyan Size: ").append(lobbyData.size).append(", Expert mode: ").append(lobbyData.expert_mode).append("|@");
+                    output.append("\n@|cyan Size: ").append(lobby.size).append(", Expert mode: ").append(lobby.expert_mode)
+                            .append(lobby.started ? ", playing" : "").append("|@");
                     output.append("\n@|yellow Participants:");
-                    for(ClientData cd : lobbyData.clients)
-                        output.append("\n").append(cd.nickname);
+                    for(String nickname : lobby.nicknames)
+                        output.append("\n").append(nickname);
                     output.append("|@\n");
                 }
 
@@ -380,16 +397,24 @@ public class CLI implements UI {
         System.out.print("\n>");
     }
 
+    //filter of the lobbies browsed so far, every lobby if none
+    private LobbyFilter currentFilter() {
+        return client.getLobbiesFilter() != null ? client.getLobbiesFilter() : LobbyFilter.ANY;
+    }
+
     public void help() {
         if(!inLobby) { //you are not in any lobby
             System.out.println("""
                     List of available commands:
                     createlobby, cl [size] [expert mode] - creates a new lobby
                     joinlobby, jl [lobby index] - lets you join the specified lobby
+                    queue, q [size] [expert mode] - finds you a game with other players looking for the same kind of game
+                    leavequeue, lq - stops looking for a game
                     getlobbies, refresh, gl, r - reloads the list of available lobbies
                     nextpage, np - prints the next page of available lobbies
                     prevpage, pp - prints the previous page of available lobbies
-                    search, s [string] - prints only the lobbies where a player's name matches the searched string
+                    filter, f [size|any] [normal|expert|any] [open|all] - prints only the lobbies with the given settings
+                    search, s [string] - prints only the lobbies where a player's name matches the searched string, none to clear the search
                     quit, exit - closes the game
                     """);
                     //"whoami - prints your current nickname and client id");
@@ -411,6 +436,7 @@ public class CLI implements UI {
                     """ : "") + (gs.getPhase() == 1 && gs.getStep() == 0 ? """
                     sstohall, sh [student index] - allows you to set the selected student to your hall
                     sstoisland, si [student index] [island index] - allows you to set the selected student on the selected island
+                    playturn, pt [student index]:[island index or h] ... [mn:steps] [cc:cloud index] - plays all the given moves at once
                     """ : "") + (gs.getPhase() == 1 && gs.getStep() == 1 ? """
                     movemn, mm [steps] - allows you to move mother nature of the given amount of steps
                     """ : "") + ( gs.getPhase() == 1 && gs.getStep() == 2 ? """
@@ -442,7 +442,7 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             g.drawImage(opponent_dashboard, dashboardL_X, dashboardL_Y, dashboardWidth, dashboardHeight, null);
 
             //draws third player, on the right
-            if(gs.otherPlayers(client).size() > 1)
+            if(gs.otherPlayersCount(client) > 1)
                 g.drawImage(opponent_dashboard, dashboardR_X, dashboardR_Y, dashboardWidth, dashboardHeight, null);
 
             //draw coins
@@ -453,15 +453,15 @@ public class GUIGamePanel extends JPanel implements ActionListener {
                         (int) (399 / 10 * GUIGamePanel.SCREEN_SCALE),
                         (int) (399 / 10 * GUIGamePanel.SCREEN_SCALE), null);
             }
-            for (int i = 0; i < gs.otherPlayers(client).get(0).getCoins(); i++) {
+            for (int i = 0; i < gs.otherPlayer(client, 0).getCoins(); i++) {
                 g.drawImage(coin_image,
                         (int) (dashboardL_X + (1710 / 15 + (399 / 15 + 10) * (i % 2)) * GUIGamePanel.SCREEN_SCALE),
                         (int) (dashboardHeight + dashboardL_Y + ((399 / 19) * (i / 2)) * GUIGamePanel.SCREEN_SCALE),
                         (int) (399 / 10 * GUIGamePanel.SCREEN_SCALE),
                         (int) (399 / 10 * GUIGamePanel.SCREEN_SCALE), null);
             }
-            if (gs.otherPlayers(client).size() > 1) {
-                for (int i = 0; i < gs.otherPlayers(client).get(1).getCoins(); i++) {
+            if (gs.otherPlayersCount(client) > 1) {
+                for (int i = 0; i < gs.otherPlayer(client, 1).getCoins(); i++) {
                     g.drawImage(coin_image,
                             (int) (SCREEN_WIDTH - (1710 / 15 + 399 / 10 + (399 / 15 + 10) * (i % 2)) * GUIGamePanel.SCREEN_SCALE),
                             (int) (dashboardHeight + (dashboardL_Y) + ((399 / 19) * (i / 2)) * GUIGamePanel.SCREEN_SCALE),
@@ -471,8 +471,8 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             }
 
             //draw unclaimed professors
-            for (int i = 0; i < gs.getUnclaimedProfessors().size(); i++){
-                g.drawImage(professor_images.get(gs.getUnclaimedProfessors().get(i)),
+            for (int i = 0; i < gs.unclaimedProfessorsCount(); i++){
+                g.drawImage(professor_images.get(gs.unclaimedProfessor(i)),
                         (int) (SCREEN_WIDTH - (40 + 25*i) * GUIGamePanel.SCREEN_SCALE),
                         (int) (SCREEN_HEIGHT - 70 * GUIGamePanel.SCREEN_SCALE),
                         (int) (20 * GUIGamePanel.SCREEN_SCALE),
@@ -517,12 +517,12 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             for (int i = 0; i < islands.size(); i++) {
                 int first_actual_index;
                 int islands_total = 0;
-                if (gs.getIslands().get(0).index > i) {
-                    first_actual_index = gs.getIslands().size() - 1;
+                if (gs.getIsland(0).index > i) {
+                    first_actual_index = gs.islandCount() - 1;
                 } else {
-                    for (first_actual_index = 0; first_actual_index < gs.getIslands().size(); first_actual_index++) {
-                        islands_total += gs.getIslands().get(first_actual_index).getNumOfMergedIslands();
-                        if (islands_total >= i + 1 - gs.getIslands().get(0).index) {
+                    for (first_actual_index = 0; first_actual_index < gs.islandCount(); first_actual_index++) {
+                        islands_total += gs.getIsland(first_actual_index).getNumOfMergedIslands();
+                        if (islands_total >= i + 1 - gs.getIsland(0).index) {
                             break;
                         }
                     }
@@ -530,12 +530,12 @@ public class GUIGamePanel extends JPanel implements ActionListener {
 
                 int second_actual_index;
                 islands_total = 0;
-                if (gs.getIslands().get(0).index > (i + 1) % islands.size()) {
-                    second_actual_index = gs.getIslands().size() - 1;
+                if (gs.getIsland(0).index > (i + 1) % islands.size()) {
+                    second_actual_index = gs.islandCount() - 1;
                 } else {
-                    for (second_actual_index = 0; second_actual_index < gs.getIslands().size(); second_actual_index++) {
-                        islands_total += gs.getIslands().get(second_actual_index).getNumOfMergedIslands();
-                        if (islands_total >= (i + 1) % islands.size() + 1 - gs.getIslands().get(0).index) {
+                    for (second_actual_index = 0; second_actual_index < gs.islandCount(); second_actual_index++) {
+                        islands_total += gs.getIsland(second_actual_index).getNumOfMergedIslands();
+                        if (islands_total >= (i + 1) % islands.size() + 1 - gs.getIsland(0).index) {
                             break;
                         }
                     }
@@ -594,21 +594,21 @@ public class GUIGamePanel extends JPanel implements ActionListener {
 
             //draws last played card
             if (gs.myPlayer(client).getLastCardPlayed() != null && (compact_cards || gs.isLastGameTurn()) && (gs.getPhase() == 1 ||
-                    (gs.getPhase() == 0 && gs.currentPlayersTurnOrder().indexOf(client.getClientID()) < gs.getPlayerTurn())))
+                    (gs.getPhase() == 0 && gs.turnOrderPosition(client.getClientID()) < gs.getPlayerTurn())))
                 g.drawImage(card_images[gs.myPlayer(client).getLastCardPlayed().order_value - 1],
                         (int) (SCREEN_WIDTH/2 + (- 3352/9 - 1164 / 15) * SCREEN_WIDTH_SCALE), (int) (SCREEN_HEIGHT - (1710 / 15) * SCREEN_HEIGHT_SCALE),
                         (int) (1164 / 15 * SCREEN_SCALE), (int) (1710 / 15 * SCREEN_SCALE), null);
 
-            if (gs.otherPlayers(client).get(0).getLastCardPlayed() != null && (gs.getPhase() == 1 ||
-                    (gs.getPhase() == 0 && gs.currentPlayersTurnOrder().indexOf((gs.otherPlayers(client).get(0).clientID)) < gs.getPlayerTurn())))
-                g.drawImage(rotated_left_card_images[gs.otherPlayers(client).get(0).getLastCardPlayed().order_value - 1],
+            if (gs.otherPlayer(client, 0).getLastCardPlayed() != null && (gs.getPhase() == 1 ||
+                    (gs.getPhase() == 0 && gs.turnOrderPosition(gs.otherPlayer(client, 0).clientID) < gs.getPlayerTurn())))
+                g.drawImage(rotated_left_card_images[gs.otherPlayer(client, 0).getLastCardPlayed().order_value - 1],
                         (dashboardL_X), (dashboardHeight + (dashboardL_Y)),
                         (int) (1710 / 15 * SCREEN_SCALE), (int) (1164 / 15 * SCREEN_SCALE), null);
 
-            if (gs.otherPlayers(client).size() > 1) {
-                if (gs.otherPlayers(client).get(1).getLastCardPlayed() != null && (gs.getPhase() == 1 ||
-                        (gs.getPhase() == 0 && gs.currentPlayersTurnOrder().indexOf(Integer.valueOf(gs.otherPlayers(client).get(1).clientID)) < gs.getPlayerTurn()))) {
-                    g.drawImage(rotated_right_card_images[gs.otherPlayers(client).get(1).getLastCardPlayed().order_value - 1],
+            if (gs.otherPlayersCount(client) > 1) {
+                if (gs.otherPlayer(client, 1).getLastCardPlayed() != null && (gs.getPhase() == 1 ||
+                        (gs.getPhase() == 0 && gs.turnOrderPosition(gs.otherPlayer(client, 1).clientID) < gs.getPlayerTurn()))) {
+                    g.drawImage(rotated_right_card_images[gs.otherPlayer(client, 1).getLastCardPlayed().order_value - 1],
                             (int) (SCREEN_WIDTH - 1710 / 15 * SCREEN_SCALE), (dashboardHeight + (dashboardR_Y)),
                             (int) (1710 / 15 * SCREEN_SCALE), (int) (1164 / 15 * SCREEN_SCALE), null);
                 }
@@ -617,9 +617,9 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             int[] mapping = new int[]{2, 3, 0, 4, 1};
 
             //draw students in the entrance other players
-            for (int j = 0; j < gs.otherPlayers(client).size(); j++) {
-                for (int i = 0; i < gs.otherPlayers(client).get(j).getDashboard().getEntrance().size(); i++) {
-                    g.drawImage(student_images.get(gs.otherPlayers(client).get(j).getDashboard().getEntrance().get(i)),
+            for (int j = 0; j < gs.otherPlayersCount(client); j++) {
+                for (int i = 0; i < gs.otherPlayer(client, j).getDashboard().getEntranceSize(); i++) {
+                    g.drawImage(student_images.get(gs.otherPlayer(client, j).getDashboard().getEntranceStudent(i)),
                             (int) ((j == 0 ? dashboardL_X : dashboardR_X) + ((30 * ((i % 5) + 1)) * GUIGamePanel.SCREEN_SCALE)),
                             (int) ((j == 0 ? dashboardL_Y : dashboardR_Y) + dashboardHeight + (-60 + 28 * (i / 5)) * GUIGamePanel.SCREEN_SCALE),
                             (int) (30 / 7 * 4.5 * 1.2 * GUIGamePanel.SCREEN_SCALE), (int) (30 / 7 * 4.5 * 1.2 * GUIGamePanel.SCREEN_SCALE), null);
@@ -627,9 +627,9 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             }
 
             //draw students in the hall other players
-            for (int j = 0; j < gs.otherPlayers(client).size(); j++) {
+            for (int j = 0; j < gs.otherPlayersCount(client); j++) {
                 for (int i = 0; i < 5; i++) {
-                    for (int k = 0; k < gs.otherPlayers(client).get(j).getDashboard().getHallRow(mapping[i]); k++) {
+                    for (int k = 0; k < gs.otherPlayer(client, j).getDashboard().getHallRow(mapping[i]); k++) {
                         g.drawImage(student_images.get(Colors.fromColorIndex(mapping[i])),
                                 (int) ((j == 0 ? dashboardL_X + 24 * GUIGamePanel.SCREEN_SCALE : dashboardR_X + 23 * GUIGamePanel.SCREEN_SCALE) + (34 * i) * GUIGamePanel.SCREEN_SCALE),
                                 (int) ((j == 0 ? dashboardL_Y : dashboardR_Y) + (368 - 22 * k) * GUIGamePanel.SCREEN_SCALE),
@@ -640,9 +640,9 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             }
 
             //draw professor other players
-            for (int j = 0; j < gs.otherPlayers(client).size(); j++) {
+            for (int j = 0; j < gs.otherPlayersCount(client); j++) {
                 for (int i = 0; i < 5; i++) {
-                    if (gs.otherPlayers(client).get(j).getDashboard().getProfessor(mapping[i])) {
+                    if (gs.otherPlayer(client, j).getDashboard().getProfessor(mapping[i])) {
                         g.drawImage(professor_images.get(Colors.fromColorIndex(mapping[i])),
                                 (int) ((j == 0 ? dashboardL_X + 25 * GUIGamePanel.SCREEN_SCALE : dashboardR_X + 23 * GUIGamePanel.SCREEN_SCALE) + (33.5 * i) * GUIGamePanel.SCREEN_SCALE),
                                 (int) ((j == 0 ? dashboardL_Y : dashboardR_Y) + 115 * GUIGamePanel.SCREEN_SCALE),
@@ -654,9 +654,9 @@ public class GUIGamePanel extends JPanel implements ActionListener {
 
             //draw other players rooks
             int k = 0;
-            for (int i = 0; i < gs.getPlayers().size(); i++) {
-                if (gs.getPlayers().get(i) != gs.myPlayer(client)) {
-                    for (int j = 0; j < gs.otherPlayers(client).get(k).getDashboard().getRooks(); j++) {
+            for (int i = 0; i < gs.playerCount(); i++) {
+                if (gs.getPlayer(i) != gs.myPlayer(client)) {
+                    for (int j = 0; j < gs.otherPlayer(client, k).getDashboard().getRooks(); j++) {
                         g.drawImage(rook_images[i],
                                 (int) ((k == 0 ? dashboardL_X : dashboardR_X) + (55 + 25 * (j % 4)) * GUIGamePanel.SCREEN_SCALE),
                                 (int) ((k == 0 ? dashboardL_Y : dashboardR_Y) + (25 + 40 * ((j / 4) % 2)) * GUIGamePanel.SCREEN_SCALE),
@@ -671,7 +671,7 @@ public class GUIGamePanel extends JPanel implements ActionListener {
             if(previous_game_phase == 1 && previous_playing_player_id != client.getClientID()) {
                 //star on dashboard
                 if(previous_game_step == 0 && previous_game_moved_students != gs.getMovedStudents() && client.getLastMoveData().size() == 1) {
-                    if(previous_playing_player_id == gs.otherPlayers(client).get(0).clientID)
+                    if(previous_playing_player_id == gs.otherPlayer(client, 0).clientID)
                         addParticlesGrayTriad((1454 / 7) / 2,
                                 25 + (3352 / 7) / 2);
                     else
@@ -680,13 +680,13 @@ public class GUIGamePanel extends JPanel implements ActionListener {
                 }
                 //star on island
                 if(previous_game_step == 0 && previous_game_moved_students != gs.getMovedStudents() && client.getLastMoveData().size() == 2) {
-                    addParticlesGrayTriad(islands.get(gs.getIslands().get(client.getLastMoveData().get(1)).index).x + islands.get(gs.getIslands().get(client.getLastMoveData().get(1)).index).width / 2,
-                            islands.get(gs.getIslands().get(client.getLastMoveData().get(1)).index).y + islands.get(gs.getIslands().get(client.getLastMoveData().get(1)).index).height / 2);
+                    addParticlesGrayTriad(islands.get(gs.getIsland(client.getLastMoveData().get(1)).index).x + islands.get(gs.getIsland(client.getLastMoveData().get(1)).index).width / 2,
+                            islands.get(gs.getIsland(client.getLastMoveData().get(1)).index).y + islands.get(gs.getIsland(client.getLastMoveData().get(1)).index).height / 2);
                 }
                 //star on mother nature
                 if(previous_game_step == 1 && gs.getStep() == 2) {
-                    addParticlesGrayTriad(islands.get(gs.getIslands().get(gs.getMotherNature()).index).x + islands.get(gs.getIslands().get(gs.getMotherNature()).index).width / 2,
-                            islands.get(gs.getIslands().get(gs.getMotherNature()).index).y + islands.get(gs.getIslands().get(gs.getMotherNature()).index).height / 2);
+                    addParticlesGrayTriad(islands.get(gs.getIsland(gs.getMotherNature()).index).x + islands.get(gs.getIsland(gs.getMotherNature()).index).width / 2,
+                            islands.get(gs.getIsland(gs.getMotherNature()).index).y + islands.get(gs.getIsland(gs.getMotherNature()).index).height / 2);
                 }
                 //star on cloud
                 if(previous_game_step == 2 && (gs.getPhase() == 0 || gs.getStep() == 0) && client.getLastMoveData().size() == 1 && client.getLastMoveData().get(0) < clouds.size()) {
@@ -784,16 +784,16 @@ public class GUIGamePanel extends JPanel implements ActionListener {
 
             //draw texts
             texts.get(0).setText(client.getNickname());
-            texts.get(1).setText(client.clientIDToNickname(gs.otherPlayers(client).get(0).clientID));
-            if (gs.otherPlayers(client).size() > 1) texts.get(2).setText(client.clientIDToNickname(gs.otherPlayers(client).get(1).clientID));
-            texts.get(3).setText("Next player: " + client.clientIDToNickname(gs.currentPlayersTurnOrder().get((gs.getPlayerTurn() + 1) % gs.getPlayers().size())));
+            texts.get(1).setText(client.clientIDToNickname(gs.otherPlayer(client, 0).clientID));
+            if (gs.otherPlayersCount(client) > 1) texts.get(2).setText(client.clientIDToNickname(gs.otherPlayer(client, 1).clientID));
+            texts.get(3).setText("Next player: " + client.clientIDToNickname(gs.playerInTurnOrder((gs.getPlayerTurn() + 1) % gs.playerCount())));
 
             String state;
             if (gs.isMyTurn(client.getClientID())) {
                 if (gs.getPhase() == 0) state = "Play a card";
                 else {
                     switch (gs.getStep()) {
-                        case 0 -> state = "Set students, " + ((gs.getPlayers().size() == 2 ? 3 : 4) - gs.getMovedStudents()) + " left";
+                        case 0 -> state = "Set students, " + ((gs.playerCount() == 2 ? 3 : 4) - gs.getMovedStudents()) + " left";
                         case 1 -> state = "Move mother nature";
                         case 2 -> state = "Choose a cloud";
                         default -> state = "";
@@ -819,11 +819,11 @@ public class GUIGamePanel extends JPanel implements ActionListener {
 
             texts.get(0).show(g);
             texts.get(1).show(g);
-            if (gs.otherPlayers(client).size() > 1)
+            if (gs.otherPlayersCount(client) > 1)
                 texts.get(2).show(g);
-            if (gs.otherPlayers(client).size() > 1 && !(gs.getPhase() == 0 && gs.getPlayerTurn() == gs.getPlayers().size() - 1))
+            if (gs.otherPlayersCount(client) > 1 && !(gs.getPhase() == 0 && gs.getPlayerTurn() == gs.playerCount() - 1))
                 texts.get(3).show(g);
-            if (gs.otherPlayers(client).size() > 1)
+            if (gs.otherPlayersCount(client) > 1)
                 texts.get(4).show(g);
             else
                 texts.get(5).show(g);
@@ -0,0 +1,77 @@
+package ControllerTest;
+
+import Controller.ServerSide.ClientData;
+import Controller.ServerSide.ClientRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link ClientRegistry} of a {@link Controller.ServerSide.Server}.<br>
+ * A client registered without a {@link Controller.SocketHandler} counts as disconnected.
+ */
+public class ClientRegistryTest {
+    /**
+     * Checks that a nickname is reserved from the registration of its client until the client is deleted, and that only disconnected clients
+     * can be reconnected or deleted.
+     */
+    @Test
+    public void reserveAndRelease() {
+        ClientRegistry registry = new ClientRegistry();
+        AtomicInteger ids = new AtomicInteger(0);
+        SocketHandlerMockup connection = new SocketHandlerMockup(null);
+
+        ClientData online = registry.register("online", connection, ids::getAndIncrement);
+        assertEquals(1, online.clientID);
+        assertNull(registry.register("online", null, ids::getAndIncrement));
+        assertTrue(registry.isTaken("online"));
+        assertNull(registry.reconnect(online.clientID, "online", null));
+        assertNull(registry.release(online.clientID));
+
+        ClientData offline = registry.register("offline", null, ids::getAndIncrement);
+        assertNull(registry.reconnect(offline.clientID, "someone else", connection));
+        assertSame(offline, registry.reconnect(offline.clientID, "offline", connection));
+        assertSame(connection, registry.get(offline.clientID).socket_handler);
+        assertNull(registry.release(offline.clientID));
+
+        ClientData deleted = registry.register("deleted", null, ids::getAndIncrement);
+        assertSame(deleted, registry.release(deleted.clientID));
+        assertNull(registry.get(deleted.clientID));
+        assertFalse(registry.isTaken("deleted"));
+        assertNull(registry.reconnect(deleted.clientID, "deleted", connection));
+        assertNotNull(registry.register("deleted", connection, ids::getAndIncrement));
+        assertEquals(3, registry.size());
+    }
+
+    /**
+     * Checks that when many clients try to register with the same nicknames at the same time, every nickname ends up reserved by exactly one of them,
+     * and that the registry holds a hundred thousand clients.
+     */
+    @Test
+    public void concurrentRegistrations() throws Exception {
+        ClientRegistry registry = new ClientRegistry();
+        AtomicInteger ids = new AtomicInteger(1);
+        int threads = 8, nicknames = 100000;
+        AtomicInteger registered = new AtomicInteger(0);
+
+        List<Thread> registering = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+            registering.add(new Thread(() -> {
+                for (int i = 0; i < nicknames; i++)
+                    if (registry.register("player" + i, null, ids::getAndIncrement) != null)
+                        registered.incrementAndGet();
+            }));
+        registering.forEach(Thread::start);
+        for (Thread thread : registering)
+            thread.join();
+
+        assertEquals(nicknames, registered.get());
+        assertEquals(nicknames, registry.size());
+        for (int i = 0; i < nicknames; i += 997)
+            assertTrue(registry.isTaken("player" + i));
+    }
+}
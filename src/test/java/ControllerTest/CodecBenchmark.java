@@ -0,0 +1,85 @@
+package ControllerTest;
+
+import Controller.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark printing, for every kind of {@link Message} provided by {@link MessageCodecTest#messages}, the encoded size and the average
+ * encode and decode time of:
+ * <ul>
+ *     <li> the continuous Java object stream used by {@link SocketHandler} by default, where every message is followed by a reset
+ *     <li> the {@link SerializationCodec}
+ *     <li> the {@link BinaryCodec}
+ * </ul>
+ * Usage: <code>CodecBenchmark [iterations]</code>
+ */
+public class CodecBenchmark {
+    public static void main(String[] argv) throws Exception {
+        int iterations = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+        List<Message> messages = MessageCodecTest.messages().collect(Collectors.toList());
+        MessageCodec serialization = new SerializationCodec();
+        MessageCodec binary = new BinaryCodec();
+
+        System.out.printf("%-28s %8s %8s %8s | %10s %10s %10s | %10s %10s%n", "message", "stream_B", "serial_B", "binary_B",
+                "stream_ns", "serial_ns", "binary_ns", "serial_dns", "binary_dns");
+
+        for (Message message : messages) {
+            int rounds = message.toString().equals("MessageGameStarted") ? iterations / 20 : iterations;
+
+            //warm up
+            for (int i = 0; i < rounds; i++) {
+                streamSize(message);
+                binary.decode(binary.encode(message));
+                serialization.decode(serialization.encode(message));
+            }
+
+            long start = System.nanoTime();
+            int stream_size = 0;
+            for (int i = 0; i < rounds; i++)
+                stream_size = streamSize(message);
+            long stream_ns = (System.nanoTime() - start) / rounds;
+
+            byte[] serial_bytes = null, binary_bytes = null;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++)
+                serial_bytes = serialization.encode(message);
+            long serial_ns = (System.nanoTime() - start) / rounds;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++)
+                binary_bytes = binary.encode(message);
+            long binary_ns = (System.nanoTime() - start) / rounds;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++)
+                serialization.decode(serial_bytes);
+            long serial_decode_ns = (System.nanoTime() - start) / rounds;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++)
+                binary.decode(binary_bytes);
+            long binary_decode_ns = (System.nanoTime() - start) / rounds;
+
+            System.out.printf("%-28s %8d %8d %8d | %10d %10d %10d | %10d %10d%n", message, stream_size, serial_bytes.length, binary_bytes.length,
+                    stream_ns, serial_ns, binary_ns, serial_decode_ns, binary_decode_ns);
+        }
+    }
+
+    //bytes written for a message on an already open object stream, the way SocketSender does it
+    private static final ByteArrayOutputStream stream_bytes = new ByteArrayOutputStream();
+    private static ObjectOutputStream stream;
+
+    private static int streamSize(Message message) throws Exception {
+        if (stream == null)
+            stream = new ObjectOutputStream(stream_bytes);
+        stream_bytes.reset();
+        stream.writeObject(message);
+        stream.flush();
+        stream.reset();
+        return stream_bytes.size();
+    }
+}
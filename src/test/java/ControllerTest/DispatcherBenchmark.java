@@ -0,0 +1,109 @@
+package ControllerTest;
+
+import Controller.*;
+import Controller.ServerSide.Dispatcher;
+import Controller.ServerSide.Mailbox;
+import Controller.ServerSide.ThreadMode;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Benchmark measuring how many lobby messages per second are handled by:
+ * <ul>
+ *     <li> a single thread consuming one queue shared by every lobby, as the server did before the {@link Dispatcher}
+ *     <li> a {@link Dispatcher} with 1, 4 and 16 threads, every lobby with its own {@link Mailbox}
+ * </ul>
+ * Handling a message costs what the lobby does for a move: taking the lobby's lock and encoding the update it broadcasts with the {@link BinaryCodec}.
+ * The speedup with more threads is bounded by the cores actually available, which are printed as well.
+ * <br><br>
+ * Usage: <code>DispatcherBenchmark [lobbies] [messages_per_lobby]</code>
+ */
+public class DispatcherBenchmark {
+    public static void main(String[] argv) throws Exception {
+        int lobbies = argv.length > 0 ? Integer.parseInt(argv[0]) : 64;
+        int messages = argv.length > 1 ? Integer.parseInt(argv[1]) : 5000;
+        System.out.println("cores=" + Runtime.getRuntime().availableProcessors() + ", lobbies=" + lobbies + ", messages per lobby=" + messages);
+
+        //warm up
+        singleQueue(lobbies, messages);
+        dispatcher(16, lobbies, messages);
+
+        System.out.printf("%-14s %12s%n", "handler", "messages/s");
+        System.out.printf("%-14s %12d%n", "single queue", singleQueue(lobbies, messages));
+        for (int threads : new int[]{1, 4, 16})
+            System.out.printf("%-14s %12d%n", "dispatcher " + threads, dispatcher(threads, lobbies, messages));
+    }
+
+    private static long singleQueue(int lobbies, int messages) throws Exception {
+        BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        CountDownLatch done = new CountDownLatch(lobbies);
+        Thread consumer = new Thread(() -> {
+            try {
+                while (true)
+                    queue.take().run();
+            } catch (InterruptedException ignored) {}
+        });
+        consumer.start();
+
+        long start = System.nanoTime();
+        post(lobbies, messages, done, lobby -> queue::add);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        consumer.interrupt();
+        return (long) lobbies * messages * 1000000000L / elapsed;
+    }
+
+    private static long dispatcher(int threads, int lobbies, int messages) throws Exception {
+        Dispatcher dispatcher = new Dispatcher(threads, ThreadMode.PLATFORM);
+        Mailbox[] mailboxes = new Mailbox[lobbies];
+        for (int i = 0; i < lobbies; i++)
+            mailboxes[i] = dispatcher.newMailbox();
+        CountDownLatch done = new CountDownLatch(lobbies);
+
+        long start = System.nanoTime();
+        post(lobbies, messages, done, lobby -> mailboxes[lobby]::post);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        dispatcher.shutdown();
+        return (long) lobbies * messages * 1000000000L / elapsed;
+    }
+
+    //posts the messages of every lobby from a thread per lobby, as the connections of different lobbies would
+    private static void post(int lobbies, int messages, CountDownLatch done, Route route) throws InterruptedException {
+        Thread[] posters = new Thread[lobbies];
+        for (int i = 0; i < lobbies; i++) {
+            Object lock = new Object();
+            Target target = route.of(i);
+            posters[i] = new Thread(() -> {
+                for (int j = 0; j < messages; j++)
+                    target.post(() -> handle(lock));
+                target.post(done::countDown);
+            });
+            posters[i].start();
+        }
+        for (Thread poster : posters)
+            poster.join();
+    }
+
+    private static final MessageCodec codec = new BinaryCodec();
+
+    private static void handle(Object lock) {
+        synchronized (lock) {
+            try {
+                codec.encode(MessageForClient.studentSetToIsland(77, 2, 9));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private interface Target {
+        void post(Runnable task);
+    }
+
+    private interface Route {
+        Target of(int lobby);
+    }
+}
@@ -0,0 +1,99 @@
+package ControllerTest;
+
+import Controller.ServerSide.Dispatcher;
+import Controller.ServerSide.Mailbox;
+import Controller.ServerSide.ThreadMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link Mailbox Mailboxes} of a {@link Dispatcher}.
+ */
+public class DispatcherTest {
+    /**
+     * Checks that the tasks of a mailbox run one at a time and in the order they were posted, even when posted by many threads
+     * and run by many threads along with the tasks of other mailboxes.
+     */
+    @Test
+    public void mailboxKeepsOrder() throws Exception {
+        Dispatcher dispatcher = new Dispatcher(4, ThreadMode.PLATFORM);
+        int mailboxes = 8, tasks = 2000;
+        List<List<Integer>> runs = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(mailboxes);
+
+        List<Thread> posters = new ArrayList<>();
+        for (int i = 0; i < mailboxes; i++) {
+            Mailbox mailbox = dispatcher.newMailbox();
+            List<Integer> run = new ArrayList<>();
+            runs.add(run);
+            posters.add(new Thread(() -> {
+                for (int j = 0; j < tasks; j++) {
+                    int task = j;
+                    //no lock taken, a task running concurrently with another of the same mailbox would corrupt the list
+                    mailbox.post(() -> run.add(task));
+                }
+                mailbox.post(done::countDown);
+            }));
+        }
+        posters.forEach(Thread::start);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+
+        for (List<Integer> run : runs) {
+            assertEquals(tasks, run.size());
+            for (int j = 0; j < tasks; j++)
+                assertEquals(j, run.get(j));
+        }
+    }
+
+    /**
+     * Checks that a busy mailbox gives its thread back after a batch of tasks, letting a task posted later to another mailbox run
+     * before the busy one is drained.
+     */
+    @Test
+    public void busyMailboxDoesNotStarveOthers() throws Exception {
+        Dispatcher dispatcher = new Dispatcher(1, ThreadMode.PLATFORM);
+        Mailbox busy = dispatcher.newMailbox(), quiet = dispatcher.newMailbox();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch gate = new CountDownLatch(1), done = new CountDownLatch(2);
+
+        //the first task holds the only thread until everything else has been posted
+        busy.post(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException ignored) {}
+        });
+        for (int i = 0; i < Dispatcher.MAILBOX_BATCH * 4; i++)
+            busy.post(() -> order.add("busy"));
+        busy.post(done::countDown);
+        quiet.post(() -> order.add("quiet"));
+        quiet.post(done::countDown);
+        gate.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        assertTrue(order.indexOf("quiet") < Dispatcher.MAILBOX_BATCH * 2, "quiet mailbox ran at position " + order.indexOf("quiet"));
+    }
+
+    /**
+     * Checks that a dispatcher without threads runs every task right away on the posting thread.
+     */
+    @Test
+    public void inlineDispatcher() {
+        Dispatcher dispatcher = new Dispatcher(0, ThreadMode.PLATFORM);
+        List<Thread> threads = new ArrayList<>();
+        dispatcher.newMailbox().post(() -> threads.add(Thread.currentThread()));
+        dispatcher.newMailbox().post(() -> {
+            throw new IllegalStateException("printed and ignored");
+        });
+        dispatcher.shardOf(null).post(() -> threads.add(Thread.currentThread()));
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), threads);
+    }
+}
@@ -0,0 +1,134 @@
+package ControllerTest;
+
+import Controller.ClientSide.Client;
+import Controller.Message;
+import Controller.MessageForClient;
+import Controller.ServerSide.EventRing;
+import Model.Colors;
+import Model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link EventRing} of a lobby and the way a {@link Client} applies the sequenced events it receives.
+ */
+public class EventRingTest {
+    /**
+     * Checks that the ring stamps the events it records, replays those following a given one, details included,
+     * and reports when some of them are no longer available.
+     */
+    @Test
+    public void replayAndRollOver() {
+        EventRing ring = new EventRing(4);
+        assertEquals(List.of(), ring.since(0));
+
+        Message first = ring.record(MessageForClient.skipTurn());
+        Message detail = emptyCloudsUpdate();
+        Message second = ring.record(MessageForClient.cloudChosen(1, 0), detail);
+        assertEquals(1, ((MessageForClient) first).getSequence());
+        assertEquals(2, ((MessageForClient) second).getSequence());
+        assertEquals(0, ((MessageForClient) detail).getSequence());
+        assertEquals(List.of(first, second, detail), ring.since(0));
+        assertEquals(List.of(second, detail), ring.since(1));
+        assertEquals(List.of(), ring.since(2));
+        assertNull(ring.since(3));
+
+        for (int i = 0; i < 3; i++)
+            ring.record(MessageForClient.skipTurn());
+        assertEquals(5, ring.getSequence());
+        assertNull(ring.since(0));
+        assertEquals(List.of(second, detail), ring.since(1).subList(0, 2));
+        assertEquals(5, ring.since(1).size());
+
+        //sequence numbers keep growing after the ring is cleared
+        ring.clear();
+        assertNull(ring.since(4));
+        assertEquals(List.of(), ring.since(5));
+        assertEquals(6, ((MessageForClient) ring.record(MessageForClient.revert())).getSequence());
+    }
+
+    /**
+     * Checks that a client drops the events it already applied, and that an event following a missing one makes it request
+     * the missing events, applying nothing until they are received.
+     */
+    @Test
+    public void clientRecoversGap() throws Exception {
+        Client client = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup socket = new SocketHandlerMockup(client);
+        client.start(socket);
+
+        Game game = new Game(false, List.of(1, 2, 3));
+        EventRing ring = new EventRing(8);
+        socket.receive(ring.record(MessageForClient.gameStarted(game)));
+        Message first_skip = ring.record(MessageForClient.skipTurn());
+        Message second_skip = ring.record(MessageForClient.skipTurn());
+        game.skipTurn();
+        game.skipTurn();
+
+        //the first skip never arrives
+        socket.receive(second_skip);
+        socket.receive(ring.record(MessageForClient.cloudChosen(2, 0), emptyCloudsUpdate()));
+        socket.receive(ring.since(2).get(1));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageMissedEvents", socket.sent_messages.poll().toString());
+        assertNotEquals(game.currentlyPlayingPlayer(), client.getGameState().currentlyPlayingPlayer());
+
+        socket.receive(first_skip);
+        socket.receive(second_skip);
+        socket.receive(first_skip);
+        assertEquals(game.currentlyPlayingPlayer(), client.getGameState().currentlyPlayingPlayer());
+        assertTrue(socket.sent_messages.isEmpty());
+    }
+
+    /**
+     * Checks that an answer to a move the client no longer has makes it request the replay of the events following the last one
+     * whose content it has, dropping the events that arrive before the replay without requesting them again.
+     */
+    @Test
+    public void clientAwaitsReplay() throws Exception {
+        Client client = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup socket = new SocketHandlerMockup(client);
+        client.start(socket);
+
+        Game game = new Game(false, List.of(1, 2, 3));
+        EventRing ring = new EventRing(8);
+        socket.receive(ring.record(MessageForClient.gameStarted(game)));
+        socket.receive(ring.record(MessageForClient.skipTurn()));
+        game.skipTurn();
+
+        //an answer outside the event stream leaves every event applied so far in place
+        socket.receive(MessageForClient.moveSuccessful(1));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageMissedEvents", socket.sent_messages.poll().toString());
+        Message following = ring.record(MessageForClient.skipTurn());
+        game.skipTurn();
+        socket.receive(following);
+        assertTrue(socket.sent_messages.isEmpty());
+        socket.receive(ring.since(2).get(0));
+        assertEquals(game.currentlyPlayingPlayer(), client.getGameState().currentlyPlayingPlayer());
+
+        //an answer carrying the event of the missing move makes that event be replayed as well
+        Message missing_move = ring.record(MessageForClient.skipTurn());
+        game.skipTurn();
+        socket.receive(MessageForClient.sequenced(MessageForClient.moveSuccessful(2), 4));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageMissedEvents", socket.sent_messages.poll().toString());
+        Message next = ring.record(MessageForClient.skipTurn());
+        game.skipTurn();
+        socket.receive(next);
+        assertTrue(socket.sent_messages.isEmpty());
+        socket.receive(missing_move);
+        socket.receive(next);
+        assertEquals(game.currentlyPlayingPlayer(), client.getGameState().currentlyPlayingPlayer());
+        assertTrue(socket.sent_messages.isEmpty());
+    }
+
+    //arrays of a generic type can only be created raw
+    @SuppressWarnings("unchecked")
+    private static Message emptyCloudsUpdate() {
+        return MessageForClient.cloudsUpdate((List<Colors>[]) new List<?>[0]);
+    }
+}
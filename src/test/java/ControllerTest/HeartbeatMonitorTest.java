@@ -0,0 +1,107 @@
+package ControllerTest;
+
+import Controller.ClientSide.Client;
+import Controller.*;
+import Controller.ServerSide.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link HeartbeatMonitor} of a {@link Server} over a real loopback connection, whose client end
+ * is either a {@link Client} or a silent {@link Controller} never answering anything.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HeartbeatMonitorTest {
+    private ServerSocket server_socket;
+    private TimerWheel timer;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        server_socket = new ServerSocket(0);
+        timer = new TimerWheel(10, 64, ThreadMode.PLATFORM);
+    }
+
+    @AfterAll
+    public void tearDown() throws IOException {
+        server_socket.close();
+        timer.stop();
+    }
+
+    //opens a connection whose server end is handled by a server recording the heartbeat answers in the given monitor, returning both ends
+    private SocketHandler[] connect(Controller client_side, HeartbeatMonitor monitor) throws IOException {
+        Server server = new Server(0) {
+            @Override
+            public void heartbeatAck(SocketHandler client_handler, long timestamp) {
+                monitor.recordAnswer(client_handler, timestamp);
+            }
+        };
+        SocketHandler client_end = new SocketHandler(new Socket("127.0.0.1", server_socket.getLocalPort()), client_side);
+        SocketHandler server_end = new SocketHandler(server_socket.accept(), server);
+        if (client_side instanceof Client client)
+            client.start(client_end);
+        for (SocketHandler end : new SocketHandler[]{client_end, server_end}) {
+            new Thread(end.getReceiver()).start();
+            new Thread(end.getSender()).start();
+        }
+        monitor.watch(server_end);
+        return new SocketHandler[]{client_end, server_end};
+    }
+
+    /**
+     * Checks that a connection carrying traffic is never sent a heartbeat, while a silent one is, and that the answers of the client
+     * give the round trip time of the connection without anything being missed.
+     */
+    @Test
+    public void beatsOnlySilentConnections() throws Exception {
+        HeartbeatMonitor monitor = new HeartbeatMonitor(timer, 200, 5000, 20);
+        SocketHandler[] ends = connect(new Client("server_ip", 0, new TestUI()), monitor);
+        SocketHandler server_end = ends[1];
+        HeartbeatStatistics statistics = monitor.getStatistics(server_end);
+
+        //the client keeps sending something more often than the interval
+        long connection_time = server_end.getLastReadTime();
+        for (int i = 0; i < 12; i++) {
+            ends[0].send(MessageForServer.ping());
+            Thread.sleep(50);
+            assertEquals(0, statistics.getSentBeats());
+        }
+        assertTrue(server_end.getLastReadTime() > connection_time);
+
+        for (int i = 0; i < 100 && statistics.getAnsweredBeats() < 2; i++)
+            Thread.sleep(20);
+        assertTrue(statistics.getAnsweredBeats() >= 2);
+        assertEquals(0, statistics.getMissedBeats());
+        assertTrue(statistics.getLastRoundTripNanos() > 0);
+        assertTrue(statistics.getMaxRoundTripNanos() >= statistics.getSmoothedRoundTripNanos());
+        assertFalse(server_end.isClosed());
+        assertEquals(1, monitor.getConnections());
+    }
+
+    /**
+     * Checks that a client ignoring the heartbeats misses them one interval after the other, until its connection is severed once the timeout expires.
+     */
+    @Test
+    public void expiresSilentConnections() throws Exception {
+        HeartbeatMonitor monitor = new HeartbeatMonitor(timer, 100, 450, 20);
+        Controller silent = new Controller() {
+            public void update(SocketHandler socket_handler, Message message) {}
+            public void handleDisconnect(int clientID) {}
+        };
+        SocketHandler server_end = connect(silent, monitor)[1];
+        HeartbeatStatistics statistics = monitor.getStatistics(server_end);
+
+        for (int i = 0; i < 250 && !server_end.isClosed(); i++)
+            Thread.sleep(20);
+        assertTrue(server_end.isClosed());
+        assertTrue(statistics.getMissedBeats() >= 2);
+        assertEquals(statistics.getMissedBeats() + 1, statistics.getSentBeats());
+        assertEquals(0, statistics.getAnsweredBeats());
+        assertEquals(1, monitor.getExpiredConnections());
+        assertEquals(0, monitor.getConnections());
+    }
+}
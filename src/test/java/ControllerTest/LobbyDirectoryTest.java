@@ -0,0 +1,149 @@
+package ControllerTest;
+
+import Controller.ClientSide.Client;
+import Controller.Message;
+import Controller.ServerSide.LobbyDirectory;
+import Controller.ServerSide.LobbyFilter;
+import Controller.ServerSide.LobbySummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link LobbyDirectory} of a {@link Controller.ServerSide.Server}, along with the page of lobbies
+ * a {@link Client} keeps up to date from what the directory sends it.
+ */
+public class LobbyDirectoryTest {
+    private LobbyDirectory directory;
+    private Client client;
+    private SocketHandlerMockup socket;
+
+    @BeforeEach
+    public void setUp() {
+        directory = new LobbyDirectory();
+        client = new Client("server_ip", 0, new TestUI());
+        socket = new SocketHandlerMockup(client);
+        client.start(socket);
+    }
+
+    //delivers to the client every message the directory sent it, returning their kinds
+    private List<String> deliver() {
+        List<Message> messages = List.copyOf(socket.sent_messages);
+        socket.sent_messages.clear();
+        messages.forEach(socket::receive);
+        return messages.stream().map(Message::toString).toList();
+    }
+
+    private List<Integer> page() {
+        return client.getLobbiesPage().stream().map(lobby -> lobby.lobbyID).toList();
+    }
+
+    /**
+     * Checks that pages follow the creation order of the lobbies, each one starting after the cursor of the previous one,
+     * and that only the lobbies matching the filter are listed.
+     */
+    @Test
+    public void pagesAndFilters() {
+        //lobby i has size 2 + i % 2, expert mode for i % 3 == 0, and is full for i % 4 == 0
+        for (int i = 1; i <= 12; i++)
+            directory.put(i, 2 + i % 2, i % 3 == 0, i % 4 == 0 ? List.of("a" + i, "b" + i, "c" + i).subList(0, 2 + i % 2) : List.of("a" + i), false);
+        directory.put(13, 2, false, List.of("a13"), true);
+        assertEquals(13, directory.size());
+
+        directory.browse(socket, LobbyFilter.ANY, 0, 5, false);
+        assertEquals(List.of("MessageLobbiesPage"), deliver());
+        assertEquals(List.of(1, 2, 3, 4, 5), page());
+        int cursor = client.getLobbiesPage().get(4).position;
+        directory.browse(socket, LobbyFilter.ANY, cursor, 5, false);
+        deliver();
+        assertEquals(List.of(6, 7, 8, 9, 10), page());
+        directory.browse(socket, LobbyFilter.ANY, client.getLobbiesPage().get(4).position, 5, false);
+        deliver();
+        assertEquals(List.of(11, 12, 13), page());
+
+        directory.browse(socket, new LobbyFilter(3, null, true, null), 0, 10, false);
+        deliver();
+        assertEquals(List.of(1, 3, 5, 7, 9, 11), page());
+        directory.browse(socket, new LobbyFilter(2, false, true, null), 0, 10, false);
+        deliver();
+        assertEquals(List.of(2, 10), page());
+        directory.browse(socket, new LobbyFilter(0, true, false, "B1"), 0, 10, false);
+        deliver();
+        assertEquals(List.of(12), page());
+
+        directory.remove(5);
+        directory.put(3, 3, true, List.of("a3", "b3"), false);
+        directory.browse(socket, new LobbyFilter(3, null, true, null), 0, 10, false);
+        deliver();
+        assertEquals(List.of(1, 3, 7, 9, 11), page());
+        assertEquals(List.of(1, 2, 3, 4, 6, 7, 8, 9, 10, 11, 12, 13), directory.list().stream().map(lobby -> lobby.lobbyID).toList());
+    }
+
+    /**
+     * Checks that a subscribed client is sent the changes of the lobbies in its page, and of the lobbies created after it when browsing the last page,
+     * while the changes of the lobbies outside its page, and every change after unsubscribing, are not sent at all.
+     */
+    @Test
+    public void subscriptionFollowsPage() {
+        for (int i = 1; i <= 6; i++)
+            directory.put(i, 2, false, List.of("a" + i), false);
+        LobbyFilter open = new LobbyFilter(0, null, true, null);
+
+        //first page, lobbies 1 to 3
+        directory.browse(socket, open, 0, 3, true);
+        deliver();
+        assertEquals(List.of(1, 2, 3), page());
+        assertEquals(1, directory.getSubscribers());
+        directory.put(5, 2, false, List.of("a5", "b5"), false);
+        directory.put(7, 2, false, List.of("a7"), false);
+        assertEquals(List.of(), deliver());
+
+        directory.put(2, 2, false, List.of("a2", "b2"), false);
+        directory.put(3, 2, false, List.of(), false);
+        directory.put(3, 2, false, List.of(), false);
+        assertEquals(List.of("MessageLobbyRemoved", "MessageLobbyUpdated"), deliver());
+        assertEquals(List.of(1, 3), page());
+        assertTrue(client.getLobbiesPage().get(1).nicknames.isEmpty());
+
+        //last page, lobbies 4, 6 and 7 plus the ones created from now on
+        directory.browse(socket, open, 3, 3, true);
+        deliver();
+        assertEquals(List.of(4, 6, 7), page());
+        directory.put(8, 3, true, List.of("a8"), false);
+        directory.put(5, 2, false, List.of("a5"), false);
+        directory.put(1, 2, false, List.of("a1", "b1"), false);
+        directory.remove(6);
+        assertEquals(List.of("MessageLobbyUpdated", "MessageLobbyUpdated", "MessageLobbyRemoved"), deliver());
+        assertEquals(List.of(4, 5, 7, 8), page());
+
+        directory.unsubscribe(socket);
+        directory.put(9, 2, false, List.of("a9"), false);
+        directory.remove(4);
+        assertEquals(List.of(), deliver());
+        assertEquals(0, directory.getSubscribers());
+    }
+
+    /**
+     * Checks that with a hundred thousand lobbies, pages are still taken right after their cursor, whatever the filter.
+     */
+    @Test
+    public void manyLobbies() {
+        int lobbies = 100000;
+        for (int i = 1; i <= lobbies; i++)
+            directory.put(i, 2 + i % 2, i % 2 == 0, i % 1000 == 0 ? List.of("a" + i) : List.of("a" + i, "b" + i, "c" + i).subList(0, 2 + i % 2), false);
+
+        directory.browse(socket, new LobbyFilter(2, true, true, null), 0, LobbyDirectory.MAX_PAGE_SIZE, true);
+        deliver();
+        List<LobbySummary> page = client.getLobbiesPage();
+        assertEquals(LobbyDirectory.MAX_PAGE_SIZE, page.size());
+        for (int i = 0; i < page.size(); i++)
+            assertEquals(1000 * (i + 1), page.get(i).lobbyID);
+
+        directory.browse(socket, LobbyFilter.ANY, lobbies - 2, 1000, false);
+        deliver();
+        assertEquals(List.of(lobbies - 1, lobbies), page());
+    }
+}
@@ -0,0 +1,124 @@
+package ControllerTest;
+
+import Controller.Message;
+import Controller.ServerSide.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link Matchmaker} of a {@link Server}, both on its own and forming the lobbies of the server.
+ */
+public class MatchmakerTest {
+    /**
+     * Checks that players are matched in arrival order as soon as enough of them wait for the same kind of game, that moving to another queue
+     * or leaving it gives up the place, and that players no longer available are dropped.
+     */
+    @Test
+    public void matchesInArrivalOrder() {
+        Matchmaker matchmaker = new Matchmaker();
+        List<ClientData> players = new ArrayList<>();
+        for (int i = 1; i <= 8; i++)
+            players.add(new ClientData(i, "player" + i, new SocketHandlerMockup(null)));
+
+        assertNull(matchmaker.enqueue(players.get(0), 3, false));
+        assertNull(matchmaker.enqueue(players.get(1), 3, false));
+        assertNull(matchmaker.enqueue(players.get(2), 2, false));
+        assertNull(matchmaker.enqueue(players.get(3), 3, true));
+        //same queue, keeps its place
+        assertNull(matchmaker.enqueue(players.get(0), 3, false));
+        assertEquals(List.of(players.get(0), players.get(1), players.get(4)), matchmaker.enqueue(players.get(4), 3, false));
+        assertFalse(matchmaker.isWaiting(1));
+
+        //moves from the 2 players queue to the expert one
+        assertNull(matchmaker.enqueue(players.get(2), 3, true));
+        assertNull(matchmaker.enqueue(players.get(5), 2, false));
+        assertTrue(matchmaker.remove(6));
+        assertFalse(matchmaker.remove(6));
+        assertNull(matchmaker.enqueue(players.get(6), 2, false));
+
+        //player 8 has entered a lobby on its own, player 4 has lost its connection
+        players.get(7).setLobbyID(99);
+        players.get(3).removeSocketHandler();
+        assertNull(matchmaker.enqueue(players.get(7), 3, true));
+        assertEquals(List.of(players.get(6), players.get(1)), matchmaker.enqueue(players.get(1), 2, false));
+
+        QueueStatistics statistics = matchmaker.getStatistics(3, false);
+        assertEquals(1, statistics.getMatches());
+        assertEquals(3, statistics.getMatchedPlayers());
+        assertEquals(0, statistics.getWaiting());
+        assertTrue(statistics.getMaxWaitNanos() >= statistics.getAverageWaitNanos());
+        statistics = matchmaker.getStatistics(2, false);
+        assertEquals(2, statistics.getLeftPlayers());
+        assertEquals(1, statistics.getMatches());
+        assertEquals(1, matchmaker.getStatistics(3, true).getWaiting());
+        assertEquals(2, matchmaker.getStatistics(3, true).getLeftPlayers());
+    }
+
+    /**
+     * Checks that the players of a match that couldn't start, since one of them entered a lobby in the meantime, are put back ahead of the players
+     * that arrived after them, leaving out the ones no longer available.
+     */
+    @Test
+    public void requeuesAtTheHead() {
+        Matchmaker matchmaker = new Matchmaker();
+        List<ClientData> players = new ArrayList<>();
+        for (int i = 1; i <= 5; i++)
+            players.add(new ClientData(i, "player" + i, new SocketHandlerMockup(null)));
+
+        matchmaker.enqueue(players.get(0), 3, false);
+        matchmaker.enqueue(players.get(1), 3, false);
+        List<ClientData> match = matchmaker.enqueue(players.get(2), 3, false);
+        assertEquals(List.of(players.get(0), players.get(1), players.get(2)), match);
+        assertNull(matchmaker.enqueue(players.get(3), 3, false));
+        assertNull(matchmaker.enqueue(players.get(4), 3, false));
+
+        players.get(2).setLobbyID(99);
+        assertEquals(List.of(players.get(0), players.get(1), players.get(3)), matchmaker.requeue(match, 3, false));
+        assertTrue(matchmaker.isWaiting(5));
+        assertFalse(matchmaker.isWaiting(3));
+        assertEquals(1, matchmaker.getStatistics(3, false).getWaiting());
+    }
+
+    /**
+     * Checks that the server opens a lobby for the matched players and starts its game right away, while a player creating a lobby on its own
+     * is taken out of the queue.
+     */
+    @Test
+    public void serverStartsMatchedGames() {
+        Server server = new Server(0);
+        List<SocketHandlerMockup> handlers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            SocketHandlerMockup handler = new SocketHandlerMockup(server);
+            server.hello(handler, 0, "player" + i, 0);
+            handlers.add(handler);
+        }
+
+        server.enqueue(handlers.get(0), 2, true);
+        server.enqueue(handlers.get(1), 3, true);
+        server.createLobby(handlers.get(1), 3, false);
+        server.enqueue(handlers.get(2), 2, true);
+        server.enqueue(handlers.get(3), 2, true);
+        assertEquals(List.of("MessageAck", "MessageQueued", "MessageSetLobby", "MessageReadiness", "MessageSetLobby", "MessageReadiness",
+                "MessageReadiness", "MessageGameStarted"), kinds(handlers.get(0)));
+        assertEquals(List.of("MessageAck", "MessageQueued", "MessageSetLobby", "MessageReadiness", "MessageQueued"), kinds(handlers.get(1)));
+        assertEquals(List.of("MessageAck", "MessageQueued"), kinds(handlers.get(3)));
+
+        assertEquals(2, server.getLobbies().size());
+        ServerLobby matched = server.getLobbies().values().stream().filter(lobby -> lobby.size == 2).findAny().orElseThrow();
+        assertNotNull(matched.getGame());
+        assertEquals(List.of(handlers.get(0).getClientID(), handlers.get(2).getClientID()), matched.getClients().stream().map(client -> client.clientID).toList());
+        assertEquals(1, server.getMatchmaker().getStatistics(2, true).getWaiting());
+        assertEquals(1, server.getMatchmaker().getStatistics(3, true).getLeftPlayers());
+
+        server.leaveQueue(handlers.get(3));
+        assertEquals(0, server.getMatchmaker().getStatistics(2, true).getWaiting());
+    }
+
+    private static List<String> kinds(SocketHandlerMockup handler) {
+        return handler.sent_messages.stream().map(Message::toString).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package ControllerTest;
+
+import Controller.*;
+import Controller.ServerSide.ClientData;
+import Controller.ServerSide.LobbyData;
+import Controller.ServerSide.LobbyFilter;
+import Controller.ServerSide.LobbySummary;
+import Model.Colors;
+import Model.EffectParameters;
+import Model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link MessageCodec} implementations.<br>
+ * Every kind of {@link Message} is encoded and decoded back, the decoded message must be of the same kind and must produce
+ * exactly the same encoding, which implies that every field survived the round trip.
+ */
+public class MessageCodecTest {
+    /**
+     * Provides an instance of every {@link Message}, with every kind of payload, including null ones.
+     *
+     * @return a stream of messages
+     */
+    static Stream<Message> messages() {
+        LobbyData lobby = new LobbyData(-12345, 3, true, List.of(new ClientData(987654321, "nick", null, -12345), new ClientData(-5, "èé", null)));
+        LobbySummary summary = new LobbySummary(-12345, 3, true, List.of("nick", "èé"), false, 7);
+        @SuppressWarnings("unchecked")
+        List<Colors>[] clouds = (List<Colors>[]) new List<?>[]{List.of(Colors.RED, Colors.BLUE, Colors.GREEN), List.of()};
+
+        return Stream.of(
+                MessageForServer.ping(),
+                MessageForServer.hello(0, "player"),
+                MessageForServer.hello(-42, null),
+                MessageForServer.hello(42, "player", 1234),
+                MessageForServer.createLobby(2, false),
+                MessageForServer.joinLobby(Integer.MIN_VALUE),
+                MessageForServer.getLobbies(),
+                MessageForServer.browseLobbies(new LobbyFilter(3, true, true, "Nick"), 12, 4, true),
+                MessageForServer.browseLobbies(new LobbyFilter(0, false, false, null), 0, 50, false),
+                MessageForServer.browseLobbies(null, -1, 0, false),
+                MessageForServer.enqueue(3, true),
+                MessageForServer.leaveQueue(),
+                MessageForServer.heartbeatAck(123456789012L),
+                MessageForServerLobby.leaveLobby(),
+                MessageForServerLobby.toggleReady(),
+                MessageForServerLobby.cardPlayed(9),
+                MessageForServerLobby.studentSetToHall(6),
+                MessageForServerLobby.studentSetToIsland(3, 11),
+                MessageForServerLobby.studentSetToIsland(3, null),
+                MessageForServerLobby.motherNatureMoved(5),
+                MessageForServerLobby.cloudChosen(2),
+                MessageForServerLobby.npcActivated(1, new EffectParameters(3, 1, 4, 1, 5, 9, 2)),
+                MessageForServerLobby.npcActivated(0, null),
+                MessageForServerLobby.resync(),
+                MessageForServerLobby.missedEvents(77),
+                MessageForServerLobby.requested(MessageForServerLobby.cardPlayed(4), 12),
+                MessageForServerLobby.requested(MessageForServerLobby.leaveLobby(), Integer.MIN_VALUE),
+                MessageForServerLobby.turnPlayed(List.of(0, 1, 2), Arrays.asList(null, 3, null), 2, 1),
+                MessageForServerLobby.turnPlayed(List.of(), List.of(), null, null),
+                MessageForClient.ack(Integer.MAX_VALUE),
+                MessageForClient.setLobby(lobby),
+                MessageForClient.setLobby(null),
+                MessageForClient.lobbiesList(List.of(lobby, lobby.clone())),
+                MessageForClient.lobbiesPage(List.of(summary, new LobbySummary(8, 2, false, List.of(), true, 9)), 0, 9),
+                MessageForClient.lobbiesPage(List.of(), 9, 0),
+                MessageForClient.lobbyUpdated(summary),
+                MessageForClient.lobbyRemoved(-12345),
+                MessageForClient.queued(2, true),
+                MessageForClient.queued(0, false),
+                MessageForClient.heartbeat(System.nanoTime()),
+                MessageForClient.readiness(new boolean[]{true, false, true}),
+                MessageForClient.cardPlayed(-77, 4),
+                MessageForClient.sequenced(MessageForClient.cardPlayed(-77, 4), 300),
+                MessageForClient.studentSetToHall(77, 0),
+                MessageForClient.studentSetToIsland(77, 1, 10),
+                MessageForClient.motherNatureMoved(77, 3),
+                MessageForClient.cloudChosen(77, 1),
+                MessageForClient.npcActivated(77, 2, new EffectParameters(4)),
+                MessageForClient.turnPlayed(77, List.of(4), Arrays.asList(5), null, 0),
+                MessageForClient.skipTurn(),
+                MessageForClient.moveSuccessful(),
+                MessageForClient.moveSuccessful(12),
+                MessageForClient.cloudsUpdate(clouds),
+                MessageForClient.npcUpdated(1, List.of(Colors.YELLOW, Colors.MAGENTA)),
+                MessageForClient.revert(),
+                MessageForClient.gameStarted(new Game(true, Arrays.asList(11, -22, 33))),
+                MessageForClient.sequenced(MessageForClient.moveSuccessful(), Integer.MAX_VALUE),
+                MessageForClient.gameEnded(-22),
+                MessageForClient.error("invalid move", 7),
+                MessageForClient.error("invalid move", 7, 12)
+        );
+    }
+
+    /**
+     * Checks that every message survives a round trip through the {@link BinaryCodec}.
+     */
+    @ParameterizedTest
+    @MethodSource("messages")
+    public void binaryRoundTrip(Message message) throws Exception {
+        MessageCodec codec = new BinaryCodec();
+        byte[] encoded = codec.encode(message);
+        Message decoded = codec.decode(encoded);
+
+        assertEquals(message.toString(), decoded.toString());
+        assertEquals(BinaryCodec.VERSION, encoded[0]);
+        assertArrayEquals(encoded, codec.encode(decoded));
+    }
+
+    /**
+     * Checks that the {@link BinaryCodec} is always more compact than the {@link SerializationCodec}.
+     */
+    @ParameterizedTest
+    @MethodSource("messages")
+    public void binaryIsSmaller(Message message) throws Exception {
+        assertTrue(new BinaryCodec().encode(message).length < new SerializationCodec().encode(message).length);
+    }
+
+    /**
+     * Checks that a frame of an unknown version is rejected.
+     */
+    @ParameterizedTest
+    @MethodSource("messages")
+    public void unknownVersion(Message message) throws Exception {
+        byte[] encoded = new BinaryCodec().encode(message);
+        encoded[0] = (byte) (BinaryCodec.VERSION + 1);
+        assertThrows(java.io.StreamCorruptedException.class, () -> new BinaryCodec().decode(encoded));
+    }
+
+    /**
+     * Checks that a frame holding an object which is not a {@link Message} is rejected by the {@link SerializationCodec}.
+     */
+    @Test
+    public void notAMessage() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject("not a message");
+        out.close();
+        assertThrows(java.io.StreamCorruptedException.class, () -> new SerializationCodec().decode(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,209 @@
+package ControllerTest;
+
+import Controller.*;
+import Controller.ServerSide.ThreadMode;
+import Controller.ServerSide.TimerWheel;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link NioTransport} over a real loopback connection.<br>
+ * Both ends of the connection are served by the same transport, and each end is observed by a {@link RecordingController}
+ * which stores every update received, so that the tests can wait for them.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class NioTransportTest {
+    private static final int TIMEOUT = 5;
+
+    private NioTransport transport;
+    private ServerSocketChannel server_channel;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        transport = new NioTransport(2);
+        server_channel = ServerSocketChannel.open();
+        server_channel.bind(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @AfterAll
+    public void tearDown() throws IOException {
+        transport.shutdown();
+        server_channel.close();
+    }
+
+    /**
+     * Checks that messages flow in both directions, reaching the observers through {@link Controller#update}.
+     */
+    @Test
+    public void exchangeMessages() throws Exception {
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler client = transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = transport.register(server_channel.accept(), server_side, 0);
+
+        client.send(MessageForServer.ping());
+        client.send(MessageForServer.getLobbies());
+        assertEquals("MessagePing", server_side.nextMessage().toString());
+        assertEquals("MessageGetLobbies", server_side.nextMessage().toString());
+        assertSame(server, server_side.handlers.poll(TIMEOUT, TimeUnit.SECONDS));
+
+        server.send(MessageForClient.moveSuccessful());
+        assertEquals("MessageMoveSuccessful", client_side.nextMessage().toString());
+
+        client.changeUpdatesTarget(server_side);
+        server.send(MessageForClient.skipTurn());
+        assertEquals("MessageSkipTurn", server_side.nextMessage().toString());
+    }
+
+    /**
+     * Checks that frames bigger than the read buffer are reassembled correctly.
+     */
+    @Test
+    public void largeFrame() throws Exception {
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler client = transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = transport.register(server_channel.accept(), server_side, 0);
+
+        String text = "x".repeat(100000);
+        server.send(MessageForClient.error(text));
+        server.send(MessageForClient.ack(3));
+
+        assertEquals("MessageError", client_side.nextMessage().toString());
+        assertEquals("MessageAck", client_side.nextMessage().toString());
+    }
+
+    /**
+     * Checks that messages flow the same way when framed by the {@link BinaryCodec}.
+     */
+    @Test
+    public void binaryCodec() throws Exception {
+        NioTransport binary_transport = new NioTransport(1, new BinaryCodec());
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler client = binary_transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = binary_transport.register(server_channel.accept(), server_side, 0);
+
+        client.send(MessageForServer.hello(0, "nickname"));
+        assertEquals("MessageHello", server_side.nextMessage().toString());
+        server.send(MessageForClient.ack(12));
+        assertEquals("MessageAck", client_side.nextMessage().toString());
+
+        binary_transport.shutdown();
+    }
+
+    /**
+     * Checks that the closure of one end, and the expiration of the read timeout, are both reported through {@link Controller#handleDisconnect}.
+     */
+    @Test
+    public void disconnect() throws Exception {
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler client = transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = transport.register(server_channel.accept(), server_side, 1500);
+        server.setClientID(7);
+
+        assertEquals(7, server_side.disconnections.poll(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(server.isClosed());
+        assertEquals(0, client_side.disconnections.poll(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(client.isClosed());
+    }
+
+    /**
+     * Checks that a read timeout watched by a {@link TimerWheel} is pushed back by every frame received, and expires once they stop.
+     */
+    @Test
+    public void timerDrivenReadTimeout() throws Exception {
+        TimerWheel timer = new TimerWheel(10, 64, ThreadMode.PLATFORM);
+        NioTransport timed_transport = new NioTransport(1, new SerializationCodec(), timer);
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler client = timed_transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = timed_transport.register(server_channel.accept(), server_side, 300);
+        server.setClientID(9);
+
+        for (int i = 0; i < 6; i++) {
+            client.send(MessageForServer.ping());
+            server_side.nextMessage();
+            Thread.sleep(100);
+        }
+        assertFalse(server.isClosed());
+
+        assertEquals(9, server_side.disconnections.poll(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(server.isClosed());
+        assertEquals(0, timer.getPending());
+        timed_transport.shutdown();
+        timer.stop();
+    }
+
+    /**
+     * Checks that an exception thrown while handling a frame closes only the connection that sent it,
+     * the other connections served by the same selector thread keep exchanging messages.
+     */
+    @Test
+    public void failingUpdate() throws Exception {
+        NioTransport single_transport = new NioTransport(1);
+        RecordingController failing_side = new RecordingController() {
+            @Override
+            public void update(SocketHandler socket_handler, Message message) {
+                throw new IllegalStateException("failing update");
+            }
+        };
+        RecordingController server_side = new RecordingController();
+        RecordingController client_side = new RecordingController();
+
+        SocketHandler bad_client = single_transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), new RecordingController());
+        SocketHandler bad_server = single_transport.register(server_channel.accept(), failing_side, 0);
+        bad_server.setClientID(5);
+        SocketHandler client = single_transport.connect("127.0.0.1", server_channel.socket().getLocalPort(), client_side);
+        SocketHandler server = single_transport.register(server_channel.accept(), server_side, 0);
+
+        bad_client.send(MessageForServer.ping());
+        assertEquals(5, failing_side.disconnections.poll(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(bad_server.isClosed());
+
+        client.send(MessageForServer.ping());
+        assertEquals("MessagePing", server_side.nextMessage().toString());
+        server.send(MessageForClient.ack(4));
+        assertEquals("MessageAck", client_side.nextMessage().toString());
+
+        single_transport.shutdown();
+    }
+
+    /**
+     * {@link Controller} storing every update it receives.
+     */
+    private static class RecordingController extends Controller {
+        final BlockingQueue<Message> messages = new LinkedBlockingQueue<>();
+        final BlockingQueue<SocketHandler> handlers = new LinkedBlockingQueue<>();
+        final BlockingQueue<Integer> disconnections = new LinkedBlockingQueue<>();
+
+        public void update(SocketHandler socket_handler, Message message) {
+            handlers.add(socket_handler);
+            messages.add(message);
+        }
+
+        public void handleDisconnect(int clientID) {
+            disconnections.add(clientID);
+        }
+
+        Message nextMessage() throws InterruptedException {
+            Message message = messages.poll(TIMEOUT, TimeUnit.SECONDS);
+            assertNotNull(message);
+            return message;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ControllerTest;
+
+import Controller.BinaryCodec;
+import Controller.ClientSide.Client;
+import Controller.Message;
+import Controller.MessageForClient;
+import Controller.MessageForServerLobby;
+import Model.Colors;
+import Model.Game;
+import ModelTest.GameTests;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the moves a {@link Client} sends without waiting for the previous ones to be validated,
+ * and the way it matches the answers of the server to them.
+ */
+public class PipelinedMovesTest {
+    /**
+     * Checks that every move is sent right away with its own request id, and that the answers to the moves are matched by id
+     * regardless of their order, while an answer to a move the client doesn't know makes it fetch the events it missed,
+     * and a rejected move makes it fetch the whole game.
+     */
+    @Test
+    public void answersMatchedById() throws Exception {
+        Client client = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup socket = new SocketHandlerMockup(client);
+        client.start(socket);
+
+        Game game = new Game(false, List.of(1, 2, 3));
+        GameTests.TestGame.autoplayUpTo(game, 1, 0);
+        socket.receive(MessageForClient.ack(GameTests.TestGame.playingPlayer(game).clientID));
+        socket.receive(MessageForClient.gameStarted(game));
+
+        for (int i = 0; i < 4; i++)
+            client.setStudentToHall(0);
+        assertEquals(1, client.getGameState().getStep());
+        assertEquals(4, socket.sent_messages.size());
+        for (int i = 1; i <= 4; i++) {
+            Message move = socket.sent_messages.poll();
+            assertEquals("MessageStudentSetToHallLB", move.toString());
+            assertEquals(i, ((MessageForServerLobby) move).getRequestID());
+        }
+
+        //answers out of order are matched to their moves
+        socket.receive(MessageForClient.moveSuccessful(2));
+        socket.receive(MessageForClient.moveSuccessful(1));
+        //a move rejected by the server is still in the local model, which is fetched again as a whole
+        socket.receive(MessageForClient.error("invalid move", 7, 4));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageResync", socket.sent_messages.poll().toString());
+        socket.receive(MessageForClient.moveSuccessful(3));
+        assertTrue(socket.sent_messages.isEmpty());
+        socket.receive(MessageForClient.sequenced(MessageForClient.gameStarted(game), 3));
+
+        //an answer to a move that isn't pending means the local model misses it
+        socket.receive(MessageForClient.moveSuccessful(5));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageMissedEvents", socket.sent_messages.poll().toString());
+    }
+
+    /**
+     * Checks that a rejected move takes along the moves sent after it, so that the whole game is fetched only once
+     * however many of them the server rejects.
+     */
+    @Test
+    public void rejectionDropsLaterMoves() throws Exception {
+        Client client = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup socket = new SocketHandlerMockup(client);
+        client.start(socket);
+
+        Game game = new Game(false, List.of(1, 2, 3));
+        GameTests.TestGame.autoplayUpTo(game, 1, 0);
+        socket.receive(MessageForClient.ack(GameTests.TestGame.playingPlayer(game).clientID));
+        socket.receive(MessageForClient.gameStarted(game));
+
+        for (int i = 0; i < 4; i++)
+            client.setStudentToHall(0);
+        socket.sent_messages.clear();
+
+        socket.receive(MessageForClient.moveSuccessful(1));
+        socket.receive(MessageForClient.error("invalid move", 7, 2));
+        socket.receive(MessageForClient.error("invalid move", 7, 3));
+        socket.receive(MessageForClient.error("invalid move", 7, 4));
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals("MessageResync", socket.sent_messages.poll().toString());
+
+        //the moves dropped no longer count as pending, new ones can be sent right away
+        socket.receive(MessageForClient.sequenced(MessageForClient.gameStarted(game), 1));
+        client.setStudentToHall(0);
+        assertEquals(1, socket.sent_messages.size());
+        assertEquals(5, ((MessageForServerLobby) socket.sent_messages.poll()).getRequestID());
+    }
+
+    /**
+     * Checks that the islands are sent as their stable id rather than their index, and that an id received for an island merged
+     * into another one leads to the island holding it.
+     */
+    @Test
+    public void islandsSentById() throws Exception {
+        Game game = gameWithMergedIslands();
+        int playing = GameTests.TestGame.playingPlayer(game).clientID;
+        int other = game.getPlayers().stream().filter(player -> player.clientID != playing).findAny().orElseThrow().clientID;
+        int island_index = 0;
+        while (game.getIsland(island_index).getNumOfMergedIslands() == 1)
+            island_index++;
+
+        Client sender = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup sender_socket = new SocketHandlerMockup(sender);
+        sender.start(sender_socket);
+        sender_socket.receive(MessageForClient.ack(playing));
+        sender_socket.receive(MessageForClient.gameStarted(game));
+        sender.setStudentToIsland(0, island_index);
+        //the request id closes the frame, everything before it has to match
+        byte[] sent = new BinaryCodec().encode(sender_socket.sent_messages.poll());
+        byte[] expected = new BinaryCodec().encode(MessageForServerLobby.studentSetToIsland(0, game.islandID(island_index)));
+        assertEquals(expected.length, sent.length);
+        assertArrayEquals(Arrays.copyOf(expected, expected.length - 1), Arrays.copyOf(sent, sent.length - 1));
+
+        Client receiver = new Client("server_ip", 0, new TestUI());
+        SocketHandlerMockup receiver_socket = new SocketHandlerMockup(receiver);
+        receiver.start(receiver_socket);
+        receiver_socket.receive(MessageForClient.ack(other));
+        receiver_socket.receive(MessageForClient.gameStarted(game));
+        //the id of one of the islands merged into the chosen one
+        receiver_socket.receive(MessageForClient.studentSetToIsland(playing, 0, (game.islandID(island_index) + 1) % 12));
+        game.setStudentToIsland(playing, 0, island_index);
+        for (Colors color : Colors.values())
+            assertEquals(game.islandStudents(island_index, color), receiver.getGameState().islandStudents(island_index, color));
+    }
+
+    //plays random games until some islands are merged and a player has to move the students
+    private static Game gameWithMergedIslands() {
+        while (true) {
+            Game game = new Game(false, List.of(1, 2));
+            while (!game.isGameEnded()) {
+                GameTests.TestGame.autoplayUpTo(game, 1, 1);
+                GameTests.TestGame.autoplayUpTo(game, 1, 0);
+                if (!game.isGameEnded() && game.islandCount() < 12)
+                    return game;
+            }
+        }
+    }
+}
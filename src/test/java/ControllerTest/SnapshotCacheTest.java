@@ -0,0 +1,65 @@
+package ControllerTest;
+
+import Controller.GameSnapshot;
+import Controller.ServerSide.SnapshotCache;
+import Model.Game;
+import Model.PackedGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link SnapshotCache} and the {@link GameSnapshot GameSnapshots} it hands out.
+ */
+public class SnapshotCacheTest {
+    /**
+     * Checks that a snapshot rebuilds exactly the game it was taken from, while being smaller than its plain serialization.
+     */
+    @Test
+    public void roundTrip() throws Exception {
+        for (Game game : new Game[]{new Game(false, List.of(1, 2)), new Game(true, List.of(1, 2, 3))}) {
+            GameSnapshot snapshot = GameSnapshot.of(game);
+            Game rebuilt = snapshot.toGame();
+
+            assertNotSame(game, rebuilt);
+            assertArrayEquals(game.getGameSerialization(), rebuilt.getGameSerialization());
+            assertEquals(PackedGame.SIZE, snapshot.getPacked().length);
+            assertTrue(snapshot.getPacked().length < game.getGameSerialization().length);
+        }
+    }
+
+    /**
+     * Checks that the same snapshot is handed out until the game changes, and that every lobby has its own.
+     */
+    @Test
+    public void reusedUntilChanged() throws Exception {
+        SnapshotCache cache = new SnapshotCache();
+        Game game = new Game(false, List.of(1, 2));
+        Game other_game = new Game(true, List.of(3, 4));
+
+        GameSnapshot snapshot = cache.get(10, game);
+        for (int i = 0; i < 5; i++)
+            assertSame(snapshot, cache.get(10, game));
+        assertNotSame(snapshot, cache.get(20, other_game));
+        assertSame(snapshot, cache.get(10, game));
+        assertEquals(2, cache.getMisses());
+        assertEquals(6, cache.getHits());
+
+        game.playCard(game.currentlyPlayingPlayer(), 0);
+        GameSnapshot after_move = cache.get(10, game);
+        assertNotSame(snapshot, after_move);
+        assertArrayEquals(game.getGameSerialization(), after_move.toGame().getGameSerialization());
+        assertSame(after_move, cache.get(10, game));
+
+        //a game is reverted in place, moving its version on
+        Game reverted = Game.revertToPreviousState(game);
+        assertNotSame(after_move, cache.get(10, reverted));
+
+        cache.invalidate(10);
+        long misses = cache.getMisses();
+        cache.get(10, reverted);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+}
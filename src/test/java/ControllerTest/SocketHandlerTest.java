@@ -0,0 +1,228 @@
+package ControllerTest;
+
+import Controller.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the thread based {@link SocketHandler} over a real loopback connection.<br>
+ * The receiving end of every connection is observed by a {@link RecordingController}, which stores every message received.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SocketHandlerTest {
+    private static final int TIMEOUT = 5;
+
+    private ServerSocket server_socket;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        server_socket = new ServerSocket(0);
+    }
+
+    @AfterAll
+    public void tearDown() throws IOException {
+        server_socket.close();
+    }
+
+    /**
+     * Opens a connection, providing a {@link SocketHandler} for both ends with their threads already running,
+     * except for the sender of the first one, which is returned to be started by the caller.
+     */
+    private Thread connect(SocketHandler[] ends, Controller sender_side, Controller receiver_side, MessageCodec codec) throws IOException {
+        Socket socket = new Socket("127.0.0.1", server_socket.getLocalPort());
+        ends[0] = new SocketHandler(socket, sender_side, codec);
+        ends[1] = new SocketHandler(server_socket.accept(), receiver_side, codec);
+        new Thread(ends[0].getReceiver()).start();
+        new Thread(ends[1].getReceiver()).start();
+        new Thread(ends[1].getSender()).start();
+        return new Thread(ends[0].getSender());
+    }
+
+    /**
+     * Checks that a burst of messages queued while the sender is busy gets written with a single flush, in order, on both the
+     * Java object stream and the framed path.
+     */
+    @Test
+    public void coalescedBurst() throws Exception {
+        for (MessageCodec codec : new MessageCodec[]{null, new BinaryCodec()}) {
+            RecordingController receiver_side = new RecordingController();
+            SocketHandler[] ends = new SocketHandler[2];
+            Thread sender = connect(ends, new RecordingController(), receiver_side, codec);
+
+            for (int i = 0; i < 20; i++)
+                ends[0].send(MessageForClient.cardPlayed(i, i));
+            ends[0].send(MessageForClient.moveSuccessful());
+            sender.start();
+
+            for (int i = 0; i < 20; i++)
+                assertEquals("MessageCardPlayed", receiver_side.nextMessage().toString());
+            assertEquals("MessageMoveSuccessful", receiver_side.nextMessage().toString());
+
+            //the flush is recorded right after it completes, possibly after the messages arrived
+            SenderStatistics statistics = ends[0].getSenderStatistics();
+            for (int i = 0; i < 100 && statistics.getFlushes() == 0; i++)
+                Thread.sleep(10);
+            assertEquals(21, statistics.getMessages());
+            assertEquals(1, statistics.getFlushes());
+            assertEquals(21, statistics.getMaxMessagesPerFlush());
+            assertTrue(statistics.getMaxQueueWaitNanos() > 0);
+
+            ends[0].send(MessageForClient.skipTurn());
+            assertEquals("MessageSkipTurn", receiver_side.nextMessage().toString());
+        }
+    }
+
+    /**
+     * Checks that once the queue reaches its limit {@link OverflowPolicy#DROP_AND_RESYNC} replaces every pending message with an error of code 8,
+     * while later messages are queued normally.
+     */
+    @Test
+    public void overflowDropAndResync() throws Exception {
+        RecordingController receiver_side = new RecordingController();
+        SocketHandler[] ends = new SocketHandler[2];
+        Thread sender = connect(ends, new RecordingController(), receiver_side, null);
+        ends[0].setSendQueueLimit(5, OverflowPolicy.DROP_AND_RESYNC);
+
+        for (int i = 0; i < 6; i++)
+            ends[0].send(MessageForClient.cardPlayed(i, i));
+        ends[0].send(MessageForClient.skipTurn());
+        SenderStatistics statistics = ends[0].getSenderStatistics();
+        assertEquals(2, statistics.getQueueDepth());
+        assertEquals(5, statistics.getMaxQueueDepth());
+        assertEquals(1, statistics.getOverflows());
+        assertEquals(6, statistics.getDroppedMessages());
+        sender.start();
+
+        assertEquals("MessageError", receiver_side.nextMessage().toString());
+        assertEquals("MessageSkipTurn", receiver_side.nextMessage().toString());
+        for (int i = 0; i < 100 && statistics.getQueueDepth() > 0; i++)
+            Thread.sleep(10);
+        assertEquals(0, statistics.getQueueDepth());
+    }
+
+    /**
+     * Checks that once the queue reaches its limit {@link OverflowPolicy#COLLAPSE_TO_SNAPSHOT} replaces every pending message with the
+     * snapshot provided by the observing {@link Controller}.
+     */
+    @Test
+    public void overflowCollapseToSnapshot() throws Exception {
+        for (MessageCodec codec : new MessageCodec[]{null, new BinaryCodec()}) {
+            RecordingController receiver_side = new RecordingController();
+            RecordingController sender_side = new RecordingController();
+            sender_side.snapshot = List.of(MessageForClient.readiness(new boolean[]{true, false}), MessageForClient.skipTurn());
+            SocketHandler[] ends = new SocketHandler[2];
+            Thread sender = connect(ends, sender_side, receiver_side, codec);
+            ends[0].setSendQueueLimit(3, OverflowPolicy.COLLAPSE_TO_SNAPSHOT);
+
+            for (int i = 0; i < 9; i++)
+                ends[0].send(MessageForClient.cardPlayed(i, i));
+            sender.start();
+
+            //the 4th message collapses the queue to the 2 of the snapshot, the 5th fills it again and the 6th collapses it, and so on
+            assertEquals("MessageReadiness", receiver_side.nextMessage().toString());
+            assertEquals("MessageSkipTurn", receiver_side.nextMessage().toString());
+            assertEquals("MessageCardPlayed", receiver_side.nextMessage().toString());
+            assertEquals(3, ends[0].getSenderStatistics().getOverflows());
+            assertEquals(3 * 4, ends[0].getSenderStatistics().getDroppedMessages());
+        }
+    }
+
+    /**
+     * Checks that a {@link Controller} can answer the request of a snapshot later, as a lobby does from its mailbox, the snapshot then
+     * replacing the messages queued in the meantime as well.
+     */
+    @Test
+    public void overflowCollapseLater() throws Exception {
+        RecordingController receiver_side = new RecordingController();
+        RecordingController sender_side = new RecordingController();
+        sender_side.snapshot = List.of(MessageForClient.readiness(new boolean[]{true, false}), MessageForClient.skipTurn());
+        sender_side.deferred_snapshots = true;
+        SocketHandler[] ends = new SocketHandler[2];
+        Thread sender = connect(ends, sender_side, receiver_side, null);
+        ends[0].setSendQueueLimit(3, OverflowPolicy.COLLAPSE_TO_SNAPSHOT);
+
+        for (int i = 0; i < 6; i++)
+            ends[0].send(MessageForClient.cardPlayed(i, i));
+        SenderStatistics statistics = ends[0].getSenderStatistics();
+        assertEquals(ends[0], sender_side.snapshot_requests.poll());
+        assertEquals(2, statistics.getQueueDepth());
+
+        ends[0].collapse(sender_side.snapshot(ends[0]));
+        sender.start();
+
+        assertEquals("MessageReadiness", receiver_side.nextMessage().toString());
+        assertEquals("MessageSkipTurn", receiver_side.nextMessage().toString());
+        assertEquals(1, statistics.getOverflows());
+        assertEquals(4 + 2, statistics.getDroppedMessages());
+        assertTrue(sender_side.snapshot_requests.isEmpty());
+    }
+
+    /**
+     * Checks that once the queue reaches its limit {@link OverflowPolicy#DISCONNECT} closes the connection,
+     * notifying the observing {@link Controller} from the receiving thread.
+     */
+    @Test
+    public void overflowDisconnect() throws Exception {
+        RecordingController sender_side = new RecordingController();
+        SocketHandler[] ends = new SocketHandler[2];
+        connect(ends, sender_side, new RecordingController(), null);
+        ends[0].setClientID(42);
+        ends[0].setSendQueueLimit(2, OverflowPolicy.DISCONNECT);
+
+        for (int i = 0; i < 3; i++)
+            ends[0].send(MessageForClient.moveSuccessful());
+
+        assertEquals(42, sender_side.disconnections.poll(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(ends[0].isClosed());
+        assertEquals(0, ends[0].getSenderStatistics().getQueueDepth());
+        assertEquals(3, ends[0].getSenderStatistics().getDroppedMessages());
+    }
+
+    /**
+     * {@link Controller} storing every message it receives.
+     */
+    private static class RecordingController extends Controller {
+        final BlockingQueue<Message> messages = new LinkedBlockingQueue<>();
+        final BlockingQueue<Integer> disconnections = new LinkedBlockingQueue<>();
+        List<Message> snapshot = List.of();
+        //true to store the requests of a snapshot instead of answering them right away
+        boolean deferred_snapshots = false;
+        final BlockingQueue<SocketHandler> snapshot_requests = new LinkedBlockingQueue<>();
+
+        public void update(SocketHandler socket_handler, Message message) {
+            messages.add(message);
+        }
+
+        public void handleDisconnect(int clientID) {
+            disconnections.add(clientID);
+        }
+
+        @Override
+        public List<Message> snapshot(SocketHandler socket_handler) {
+            return snapshot;
+        }
+
+        @Override
+        public void requestSnapshot(SocketHandler socket_handler) {
+            if (deferred_snapshots)
+                snapshot_requests.add(socket_handler);
+            else
+                super.requestSnapshot(socket_handler);
+        }
+
+        Message nextMessage() throws InterruptedException {
+            Message message = messages.poll(TIMEOUT, TimeUnit.SECONDS);
+            assertNotNull(message);
+            return message;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ControllerTest;
+
+import Controller.*;
+import Controller.ServerSide.ThreadMode;
+import Controller.ServerSide.TimerWheel;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Benchmark simulating the load of many connected clients on a given {@link ThreadMode}, the same way {@link Controller.ServerSide.Server#startServer}
+ * runs the {@link SocketHandler} threads, and a disconnection timer for each of the clients on a {@link TimerWheel}, the same way {@link Controller.ServerSide.Server#handleDisconnect} does.<br>
+ * It prints the live thread count, the round trip time of a message echoed by the server side and how late the timers fire.
+ * <br><br>
+ * Usage: <code>ThreadModeBenchmark [platform|virtual] [clients] [timer_ms]</code>, on runtimes without virtual threads the
+ * virtual mode falls back to platform threads and says so.
+ */
+public class ThreadModeBenchmark {
+    private static final int SAMPLES = 1000;
+
+    public static void main(String[] argv) throws Exception {
+        ThreadMode thread_mode = argv.length > 0 ? ThreadMode.valueOf(argv[0].toUpperCase()) : ThreadMode.PLATFORM;
+        int num_of_clients = argv.length > 1 ? Integer.parseInt(argv[1]) : 5000;
+        int timer = argv.length > 2 ? Integer.parseInt(argv[2]) : 2000;
+
+        System.out.println("mode=" + thread_mode + (thread_mode.isSupported() ? "" : " (unsupported, running on platform threads)") + ", clients=" + num_of_clients);
+
+        Controller echo = new Controller() {
+            public void update(SocketHandler socket_handler, Message message) {
+                socket_handler.send(message);
+            }
+            public void handleDisconnect(int clientID) {}
+        };
+
+        ServerSocket server_socket = new ServerSocket(0, 1024);
+        ExecutorService exec = thread_mode.newExecutor();
+        List<Socket> sockets = new ArrayList<>();
+        List<ObjectOutputStream> outs = new ArrayList<>();
+        List<ObjectInputStream> ins = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < num_of_clients; i++) {
+            Socket socket = new Socket("127.0.0.1", server_socket.getLocalPort());
+            socket.setTcpNoDelay(true);
+            SocketHandler socket_handler = new SocketHandler(server_socket.accept(), echo);
+            exec.submit(socket_handler.getReceiver());
+            exec.submit(socket_handler.getSender());
+            sockets.add(socket);
+            outs.add(new ObjectOutputStream(socket.getOutputStream()));
+            ins.add(new ObjectInputStream(socket.getInputStream()));
+        }
+        System.out.printf("connected in %d ms, threads=%d%n", (System.nanoTime() - start) / 1000000, threadCount());
+
+        long[] round_trips = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int client = i * 7919 % num_of_clients;
+            long sent = System.nanoTime();
+            outs.get(client).writeObject(MessageForServer.ping());
+            outs.get(client).flush();
+            ins.get(client).readObject();
+            round_trips[i] = System.nanoTime() - sent;
+        }
+        Arrays.sort(round_trips);
+        System.out.printf("echo rtt us: p50=%d p99=%d max=%d%n", round_trips[SAMPLES / 2] / 1000, round_trips[SAMPLES * 99 / 100] / 1000, round_trips[SAMPLES - 1] / 1000);
+
+        long[] lateness = new long[num_of_clients];
+        CountDownLatch fired = new CountDownLatch(num_of_clients);
+        TimerWheel timer_wheel = new TimerWheel(TimerWheel.DEFAULT_TICK, TimerWheel.DEFAULT_WHEEL_SIZE, thread_mode);
+        for (int i = 0; i < num_of_clients; i++) {
+            int index = i;
+            long scheduled = System.nanoTime();
+            timer_wheel.schedule(() -> {
+                lateness[index] = System.nanoTime() - scheduled - timer * 1000000L;
+                fired.countDown();
+            }, timer);
+        }
+        System.out.printf("timers started, threads=%d%n", threadCount());
+        fired.await();
+        Arrays.sort(lateness);
+        System.out.printf("timer lateness ms: p50=%d p99=%d max=%d%n", lateness[num_of_clients / 2] / 1000000, lateness[num_of_clients * 99 / 100] / 1000000, lateness[num_of_clients - 1] / 1000000);
+
+        //idle senders never wake up on their own, hence the forced exit
+        System.exit(0);
+    }
+
+    private static int threadCount() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+}
@@ -0,0 +1,87 @@
+package ControllerTest;
+
+import Controller.ServerSide.ThreadMode;
+import Controller.ServerSide.TimerWheel;
+import Controller.ServerSide.Timeout;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class designated to test the {@link TimerWheel} running the timers of a {@link Controller.ServerSide.Server}.
+ */
+public class TimerWheelTest {
+    /**
+     * Checks that timers never fire before their delay, including those longer than a whole turn of the wheel, and not much later either.
+     */
+    @Test
+    public void firesAfterDelay() throws InterruptedException {
+        TimerWheel timer = new TimerWheel(10, 8, ThreadMode.PLATFORM);
+        int[] delays = {0, 5, 30, 75, 170, 300};
+        CountDownLatch fired = new CountDownLatch(delays.length);
+        AtomicLong earliness = new AtomicLong(0);
+        AtomicLong lateness = new AtomicLong(0);
+
+        for (int delay : delays) {
+            long deadline = System.nanoTime() + delay * 1000000L;
+            timer.schedule(() -> {
+                long difference = System.nanoTime() - deadline;
+                earliness.accumulateAndGet(-difference, Math::max);
+                lateness.accumulateAndGet(difference, Math::max);
+                fired.countDown();
+            }, delay);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(earliness.get() <= 0);
+        assertTrue(lateness.get() < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, timer.getPending());
+        timer.stop();
+    }
+
+    /**
+     * Checks that a thousand timers, as many as the clients of a mass disconnection, are run by the single thread of the wheel,
+     * and that the cancelled ones never fire, while cancelling a timer that already fired has no effect.
+     */
+    @Test
+    public void cancelledTimersNeverFire() throws InterruptedException {
+        TimerWheel timer = new TimerWheel(10, 64, ThreadMode.PLATFORM);
+        int timers = 1000;
+        AtomicInteger cancelled_fired = new AtomicInteger(0);
+        CountDownLatch fired = new CountDownLatch(timers / 2);
+        List<Thread> threads = new ArrayList<>();
+        List<Timeout> timeouts = new ArrayList<>();
+
+        for (int i = 0; i < timers; i++) {
+            boolean cancel = i % 2 == 1;
+            timeouts.add(timer.schedule(() -> {
+                threads.add(Thread.currentThread());
+                if (cancel)
+                    cancelled_fired.incrementAndGet();
+                fired.countDown();
+            }, 100 + i % 100));
+        }
+        assertEquals(timers, timer.getPending());
+        for (int i = 1; i < timers; i += 2)
+            assertTrue(timeouts.get(i).cancel());
+        assertFalse(timeouts.get(1).cancel());
+        assertEquals(timers / 2, timer.getPending());
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(0, cancelled_fired.get());
+        assertEquals(0, timer.getPending());
+        assertEquals(1, threads.stream().distinct().count());
+        assertTrue(timeouts.get(0).isExpired());
+        assertFalse(timeouts.get(0).cancel());
+        assertTrue(timeouts.get(1).isCancelled());
+        timer.stop();
+    }
+}
@@ -0,0 +1,94 @@
+package ControllerTest;
+
+import Controller.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Benchmark comparing the resources used by idle connections when served by a thread pair per {@link SocketHandler},
+ * as done by {@link Controller.ServerSide.Server#startServer}, and when served by a {@link NioTransport}.<br>
+ * For every step the live thread count and the resident set size of the process are printed, idle connections are opened
+ * by plain client {@link Socket Sockets} which own no thread.
+ * <br><br>
+ * Usage: <code>TransportBenchmark [classic|nio] [max_connections] [selector_threads]</code>, run each mode in a separate JVM
+ * so that the figures are not polluted by the other one.
+ */
+public class TransportBenchmark {
+    private static final int[] STEPS = {0, 250, 500, 1000, 2000, 4000};
+
+    public static void main(String[] argv) throws Exception {
+        String mode = argv.length > 0 ? argv[0] : "nio";
+        int max_connections = argv.length > 1 ? Integer.parseInt(argv[1]) : 2000;
+        int selector_threads = argv.length > 2 ? Integer.parseInt(argv[2]) : 2;
+
+        Controller controller = new Controller() {
+            public void update(SocketHandler socket_handler, Message message) {}
+            public void handleDisconnect(int clientID) {}
+        };
+
+        List<Socket> clients = new ArrayList<>();
+        System.out.println("mode=" + mode + "\nconnections\tthreads\trss_kB");
+
+        if (mode.equals("classic")) {
+            ServerSocket server_socket = new ServerSocket(0, 1024);
+            ExecutorService exec = Executors.newCachedThreadPool();
+            for (int step : STEPS) {
+                if (step > max_connections)
+                    break;
+                while (clients.size() < step) {
+                    clients.add(new Socket("127.0.0.1", server_socket.getLocalPort()));
+                    SocketHandler socket_handler = new SocketHandler(server_socket.accept(), controller);
+                    exec.submit(socket_handler.getReceiver());
+                    exec.submit(socket_handler.getSender());
+                }
+                report(step);
+            }
+            //idle senders never wake up on their own, hence the forced exit
+            System.exit(0);
+        } else {
+            ServerSocketChannel server_channel = ServerSocketChannel.open();
+            server_channel.bind(new InetSocketAddress("127.0.0.1", 0), 1024);
+            NioTransport transport = new NioTransport(selector_threads);
+            for (int step : STEPS) {
+                if (step > max_connections)
+                    break;
+                while (clients.size() < step) {
+                    clients.add(new Socket("127.0.0.1", server_channel.socket().getLocalPort()));
+                    transport.register(server_channel.accept(), controller, 0);
+                }
+                report(step);
+            }
+            for (Socket client : clients)
+                client.close();
+            transport.shutdown();
+        }
+    }
+
+    private static void report(int connections) throws IOException, InterruptedException {
+        System.gc();
+        Thread.sleep(500);
+        System.out.println(connections + "\t" + ManagementFactory.getThreadMXBean().getThreadCount() + "\t" + residentSetSize());
+    }
+
+    //reads VmRSS from procfs, only available on Linux
+    private static long residentSetSize() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status))
+            return -1;
+        for (String line : Files.readAllLines(status))
+            if (line.startsWith("VmRSS:"))
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        return -1;
+    }
+}
@@ -0,0 +1,102 @@
+package ModelTest;
+
+import Model.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Benchmark printing, for expert games of 2 and 3 players in the middle of a turn, the bytes allocated on average to read the whole game,
+ * as the UI does to draw it:
+ * <ul>
+ *     <li> with the indexed getters, such as {@link Game#getIsland}, which once warmed up should allocate nothing
+ *     <li> with the getters copying the game's lists, such as {@link Game#getIslands}
+ * </ul>
+ * The allocated bytes are read from the JVM's per thread counters, so the benchmark needs a HotSpot JVM.<br>
+ * Usage: <code>AllocationBenchmark [iterations]</code>
+ */
+public class AllocationBenchmark {
+    public static void main(String[] argv) {
+        int iterations = argv.length > 0 ? Integer.parseInt(argv[0]) : 100000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        System.out.printf("%-8s | %12s %12s | %12s %12s%n", "players", "indexed_B", "indexed_ns", "copying_B", "copying_ns");
+
+        for (int players = 2; players <= 3; players++) {
+            GameTests.TestGame test = new GameTests.TestGame(true, players);
+            test.autoplayUpTo(1, 1);
+            Game game = test.game;
+            long sink = 0;
+
+            //warm up
+            for (int i = 0; i < iterations; i++)
+                sink += readIndexed(game) + readCopying(game);
+
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                sink += readIndexed(game);
+            long indexed_ns = (System.nanoTime() - start) / iterations;
+            long indexed_bytes = (threads.getThreadAllocatedBytes(thread) - allocated) / iterations;
+
+            allocated = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                sink += readCopying(game);
+            long copying_ns = (System.nanoTime() - start) / iterations;
+            long copying_bytes = (threads.getThreadAllocatedBytes(thread) - allocated) / iterations;
+
+            System.out.printf("%-8d | %12d %12d | %12d %12d%s%n", players, indexed_bytes, indexed_ns, copying_bytes, copying_ns, sink == 0 ? " " : "");
+        }
+    }
+
+    //reads every player, island, cloud, professor and npc with the indexed getters
+    private static long readIndexed(Game game) {
+        long sum = 0;
+        for (int i = 0; i < game.playerCount(); i++) {
+            Player player = game.getPlayer(i);
+            sum += game.getPlayerWithID(player.clientID).getCoins() + game.turnOrderPosition(player.clientID) + game.playerInTurnOrder(i);
+            for (int j = 0; j < game.entranceSize(i); j++)
+                sum += game.entranceStudent(i, j).index;
+            for (int j = 0; j < player.getCardsSize(); j++)
+                sum += player.getCard(j).order_value;
+        }
+        for (int i = 0; i < game.islandCount(); i++)
+            for (int color = 0; color < 5; color++) //Colors.values() would copy the constants every time
+                sum += game.islandStudents(i, Colors.fromColorIndex(color)) + game.getIsland(i).getNumOfMergedIslands();
+        for (int i = 0; i < game.cloudCount(); i++)
+            for (int j = 0; j < game.cloudSize(i); j++)
+                sum += game.cloudStudent(i, j).index;
+        for (int i = 0; i < game.unclaimedProfessorsCount(); i++)
+            sum += game.unclaimedProfessor(i).index;
+        for (int i = 0; i < game.npcCount(); i++)
+            sum += game.getNpc(i).getCost();
+        return sum;
+    }
+
+    //reads the same as readIndexed, with the getters copying the lists
+    private static long readCopying(Game game) {
+        long sum = 0;
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            Player player = game.getPlayers().get(i);
+            sum += player.getCoins() + game.currentPlayersTurnOrder().indexOf(player.clientID) + game.currentPlayersTurnOrder().get(i);
+            for (Colors student : player.getDashboard().getEntrance())
+                sum += student.index;
+            for (Card card : player.getCards())
+                sum += card.order_value;
+        }
+        for (int i = 0; i < game.getIslands().size(); i++)
+            for (Colors color : Colors.values())
+                sum += game.getIslands().get(i).getStudents(color) + game.getIslands().get(i).getNumOfMergedIslands();
+        List<Colors>[] clouds = game.getClouds();
+        for (int i = 0; i < game.getPlayers().size(); i++)
+            for (Colors student : clouds[i])
+                sum += student.index;
+        for (Colors professor : game.getUnclaimedProfessors())
+            sum += professor.index;
+        for (Npc npc : game.getNpcs())
+            sum += npc.getCost();
+        return sum;
+    }
+}
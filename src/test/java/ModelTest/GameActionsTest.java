@@ -2065,6 +2065,148 @@ public class GameActionsTest extends GameTests {
 
         }
 
+        /**
+         * Checks the {@link Game#playActionTurn} method.
+         * <p>
+         *     Specifically it asserts:
+         *     <li>The method throws an {@link InvalidMoveException} when the student indexes and destinations don't match;</li>
+         *     <li>{@link Game#validateActionTurn} accepts the moves which are valid one by one;</li>
+         *     <li>Playing a whole action turn at once leaves the game exactly as playing its moves one by one.</li>
+         * </p>
+         * @implNote This test plays every action turn both ways, on the game and on a copy of it, until the game ends.
+         */
+        @DisplayName("Play a whole action turn")
+        @ParameterizedTest(name = "{0}")
+        @Order(7)
+        @MethodSource(arguments_supplier)
+        void playActionTurn(TestGame test) {
+            //prepare the TestGame and its game
+            test.autoplayUpTo(1, 0);
+
+            while (!test.game.isGameEnded()) {
+                final int playing_clientID = test.playingPlayer().clientID;
+                final Exception e = assertThrows(InvalidMoveException.class,
+                        () -> test.game.playActionTurn(playing_clientID, List.of(0), List.of(), null, null),
+                        "playActionTurn has not thrown exception with mismatching student moves");
+                assertEquals("Invalid student destinations.", e.getMessage(), "The exception has been thrown, but for the wrong reason");
+                assertEquals(MoveResult.INVALID_STUDENT_DESTINATIONS, test.game.validateActionTurn(playing_clientID, List.of(0), List.of(), null, null),
+                        "validateActionTurn has accepted mismatching student moves");
+
+                //play the moves one by one on a copy, remembering them
+                final Game single_moves = test.game.copy();
+                final Player player = TestGame.playingPlayer(single_moves);
+                final List<Integer> student_indexes = new ArrayList<>();
+                final List<Integer> destinations = new ArrayList<>();
+                Integer mother_nature_moves = null, cloud_index = null;
+                try {
+                    while (single_moves.getStep() == 0) {
+                        final int student = random.nextInt(player.getDashboard().getEntrance().size());
+                        final Integer destination = random.nextBoolean() ? null : random.nextInt(single_moves.getIslands().size());
+                        if (destination == null)
+                            single_moves.setStudentToHall(player.clientID, student);
+                        else
+                            single_moves.setStudentToIsland(player.clientID, student, destination);
+                        student_indexes.add(student);
+                        destinations.add(destination);
+                    }
+                    mother_nature_moves = TestGame.randomlyMoveMotherNature(single_moves);
+                    if (!single_moves.isGameEnded() && single_moves.getPhase() == 1 && single_moves.getStep() == 2)
+                        cloud_index = TestGame.randomlyChooseCloud(single_moves);
+                } catch (InvalidMoveException ex) {
+                    fail("Single move failed: " + ex.getMessage());
+                }
+
+                //play them all at once on the game
+                final Integer final_mother_nature_moves = mother_nature_moves, final_cloud_index = cloud_index;
+                assertEquals(MoveResult.VALID, test.game.validateActionTurn(playing_clientID, student_indexes, destinations, mother_nature_moves, cloud_index),
+                        "validateActionTurn has rejected moves which were valid one by one");
+                assertDoesNotThrow(() -> test.game.playActionTurn(playing_clientID, student_indexes, destinations, final_mother_nature_moves, final_cloud_index),
+                        "playActionTurn has thrown exception while playing moves which were valid one by one");
+
+                assertEquals(single_moves.isGameEnded(), test.game.isGameEnded(), "The game ended differently");
+                assertEquals(single_moves.getPhase(), test.game.getPhase(), "Wrong phase after the action turn");
+                assertEquals(single_moves.getStep(), test.game.getStep(), "Wrong step after the action turn");
+                assertEquals(single_moves.currentlyPlayingPlayer(), test.game.currentlyPlayingPlayer(), "Wrong playing player after the action turn");
+                assertEquals(single_moves.getMotherNature(), test.game.getMotherNature(), "Mother nature is not in the same position");
+                assertEquals(single_moves.getIslands().size(), test.game.getIslands().size(), "Islands have not been merged the same way");
+                for (int i = 0; i < test.game.getIslands().size(); i++)
+                    for (final Colors color : Colors.values())
+                        assertEquals(single_moves.getIslands().get(i).getStudents(color), test.game.getIslands().get(i).getStudents(color),
+                                "Island " + i + " has a different number of " + color + " students");
+                for (int i = 0; i < test.game.getPlayers().size(); i++) {
+                    final Dashboard expected = single_moves.getPlayers().get(i).getDashboard(), actual = test.game.getPlayers().get(i).getDashboard();
+                    assertEquals(expected.getEntrance(), actual.getEntrance(), "Different entrance for player " + i);
+                    for (final Colors color : Colors.values()) {
+                        assertEquals(expected.getHallRow(color), actual.getHallRow(color), "Different " + color + " hall row for player " + i);
+                        assertEquals(expected.getProfessor(color), actual.getProfessor(color), "Different " + color + " professor for player " + i);
+                    }
+                    assertEquals(single_moves.getPlayers().get(i).getCoins(), test.game.getPlayers().get(i).getCoins(), "Different coins for player " + i);
+                }
+
+                //prepare for next turn
+                test.autoplayUpTo(1, 0);
+            }
+        }
+
+        /**
+         * Checks the {@link Game#playActionTurn} method when moving mother nature ends the game.
+         * <p>
+         *     Specifically it asserts:
+         *     <li>{@link Game#validateActionTurn} accepts a cloud index after the game ending move, since the ending can't be foreseen;</li>
+         *     <li>The method doesn't throw an exception for the cloud, which is not chosen once the game has ended;</li>
+         *     <li>The game ends with the same winner as when mother nature is moved on its own.</li>
+         * </p>
+         * @implNote This test plays random games, built from consecutive seeds, until mother nature ends one of them outside the last game turn.
+         */
+        @DisplayName("Play a whole action turn ending the game")
+        @Test
+        @Order(8)
+        void gameEndingActionTurn() {
+            boolean ended_by_action_turn = false;
+            for (int seed = 0; seed < 500 && !ended_by_action_turn; seed++) {
+                final TestGame test = new TestGame(false, 2, new Game(false, List.of(1, 2), seed), List.of(1, 2));
+                while (!test.game.isGameEnded() && !ended_by_action_turn) {
+                    if (test.game.getPhase() == 1 && test.game.getStep() == 1 && !test.game.isLastGameTurn()) {
+                        final Player player = test.playingPlayer();
+                        final int cloud_index = IntStream.range(0, 2).filter(i -> test.game.getClouds()[i].size() != 0).findFirst().orElseThrow();
+                        for (int moves = 1; moves <= player.getLastCardPlayed().movements_value && !ended_by_action_turn; moves++) {
+                            //mother nature is moved on its own on a copy, to find a move ending the game
+                            final Game single_move = test.game.copy();
+                            try {
+                                single_move.moveMotherNature(player.clientID, moves);
+                            } catch (InvalidMoveException e) {
+                                fail("Single move failed: " + e.getMessage());
+                            }
+                            if (!single_move.isGameEnded())
+                                continue;
+
+                            final int final_moves = moves;
+                            assertEquals(MoveResult.VALID, test.game.validateActionTurn(player.clientID, List.of(), List.of(), moves, cloud_index),
+                                    "validateActionTurn has rejected a cloud after a game ending move");
+                            assertDoesNotThrow(() -> test.game.playActionTurn(player.clientID, List.of(), List.of(), final_moves, cloud_index),
+                                    "playActionTurn has thrown exception for the cloud after the game ended");
+                            assertTrue(test.game.isGameEnded(), "The game has not ended");
+                            assertEquals(single_move.getWinnerID(), test.game.getWinnerID(), "The game ended with a different winner");
+                            ended_by_action_turn = true;
+                        }
+                    }
+
+                    //play next move (based on the current game state)
+                    switch (test.game.getPhase()) {
+                        case 0 -> test.autoplayUpTo(1, 0);
+                        case 1 -> {
+                            switch (test.game.getStep()) {
+                                case 0 -> test.autoplayUpTo(1, 1);
+                                case 1 -> test.autoplayUpTo(1, test.game.isLastGameTurn() ? 0 : 2);
+                                case 2 -> test.autoplayUpTo(test.game.currentPlayersTurnOrder().get(1) == test.game.currentlyPlayingPlayer() ? 0 : 1, 0);
+                            }
+                        }
+                    }
+                }
+            }
+            assertTrue(ended_by_action_turn, "Mother nature has not ended any of the games");
+        }
+
     }
 
     /**
@@ -2073,6 +2215,12 @@ public class GameActionsTest extends GameTests {
      * <li>The proper game serialization and reversion throughout all game states with the {@link TransversalTests#serializationAndReversion};</li>
      * <li>Everything is prepared for the next turn with the {@link TransversalTests#nextTurn};</li>
      * <li>The internal action of skipping a turn when a player disconnects with the {@link TransversalTests#skipTurn}.</li>
+     * <li>The validation of every move agrees with the move itself with the {@link TransversalTests#validateMoves}.</li>
+     * <li>The conversion to a packed state and back with the {@link TransversalTests#packedState}.</li>
+     * <li>The hash of the game position kept up to date move after move with the {@link TransversalTests#positionHash}.</li>
+     * <li>The indexed getters agree with the ones copying the game's lists with the {@link TransversalTests#indexedGetters}.</li>
+     * <li>The disputes of every island within reach of mother nature, one after the other, with the {@link TransversalTests#disputesAfterReversion}.</li>
+     * <li>No student is lost or duplicated while being drawn and moved around with the {@link TransversalTests#studentsConserved}.</li>
      * <p>
      *     See their documentations for details.
      * </p>
@@ -2136,55 +2284,81 @@ public class GameActionsTest extends GameTests {
                 byte[] internal_copy = test.game.getGameSerialization();
 
                 //serialization in phase 0
+                final int clientID_phase_0 = test.playingPlayer().clientID;
+                int card_index = 0;
                 try {
-                    test.randomlyPlayCard();
+                    card_index = test.randomlyPlayCard();
                 } catch (InvalidMoveException e) {
                     fail("Could not change game state to verify game serialization: " + e.getMessage());
                 }
                 assertNotEquals(internal_copy, test.game.getGameSerialization(), "Serialization not updated after something has changed");
-                Game original_game = test.game;
+                //the game is reverted in place, hence the state after the move is kept on a copy
+                Game original_game = test.game.copy();
                 Game reverted_game = Game.revertToPreviousState(test.game);
                 assertArrayEquals(internal_copy, reverted_game.getGameSerialization(), "Wrong reverted game serialization in phase 0");
                 test.game = reverted_game;
                 test.hasNothingChangedExcept();
-                //prepare for next state
-                test.game = original_game;
+                //prepare for next state, playing the move again on the reverted game, which keeps undoing the whole turn
+                final int final_card_index = card_index;
+                assertDoesNotThrow(() -> test.game.playCard(clientID_phase_0, final_card_index), "Could not play the reverted move again in phase 0");
+                assertArrayEquals(original_game.getGameSerialization(), test.game.getGameSerialization(), "Playing the reverted move again has led to a different state in phase 0");
                 test.autoplayUpTo(1, 0);
                 internal_copy = test.game.getGameSerialization();
                 test.updateOldGameCopy();
 
                 //serialization in phase 1 step 0
+                final int clientID_phase_1 = test.playingPlayer().clientID;
+                //students moved during the turn, each one to the island at the same position in destinations
+                final List<Integer> student_indexes = new ArrayList<>(), destinations = new ArrayList<>();
                 try {
-                    test.randomlyMoveStudentToIsland();
-                    test.randomlyMoveStudentToIsland();
+                    for (int i = 0; i < 2; i++) {
+                        student_indexes.add(random.nextInt(test.playingPlayer().getDashboard().getEntrance().size()));
+                        destinations.add(random.nextInt(test.game.getIslands().size()));
+                        test.game.setStudentToIsland(clientID_phase_1, student_indexes.get(i), destinations.get(i));
+                    }
                 } catch (InvalidMoveException e) {
                     fail("Could not change game state to verify game serialization: " + e.getMessage());
                 }
                 assertNotEquals(internal_copy, test.game.getGameSerialization(), "Serialization not updated after something has changed");
-                original_game = test.game;
+                original_game = test.game.copy();
                 reverted_game = Game.revertToPreviousState(test.game);
                 assertArrayEquals(internal_copy, reverted_game.getGameSerialization(), "Wrong reverted game serialization in phase 1 step 0");
                 test.game = reverted_game;
                 test.hasNothingChangedExcept();
                 //prepare for next state
-                test.game = original_game;
-                test.autoplayUpTo(1, 1);
+                assertDoesNotThrow(() -> setStudents(test.game, clientID_phase_1, student_indexes, destinations), "Could not play the reverted moves again in phase 1 step 0");
+                assertArrayEquals(original_game.getGameSerialization(), test.game.getGameSerialization(), "Playing the reverted moves again has led to a different state in phase 1 step 0");
+                try {
+                    while (test.game.getStep() == 0) {
+                        student_indexes.add(random.nextInt(test.playingPlayer().getDashboard().getEntrance().size()));
+                        destinations.add(random.nextInt(test.game.getIslands().size()));
+                        test.game.setStudentToIsland(clientID_phase_1, student_indexes.get(student_indexes.size() - 1), destinations.get(destinations.size() - 1));
+                    }
+                } catch (InvalidMoveException e) {
+                    fail("Could not move the remaining students: " + e.getMessage());
+                }
 
                 //serialization in phase 1 step 1
+                int mother_nature_moves = 0;
                 try {
-                    test.randomlyMoveMotherNature();
+                    mother_nature_moves = test.randomlyMoveMotherNature();
                 } catch (InvalidMoveException e) {
                     fail("Could not change game state to verify game serialization: " + e.getMessage());
                 }
                 if(test.game.isGameEnded() || test.game.isLastGameTurn()) return;
                 assertNotEquals(internal_copy, test.game.getGameSerialization(), "Serialization not updated after something has changed");
-                original_game = test.game;
+                original_game = test.game.copy();
                 reverted_game = Game.revertToPreviousState(test.game);
                 assertArrayEquals(internal_copy, reverted_game.getGameSerialization(), "Wrong reverted game serialization in phase 1 step 1");
                 test.game = reverted_game;
                 test.hasNothingChangedExcept();
-                //prepare for next state
-                test.game = original_game;
+                //prepare for next state, the students of the turn having been reverted as well
+                final int final_mother_nature_moves = mother_nature_moves;
+                assertDoesNotThrow(() -> {
+                    setStudents(test.game, clientID_phase_1, student_indexes, destinations);
+                    test.game.moveMotherNature(clientID_phase_1, final_mother_nature_moves);
+                }, "Could not play the reverted moves again in phase 1 step 1");
+                assertArrayEquals(original_game.getGameSerialization(), test.game.getGameSerialization(), "Playing the reverted moves again has led to a different state in phase 1 step 1");
                 test.autoplayUpTo(1, 2);
 
                 //serialization in phase 1 step 2
@@ -2198,13 +2372,19 @@ public class GameActionsTest extends GameTests {
 
                 //double reverting
                 reverted_game = Game.revertToPreviousState(test.game);
-                assertEquals(reverted_game, Game.revertToPreviousState(reverted_game), "revertToPreviousState has not returned same game while having a null serialized_game_copy");
+                assertEquals(reverted_game, Game.revertToPreviousState(reverted_game), "revertToPreviousState has not returned same game while having nothing to revert");
 
                 //prepare for next turn
                 test.autoplayUpTo(0, 0);
             }
         }
 
+        //sets the given students in order, each one to the island at the same position in destinations
+        private void setStudents(Game game, int clientID, List<Integer> student_indexes, List<Integer> destinations) throws InvalidMoveException {
+            for (int i = 0; i < student_indexes.size(); i++)
+                game.setStudentToIsland(clientID, student_indexes.get(i), destinations.get(i));
+        }
+
         /**
          * Checks that all the clouds have been refilled (when possible and needed) at the end of a turn and
          * that the turn counter has been increased after all players have played all phase 1's steps.
@@ -2278,5 +2458,361 @@ public class GameActionsTest extends GameTests {
                 }
             }
         }
+
+        /**
+         * Checks the validate methods of {@link Game}, such as {@link Game#validatePlayCard}, throughout all game states.
+         * <p>
+         *     Specifically it asserts, for moves with random arguments by random players:
+         *     <li>A move rejected by its validation throws an {@link InvalidMoveException} with the same message, leaving the game untouched;</li>
+         *     <li>A move accepted by its validation can be performed.</li>
+         * </p>
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * move up to that moment.
+         */
+        @DisplayName("Move validation")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void validateMoves(TestGame test) {
+            while (!test.game.isGameEnded()) {
+                for (int attempt = 0; attempt < 5; attempt++) {
+                    final int clientID = test.game.getPlayers().get(random.nextInt(test.designated_num_of_players)).clientID;
+                    final int index = random.nextInt(-1, 13), other_index = random.nextInt(-1, 13);
+                    assertValidationMatches(test, test.game.validatePlayCard(clientID, index), game -> game.playCard(clientID, index));
+                    assertValidationMatches(test, test.game.validateStudentToHall(clientID, index), game -> game.setStudentToHall(clientID, index));
+                    assertValidationMatches(test, test.game.validateStudentToIsland(clientID, index, other_index), game -> game.setStudentToIsland(clientID, index, other_index));
+                    assertValidationMatches(test, test.game.validateMotherNature(clientID, index), game -> game.moveMotherNature(clientID, index));
+                    assertValidationMatches(test, test.game.validateCloud(clientID, index), game -> game.chooseCloud(clientID, index));
+                    final int npc_index = random.nextInt(-1, 4);
+                    final EffectParameters effect_parameters = npc_index >= 0 && npc_index < 3 && test.designated_expert_mode ? test.prepareEffectParameters(npc_index) : null;
+                    assertValidationMatches(test, test.game.validateEffect(clientID, npc_index, effect_parameters), game -> game.activateEffect(clientID, npc_index, effect_parameters));
+                }
+
+                //go ahead by a single valid move
+                try {
+                    if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToHall();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Checks the conversion of a game to its {@link PackedGame} and back throughout all game states, npc effects included.
+         * <p>
+         *     Specifically it asserts:
+         *     <li>The game rebuilt from the packed state packs to the very same state;</li>
+         *     <li>Nothing differs between the game rebuilt from the packed state and the original one, for games whose hands are ordered by value as dealt;</li>
+         *     <li>A copy of the packed state is equal to it, but independent.</li>
+         * </p>
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * move up to that moment.
+         */
+        @DisplayName("Packed state")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void packedState(TestGame test) {
+            while (!test.game.isGameEnded()) {
+                final PackedGame packed = PackedGame.of(test.game);
+                final Game rebuilt = packed.toGame();
+                assertEquals(packed, PackedGame.of(rebuilt), "The rebuilt game has not been packed to the same state");
+                if (test.game.getPlayers().stream().allMatch(player -> player.getCards().stream().map(card -> card.order_value).sorted().toList()
+                        .equals(player.getCards().stream().map(card -> card.order_value).toList()))) {
+                    final Game original_game = test.game;
+                    test.updateOldGameCopy();
+                    test.game = rebuilt;
+                    test.hasNothingChangedExcept();
+                    test.game = original_game;
+                }
+                final PackedGame copy = packed.copy();
+                assertEquals(packed, copy, "The copy differs from the packed state");
+                assertNotSame(packed.getBytes(), copy.getBytes(), "The copy shares the packed state");
+
+                //go ahead by a single valid move, activating an effect from time to time
+                try {
+                    final int npc_index = random.nextInt(3);
+                    if (test.designated_expert_mode && random.nextInt(4) == 0) {
+                        final EffectParameters effect_parameters = test.prepareEffectParameters(npc_index);
+                        if (test.game.validateEffect(test.game.currentlyPlayingPlayer(), npc_index, effect_parameters).isValid())
+                            test.game.activateEffect(test.game.currentlyPlayingPlayer(), npc_index, effect_parameters);
+                    } else if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToIsland();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Checks the hash of the game position, provided by {@link Game#positionHash}, throughout all game states, npc effects included.
+         * <p>
+         *     Specifically it asserts:
+         *     <li>The hash kept up to date by the game is the same as the one of the game rebuilt from scratch from its packed state;</li>
+         *     <li>A copy of the game has the same hash;</li>
+         *     <li>The hash changes after a move and returns the same once the move is reverted, as long as the move does not end a player's turn.</li>
+         * </p>
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * move up to that moment.
+         */
+        @DisplayName("Position hash")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void positionHash(TestGame test) {
+            while (!test.game.isGameEnded()) {
+                final long hash = test.game.positionHash();
+                assertEquals(PackedGame.of(test.game).toGame().positionHash(), hash, "The hash differs from the one of the same position rebuilt from scratch");
+                final Game original_game = test.game;
+                test.game = original_game.copy();
+                assertEquals(hash, test.game.positionHash(), "The copy of the game has a different hash");
+
+                //perform a single valid move on the copy, activating an effect from time to time, then revert it
+                try {
+                    final int npc_index = random.nextInt(3);
+                    final EffectParameters effect_parameters = test.designated_expert_mode ? test.prepareEffectParameters(npc_index) : null;
+                    if (test.designated_expert_mode && random.nextInt(4) == 0 && test.game.validateEffect(test.game.currentlyPlayingPlayer(), npc_index, effect_parameters).isValid())
+                        test.game.activateEffect(test.game.currentlyPlayingPlayer(), npc_index, effect_parameters);
+                    else if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToIsland();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+                assertNotEquals(hash, test.game.positionHash(), "The hash has not changed after a move");
+                assertEquals(PackedGame.of(test.game).toGame().positionHash(), test.game.positionHash(), "The hash has not been kept up to date by the move");
+                //a move ending a player's turn can no longer be reverted
+                if (!test.game.isGameEnded() && test.game.getGameTurn() == original_game.getGameTurn() && test.game.getPhase() == original_game.getPhase()
+                        && test.game.getPlayerTurn() == original_game.getPlayerTurn()) {
+                    Game.revertToPreviousState(test.game);
+                    assertEquals(hash, test.game.positionHash(), "The hash has not been restored by reverting the move");
+                    for (int i = 0; i < test.game.islandCount(); i++)
+                        assertSame(test.game.getIsland((i + 1) % test.game.islandCount()), test.game.getIsland(i).getNext(), "The islands have not been linked back by reverting the move");
+                }
+                test.game = original_game;
+
+                //go ahead by a single valid move
+                try {
+                    if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToIsland();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Checks that the getters reading single elements of the game, such as {@link Game#getIsland}, agree with the getters
+         * copying the whole lists, such as {@link Game#getIslands}, throughout all game states.<br>
+         * The islands are also checked to be linked to their neighbours in the list, as they get merged, and every island id
+         * to lead to the island it got merged into.
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * move up to that moment.
+         */
+        @DisplayName("Indexed getters")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void indexedGetters(TestGame test) {
+            while (!test.game.isGameEnded()) {
+                final Game game = test.game;
+                assertEquals(game.getPlayers().size(), game.playerCount(), "Wrong number of players");
+                for (int i = 0; i < game.playerCount(); i++) {
+                    final Player player = game.getPlayers().get(i);
+                    assertSame(player, game.getPlayer(i), "Wrong player " + i);
+                    assertSame(player, game.getPlayerWithID(player.clientID), "Wrong player with the id of player " + i);
+                    assertEquals(game.currentPlayersTurnOrder().get(i), game.playerInTurnOrder(i), "Wrong player in turn order position " + i);
+                    assertEquals(game.currentPlayersTurnOrder().indexOf(player.clientID), game.turnOrderPosition(player.clientID), "Wrong turn order position of player " + i);
+                    assertEquals(player.getDashboard().getEntrance().size(), game.entranceSize(i), "Wrong entrance size of player " + i);
+                    for (int j = 0; j < game.entranceSize(i); j++)
+                        assertEquals(player.getDashboard().getEntrance().get(j), game.entranceStudent(i, j), "Wrong student " + j + " in the entrance of player " + i);
+                    assertEquals(player.getCards().size(), player.getCardsSize(), "Wrong number of cards of player " + i);
+                    for (int j = 0; j < player.getCardsSize(); j++)
+                        assertSame(player.getCards().get(j), player.getCard(j), "Wrong card " + j + " of player " + i);
+                }
+                assertNull(game.getPlayerWithID(-1), "Found a player with an id no player has");
+                assertEquals(-1, game.turnOrderPosition(-1), "Found a turn order position for an id no player has");
+                assertEquals(game.getIslands().size(), game.islandCount(), "Wrong number of islands");
+                for (int i = 0; i < game.islandCount(); i++) {
+                    assertSame(game.getIslands().get(i), game.getIsland(i), "Wrong island " + i);
+                    assertSame(game.getIsland((i + 1) % game.islandCount()), game.getIsland(i).getNext(), "Wrong island following island " + i);
+                    assertSame(game.getIsland((i + game.islandCount() - 1) % game.islandCount()), game.getIsland(i).getPrevious(), "Wrong island preceding island " + i);
+                    for (final Colors color : Colors.values())
+                        assertEquals(game.getIslands().get(i).getStudents(color), game.islandStudents(i, color), "Wrong number of " + color + " students on island " + i);
+                }
+                //the islands built one by one for the endings all have id 0, only the dealt ones can be told apart
+                if (game.getIslands().stream().map(Island::getId).distinct().count() == game.islandCount()) {
+                    final int[] held_ids = new int[game.islandCount()];
+                    for (int id = 0; id < 12; id++) {
+                        final int index = game.islandIndex(id);
+                        assertTrue(index >= 0, "No island holds the island with id " + id);
+                        held_ids[index]++;
+                    }
+                    for (int i = 0; i < game.islandCount(); i++) {
+                        assertEquals(i, game.islandIndex(game.islandID(i)), "Wrong index for the id of island " + i);
+                        assertEquals(game.getIsland(i).getNumOfMergedIslands(), held_ids[i], "Wrong number of ids held by island " + i);
+                    }
+                }
+                assertEquals(-1, game.islandIndex(12), "Found an island for an id no island has");
+                assertEquals(-1, game.islandID(game.islandCount()), "Found an id for an index no island has");
+                assertEquals(game.getPlayers().size(), game.cloudCount(), "Wrong number of clouds");
+                for (int i = 0; i < game.cloudCount(); i++) {
+                    assertEquals(game.getClouds()[i].size(), game.cloudSize(i), "Wrong number of students on cloud " + i);
+                    for (int j = 0; j < game.cloudSize(i); j++)
+                        assertEquals(game.getClouds()[i].get(j), game.cloudStudent(i, j), "Wrong student " + j + " on cloud " + i);
+                }
+                assertEquals(game.getUnclaimedProfessors().size(), game.unclaimedProfessorsCount(), "Wrong number of unclaimed professors");
+                for (int i = 0; i < game.unclaimedProfessorsCount(); i++)
+                    assertEquals(game.getUnclaimedProfessors().get(i), game.unclaimedProfessor(i), "Wrong unclaimed professor " + i);
+                assertEquals(game.getUnclaimedProfessors(), game.getUnclaimedProfessorsSet().toList(), "Wrong set of unclaimed professors");
+                ColorSet claimed_professors = ColorSet.EMPTY;
+                for (int i = 0; i < game.playerCount(); i++) {
+                    ColorSet owned = game.getPlayer(i).getDashboard().getProfessors();
+                    for (final Colors color : Colors.values())
+                        assertEquals(game.getPlayer(i).getDashboard().getProfessor(color), owned.contains(color), "Wrong " + color + " professor of player " + i);
+                    assertEquals(0, owned.getMask() & (claimed_professors.getMask() | game.getUnclaimedProfessorsSet().getMask()), "Professors owned twice by player " + i);
+                    claimed_professors = ColorSet.of(claimed_professors.getMask() | owned.getMask());
+                }
+                assertSame(ColorSet.ALL, ColorSet.of(claimed_professors.getMask() | game.getUnclaimedProfessorsSet().getMask()), "Professors owned by nobody");
+                assertEquals(game.expert_mode ? game.getNpcs().length : 0, game.npcCount(), "Wrong number of npcs");
+                for (int i = 0; i < game.npcCount(); i++)
+                    assertSame(game.getNpcs()[i], game.getNpc(i), "Wrong npc " + i);
+
+                //go ahead by a single valid move
+                try {
+                    if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToIsland();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Checks that the students drawn from the pouch and moved around the game are neither lost nor duplicated, that is that the students
+         * in the pouch, the entrances, the halls, the clouds, the islands and on the npcs always add up to the ones the game started with.
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * move up to that moment.
+         */
+        @DisplayName("Students conserved")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void studentsConserved(TestGame test) {
+            final int initial_students = countStudents(test.game);
+            while (!test.game.isGameEnded()) {
+                try {
+                    if (test.game.getPhase() == 0)
+                        test.randomlyPlayCard();
+                    else if (test.game.getStep() == 0)
+                        test.randomlyMoveStudentToIsland();
+                    else if (test.game.getStep() == 1)
+                        test.randomlyMoveMotherNature();
+                    else
+                        test.randomlyChooseCloud();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+                assertEquals(initial_students, countStudents(test.game), "Students have been lost or duplicated");
+            }
+        }
+
+        //counts the students in every part of the game, the pouch included
+        private int countStudents(Game game) {
+            int students = game.getRemainingStudentsNum();
+            for (int i = 0; i < game.playerCount(); i++) {
+                students += game.entranceSize(i) + game.cloudSize(i);
+                for (final Colors color : Colors.values())
+                    students += game.getPlayer(i).getDashboard().getHallRow(color);
+            }
+            for (int i = 0; i < game.islandCount(); i++)
+                for (final Colors color : Colors.values())
+                    students += game.islandStudents(i, color);
+            for (int i = 0; i < game.npcCount(); i++)
+                if (game.getNpc(i).getId() == 1 || game.getNpc(i).getId() == 7 || game.getNpc(i).getId() == 11)
+                    students += game.getNpc(i).getExtraProperty().size();
+            return students;
+        }
+
+        /**
+         * Checks the disputes of the islands whenever mother nature is to be moved, throughout all game states, moving it by every allowed
+         * number of islands in turn on a copy of the game and reverting the copy after each move.<br>
+         * Since the influence on the islands is kept up to date as the game changes, this asserts that reverting a move restores it as well,
+         * with the owner of each disputed island being the one computed from scratch by {@link TestGame#disputeIsland}.
+         * @implNote This test plays the game until it ends and checks all its related assertions for every
+         * turn up to that moment.
+         */
+        @DisplayName("Disputes after reversion")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource(arguments_supplier)
+        void disputesAfterReversion(TestGame test) {
+            while (!test.game.isGameEnded()) {
+                test.autoplayUpTo(1, 1);
+                if (test.game.isGameEnded() || test.game.getPhase() != 1 || test.game.getStep() != 1)
+                    continue;
+
+                final Game copy = test.game.copy();
+                final Player playing_player = TestGame.playingPlayer(copy);
+                for (int moves = 1; moves <= playing_player.getLastCardPlayed().movements_value; moves++) {
+                    final int mother_nature_new_position = (copy.getMotherNature() + moves) % copy.islandCount();
+                    final Map<String, Object> result = TestGame.disputeIsland(copy, mother_nature_new_position);
+                    final int player_turn = copy.getPlayerTurn();
+                    final int final_moves = moves;
+                    assertDoesNotThrow(() -> copy.moveMotherNature(playing_player.clientID, final_moves), "Could not move mother nature by " + moves);
+                    if ((int) result.get("result") != 3 && (int) result.get("result") != -1)
+                        assertEquals(result.get("owner_index"), copy.getIsland(copy.getMotherNature()).getOwnerIndex(),
+                                "Wrong owner of the island mother nature has been moved on by " + moves);
+                    //a move ending a player's turn can no longer be reverted
+                    if (copy.isGameEnded() || copy.getPlayerTurn() != player_turn)
+                        break;
+                    Game.revertToPreviousState(copy);
+                }
+
+                //go ahead with the original game
+                try {
+                    test.randomlyMoveMotherNature();
+                } catch (InvalidMoveException e) {
+                    fail("Valid move failed: " + e.getMessage());
+                }
+            }
+        }
+
+        //performs the move on the game if the validation rejected it, otherwise on a copy of the game
+        private void assertValidationMatches(TestGame test, MoveResult result, GameMoves move) {
+            if (result.isValid()) {
+                final Game copy = test.game.copy();
+                assertDoesNotThrow(() -> move.exec(copy), "A move accepted by its validation could not be performed");
+            } else {
+                final byte[] before = test.game.getGameSerialization();
+                final Exception e = assertThrows(InvalidMoveException.class, () -> move.exec(test.game), "A move rejected by its validation has not thrown exception");
+                assertEquals(result.message, e.getMessage(), "The exception has been thrown, but for a different reason than the validation's");
+                assertArrayEquals(before, test.game.getGameSerialization(), "A move rejected by its validation has altered the game");
+            }
+        }
     }
 }
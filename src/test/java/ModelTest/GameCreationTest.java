@@ -1,5 +1,6 @@
 package ModelTest;
 
+import Exceptions.InvalidMoveException;
 import Model.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -15,7 +16,8 @@ import static org.junit.jupiter.api.Assertions.*;
  *     Specifically, it runs tests to assert:
  *     <li>The initial Game state, with the {@link GameStateTest GameStateTest} test class;</li>
  *     <li>The initial state for all players, with the {@link GameCreationTest#initializedPlayer} test;</li>
- *     <li>The dashboard for all players, with the {@link GameCreationTest#preparedDashboard} test.</li>
+ *     <li>The dashboard for all players, with the {@link GameCreationTest#preparedDashboard} test;</li>
+ *     <li>The same game being dealt and played again from its seed, with the {@link GameCreationTest#seededReplay} test.</li>
  * </p>
  * <p>
  *     See their documentation for the detailed list of what is checked.
@@ -425,4 +427,54 @@ public class GameCreationTest extends GameTests {
             assertEquals(rooks_exp, dashboard.getRooks(),"Wrong number of rooks for player #" + player.player_index);
         }
     }
+
+    /**
+     * Checks that a game is dealt again exactly from its seed, and that two games dealt from the same seed stay the same while the same moves,
+     * chosen at random among the valid ones, are played on both until the game ends.
+     */
+    @DisplayName("Replay from the seed")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource(arguments_supplier)
+    void seededReplay(final TestGame game_test) throws InvalidMoveException {
+        final long seed = game_test.game.getSeed();
+        final Game game = new Game(game_test.designated_expert_mode, game_test.clientIDs, seed);
+        final Game replay = new Game(game_test.designated_expert_mode, game_test.clientIDs, seed);
+        assertArrayEquals(game_test.game.getGameSerialization(), game.getGameSerialization(), "The game has been dealt differently from the same seed");
+
+        final Random moves = new Random(seed);
+        while (!game.isGameEnded()) {
+            final int clientID = game.currentlyPlayingPlayer();
+            if (game.getPhase() == 0) {
+                int card;
+                do card = moves.nextInt(game.getPlayerWithID(clientID).getCardsSize());
+                while (!game.validatePlayCard(clientID, card).isValid());
+                game.playCard(clientID, card);
+                replay.playCard(clientID, card);
+            } else if (game.getStep() == 0) {
+                final int student = moves.nextInt(game.entranceSize(game.getPlayerWithID(clientID).player_index));
+                if (moves.nextBoolean() && game.validateStudentToHall(clientID, student).isValid()) {
+                    game.setStudentToHall(clientID, student);
+                    replay.setStudentToHall(clientID, student);
+                } else {
+                    final int island = moves.nextInt(game.islandCount());
+                    game.setStudentToIsland(clientID, student, island);
+                    replay.setStudentToIsland(clientID, student, island);
+                }
+            } else if (game.getStep() == 1) {
+                int mother_nature_moves;
+                do mother_nature_moves = 1 + moves.nextInt(7);
+                while (!game.validateMotherNature(clientID, mother_nature_moves).isValid());
+                game.moveMotherNature(clientID, mother_nature_moves);
+                replay.moveMotherNature(clientID, mother_nature_moves);
+            } else {
+                int cloud;
+                do cloud = moves.nextInt(game.cloudCount());
+                while (!game.validateCloud(clientID, cloud).isValid());
+                game.chooseCloud(clientID, cloud);
+                replay.chooseCloud(clientID, cloud);
+            }
+            assertEquals(game.positionHash(), replay.positionHash(), "The games dealt from the same seed have diverged");
+        }
+        assertArrayEquals(game.getGameSerialization(), replay.getGameSerialization(), "The games dealt from the same seed have ended differently");
+    }
 }
@@ -0,0 +1,59 @@
+package ModelTest;
+
+import Exceptions.InvalidMoveException;
+import Model.Game;
+
+/**
+ * Benchmark printing, for games of 2 and 3 players played randomly until they end, the average time taken by a move of mother nature,
+ * which disputes the island it lands on and merges it with its neighbours when they share its new owner.<br>
+ * Half of the students are moved to the islands, so that later turns are mostly disputes of large, often merged, islands.
+ * Only the moves from the given turn on are timed, the number of merges they caused is printed as well.<br>
+ * Usage: <code>IslandMergeBenchmark [games] [first_timed_turn]</code>
+ */
+public class IslandMergeBenchmark {
+    public static void main(String[] argv) throws InvalidMoveException {
+        int games = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+        int first_timed_turn = argv.length > 1 ? Integer.parseInt(argv[1]) : 4;
+
+        System.out.printf("%-8s %8s %10s %10s | %10s%n", "players", "games", "moves", "merges", "move_ns");
+
+        for (int players = 2; players <= 3; players++) {
+            //warm up
+            for (int i = 0; i < games / 4; i++)
+                play(new GameTests.TestGame(false, players).game, first_timed_turn, new long[3]);
+
+            long[] totals = new long[3]; //timed moves, merges, nanoseconds
+            for (int i = 0; i < games; i++)
+                play(new GameTests.TestGame(false, players).game, first_timed_turn, totals);
+
+            System.out.printf("%-8d %8d %10d %10d | %10d%n", players, games, totals[0], totals[1], totals[2] / totals[0]);
+        }
+    }
+
+    //plays the game until it ends, adding to the totals the moves of mother nature from the given turn on, the merges they caused and their time
+    private static void play(Game game, int first_timed_turn, long[] totals) throws InvalidMoveException {
+        while (!game.isGameEnded()) {
+            if (game.getPhase() == 0)
+                GameTests.TestGame.randomlyPlayCard(game);
+            else if (game.getStep() == 0) {
+                if (GameTests.random.nextBoolean())
+                    GameTests.TestGame.randomlyMoveStudentToHall(game);
+                else
+                    GameTests.TestGame.randomlyMoveStudentToIsland(game);
+            } else if (game.getStep() == 1) {
+                int islands = game.islandCount();
+                int moves = GameTests.random.nextInt(1, GameTests.TestGame.playingPlayer(game).getLastCardPlayed().movements_value + 1);
+                int clientID = game.currentlyPlayingPlayer();
+                long start = System.nanoTime();
+                game.moveMotherNature(clientID, moves);
+                long elapsed = System.nanoTime() - start;
+                if (game.getGameTurn() >= first_timed_turn) {
+                    totals[0]++;
+                    totals[1] += islands - game.islandCount();
+                    totals[2] += elapsed;
+                }
+            } else
+                GameTests.TestGame.randomlyChooseCloud(game);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ModelTest;
+
+import Model.Game;
+import Model.PackedGame;
+
+/**
+ * Benchmark printing, for expert games of 2 and 3 players in the middle of a turn, the size of the game and the average time taken to:
+ * <ul>
+ *     <li> copy a {@link PackedGame}, allocating the copy or overwriting an existing one
+ *     <li> pack the game and rebuild it from its packed state
+ *     <li> copy the game via its Java serialization, with {@link Game#copy}
+ * </ul>
+ * Usage: <code>PackedGameBenchmark [iterations]</code>
+ */
+public class PackedGameBenchmark {
+    public static void main(String[] argv) {
+        int iterations = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+
+        System.out.printf("%-8s %8s %8s | %8s %8s %8s %8s | %8s%n", "players", "packed_B", "serial_B",
+                "copy_ns", "into_ns", "pack_ns", "unpack_ns", "serial_ns");
+
+        for (int players = 2; players <= 3; players++) {
+            GameTests.TestGame test = new GameTests.TestGame(true, players);
+            test.autoplayUpTo(1, 1);
+            Game game = test.game;
+            PackedGame packed = PackedGame.of(game);
+            PackedGame target = packed.copy();
+
+            //warm up
+            for (int i = 0; i < iterations; i++) {
+                packed.copy();
+                packed.copyInto(target);
+                PackedGame.of(game).toGame();
+                game.copy();
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations * 10; i++)
+                target = packed.copy();
+            long copy_ns = (System.nanoTime() - start) / (iterations * 10L);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations * 10; i++)
+                packed.copyInto(target);
+            long into_ns = (System.nanoTime() - start) / (iterations * 10L);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                target = PackedGame.of(game);
+            long pack_ns = (System.nanoTime() - start) / iterations;
+
+            Game rebuilt = null;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                rebuilt = packed.toGame();
+            long unpack_ns = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                rebuilt = game.copy();
+            long serial_ns = (System.nanoTime() - start) / iterations;
+
+            System.out.printf("%-8d %8d %8d | %8d %8d %8d %8d | %8d%n", players, PackedGame.SIZE, rebuilt.getGameSerialization().length,
+                    copy_ns, into_ns, pack_ns, unpack_ns, serial_ns);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ModelTest;
+
+import Model.Game;
+
+/**
+ * Benchmark printing, for expert games of 2 and 3 players in the middle of a turn, the average time taken to tell apart two positions:
+ * <ul>
+ *     <li> by their hashes, with {@link Game#positionHash}
+ *     <li> by their serializations, with {@link Game#getGameSerialization}
+ * </ul>
+ * Usage: <code>PositionHashBenchmark [iterations]</code>
+ */
+public class PositionHashBenchmark {
+    public static void main(String[] argv) {
+        int iterations = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+
+        System.out.printf("%-8s | %8s %8s%n", "players", "hash_ns", "serial_ns");
+
+        for (int players = 2; players <= 3; players++) {
+            GameTests.TestGame test = new GameTests.TestGame(true, players);
+            test.autoplayUpTo(1, 1);
+            Game game = test.game;
+            long sink = 0;
+
+            //warm up
+            for (int i = 0; i < iterations; i++) {
+                sink += game.positionHash();
+                sink += game.getGameSerialization().length;
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations * 10; i++)
+                sink += game.positionHash();
+            long hash_ns = (System.nanoTime() - start) / (iterations * 10L);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                sink += game.getGameSerialization().length;
+            long serial_ns = (System.nanoTime() - start) / iterations;
+
+            System.out.printf("%-8d | %8d %8d%s%n", players, hash_ns, serial_ns, sink == 0 ? " " : "");
+        }
+    }
+}
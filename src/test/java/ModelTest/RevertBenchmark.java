@@ -0,0 +1,66 @@
+package ModelTest;
+
+import Model.Game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+
+/**
+ * Benchmark printing, for games of 2 and 3 players, the average time taken to perform some student moves and revert them with:
+ * <ul>
+ *     <li> the undo journal used by {@link Game#revertToPreviousState}, rolling the game back in place
+ *     <li> a full serialization of the game taken at the checkpoint, deserialized into a new game when reverting, as done before the journal
+ * </ul>
+ * along with the size of the serialization the second approach had to take at every checkpoint.<br>
+ * Usage: <code>RevertBenchmark [iterations]</code>
+ */
+public class RevertBenchmark {
+    public static void main(String[] argv) throws Exception {
+        int iterations = argv.length > 0 ? Integer.parseInt(argv[0]) : 20000;
+
+        System.out.printf("%-8s %8s %8s | %10s %10s%n", "players", "moves", "copy_B", "journal_ns", "copy_ns");
+
+        for (int players = 2; players <= 3; players++) {
+            GameTests.TestGame test = new GameTests.TestGame(true, players);
+            test.autoplayUpTo(1, 0);
+            Game game = test.game;
+            int moves = 2;
+
+            //warm up
+            for (int i = 0; i < iterations; i++) {
+                moveStudents(game, moves);
+                Game.revertToPreviousState(game);
+                game = copyRevert(game, moves);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                moveStudents(game, moves);
+                Game.revertToPreviousState(game);
+            }
+            long journal_ns = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                game = copyRevert(game, moves);
+            long copy_ns = (System.nanoTime() - start) / iterations;
+
+            System.out.printf("%-8d %8d %8d | %10d %10d%n", players, moves, game.getGameSerialization().length, journal_ns, copy_ns);
+        }
+    }
+
+    //moves the first students of the entrance on the first island
+    private static void moveStudents(Game game, int moves) throws Exception {
+        for (int i = 0; i < moves; i++)
+            game.setStudentToIsland(game.currentlyPlayingPlayer(), 0, 0);
+    }
+
+    //the former revert: the game is serialized at the checkpoint, then the copy is deserialized to undo the moves
+    private static Game copyRevert(Game game, int moves) throws Exception {
+        byte[] checkpoint = game.getGameSerialization();
+        moveStudents(game, moves);
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(checkpoint))) {
+            return (Game) input.readObject();
+        }
+    }
+}